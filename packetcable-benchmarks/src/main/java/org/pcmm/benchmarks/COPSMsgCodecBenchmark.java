@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pcmm.gates.IClassifier;
+import org.pcmm.gates.IExtendedClassifier.ActivationState;
+import org.pcmm.gates.IExtendedClassifier.Action;
+import org.pcmm.gates.IGateSpec.Direction;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+import org.pcmm.gates.impl.AMID;
+import org.pcmm.gates.impl.DOCSISFlowSpecTrafficProfile;
+import org.pcmm.gates.impl.ExtendedClassifier;
+import org.pcmm.gates.impl.GateID;
+import org.pcmm.gates.impl.GateSpec;
+import org.pcmm.gates.impl.PCMMGateReq;
+import org.pcmm.gates.impl.SessionClassID;
+import org.pcmm.gates.impl.SubscriberID;
+import org.pcmm.gates.impl.TransactionID;
+import org.pcmm.objects.MMVersionInfo;
+import org.pcmm.rcd.IPCMMClient;
+import org.umu.cops.stack.COPSAcctTimer;
+import org.umu.cops.stack.COPSClientAcceptMsg;
+import org.umu.cops.stack.COPSClientCloseMsg;
+import org.umu.cops.stack.COPSClientOpenMsg;
+import org.umu.cops.stack.COPSClientSI;
+import org.umu.cops.stack.COPSClientSI.CSIType;
+import org.umu.cops.stack.COPSContext;
+import org.umu.cops.stack.COPSContext.RType;
+import org.umu.cops.stack.COPSData;
+import org.umu.cops.stack.COPSDecision;
+import org.umu.cops.stack.COPSDecision.Command;
+import org.umu.cops.stack.COPSDecision.DecisionFlag;
+import org.umu.cops.stack.COPSDecisionMsg;
+import org.umu.cops.stack.COPSDeleteMsg;
+import org.umu.cops.stack.COPSError;
+import org.umu.cops.stack.COPSError.ErrorTypes;
+import org.umu.cops.stack.COPSHandle;
+import org.umu.cops.stack.COPSHeader.Flag;
+import org.umu.cops.stack.COPSHeader.OPCode;
+import org.umu.cops.stack.COPSKAMsg;
+import org.umu.cops.stack.COPSKATimer;
+import org.umu.cops.stack.COPSMsg;
+import org.umu.cops.stack.COPSMsgParser;
+import org.umu.cops.stack.COPSObjHeader.CNum;
+import org.umu.cops.stack.COPSObjHeader.CType;
+import org.umu.cops.stack.COPSPepId;
+import org.umu.cops.stack.COPSReason;
+import org.umu.cops.stack.COPSReason.ReasonCode;
+import org.umu.cops.stack.COPSReportMsg;
+import org.umu.cops.stack.COPSReportType;
+import org.umu.cops.stack.COPSReportType.ReportType;
+import org.umu.cops.stack.COPSReqMsg;
+import org.umu.cops.stack.COPSSyncStateMsg;
+
+/**
+ * Measures the parsing and the serialisation of every COPS message type, as exchanged between the policy server and
+ * a CMTS: the decisions and reports carry a Gate-Set and its Gate-Set-Ack, the Client-Open the PCMM version info.
+ * The socket variants go through an in-memory socket so they measure the codec and its buffers, not the network.
+ * <p>
+ * Run with the gc profiler to see the allocation rate next to the throughput:
+ * <pre>
+ *     java -jar target/benchmarks.jar COPSMsgCodecBenchmark -prof gc
+ * </pre>
+ * or with {@link #main(String[])}, which adds the profiler.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class COPSMsgCodecBenchmark {
+
+    /**
+     * The message type
+     */
+    @Param({"REQ", "DEC", "RPT", "DRQ", "OPN", "CAT", "CC", "KA", "SSQ", "SSC"})
+    public OPCode opCode;
+
+    private COPSMsg msg;
+    private byte[] data;
+    private ByteBuffer buffer;
+    private ByteArrayInputStream input;
+    private CountingOutputStream output;
+    private Socket socket;
+
+    @Setup
+    public void setup() throws Exception {
+        final COPSMsg built = buildMessage();
+        final ByteBuffer encoded = ByteBuffer.allocate(built.getMsgLength());
+        built.writeData(encoded);
+        data = encoded.array();
+        if (opCode == OPCode.SSC) {
+            // Synchronize State Complete shares the format of the request but is only built by parsing
+            data[1] = (byte) OPCode.SSC.ordinal();
+            msg = COPSMsgParser.parseMessage(data.clone(), 0);
+        } else {
+            msg = built;
+        }
+        buffer = ByteBuffer.allocate(data.length);
+        input = new ByteArrayInputStream(data);
+        output = new CountingOutputStream();
+        socket = new InMemorySocket(input, output);
+    }
+
+    private COPSMsg buildMessage() throws Exception {
+        final COPSHandle handle = new COPSHandle(new COPSData("CMTS-1:0x7f3a"));
+        switch (opCode) {
+            case REQ:
+                return new COPSReqMsg(1, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE, handle,
+                        new COPSContext(RType.CONFIG, (short) 0), null, null, null, null, null);
+            case DEC:
+                final byte[] gateSet = buildGate(GateCommandType.GATE_SET, null);
+                final Set<COPSDecision> decisionSet = new HashSet<>();
+                decisionSet.add(new COPSDecision(CType.DEF, Command.INSTALL, DecisionFlag.REQERROR));
+                final Map<COPSContext, Set<COPSDecision>> decisionMap = new HashMap<>();
+                decisionMap.put(new COPSContext(RType.CONFIG, (short) 0), decisionSet);
+                return new COPSDecisionMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE, handle, decisionMap, null,
+                        new COPSClientSI(CNum.DEC, CType.CSI, new COPSData(gateSet, 0, gateSet.length)));
+            case RPT:
+                final byte[] gateSetAck = buildGate(GateCommandType.GATE_SET_ACK, new GateID(0x12345678));
+                return new COPSReportMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE, handle,
+                        new COPSReportType(ReportType.SUCCESS),
+                        new COPSClientSI(CSIType.NAMED, new COPSData(gateSetAck, 0, gateSetAck.length)), null);
+            case DRQ:
+                return new COPSDeleteMsg(1, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE, handle,
+                        new COPSReason(ReasonCode.MANAGEMENT, ReasonCode.NA), null);
+            case OPN:
+                final byte[] versionInfo = new MMVersionInfo(MMVersionInfo.DEFAULT_MAJOR_VERSION_INFO,
+                        MMVersionInfo.DEFAULT_MINOR_VERSION_INFO).getAsBinaryArray();
+                return new COPSClientOpenMsg(1, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE,
+                        new COPSPepId(new COPSData("cmts-1.example.net")),
+                        new COPSClientSI(CSIType.SIGNALED, new COPSData(versionInfo, 0, versionInfo.length)), null,
+                        null);
+            case CAT:
+                return new COPSClientAcceptMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE,
+                        new COPSKATimer((short) 30), new COPSAcctTimer((short) 60), null);
+            case CC:
+                return new COPSClientCloseMsg(1, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE,
+                        new COPSError(ErrorTypes.SHUTTING_DOWN, ErrorTypes.NA), null, null);
+            case KA:
+                return new COPSKAMsg(1, Flag.UNSOLICITED, null);
+            case SSQ:
+            case SSC:
+                return new COPSSyncStateMsg(1, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE, handle, null);
+            default:
+                throw new IllegalArgumentException("Unsupported message type - " + opCode);
+        }
+    }
+
+    /**
+     * Builds the PCMM payload of a decision or report: an upstream best effort gate with one classifier
+     */
+    private static byte[] buildGate(final GateCommandType cmdType, final GateID gateID) throws Exception {
+        final IClassifier classifier = new ExtendedClassifier(IClassifier.Protocol.TCP, (byte) 0, (byte) 0xff,
+                (Inet4Address) InetAddress.getByName("10.0.0.1"), (Inet4Address) InetAddress.getByName("10.1.0.1"),
+                (short) 1024, (short) 80, (byte) 64, (Inet4Address) InetAddress.getByName("255.255.255.255"),
+                (Inet4Address) InetAddress.getByName("255.255.255.255"), (short) 2048, (short) 80, (short) 1,
+                ActivationState.ACTIVE, Action.ADD);
+        final PCMMGateReq gate = new PCMMGateReq(new AMID((short) 1, (short) 2),
+                new SubscriberID(InetAddress.getByName("10.1.0.1")), new TransactionID((short) 7, cmdType),
+                new GateSpec(Direction.UPSTREAM, (byte) 0, (byte) 0, new SessionClassID((byte) 0),
+                        (short) 300, (short) 0, (short) 0, (short) 0),
+                new DOCSISFlowSpecTrafficProfile(12500, 3000, 50000, 64, 1522, 25000, 0),
+                Collections.singletonList(classifier), gateID, null, null, null, null);
+        return gate.getData();
+    }
+
+    @Benchmark
+    public COPSMsg parseBytes() throws Exception {
+        return COPSMsgParser.parseMessage(data, 0);
+    }
+
+    @Benchmark
+    public COPSMsg parseSocket() throws Exception {
+        input.reset();
+        return COPSMsgParser.parseMessage(socket);
+    }
+
+    @Benchmark
+    public ByteBuffer writeBuffer() {
+        buffer.clear();
+        msg.writeData(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public long writeSocket() throws Exception {
+        msg.writeData(socket);
+        return output.count;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Options options = new OptionsBuilder()
+                .include(COPSMsgCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Counts the bytes written to it
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * Unconnected socket reading from and writing to in-memory streams, keeping the read timeout set by the parser
+     */
+    private static class InMemorySocket extends Socket {
+
+        private final InputStream in;
+        private final OutputStream out;
+        private int soTimeout;
+
+        InMemorySocket(final InputStream in, final OutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        @Override
+        public synchronized int getSoTimeout() {
+            return soTimeout;
+        }
+
+        @Override
+        public synchronized void setSoTimeout(final int timeout) {
+            soTimeout = timeout;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.benchmarks;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pcmm.gates.IClassifier;
+import org.pcmm.gates.IExtendedClassifier.ActivationState;
+import org.pcmm.gates.IExtendedClassifier.Action;
+import org.pcmm.gates.IGateSpec.Direction;
+import org.pcmm.gates.IGateState.GateStateReasonType;
+import org.pcmm.gates.IGateState.GateStateType;
+import org.pcmm.gates.IPCMMGate;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+import org.pcmm.gates.impl.AMID;
+import org.pcmm.gates.impl.DOCSISFlowSpecTrafficProfile;
+import org.pcmm.gates.impl.ExtendedClassifier;
+import org.pcmm.gates.impl.GateID;
+import org.pcmm.gates.impl.GateSpec;
+import org.pcmm.gates.impl.GateState;
+import org.pcmm.gates.impl.GateTimeInfo;
+import org.pcmm.gates.impl.GateUsageInfo;
+import org.pcmm.gates.impl.PCMMGateReq;
+import org.pcmm.gates.impl.SessionClassID;
+import org.pcmm.gates.impl.SubscriberID;
+import org.pcmm.gates.impl.TransactionID;
+
+/**
+ * Compares the eager and lazy decoding of the gate objects carried by the Gate-Set-Ack and Gate-Info-Ack reports of
+ * a CMTS, which echo back the traffic profile and classifiers of the gate. Each benchmark reads the same objects as
+ * PCMMPdpReqStateMan.processReport().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GateReqParseBenchmark {
+
+    /**
+     * Number of classifiers echoed back with the gate
+     */
+    @Param({"1", "4"})
+    public int classifierCount;
+
+    private byte[] gateSetAck;
+    private byte[] gateInfoAck;
+
+    @Setup
+    public void setup() throws Exception {
+        gateSetAck = buildReport(GateCommandType.GATE_SET_ACK, false);
+        gateInfoAck = buildReport(GateCommandType.GATE_INFO_ACK, true);
+    }
+
+    private byte[] buildReport(final GateCommandType cmdType, final boolean withInfo) throws Exception {
+        final List<IClassifier> classifiers = new ArrayList<>();
+        for (int i = 0; i < classifierCount; i++) {
+            classifiers.add(new ExtendedClassifier(IClassifier.Protocol.TCP, (byte) 0, (byte) 0xff,
+                    (Inet4Address) InetAddress.getByName("10.0.0." + (i + 1)),
+                    (Inet4Address) InetAddress.getByName("10.1.0." + (i + 1)), (short) 1024, (short) 80, (byte) 64,
+                    (Inet4Address) InetAddress.getByName("255.255.255.255"),
+                    (Inet4Address) InetAddress.getByName("255.255.255.255"), (short) 2048, (short) 80,
+                    (short) (i + 1), ActivationState.ACTIVE, Action.ADD));
+        }
+        final PCMMGateReq gate = new PCMMGateReq(new AMID((short) 1, (short) 2),
+                new SubscriberID(InetAddress.getByName("10.1.0.1")), new TransactionID((short) 7, cmdType),
+                new GateSpec(Direction.UPSTREAM, (byte) 0, (byte) 0, new SessionClassID((byte) 0),
+                        (short) 300, (short) 0, (short) 0, (short) 0),
+                new DOCSISFlowSpecTrafficProfile(12500, 3000, 50000, 64, 1522, 25000, 0), classifiers,
+                new GateID(0x12345678), null,
+                withInfo ? new GateState(GateStateType.COMMITTED, GateStateReasonType.ZERO) : null,
+                withInfo ? new GateTimeInfo(600) : null, withInfo ? new GateUsageInfo(1L << 33) : null);
+        return gate.getData();
+    }
+
+    private static void handleReport(final IPCMMGate gateMsg, final Blackhole bh) {
+        bh.consume(gateMsg.getTransactionID());
+        bh.consume(gateMsg.getError());
+        bh.consume(gateMsg.getGateID());
+        bh.consume(gateMsg.getGateState());
+        bh.consume(gateMsg.getGateTimeInfo());
+        bh.consume(gateMsg.getGateUsageInfo());
+    }
+
+    @Benchmark
+    public void gateSetAckEager(final Blackhole bh) {
+        handleReport(PCMMGateReq.parse(gateSetAck, 0, gateSetAck.length), bh);
+    }
+
+    @Benchmark
+    public void gateSetAckLazy(final Blackhole bh) {
+        handleReport(PCMMGateReq.parseLazy(gateSetAck, 0, gateSetAck.length), bh);
+    }
+
+    @Benchmark
+    public void gateInfoAckEager(final Blackhole bh) {
+        handleReport(PCMMGateReq.parse(gateInfoAck, 0, gateInfoAck.length), bh);
+    }
+
+    @Benchmark
+    public void gateInfoAckLazy(final Blackhole bh) {
+        handleReport(PCMMGateReq.parseLazy(gateInfoAck, 0, gateInfoAck.length), bh);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.benchmarks;
+
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.packetcable.provider.Subnet;
+import org.opendaylight.controller.packetcable.provider.SubnetTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the longest prefix match of a subscriber address against the subscriber subnets of the CCAPs done by a
+ * linear scan of the subnets, as PacketcableProvider.findCcapForSubscriberId() used to, and by a SubnetTrie.
+ * Every CCAP serves a /16 carved into /24 subnets, a few of which are split further into /28 subnets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriberCcapLookupBenchmark {
+
+    private static final int ADDRESS_COUNT = 1024;
+
+    /**
+     * Number of subscriber subnets
+     */
+    @Param({"100", "10000"})
+    public int subnetCount;
+
+    private final Map<Subnet, String> subnetMap = new ConcurrentHashMap<>();
+    private final SubnetTrie<String> subnetTrie = new SubnetTrie<>();
+
+    private final InetAddress[] addresses = new InetAddress[ADDRESS_COUNT];
+    private final byte[][] addressBytes = new byte[ADDRESS_COUNT][];
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        final Random random = new Random(1);
+        for (int i = 0; i < subnetCount; i++) {
+            final String ccapId = "ccap-" + (i / 256);
+            final byte[] prefix = {10, (byte) (i / 256), (byte) i, 0};
+            put(new Subnet(InetAddress.getByAddress(prefix), 24), ccapId);
+            if (i % 16 == 0) {
+                prefix[3] = (byte) (16 * random.nextInt(16));
+                put(new Subnet(InetAddress.getByAddress(prefix), 28), ccapId + "-split");
+            }
+        }
+        for (int i = 0; i < ADDRESS_COUNT; i++) {
+            final int subnet = random.nextInt(subnetCount);
+            addressBytes[i] = new byte[] {10, (byte) (subnet / 256), (byte) subnet, (byte) random.nextInt(256)};
+            addresses[i] = InetAddress.getByAddress(addressBytes[i]);
+        }
+    }
+
+    private void put(final Subnet subnet, final String ccapId) {
+        subnetMap.put(subnet, ccapId);
+        subnetTrie.put(subnet, ccapId);
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (ADDRESS_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String linearScan() {
+        final InetAddress address = addresses[nextIndex()];
+        String matched = null;
+        int longestPrefixLen = -1;
+        for (final Map.Entry<Subnet, String> entry : subnetMap.entrySet()) {
+            final Subnet subnet = entry.getKey();
+            if (subnet.isInNet(address) && subnet.getPrefixLen() > longestPrefixLen) {
+                matched = entry.getValue();
+                longestPrefixLen = subnet.getPrefixLen();
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public String trieLookup() {
+        return subnetTrie.lookup(addresses[nextIndex()]);
+    }
+
+    @Benchmark
+    public String trieLookupBytes() {
+        return subnetTrie.lookup(addressBytes[nextIndex()]);
+    }
+
+}
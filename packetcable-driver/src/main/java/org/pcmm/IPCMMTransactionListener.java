@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm;
+
+import org.pcmm.gates.IPCMMGate;
+
+/**
+ * Receives the completion of the gate transactions of a {@link PCMMTransactionTable}. Invoked on the event loop
+ * thread processing the report and must therefore not block for long.
+ */
+public interface IPCMMTransactionListener {
+
+    /**
+     * Called once a gate has been updated with the gate ID, state and error of its report
+     * @param gate - the gate as sent, now updated
+     */
+    void reportReceived(IPCMMGate gate);
+
+}
@@ -23,5 +23,17 @@ public interface PCMMConstants {
 	public static final String DEFAULT_MASK = "pcmm.default.mask";
 	// default timeout
 	public static final String DEFAULT_TIEMOUT = "pcmm.default.timeout";
+	// Number of event loop threads shared by all PDP connections
+	public static final String NIO_EVENT_LOOPS = "pcmm.nio.event.loops";
+	// Time after which a gate request without report is dropped (ms)
+	public static final String TRANSACTION_EXPIRY = "pcmm.transaction.expiry";
+	// Number of gate requests which may await their report on one connection
+	public static final String TRANSACTION_WINDOW = "pcmm.transaction.window";
+	// Largest COPS message accepted on a connection (bytes)
+	public static final String MAX_FRAME_SIZE = "pcmm.max.frame.size";
+	// Number of queued outbound bytes of a connection written without waiting for the linger time
+	public static final String NIO_FLUSH_THRESHOLD = "pcmm.nio.flush.threshold";
+	// Time an outbound message may wait to be written with the following ones (ms)
+	public static final String NIO_FLUSH_LINGER = "pcmm.nio.flush.linger";
 
 }
@@ -8,11 +8,6 @@
 
 package org.pcmm;
 
-import org.pcmm.gates.IPCMMGate;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * TODO - Remove all uses of this class which is evil as it contains environmental settings
  */
@@ -105,13 +100,6 @@ public class PCMMGlobalConfig {
     public static int getGateID2() {
         return GateID2;
     }
-
-    /**
-     * Global TransactionId to Gate Request map allows recovery of CCAP GateIds
-     * TODO - need to find a better means to store shared state.
-     */
-
-    public static Map<Short, IPCMMGate> transactionGateMap = new ConcurrentHashMap<>();
 }
 
 /*
@@ -8,16 +8,22 @@
 
 package org.pcmm;
 
+import org.pcmm.nio.PCMMChannelSocket;
+import org.pcmm.nio.PCMMEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umu.cops.prpdp.COPSPdpAgent;
 import org.umu.cops.prpdp.COPSPdpConnection;
 import org.umu.cops.stack.COPSHandle;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 
 /**
- * Core PDP agent for provisioning
+ * Core PDP agent for provisioning. Once the client-open handshake is complete, the connection is handed to an
+ * event loop instead of a dedicated thread.
  */
 public class PCMMPdpAgent extends COPSPdpAgent {
 
@@ -32,7 +38,12 @@ public class PCMMPdpAgent extends COPSPdpAgent {
     private final PCMMPdpDataProcess _thisProcess;
 
     /**
-     * Creates a PDP Agent
+     * The event loops receiving the messages, null to use the shared group
+     */
+    private final PCMMEventLoopGroup _eventLoopGroup;
+
+    /**
+     * Creates a PDP Agent using the event loops shared by all agents
      *
      * @param clientType - COPS Client-type
      * @param psHost - Host to connect to
@@ -41,21 +52,62 @@ public class PCMMPdpAgent extends COPSPdpAgent {
      */
     public PCMMPdpAgent(final String psHost, final int psPort, final short clientType,
                         final PCMMPdpDataProcess process) {
+        this(psHost, psPort, clientType, process, null);
+    }
+
+    /**
+     * Creates a PDP Agent
+     *
+     * @param clientType - COPS Client-type
+     * @param psHost - Host to connect to
+     * @param psPort - Port to connect to
+     * @param process - Object to perform policy data processing
+     * @param eventLoopGroup - the event loops receiving the messages, null to use the shared group
+     */
+    public PCMMPdpAgent(final String psHost, final int psPort, final short clientType,
+                        final PCMMPdpDataProcess process, final PCMMEventLoopGroup eventLoopGroup) {
         super(psHost, psPort, clientType, process);
         _thisProcess = process;
+        _eventLoopGroup = eventLoopGroup;
+    }
+
+    @Override
+    protected Socket openSocket(final InetSocketAddress address) throws IOException {
+        // The handshake is performed in blocking mode, the channel is switched to non-blocking on registration
+        final SocketChannel channel = SocketChannel.open();
+        channel.connect(address);
+        return channel.socket();
     }
 
     @Override
     protected COPSPdpConnection setputPdpConnection(final Socket conn, final COPSHandle handle) {
         logger.debug("PDPCOPSConnection");
-        final PCMMPdpConnection pdpConn = new PCMMPdpConnection(_pepId, conn, _thisProcess, _kaTimer, _acctTimer);
-        final PCMMPdpReqStateMan man = new PCMMPdpReqStateMan(_clientType, handle, _thisProcess, conn);
+        final PCMMChannelSocket sock = new PCMMChannelSocket(conn.getChannel());
+        _socket = sock;
+        final PCMMPdpConnection pdpConn = new PCMMPdpConnection(_pepId, sock, _thisProcess, _kaTimer, _acctTimer);
+        final PCMMPdpReqStateMan man = new PCMMPdpReqStateMan(_clientType, handle, _thisProcess, sock,
+                pdpConn.getTransactionTable());
         pdpConn.addStateMan(handle, man);
         // XXX - End handleRequestMsg
 
-        logger.info("Starting PDP connection thread to - " + _host);
         return pdpConn;
     }
 
-}
+    /**
+     * Returns the table allocating the transaction IDs of the current connection
+     * @return - the transaction table or null when not connected
+     */
+    public PCMMTransactionTable getTransactionTable() {
+        final COPSPdpConnection pdpConn = _pdpConn;
+        return pdpConn == null ? null : ((PCMMPdpConnection) pdpConn).getTransactionTable();
+    }
+
+    @Override
+    protected void startPdpConnection(final COPSPdpConnection pdpConn) throws IOException {
+        logger.info("Registering PDP connection to - " + _host);
+        // the keep-alive messages are only queued for the event loop, so they are sent from the timer thread
+        final PCMMEventLoopGroup group = _eventLoopGroup != null ? _eventLoopGroup : PCMMEventLoopGroup.getDefault();
+        group.register((PCMMChannelSocket) pdpConn.getSocket(), (PCMMPdpConnection) pdpConn);
+    }
 
+}
@@ -8,8 +8,11 @@
 
 package org.pcmm;
 
+import org.pcmm.nio.IPCMMChannelHandler;
 import org.umu.cops.prpdp.COPSPdpConnection;
 import org.umu.cops.prpdp.COPSPdpReqStateMan;
+import org.umu.cops.stack.COPSException;
+import org.umu.cops.stack.COPSMsg;
 import org.umu.cops.stack.COPSPepId;
 import org.umu.cops.stack.COPSReqMsg;
 
@@ -18,15 +21,21 @@ import java.net.Socket;
 
 /**
  * Class for managing an provisioning connection at the PDP side for receiving and brokering out COPS messages.
+ * Messages are pushed to it by the event loop owning the connection's channel.
  */
 @ThreadSafe
-public class PCMMPdpConnection extends COPSPdpConnection {
+public class PCMMPdpConnection extends COPSPdpConnection implements IPCMMChannelHandler {
 
     /**
      *  PDP policy data processor class
      */
     protected final PCMMPdpDataProcess _thisProcess;
 
+    /**
+     * The gates awaiting their report, shared by the state managers of the connection
+     */
+    protected final PCMMTransactionTable _transactions = new PCMMTransactionTable();
+
     /**
      * Creates a new PDP connection
      *
@@ -47,7 +56,31 @@ public class PCMMPdpConnection extends COPSPdpConnection {
      */
     protected COPSPdpReqStateMan createStateManager(final COPSReqMsg reqMsg) {
         return new PCMMPdpReqStateMan(reqMsg.getHeader().getClientType(), reqMsg.getClientHandle(), _thisProcess,
-                _sock);
+                _sock, _transactions);
+    }
+
+    /**
+     * Returns the table allocating the transaction IDs of the connection
+     * @return - the transaction table
+     */
+    public PCMMTransactionTable getTransactionTable() {
+        return _transactions;
+    }
+
+    @Override
+    public void messageReceived(final COPSMsg msg) throws COPSException {
+        processMessage(_sock, msg);
+    }
+
+    @Override
+    public void channelRegistered() {
+        startTimers();
+    }
+
+    @Override
+    public void channelClosed() {
+        connectionClosed();
+        _transactions.clear();
     }
 
 }
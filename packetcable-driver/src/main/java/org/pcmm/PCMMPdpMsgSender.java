@@ -46,18 +46,23 @@ import java.util.Set;
  */
 
 /**
- * COPS message transceiver class for provisioning connections at the PDP side.
+ * COPS message transceiver class for provisioning connections at the PDP side. Gate requests may be sent concurrently,
+ * each one gets its own transaction ID from the transaction table under which its report is matched.
  */
 public class PCMMPdpMsgSender extends COPSMsgSender {
 
     public final static Logger logger = LoggerFactory.getLogger(PCMMPdpMsgSender.class);
-	private static final int MAX_TRANSACTION_ID = 65_536;
-	
-    protected short _transactionID;
+
+    /**
+     * Allocates the transaction IDs and holds the gates awaiting their report
+     */
+    protected final PCMMTransactionTable _transactions;
+
+    protected volatile short _transactionID;
     protected final short _classifierID;
 
     // XXX - this does not need to be here
-    protected IGateID _gateID;
+    protected volatile IGateID _gateID;
 
     /**
      * Creates a PCMMPdpMsgSender
@@ -75,11 +80,89 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
 
     public PCMMPdpMsgSender(final short clientType, final short tID, final COPSHandle clientHandle,
                             final Socket sock) {
+        this(clientType, tID, clientHandle, sock, new PCMMTransactionTable());
+    }
+
+    /**
+     * Creates a PCMMPdpMsgSender sharing the transaction table of the connection so the reports can be matched
+     *
+     * @param clientType
+     *            COPS client-type
+     * @param clientHandle
+     *            Client handle
+     * @param sock
+     *            Socket to the PEP
+     * @param transactions
+     *            the transaction table of the connection
+     */
+    public PCMMPdpMsgSender(final short clientType, final COPSHandle clientHandle, final Socket sock,
+                            final PCMMTransactionTable transactions) {
+        this(clientType, (short)0, clientHandle, sock, transactions);
+    }
+
+    private PCMMPdpMsgSender(final short clientType, final short tID, final COPSHandle clientHandle,
+                             final Socket sock, final PCMMTransactionTable transactions) {
         super(clientType, clientHandle, sock);
-        _transactionID = tID == 0 ? generateNewTransactionID() : tID;
+        if (transactions == null) throw new IllegalArgumentException("Transaction table must not be null");
+        _transactions = transactions;
+        _transactionID = tID;
         _classifierID = 0;
     }
 
+    /**
+     * Returns the table holding the gates awaiting their report
+     * @return - the transaction table
+     */
+    public PCMMTransactionTable getTransactionTable() {
+        return _transactions;
+    }
+
+    /**
+     * Allocates a transaction ID for the gate and sets it on the gate with the given command type. The gate is kept
+     * for gateID recovery until its report is received, see PCMMPdpReqStateMan.processReport()
+     * @throws COPSPdpException when the transaction window of the connection is full
+     */
+    private ITransactionID newTransaction(final IPCMMGate gate, final GateCommandType cmdType)
+            throws COPSPdpException {
+        final short trIDnum;
+        try {
+            trIDnum = _transactions.allocate(gate);
+        } catch (IllegalStateException e) {
+            throw new COPSPdpException("No transaction available for the " + cmdType + " request", e);
+        }
+        final ITransactionID trID = new TransactionID(trIDnum, cmdType);
+        gate.setTransactionID(trID);
+        logger.info("Adding gate to cache - " + gate + " with key - " + (trIDnum & 0xffff));
+        return trID;
+    }
+
+    /**
+     * Writes the decision of a gate request, marking its transaction as sent so the latency to its report is measured.
+     * The transaction is cancelled when the decision cannot be written as no report will follow.
+     */
+    private void writeDecision(final COPSDecisionMsg decisionMsg, final ITransactionID trID) throws IOException {
+        final short trIDnum = trID.getTransactionIdentifier();
+        _transactions.sent(trIDnum, trID.getGateCommandType());
+        try {
+            decisionMsg.writeData(_sock);
+        } catch (IOException e) {
+            _transactions.cancel(trIDnum);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops awaiting the report of a gate request whose caller timed out, so its transaction no longer holds a slot of
+     * the window. A report received afterwards is ignored.
+     * @param gate - the gate of the request
+     */
+    public void timeOut(final IPCMMGate gate) {
+        final ITransactionID trID = gate.getTransactionID();
+        if (trID != null) {
+            _transactions.timeOut(trID.getTransactionIdentifier(), gate);
+        }
+    }
+
     /**
      * Gets the gate-id
      *
@@ -95,17 +178,9 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
      * @throws COPSPdpException
      */
     public void sendGateSet(final IPCMMGate gate) throws COPSPdpException {
-        // set transaction ID to gate set
-    	// generate a new TransactionID
-    	_transactionID = generateNewTransactionID();
-        final ITransactionID trID = new TransactionID(_transactionID, GateCommandType.GATE_SET);
-    	
-        gate.setTransactionID(trID);
-        // retain the transactitrIDnumonId to gate request mapping for gateID recovery after response
-        // see PCMMPdpReqStateMan.processReport()
-        final Short trIDnum = trID.getTransactionIdentifier();
-        logger.info("Adding gate to cache - " + gate + " with key - " + (int) (trIDnum & 0xffff));
-        PCMMGlobalConfig.transactionGateMap.put(trIDnum, gate);
+        // set a new transaction ID to gate set
+        final ITransactionID trID = newTransaction(gate, GateCommandType.GATE_SET);
+        _transactionID = trID.getTransactionIdentifier();
 
         // new pcmm specific clientsi
         final byte[] data = gate.getData();
@@ -122,9 +197,9 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
 
         // ** Send the GateSet Decision
         try {
-            decisionMsg.writeData(_sock);
+            writeDecision(decisionMsg, trID);
         } catch (IOException e) {
-            logger.error("Failed to send the decision", e);
+            throw new COPSPdpException("Failed to send the GateSet request", e);
         }
 
     }
@@ -139,7 +214,9 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
                 if (reportMsg.getClientSI() == null) {
                     return false;
                 }
-                final IPCMMGate responseGate = PCMMGateReq.parse(reportMsg.getClientSI().getData().getData());
+                final COPSData csiData = reportMsg.getClientSI().getData();
+                final IPCMMGate responseGate = PCMMGateReq.parseLazy(csiData.getBuffer(), csiData.getOffset(),
+                        csiData.length());
                 if (responseGate.getTransactionID() != null
                         && responseGate.getTransactionID().getGateCommandType().equals(GateCommandType.GATE_SET_ACK)) {
                     logger.info("the CMTS has sent a Gate-Set-Ack response");
@@ -164,15 +241,8 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
      * @throws COPSPdpException
      */
     public void sendGateDelete(final IPCMMGate gate) throws COPSPdpException {
-        // set transaction ID to gate set
-        // generate a new TransactionID
-    	short _transactionID = generateNewTransactionID();
-        final ITransactionID trID = new TransactionID(_transactionID, GateCommandType.GATE_DELETE);
-        
-    	gate.setTransactionID(trID);
-
-        Short trIDnum = trID.getTransactionIdentifier();
-        PCMMGlobalConfig.transactionGateMap.put(trIDnum, gate);
+        // set a new transaction ID to gate delete
+        final ITransactionID trID = newTransaction(gate, GateCommandType.GATE_DELETE);
 
         // gateDelete only requires AMID, subscriberID, and gateID
         // remove the gateSpec, traffic profile, and classifiers from original gate request
@@ -195,10 +265,10 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
         // ** Send the GateDelete Decision
         // **
         try {
-            decisionMsg.writeData(_sock);
+            writeDecision(decisionMsg, trID);
             // decisionMsg.writeData(socket_id);
         } catch (IOException e) {
-            logger.error("Failed to send the decision", e);
+            throw new COPSPdpException("Failed to send the GateDelete request", e);
         }
     }
 
@@ -238,19 +308,9 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
          * <Gate-Info> ::= <Common Header> [<Client Handle>] [<Integrity>]
          */
     	
-    	// added
-        // generate a new TransactionID
-    	short _transactionID = generateNewTransactionID();
-    	final ITransactionID trID = new TransactionID(_transactionID, GateCommandType.GATE_INFO);
-        
-        
-        gate.setTransactionID(trID);
-        // retain the transactionId to gate request mapping for gateID recovery after response
-        // see PCMMPdpReqStateMan.processReport()
-        final Short trIDnum = trID.getTransactionIdentifier();
-        logger.info("Adding gate to cache - " + gate + " with key - " + (int) (trIDnum & 0xffff));
-        PCMMGlobalConfig.transactionGateMap.put(trIDnum, gate);
-        
+        // set a new transaction ID to gate info
+        final ITransactionID trID = newTransaction(gate, GateCommandType.GATE_INFO);
+
         // gateDelete only requires AMID, subscriberID, and gateID
         // remove the gateSpec, traffic profile, and classifiers from original gate request
         gate.setGateSpec(null);
@@ -273,7 +333,7 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
         
         try {
             //msg.writeData(_sock);
-            decisionMsg.writeData(_sock);
+            writeDecision(decisionMsg, trID);
         } catch (IOException e) {
             throw new COPSPdpException("Failed to send the GateInfo request", e);
         }
@@ -304,7 +364,4 @@ public class PCMMPdpMsgSender extends COPSMsgSender {
     // XXX - Temp
     public void sendDeleteRequestState() throws COPSPdpException {
     }
-	private static short generateNewTransactionID() {
-	    return (short) (Math.random() * MAX_TRANSACTION_ID);
-	}
 }
@@ -26,7 +26,6 @@ import org.umu.cops.stack.*;
 import org.umu.cops.stack.COPSReportType.ReportType;
 
 import java.net.Socket;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,17 +44,32 @@ public class PCMMPdpReqStateMan extends COPSPdpReqStateMan {
     /** COPS message transceiver used to send COPS messages */
     protected final PCMMPdpMsgSender _sender;
 
+    /** The gates awaiting their report, by transaction ID */
+    protected final PCMMTransactionTable _transactions;
+
     /**
-     * Creates a request state manager
+     * Creates a request state manager with its own transaction table
      * @param clientType    Client-type
      * @param clientHandle  Client handle
      */
     // TODO - consider sending in the COPSHandle object instead
     public PCMMPdpReqStateMan(final short clientType, final COPSHandle clientHandle, final PCMMPdpDataProcess process,
                               final Socket socket) {
+        this(clientType, clientHandle, process, socket, new PCMMTransactionTable());
+    }
+
+    /**
+     * Creates a request state manager
+     * @param clientType    Client-type
+     * @param clientHandle  Client handle
+     * @param transactions  The transaction table of the connection
+     */
+    public PCMMPdpReqStateMan(final short clientType, final COPSHandle clientHandle, final PCMMPdpDataProcess process,
+                              final Socket socket, final PCMMTransactionTable transactions) {
         super(clientType, clientHandle, process, socket);
         this._thisProcess = process;
-        _sender = new PCMMPdpMsgSender(_clientType, _handle, _socket);
+        _transactions = transactions;
+        _sender = new PCMMPdpMsgSender(_clientType, _handle, _socket, _transactions);
         // Initial state
         _status = Status.ST_INIT;
     }
@@ -74,11 +88,11 @@ public class PCMMPdpReqStateMan extends COPSPdpReqStateMan {
         if (msg.getClientSI() != null) {
             final COPSClientSI clientSI = msg.getClientSI();
             // Named ClientSI
-            final byte[] data = Arrays.copyOfRange(clientSI.getData().getData(), 0, clientSI.getData().getData().length);
+            final COPSData data = clientSI.getData();
 
             // PCMMUtils.WriteBinaryDump("COPSReportClientSI", data);
             logger.info("PCMMGateReq Parse Gate Message");
-            final PCMMGateReq gateMsg = PCMMGateReq.parse(data);
+            final PCMMGateReq gateMsg = PCMMGateReq.parseLazy(data.getBuffer(), data.getOffset(), data.length());
 
             // TODO FIXME - Why is this Map being filled but never used???
             final Map<String, String> repSIs = new HashMap<>();
@@ -108,16 +122,20 @@ public class PCMMPdpReqStateMan extends COPSPdpReqStateMan {
             //** Here we must act in accordance with
             //** the report received
 
-            // retrieve and remove the transactionId to gate request map entry
+            // retrieve and remove the transactionId to gate request table entry
             // see PCMMPdpMsgSender.sendGateSet(IPCMMGate gate)
             final ITransactionID trID = gateMsg.getTransactionID();
-            final Short trIDnum = trID.getTransactionIdentifier();
+            final short trIDnum = trID.getTransactionIdentifier();
 
-            logger.info("Removing gate from cache with key - " + trIDnum);
-            final IPCMMGate gate = PCMMGlobalConfig.transactionGateMap.remove(trIDnum);
+            logger.info("Removing gate from cache with key - " + (trIDnum & 0xffff));
+            final IPCMMGate gate = _transactions.remove(trIDnum);
             if (gate != null) {
                 // capture the "error" message if any
                 gate.setError(gateMsg.getError());
+                if (gateMsg.getError() != null) {
+                    _transactions.getStatistics().errorReceived(trID.getGateCommandType(),
+                            gateMsg.getError().getErrorCode());
+                }
                 logger.info("Setting error on gate - " + gateMsg.getError());
             }else {
                 logger.error("processReport(): gateReq not found for transactionID {}", trIDnum);
@@ -194,6 +212,10 @@ public class PCMMPdpReqStateMan extends COPSPdpReqStateMan {
             synchronized(gate) {
                 gate.notify();
             }
+            final IPCMMTransactionListener listener = _transactions.getListener();
+            if (listener != null) {
+                listener.reportReceived(gate);
+            }
             logger.info("Out processReport");
         }
     }
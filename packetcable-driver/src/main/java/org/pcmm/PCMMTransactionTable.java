@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm;
+
+import org.pcmm.gates.IPCMMGate;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+import org.pcmm.stats.PCMMGateStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocates the PCMM transaction IDs of one COPS connection and keeps the gate of every request awaiting its report.
+ * IDs are taken from a 16 bit counter which skips the IDs still in flight, so two outstanding requests of a
+ * connection never share an ID. Outstanding requests are held in an open addressing table keyed by the primitive ID
+ * and are dropped once their expiry time is reached without a report.
+ * <p>
+ * Several requests may be outstanding on the connection at once, their reports being matched back by transaction ID.
+ * The number of outstanding requests is bounded by a window, allocating an ID fails at once while the window is full
+ * so no sender thread is ever parked here: callers sending many requests queue them and keep within the window.
+ * <p>
+ * Once a request is marked as sent, its outcome (report, time out, expiry or cancellation) is recorded in the gate
+ * statistics.
+ */
+@ThreadSafe
+public class PCMMTransactionTable {
+
+    private final static Logger logger = LoggerFactory.getLogger(PCMMTransactionTable.class);
+
+    /**
+     * Time an outstanding request is kept when not configured with the pcmm.transaction.expiry property (ms)
+     */
+    public static final long DEFAULT_EXPIRY = 30000;
+
+    /**
+     * Number of outstanding requests when not configured with the pcmm.transaction.window property
+     */
+    public static final int DEFAULT_WINDOW = 64;
+
+    /**
+     * Number of distinct transaction IDs, 0 is never allocated
+     */
+    private static final int ID_COUNT = 65536;
+
+    private static final int EMPTY = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The expiry time of the outstanding requests (ns)
+     */
+    private final long expiryNanos;
+
+    /**
+     * The maximum number of outstanding requests
+     */
+    private final int window;
+
+    /**
+     * Transaction IDs (0 - 65535) or EMPTY, probed linearly
+     */
+    private int[] keys;
+    private IPCMMGate[] gates;
+    private long[] deadlines;
+    /**
+     * The time the request was written (ns) and its command, the command being null until then
+     */
+    private long[] sentTimes;
+    private GateCommandType[] commands;
+    private int size;
+
+    /**
+     * The last allocated transaction ID
+     */
+    private int lastId;
+
+    /**
+     * Notified of the reports matched against this table
+     */
+    private volatile IPCMMTransactionListener listener;
+
+    /**
+     * Records the latency and outcome of the requests
+     */
+    private volatile PCMMGateStatistics statistics = new PCMMGateStatistics();
+
+    /**
+     * Creates a table using the configured expiry time and window
+     */
+    public PCMMTransactionTable() {
+        this(PCMMProperties.get(PCMMConstants.TRANSACTION_EXPIRY, Long.class, DEFAULT_EXPIRY),
+                PCMMProperties.get(PCMMConstants.TRANSACTION_WINDOW, Integer.class, DEFAULT_WINDOW));
+    }
+
+    /**
+     * Creates a table only bounded by the number of transaction IDs
+     * @param expiryMillis - the time after which a request without report is dropped (ms)
+     */
+    public PCMMTransactionTable(final long expiryMillis) {
+        this(expiryMillis, ID_COUNT - 1);
+    }
+
+    /**
+     * Constructor
+     * @param expiryMillis - the time after which a request without report is dropped (ms)
+     * @param window - the maximum number of outstanding requests (1 - 65535)
+     */
+    public PCMMTransactionTable(final long expiryMillis, final int window) {
+        if (expiryMillis <= 0) throw new IllegalArgumentException("The expiry time must be > 0");
+        if (window <= 0 || window >= ID_COUNT) throw new IllegalArgumentException("The window must be 1 - 65535");
+        this.expiryNanos = TimeUnit.MILLISECONDS.toNanos(expiryMillis);
+        this.window = window;
+        this.lastId = (int) (Math.random() * ID_COUNT);
+        allocateArrays(INITIAL_CAPACITY);
+    }
+
+    private void allocateArrays(final int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        gates = new IPCMMGate[capacity];
+        deadlines = new long[capacity];
+        sentTimes = new long[capacity];
+        commands = new GateCommandType[capacity];
+    }
+
+    /**
+     * Allocates the next free transaction ID and records the gate as awaiting its report under that ID. When the
+     * window is full, the expired requests are dropped to make room.
+     * @param gate - the gate of the request
+     * @return - the transaction ID
+     * @throws IllegalStateException - when the window is full
+     */
+    public synchronized short allocate(final IPCMMGate gate) {
+        if (gate == null) throw new IllegalArgumentException("Gate must not be null");
+        final long now = System.nanoTime();
+        if (size >= window && (expire(now) == 0 || size >= window)) {
+            throw new IllegalStateException("All " + window + " transactions of the window are in flight");
+        }
+        int id = lastId;
+        while (true) {
+            id = (id + 1) & (ID_COUNT - 1);
+            if (id == 0) continue;
+            final int slot = find(id);
+            if (slot < 0) break;
+            if (deadlines[slot] - now <= 0) {
+                logger.warn("Transaction " + id + " expired without a report");
+                if (commands[slot] != null) statistics.requestExpired(commands[slot]);
+                removeSlot(slot);
+                break;
+            }
+        }
+        lastId = id;
+        if ((size + 1) * 2 > keys.length && (expire(now) == 0 || (size + 1) * 2 > keys.length)) grow();
+        insert(id, gate, now + expiryNanos, 0, null);
+        return (short) id;
+    }
+
+    /**
+     * Marks the request of a transaction as being written to the PEP, starting its latency measurement
+     * @param transactionId - the transaction ID
+     * @param commandType - the command of the request
+     */
+    public synchronized void sent(final short transactionId, final GateCommandType commandType) {
+        final int slot = find(transactionId & 0xFFFF);
+        if (slot < 0 || commands[slot] != null) return;
+        sentTimes[slot] = System.nanoTime();
+        commands[slot] = commandType;
+        statistics.requestSent(commandType);
+    }
+
+    /**
+     * Returns the gate awaiting the report of a transaction without removing it
+     * @param transactionId - the transaction ID
+     * @return - the gate or null when the transaction is not outstanding
+     */
+    public synchronized IPCMMGate get(final short transactionId) {
+        final int slot = find(transactionId & 0xFFFF);
+        return slot < 0 ? null : gates[slot];
+    }
+
+    /**
+     * Removes a transaction once its report has been received
+     * @param transactionId - the transaction ID
+     * @return - the gate or null when the transaction is not (or no longer) outstanding
+     */
+    public synchronized IPCMMGate remove(final short transactionId) {
+        final int slot = find(transactionId & 0xFFFF);
+        if (slot < 0) return null;
+        final IPCMMGate gate = gates[slot];
+        if (commands[slot] != null) statistics.reportReceived(commands[slot], System.nanoTime() - sentTimes[slot]);
+        removeSlot(slot);
+        return gate;
+    }
+
+    /**
+     * Removes a transaction whose request could not be written, no report being expected
+     * @param transactionId - the transaction ID
+     * @return - the gate or null when the transaction is not (or no longer) outstanding
+     */
+    public synchronized IPCMMGate cancel(final short transactionId) {
+        final int slot = find(transactionId & 0xFFFF);
+        if (slot < 0) return null;
+        final IPCMMGate gate = gates[slot];
+        if (commands[slot] != null) statistics.requestCancelled(commands[slot]);
+        removeSlot(slot);
+        return gate;
+    }
+
+    /**
+     * Removes a transaction whose requester stopped waiting for its report, a late report being ignored
+     * @param transactionId - the transaction ID
+     * @param gate - the gate of the request, the transaction is left alone when it belongs to another gate
+     * @return - true when the transaction has been removed
+     */
+    public synchronized boolean timeOut(final short transactionId, final IPCMMGate gate) {
+        final int slot = find(transactionId & 0xFFFF);
+        if (slot < 0 || gates[slot] != gate) return false;
+        if (commands[slot] != null) statistics.requestTimedOut(commands[slot]);
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Drops all the outstanding transactions whose expiry time has been reached
+     * @return - the number of transactions dropped
+     */
+    public synchronized int expire() {
+        return expire(System.nanoTime());
+    }
+
+    /**
+     * Drops all the outstanding transactions
+     */
+    public synchronized void clear() {
+        for (final GateCommandType command : commands) {
+            if (command != null) statistics.requestCancelled(command);
+        }
+        allocateArrays(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of outstanding transactions
+     * @return - the count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Sets the listener notified once a gate has been updated from its report
+     * @param listener - the listener or null
+     */
+    public void setListener(final IPCMMTransactionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the listener notified once a gate has been updated from its report
+     * @return - the listener or null
+     */
+    public IPCMMTransactionListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the statistics recording the requests marked as sent from now on
+     * @param statistics - the statistics
+     */
+    public void setStatistics(final PCMMGateStatistics statistics) {
+        if (statistics == null) throw new IllegalArgumentException("Statistics must not be null");
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns the statistics recording the requests marked as sent
+     * @return - the statistics
+     */
+    public PCMMGateStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the maximum number of outstanding transactions
+     * @return - the window
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    private int expire(final long now) {
+        int count = 0;
+        int slot = 0;
+        while (slot < keys.length) {
+            if (keys[slot] != EMPTY && deadlines[slot] - now <= 0) {
+                logger.warn("Transaction " + keys[slot] + " expired without a report");
+                if (commands[slot] != null) statistics.requestExpired(commands[slot]);
+                // The entry shifted into this slot must be checked as well
+                removeSlot(slot);
+                count++;
+            } else {
+                slot++;
+            }
+        }
+        return count;
+    }
+
+    private int find(final int id) {
+        final int mask = keys.length - 1;
+        int slot = id & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == id) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(final int id, final IPCMMGate gate, final long deadline, final long sentTime,
+                        final GateCommandType command) {
+        final int mask = keys.length - 1;
+        int slot = id & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        gates[slot] = gate;
+        deadlines[slot] = deadline;
+        sentTimes[slot] = sentTime;
+        commands[slot] = command;
+        size++;
+    }
+
+    private void grow() {
+        final int[] oldKeys = keys;
+        final IPCMMGate[] oldGates = gates;
+        final long[] oldDeadlines = deadlines;
+        final long[] oldSentTimes = sentTimes;
+        final GateCommandType[] oldCommands = commands;
+        allocateArrays(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldGates[i], oldDeadlines[i], oldSentTimes[i], oldCommands[i]);
+            }
+        }
+    }
+
+    /**
+     * Empties a slot, shifting back the following entries of the probe sequence so lookups never stop early
+     */
+    private void removeSlot(int slot) {
+        final int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            final int home = keys[next] & mask;
+            // Move the entry back unless its home slot lies cyclically within (slot, next]
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                gates[slot] = gates[next];
+                deadlines[slot] = deadlines[next];
+                sentTimes[slot] = sentTimes[next];
+                commands[slot] = commands[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = EMPTY;
+        gates[slot] = null;
+        deadlines[slot] = 0;
+        sentTimes[slot] = 0;
+        commands[slot] = null;
+        size--;
+    }
+
+}
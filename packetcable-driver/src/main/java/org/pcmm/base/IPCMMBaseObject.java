@@ -10,6 +10,7 @@ package org.pcmm.base;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Base interface for all PCMM objects, it define the {@code S-Type},
@@ -24,4 +25,17 @@ public interface IPCMMBaseObject {
 
 	byte[] getAsBinaryArray();
 
+	/**
+	 * Returns the number of bytes written by {@link #encodeTo(ByteBuffer)}, header and padding included
+	 * @return - the encoded length
+	 */
+	int encodedLength();
+
+	/**
+	 * Encodes this object (header and padding included) into the buffer at its current position
+	 * @param buffer - a buffer with at least {@link #encodedLength()} bytes remaining
+	 * @throws java.nio.BufferOverflowException when the buffer is too small
+	 */
+	void encodeTo(ByteBuffer buffer);
+
 }
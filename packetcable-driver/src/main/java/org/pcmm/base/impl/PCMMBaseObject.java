@@ -8,16 +8,12 @@
 
 package org.pcmm.base.impl;
 
-import com.google.common.primitives.Bytes;
 import org.pcmm.base.IPCMMBaseObject;
-import org.umu.cops.stack.COPSData;
-import org.umu.cops.stack.COPSMsgParser;
-import org.umu.cops.stack.COPSObjectParser;
+import org.umu.cops.stack.COPSDecodeTable;
 
 import java.io.IOException;
 import java.net.Socket;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 /**
  *
@@ -52,23 +48,38 @@ public abstract class PCMMBaseObject implements IPCMMBaseObject {
 
 	@Override
 	public final byte[] getAsBinaryArray() {
-		final byte[] data = getBytes();
-		final COPSData padding;
-		if ((data.length % PADDING_OFFSET) != 0) {
-			final int padLen = PADDING_OFFSET - (data.length % PADDING_OFFSET);
-			padding = COPSObjectParser.getPadding(padLen);
-		} else {
-			padding = new COPSData();
+		final ByteBuffer buffer = ByteBuffer.allocate(encodedLength());
+		encodeTo(buffer);
+		return buffer.array();
+	}
+
+	@Override
+	public final int encodedLength() {
+		final int dataLength = getDataLength();
+		return HEADER_OFFSET + dataLength + getPadLength(dataLength);
+	}
+
+	@Override
+	public final void encodeTo(final ByteBuffer buffer) {
+		final int dataLength = getDataLength();
+		final int padLength = getPadLength(dataLength);
+		buffer.putShort((short) (HEADER_OFFSET + dataLength + padLength));
+		buffer.put(sNum.getValue());
+		buffer.put(sType);
+		writeBody(buffer);
+		for (int i = 0; i < padLength; i++) {
+			buffer.put((byte) 0);
 		}
+	}
 
-		final int payloadSize = data.length + padding.length() + HEADER_OFFSET;
-		final List<Byte> outBytes = new ArrayList<>();
-		outBytes.addAll(Bytes.asList(COPSMsgParser.shortToBytes((short) payloadSize)));
-		outBytes.add(sNum.getValue());
-		outBytes.add(sType);
-		outBytes.addAll(Bytes.asList(data));
-		outBytes.addAll(Bytes.asList(padding.getData()));
-		return Bytes.toArray(outBytes);
+	/**
+	 * Returns the number of padding bytes required to align data of the given length on a 4 byte boundary
+	 * @param dataLength - the data length
+	 * @return - the padding length
+	 */
+	protected static int getPadLength(final int dataLength) {
+		final int remainder = dataLength % PADDING_OFFSET;
+		return remainder == 0 ? 0 : PADDING_OFFSET - remainder;
 	}
 
 	@Override
@@ -95,7 +106,23 @@ public abstract class PCMMBaseObject implements IPCMMBaseObject {
 	 * Returns the byte array consisting of the data contained within the implementation class
 	 * @return - the byte array
 	 */
-	protected abstract byte[] getBytes();
+	public byte[] getBytes() {
+		final ByteBuffer buffer = ByteBuffer.allocate(getDataLength());
+		writeBody(buffer);
+		return buffer.array();
+	}
+
+	/**
+	 * Returns the number of data bytes written by {@link #writeBody(ByteBuffer)}, header and padding excluded
+	 * @return - the data length
+	 */
+	protected abstract int getDataLength();
+
+	/**
+	 * Writes the data contained within the implementation class into the buffer, header and padding excluded
+	 * @param buffer - the buffer to which to write
+	 */
+	protected abstract void writeBody(ByteBuffer buffer);
 
 	/**
 	 * Enumeration of SNum values that is used by the client to determine which Object type is being sent
@@ -133,53 +160,28 @@ public abstract class PCMMBaseObject implements IPCMMBaseObject {
 			return value;
 		}
 
-		public static SNum valueOf(byte v) {
-			switch (v) {
-				case 1:
-					return SNum.TRANSACTION_ID;
-				case 2:
-					return SNum.AMID;
-				case 3:
-					return SNum.SUBSCRIBER_ID;
-				case 4:
-					return SNum.GATE_ID;
-				case 5:
-					return SNum.GATE_SPEC;
-				case 6:
-					return SNum.CLASSIFIERS;
-				case 7:
-					return SNum.TRAFFIC_PROFILE;
-				case 8:
-					return SNum.EVENT_GEN_INFO;
-				case 9:
-					return SNum.VOL_BASED_USAGE_LIMIT;
-				case 10:
-					return SNum.TIME_BASED_USAGE_LIMIT;
-				case 11:
-					return SNum.OPAQUE_DATA;
-				case 12:
-					return SNum.GATE_TIME_INFO;
-				case 13:
-					return SNum.GATE_USAGE_INFO;
-				case 14:
-					return SNum.PCMM_ERROR;
-				case 15:
-					return SNum.GATE_STATE;
-				case 16:
-					return SNum.VERSION_INFO;
-				case 17:
-					return SNum.PSID;
-				case 18:
-					return SNum.SYNC_OPTS;
-				case 19:
-					return SNum.MSG_RECEIPT_KEY;
-				case 20:
-					return SNum.USER_ID;
-				case 21:
-					return SNum.SHARED_RES_ID;
-				default:
-					throw new IllegalArgumentException("not supported value");
+		private static final COPSDecodeTable<SNum> VAL_TO_SNUM;
+		static {
+			final COPSDecodeTable.Builder<SNum> builder = COPSDecodeTable.builder(SNum.class);
+			for (final SNum sNum : values()) {
+				builder.put(sNum.value, sNum);
 			}
+			VAL_TO_SNUM = builder.build();
+		}
+
+		public static SNum valueOf(byte v) {
+			final SNum sNum = VAL_TO_SNUM.get(v);
+			if (sNum == null) throw new IllegalArgumentException("not supported value");
+			return sNum;
+		}
+
+		/**
+		 * Decodes an S-Num without failing on the values it does not define
+		 * @param v - the S-Num read from an object header
+		 * @return - the S-Num or null when the value is unknown
+		 */
+		public static SNum lookup(byte v) {
+			return VAL_TO_SNUM.get(v);
 		}
 
 	}
@@ -11,6 +11,7 @@ package org.pcmm.gates;
 import com.google.common.base.CaseFormat;
 import com.google.common.base.Converter;
 import org.pcmm.base.IPCMMBaseObject;
+import org.umu.cops.stack.COPSDecodeTable;
 
 /**
  * From the Packetcable Multimedia specification section 6.4.2.15
@@ -58,21 +59,19 @@ public interface IGateState extends IPCMMBaseObject {
             return value;
         }
 
-        public static GateStateType valueOf(short v) {
-            switch (v) {
-                case 1:
-                    return GateStateType.IDLE_CLOSED;
-                case 2:
-                    return GateStateType.AUTHORIZED;
-                case 3:
-                    return GateStateType.RESERVED;
-                case 4:
-                    return GateStateType.COMMITTED;
-                case 5:
-                    return GateStateType.COMMITTED_RECOVERY;
-                default:
-                    throw new IllegalArgumentException("not supported value");
+        private static final COPSDecodeTable<GateStateType> VAL_TO_STATE;
+        static {
+            final COPSDecodeTable.Builder<GateStateType> builder = COPSDecodeTable.builder(GateStateType.class);
+            for (final GateStateType type : values()) {
+                builder.put(type.value, type);
             }
+            VAL_TO_STATE = builder.build();
+        }
+
+        public static GateStateType valueOf(short v) {
+            final GateStateType type = VAL_TO_STATE.get(v);
+            if (type == null) throw new IllegalArgumentException("not supported value");
+            return type;
         }
 
         private final short value;
@@ -133,13 +132,21 @@ public interface IGateState extends IPCMMBaseObject {
             return value;
         }
 
-        public static GateStateReasonType valueOf(short v) {
-            for (GateStateReasonType type : GateStateReasonType.values()) {
-                if (type.getValue() == v) {
-                    return type;
-                }
+        private static final COPSDecodeTable<GateStateReasonType> VAL_TO_REASON;
+        static {
+            final COPSDecodeTable.Builder<GateStateReasonType> builder =
+                    COPSDecodeTable.builder(GateStateReasonType.class);
+            for (final GateStateReasonType type : values()) {
+                // OTHER (65535) is beyond the table
+                if (type != OTHER) builder.put(type.value, type);
             }
-            throw new IllegalArgumentException("not supported value: " + v);
+            VAL_TO_REASON = builder.build();
+        }
+
+        public static GateStateReasonType valueOf(short v) {
+            final GateStateReasonType type = v == OTHER.value ? OTHER : VAL_TO_REASON.get(v);
+            if (type == null) throw new IllegalArgumentException("not supported value: " + v);
+            return type;
         }
 
         private final short value;
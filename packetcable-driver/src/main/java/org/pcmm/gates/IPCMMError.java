@@ -9,6 +9,7 @@
 package org.pcmm.gates;
 
 import org.pcmm.base.IPCMMBaseObject;
+import org.umu.cops.stack.COPSDecodeTable;
 
 /**
  * The aPacketCable Error object contains information on the type of error that has occurred. The error is generated in
@@ -91,79 +92,17 @@ public interface IPCMMError extends IPCMMBaseObject {
 			return code;
 		}
 
-		public static ErrorCode valueOf(final short index) {
-			switch (index) {
-				case 0:
-					return NA;
-				case 1:
-					return INSUFF_RES;
-				case 2:
-					return UNK_GATE_ID;
-				case 6:
-					return MISSING_REQ_OBJ;
-				case 7:
-					return INVALID_OBJ;
-				case 8:
-					return VOL_USG_LMT;
-				case 9:
-					return TIME_USG_LMT;
-				case 10:
-					return SESSN_CLASS_LMT;
-				case 11:
-					return UNDEF_SCN_NAME;
-				case 12:
-					return INCOMPAT_ENV;
-				case 13:
-					return INVALID_SUB_ID;
-				case 14:
-					return UNAUTH_AMID;
-				case 15:
-					return NUM_CLASSIFIERS;
-				case 16:
-					return POLICY_EXCEPTION;
-				case 17:
-					return INVALID_FIELD;
-				case 18:
-					return TRANSPORT_ERROR;
-				case 19:
-					return UNK_GATE_CMD;
-				case 20:
-					return DOCSIS_1_CM;
-				case 21:
-					return NUM_CM_SID;
-				case 22:
-					return NUM_CMTS_SID;
-				case 23:
-					return UNAUTH_PSID;
-				case 24:
-					return NO_STATE_PDP;
-				case 25:
-					return UNSUP_SYNC_TYPE;
-				case 26:
-					return STATE_INCMPL;
-				case 27:
-					return UP_DROP_UNSUPPORT;
-				case 28:
-					return MULTI_GATE_ERR;
-				case 29:
-					return MULTI_VOL_LIMIT;
-				case 30:
-					return MULTI_UNCOMMITTED;
-				case 31:
-					return MULTI_GATE_MOD;
-				case 32:
-					return MULTI_UP_ERR;
-				case 33:
-					return MULTI_GATE_INCOMPAT;
-				case 34:
-					return MULTI_QOS_ERR;
-				case 35:
-					return MULTI_DN_RESEQ;
-				case 127:
-					return OTHER_UNSPECIFIED;
-				default:
-					return null;
+		private static final COPSDecodeTable<ErrorCode> VAL_TO_ERROR_CODE;
+		static {
+			final COPSDecodeTable.Builder<ErrorCode> builder = COPSDecodeTable.builder(ErrorCode.class);
+			for (final ErrorCode errorCode : values()) {
+				builder.put(errorCode.code, errorCode);
 			}
+			VAL_TO_ERROR_CODE = builder.build();
+		}
+
+		public static ErrorCode valueOf(final short index) {
+			return VAL_TO_ERROR_CODE.get(index);
 		}
 	}
 
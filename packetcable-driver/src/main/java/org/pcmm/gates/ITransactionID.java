@@ -9,6 +9,7 @@
 package org.pcmm.gates;
 
 import org.pcmm.base.IPCMMBaseObject;
+import org.umu.cops.stack.COPSDecodeTable;
 
 /**
  * TransactionID is a 2-byte unsigned integer quantity, which contains a token that is used by the Application Manager
@@ -64,47 +65,19 @@ public interface ITransactionID extends IPCMMBaseObject {
             return value;
         }
 
-        public static GateCommandType valueOf(short v) {
-            switch (v) {
-                case 4:
-                    return GateCommandType.GATE_SET;
-                case 5:
-                    return GateCommandType.GATE_SET_ACK;
-                case 6:
-                    return GateCommandType.GATE_SET_ERR;
-                case 7:
-                    return GateCommandType.GATE_INFO;
-                case 8:
-                    return GateCommandType.GATE_INFO_ACK;
-                case 9:
-                    return GateCommandType.GATE_INFO_ERR;
-                case 10:
-                    return GateCommandType.GATE_DELETE;
-                case 11:
-                    return GateCommandType.GATE_DELETE_ACK;
-                case 12:
-                    return GateCommandType.GATE_DELETE_ERR;
-                case 15:
-                    return GateCommandType.GATE_RPT_STATE;
-                case 16:
-                    return GateCommandType.GATE_CMD_ERR;
-                case 17:
-                    return GateCommandType.PDP_CONFIG;
-                case 18:
-                    return GateCommandType.PDP_CONFIG_ACK;
-                case 19:
-                    return GateCommandType.PDP_CONFIG_ERR;
-                case 20:
-                    return GateCommandType.SYNC_REQUEST;
-                case 21:
-                    return GateCommandType.SYNC_RPT;
-                case 22:
-                    return GateCommandType.SYNC_COMPLETE;
-                case 23:
-                    return GateCommandType.MSG_RECEIPT;
-                default:
-                    throw new IllegalArgumentException("not supported value");
+        private static final COPSDecodeTable<GateCommandType> VAL_TO_CMD_TYPE;
+        static {
+            final COPSDecodeTable.Builder<GateCommandType> builder = COPSDecodeTable.builder(GateCommandType.class);
+            for (final GateCommandType type : values()) {
+                builder.put(type.value, type);
             }
+            VAL_TO_CMD_TYPE = builder.build();
+        }
+
+        public static GateCommandType valueOf(short v) {
+            final GateCommandType type = VAL_TO_CMD_TYPE.get(v);
+            if (type == null) throw new IllegalArgumentException("not supported value");
+            return type;
         }
 
         private short value;
@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IAMID;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IAMID interface
  */
@@ -52,13 +54,14 @@ public class AMID extends PCMMBaseObject implements IAMID {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] appTypeBytes = COPSMsgParser.shortToBytes(appType);
-        final byte[] appMgrBytes = COPSMsgParser.shortToBytes(appMgrTag);
-        final byte[] data = new byte[appTypeBytes.length + appMgrBytes.length];
-        System.arraycopy(appTypeBytes, 0, data, 0, appTypeBytes.length);
-        System.arraycopy(appMgrBytes, 0, data, appTypeBytes.length, appMgrBytes.length);
-        return data;
+    protected int getDataLength() {
+        return 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(appType);
+        buffer.putShort(appMgrTag);
     }
 
     @Override
@@ -100,6 +103,18 @@ public class AMID extends PCMMBaseObject implements IAMID {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static AMID parse(final byte[] data) {
-        return new AMID(COPSMsgParser.bytesToShort(data[0], data[1]), COPSMsgParser.bytesToShort(data[2], data[3]));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns an AMID object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static AMID parse(final byte[] data, final int offset, final int length) {
+        return new AMID(COPSMsgParser.bytesToShort(data[offset], data[offset + 1]),
+                COPSMsgParser.bytesToShort(data[offset + 2], data[offset + 3]));
     }
 }
@@ -11,7 +11,7 @@ package org.pcmm.gates.impl;
 import com.google.common.primitives.Bytes;
 import org.umu.cops.stack.COPSMsgParser;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -23,6 +23,11 @@ public class BEEnvelop {
 
     public static final int DEFAULT_MAX_TRAFFIC_BURST = 3044;
 
+    /**
+     * The number of bytes of an encoded envelope
+     */
+    public static final int LENGTH = 52;
+
     /**
      * Traffic Priority is a 1-byte unsigned integer field specifying the relative priority assigned to the Service Flow
      * in comparison with other flows. This field is fully defined in section C.2.2.5.1 of [1]. A default Traffic
@@ -181,22 +186,31 @@ public class BEEnvelop {
      * @return - the byte translation of this object
      */
     public List<Byte> getBytes() {
-        final List<Byte> byteList = new ArrayList<>();
-        byteList.addAll(Bytes.asList(trafficPriority, (byte) 0, (byte) 0, (byte) 0));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(transPolicy)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(maxSusTrafficRate)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(maxTrafficBurst)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(minResTrafficRate)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(assumedMinConcatBurst)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(maxConcatBurst)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(upPeakTrafficRate)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(reqAttrMask)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(forbidAttrMask)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(attrAggRuleMask)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(minBuffer)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(targetBuffer)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(maxBuffer)));
-        return byteList;
+        final ByteBuffer buffer = ByteBuffer.allocate(LENGTH);
+        encodeTo(buffer);
+        return Bytes.asList(buffer.array());
+    }
+
+    /**
+     * Writes the {@link #LENGTH} bytes of this envelope into the buffer at its current position
+     * @param buffer - the buffer to which to write
+     */
+    public void encodeTo(final ByteBuffer buffer) {
+        buffer.put(trafficPriority);
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.putInt(transPolicy);
+        buffer.putInt(maxSusTrafficRate);
+        buffer.putInt(maxTrafficBurst);
+        buffer.putInt(minResTrafficRate);
+        buffer.putShort(assumedMinConcatBurst);
+        buffer.putShort(maxConcatBurst);
+        buffer.putInt(upPeakTrafficRate);
+        buffer.putInt(reqAttrMask);
+        buffer.putInt(forbidAttrMask);
+        buffer.putInt(attrAggRuleMask);
+        buffer.putInt(minBuffer);
+        buffer.putInt(targetBuffer);
+        buffer.putInt(maxBuffer);
     }
 
     @Override
@@ -247,20 +261,31 @@ public class BEEnvelop {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static BEEnvelop parse(final byte[] data) {
-        if (data.length != 52) return null;
-        return new BEEnvelop(data[0],
-                COPSMsgParser.bytesToInt(data[4], data[5], data[6], data[7]),
-                COPSMsgParser.bytesToInt(data[8], data[9], data[10], data[11]),
-                COPSMsgParser.bytesToInt(data[12], data[13], data[14], data[15]),
-                COPSMsgParser.bytesToInt(data[16], data[17], data[18], data[19]),
-                COPSMsgParser.bytesToShort(data[20], data[21]),
-                COPSMsgParser.bytesToShort(data[22], data[23]),
-                COPSMsgParser.bytesToInt(data[24], data[25], data[26], data[27]),
-                COPSMsgParser.bytesToInt(data[28], data[29], data[30], data[31]),
-                COPSMsgParser.bytesToInt(data[32], data[33], data[34], data[35]),
-                COPSMsgParser.bytesToInt(data[36], data[37], data[38], data[39]),
-                COPSMsgParser.bytesToInt(data[40], data[41], data[42], data[43]),
-                COPSMsgParser.bytesToInt(data[44], data[45], data[46], data[47]),
-                COPSMsgParser.bytesToInt(data[48], data[49], data[50], data[51]));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a BEEnvelop object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object or null if cannot be parsed
+     */
+    public static BEEnvelop parse(final byte[] data, final int offset, final int length) {
+        if (length != 52) return null;
+        return new BEEnvelop(data[offset],
+                COPSMsgParser.bytesToInt(data[offset + 4], data[offset + 5], data[offset + 6], data[offset + 7]),
+                COPSMsgParser.bytesToInt(data[offset + 8], data[offset + 9], data[offset + 10], data[offset + 11]),
+                COPSMsgParser.bytesToInt(data[offset + 12], data[offset + 13], data[offset + 14], data[offset + 15]),
+                COPSMsgParser.bytesToInt(data[offset + 16], data[offset + 17], data[offset + 18], data[offset + 19]),
+                COPSMsgParser.bytesToShort(data[offset + 20], data[offset + 21]),
+                COPSMsgParser.bytesToShort(data[offset + 22], data[offset + 23]),
+                COPSMsgParser.bytesToInt(data[offset + 24], data[offset + 25], data[offset + 26], data[offset + 27]),
+                COPSMsgParser.bytesToInt(data[offset + 28], data[offset + 29], data[offset + 30], data[offset + 31]),
+                COPSMsgParser.bytesToInt(data[offset + 32], data[offset + 33], data[offset + 34], data[offset + 35]),
+                COPSMsgParser.bytesToInt(data[offset + 36], data[offset + 37], data[offset + 38], data[offset + 39]),
+                COPSMsgParser.bytesToInt(data[offset + 40], data[offset + 41], data[offset + 42], data[offset + 43]),
+                COPSMsgParser.bytesToInt(data[offset + 44], data[offset + 45], data[offset + 46], data[offset + 47]),
+                COPSMsgParser.bytesToInt(data[offset + 48], data[offset + 49], data[offset + 50], data[offset + 51]));
     }
 }
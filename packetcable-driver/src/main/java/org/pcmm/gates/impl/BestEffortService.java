@@ -8,12 +8,10 @@
 
 package org.pcmm.gates.impl;
 
-import com.google.common.primitives.Bytes;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITrafficProfile;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 /**
  * The Best Effort object defines the Traffic Profile associated with a gate through an upstream DOCSIS-specific
@@ -100,13 +98,17 @@ public class BestEffortService extends PCMMBaseObject implements ITrafficProfile
 	}
 
 	@Override
-	public byte[] getBytes() {
-		final List<Byte> byteList = new ArrayList<>();
-		byteList.addAll(Bytes.asList(envelope, (byte) 0, (byte) 0, (byte) 0));
-		byteList.addAll(authorizedEnvelop.getBytes());
-		if (reservedEnvelop != null) byteList.addAll(reservedEnvelop.getBytes());
-		if (committedEnvelop != null) byteList.addAll(committedEnvelop.getBytes());
-		return Bytes.toArray(byteList);
+	protected int getDataLength() {
+		return 4 + BEEnvelop.LENGTH * ((reservedEnvelop != null ? 2 : 1) + (committedEnvelop != null ? 1 : 0));
+	}
+
+	@Override
+	protected void writeBody(final ByteBuffer buffer) {
+		buffer.put(envelope);
+		buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+		authorizedEnvelop.encodeTo(buffer);
+		if (reservedEnvelop != null) reservedEnvelop.encodeTo(buffer);
+		if (committedEnvelop != null) committedEnvelop.encodeTo(buffer);
 	}
 
 	@Override
@@ -146,17 +148,25 @@ public class BestEffortService extends PCMMBaseObject implements ITrafficProfile
 	 * TODO - make me more robust as RuntimeExceptions can be thrown here.
 	 */
 	public static BestEffortService parse(final byte[] data) {
-		final List<Byte> bytes = Bytes.asList(data);
-		bytes.subList(0, 51);
-		if (data.length >= 56 && data.length < 108)
-			return new BestEffortService(data[0], BEEnvelop.parse(Bytes.toArray(bytes.subList(4, 56))), null, null);
-		else if (data.length >= 108 && data.length < 160)
-			return new BestEffortService(data[0], BEEnvelop.parse(Bytes.toArray(bytes.subList(4, 56))),
-					BEEnvelop.parse(Bytes.toArray(bytes.subList(56, 108))), null);
-		else if (data.length >= 160)
-				return new BestEffortService(data[0], BEEnvelop.parse(Bytes.toArray(bytes.subList(4, 56))),
-						BEEnvelop.parse(Bytes.toArray(bytes.subList(56, 108))),
-						BEEnvelop.parse(Bytes.toArray(bytes.subList(108, 160))));
+		return parse(data, 0, data.length);
+	}
+
+	/**
+	 * Returns a BestEffortService object from a range of a byte array
+	 * @param data - the data to parse
+	 * @param offset - the index of the first byte of the object body
+	 * @param length - the number of bytes of the object body
+	 * @return - the object or null if cannot be parsed
+	 */
+	public static BestEffortService parse(final byte[] data, final int offset, final int length) {
+		if (length >= 56 && length < 108)
+			return new BestEffortService(data[offset], BEEnvelop.parse(data, offset + 4, 52), null, null);
+		else if (length >= 108 && length < 160)
+			return new BestEffortService(data[offset], BEEnvelop.parse(data, offset + 4, 52),
+					BEEnvelop.parse(data, offset + 56, 52), null);
+		else if (length >= 160)
+			return new BestEffortService(data[offset], BEEnvelop.parse(data, offset + 4, 52),
+					BEEnvelop.parse(data, offset + 56, 52), BEEnvelop.parse(data, offset + 108, 52));
 		else return null;
 	}
 
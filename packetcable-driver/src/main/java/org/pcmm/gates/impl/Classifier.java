@@ -8,7 +8,6 @@
 
 package org.pcmm.gates.impl;
 
-import com.google.common.primitives.Bytes;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IClassifier;
 import org.umu.cops.stack.COPSMsgParser;
@@ -16,8 +15,8 @@ import org.umu.cops.stack.COPSMsgParser;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Implementation of the IClassifier interface
@@ -156,20 +155,23 @@ public class Classifier extends PCMMBaseObject implements IClassifier {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final List<Byte> byteList = new ArrayList<>(Bytes.asList(COPSMsgParser.shortToBytes(protocol.getValue())));
-        byteList.add(tosOverwrite);
-        byteList.add(tosMask);
-        byteList.addAll(Bytes.asList(srcAddress.getAddress()));
-        byteList.addAll(Bytes.asList(dstAddress.getAddress()));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(srcPort)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(dstPort)));
-        byteList.add(priority);
+    protected int getDataLength() {
+        return 20;
+    }
 
-        // reserved padding
-        byteList.addAll(Bytes.asList((byte) 0, (byte) 0, (byte) 0));
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(protocol.getValue());
+        buffer.put(tosOverwrite);
+        buffer.put(tosMask);
+        buffer.put(srcAddress.getAddress());
+        buffer.put(dstAddress.getAddress());
+        buffer.putShort(srcPort);
+        buffer.putShort(dstPort);
+        buffer.put(priority);
 
-        return Bytes.toArray(byteList);
+        // reserved padding
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
     }
 
     @Override
@@ -210,16 +212,24 @@ public class Classifier extends PCMMBaseObject implements IClassifier {
      * TODO - make me more robust as exceptions can be swallowed here.
      */
     public static Classifier parse(final byte[] data) {
-        final List<Byte> bytes = Bytes.asList(data);
+        return parse(data, 0, data.length);
+    }
 
+    /**
+     * Returns a Classifier object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object or null if cannot be parsed
+     */
+    public static Classifier parse(final byte[] data, final int offset, final int length) {
         try {
-            final byte[] srcAddrBytes = Bytes.toArray(bytes.subList(4, 8));
-            final byte[] dstAddrBytes = Bytes.toArray(bytes.subList(8, 12));
-            return new Classifier(Protocol.valueOf(COPSMsgParser.bytesToShort(data[0], data[1])), data[2], data[3],
-                    (Inet4Address)InetAddress.getByAddress(srcAddrBytes),
-                    (Inet4Address)InetAddress.getByAddress(dstAddrBytes),
-                    COPSMsgParser.bytesToShort(data[12], data[13]), COPSMsgParser.bytesToShort(data[14], data[15]),
-                    data[16]);
+            return new Classifier(Protocol.valueOf(COPSMsgParser.bytesToShort(data[offset], data[offset + 1])),
+                    data[offset + 2], data[offset + 3],
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 4, offset + 8)),
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 8, offset + 12)),
+                    COPSMsgParser.bytesToShort(data[offset + 12], data[offset + 13]),
+                    COPSMsgParser.bytesToShort(data[offset + 14], data[offset + 15]), data[offset + 16]);
         } catch (UnknownHostException e) {
             return null;
         }
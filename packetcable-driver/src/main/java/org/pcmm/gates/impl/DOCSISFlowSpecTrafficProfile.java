@@ -11,8 +11,6 @@ package org.pcmm.gates.impl;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITrafficProfile;
 import org.pcmm.utils.PCMMUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.nio.ByteBuffer;
@@ -23,7 +21,6 @@ import java.nio.ByteBuffer;
  */
 public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITrafficProfile {
 
-    private final Logger logger = LoggerFactory.getLogger(DOCSISFlowSpecTrafficProfile.class);
     public static final byte STYPE = 1;
     public static final byte SERVICE_NUMBER = 2;
 
@@ -152,10 +149,12 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] data = new byte[4+(4*7*3)];
-        ByteBuffer buffer = ByteBuffer.wrap(data);
-        
+    protected int getDataLength() {
+        return 4 + (4 * 7 * 3);
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
         //
         // Ok I know this looks crazy but PCMM Flow Spec encodes some values as floats
         // even though they do not contain fractional values, so we 'integerize' them
@@ -170,7 +169,7 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
         buffer.put(SERVICE_NUMBER);
         buffer.put((byte)0); // reserved
         buffer.put((byte)0); // reserved
-        
+
         // Authorized Envelope
         buffer.putFloat(fTokenBucketRate);
         buffer.putFloat(fTokenBucketSize);
@@ -179,7 +178,7 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
         buffer.putInt(maximumPacketSize);
         buffer.putFloat(fRate);
         buffer.putInt(slackTerm);
-        
+
         // Reserved Envelope
         buffer.putFloat(fTokenBucketRate);
         buffer.putFloat(fTokenBucketSize);
@@ -188,7 +187,7 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
         buffer.putInt(maximumPacketSize);
         buffer.putFloat(fRate);
         buffer.putInt(slackTerm);
-        
+
         // Committed Envelope
         buffer.putFloat(fTokenBucketRate);
         buffer.putFloat(fTokenBucketSize);
@@ -197,12 +196,6 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
         buffer.putInt(maximumPacketSize);
         buffer.putFloat(fRate);
         buffer.putInt(slackTerm);
-        
-        if (buffer.hasRemaining()) {
-            logger.error("Original buffer too large");
-        }
-        
-        return data;
     }
 
     @Override
@@ -262,19 +255,30 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static DOCSISFlowSpecTrafficProfile parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a DOCSISFlowSpecTrafficProfile object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static DOCSISFlowSpecTrafficProfile parse(final byte[] data, final int offset, final int length) {
         byte env = 0;
         int mpu=0,mps=0,st=0;
         float tbr=0,tbs=0,pdr=0,r=0;
 
-        env = data[0];
+        env = data[offset];
 
-        tbr = byteToFloat(data, 4);
-        tbs = byteToFloat(data, 8);
-        pdr = byteToFloat(data, 12);
-        mpu = byteToInt(data, 16);
-        mps = byteToInt(data, 20);
-        r   = byteToFloat(data, 24);
-        st  = byteToInt(data, 28);
+        tbr = byteToFloat(data, offset + 4);
+        tbs = byteToFloat(data, offset + 8);
+        pdr = byteToFloat(data, offset + 12);
+        mpu = byteToInt(data, offset + 16);
+        mps = byteToInt(data, offset + 20);
+        r   = byteToFloat(data, offset + 24);
+        st  = byteToInt(data, offset + 28);
         //
         // Ok I know this looks crazy but PCMM Flow Spec encodes some values as floats
         // even though they do not contain fractional values, so we 'integerize' them
@@ -282,7 +286,7 @@ public class DOCSISFlowSpecTrafficProfile extends PCMMBaseObject implements ITra
         //
         int itbr = Math.round(tbr), itbs = Math.round(tbs),
             ipdr = Math.round(pdr), ir = Math.round(r);
-        
+
         return new DOCSISFlowSpecTrafficProfile(env, itbr, itbs, ipdr,
                                                 mpu, mps, ir, st);
     }
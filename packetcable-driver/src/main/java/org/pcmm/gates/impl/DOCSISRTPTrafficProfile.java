@@ -11,8 +11,6 @@ package org.pcmm.gates.impl;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITrafficProfile;
 import org.pcmm.utils.PCMMUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.nio.ByteBuffer;
@@ -23,7 +21,6 @@ import java.nio.ByteBuffer;
  */
 public class DOCSISRTPTrafficProfile extends PCMMBaseObject implements ITrafficProfile {
 
-    private final Logger logger = LoggerFactory.getLogger(DOCSISRTPTrafficProfile.class);
     public static final byte STYPE = 5;
 
     /**
@@ -233,10 +230,12 @@ public class DOCSISRTPTrafficProfile extends PCMMBaseObject implements ITrafficP
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] data = new byte[4+(4*10*3)];
-        ByteBuffer buffer = ByteBuffer.wrap(data);
+    protected int getDataLength() {
+        return 4 + (4 * 10 * 3);
+    }
 
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
         buffer.put(envelope);
         buffer.put((byte)0); // reserved
         buffer.put((byte)0); // reserved
@@ -279,12 +278,6 @@ public class DOCSISRTPTrafficProfile extends PCMMBaseObject implements ITrafficP
         buffer.putInt(requiredAttributeMask);
         buffer.putInt(forbiddenAttributeMask);
         buffer.putInt(attributeAggregationRuleMask);
-
-        if (buffer.hasRemaining()) {
-            logger.error("Original buffer too large");
-        }
-
-        return data;
     }
 
     @Override
@@ -359,6 +352,17 @@ public class DOCSISRTPTrafficProfile extends PCMMBaseObject implements ITrafficP
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static DOCSISRTPTrafficProfile parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a DOCSISRTPTrafficProfile object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static DOCSISRTPTrafficProfile parse(final byte[] data, final int offset, final int length) {
         byte env = 0;
         int requestTransmissionPolicy,
             maximumSustainedTrafficRate,
@@ -373,21 +377,21 @@ public class DOCSISRTPTrafficProfile extends PCMMBaseObject implements ITrafficP
             forbiddenAttributeMask,
             attributeAggregationRuleMask;
 
-        env = data[0];
-
-        requestTransmissionPolicy = byteToInt(data, 4);
-        maximumSustainedTrafficRate = byteToInt(data, 8);
-        maximumTrafficBurst = byteToInt(data, 12);
-        minimumReservedTrafficRate = byteToInt(data, 16);
-        amrtrPacketSize = shortToInt(data, 20);
-        maximumConcatenatedBurst = shortToInt(data, 22);
-        nominalPollingInterval = byteToInt(data, 24);
-        toleratedPollJitter = byteToInt(data, 28);
-        upstreamPeakTrafficRate = byteToInt(data,32);
-        requiredAttributeMask = byteToInt(data,36);
-        forbiddenAttributeMask = byteToInt(data, 40);
-        attributeAggregationRuleMask = byteToInt(data, 44);
-        
+        env = data[offset];
+
+        requestTransmissionPolicy = byteToInt(data, offset + 4);
+        maximumSustainedTrafficRate = byteToInt(data, offset + 8);
+        maximumTrafficBurst = byteToInt(data, offset + 12);
+        minimumReservedTrafficRate = byteToInt(data, offset + 16);
+        amrtrPacketSize = shortToInt(data, offset + 20);
+        maximumConcatenatedBurst = shortToInt(data, offset + 22);
+        nominalPollingInterval = byteToInt(data, offset + 24);
+        toleratedPollJitter = byteToInt(data, offset + 28);
+        upstreamPeakTrafficRate = byteToInt(data, offset + 32);
+        requiredAttributeMask = byteToInt(data, offset + 36);
+        forbiddenAttributeMask = byteToInt(data, offset + 40);
+        attributeAggregationRuleMask = byteToInt(data, offset + 44);
+
         return new DOCSISRTPTrafficProfile(env,
                                            requestTransmissionPolicy,
                                            maximumSustainedTrafficRate,
@@ -11,7 +11,7 @@ package org.pcmm.gates.impl;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITrafficProfile;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 /**
  * The DOCSIS Service Class Name object defines the preconfigured Service Class Name associated with a Gate.
@@ -27,6 +27,11 @@ public class DOCSISServiceClassNameTrafficProfile extends PCMMBaseObject impleme
      */
     private final String scnName;
 
+    /**
+     * The encoded Service Class Name
+     */
+    private final byte[] scnBytes;
+
     /**
      * The envelope
      */
@@ -50,6 +55,7 @@ public class DOCSISServiceClassNameTrafficProfile extends PCMMBaseObject impleme
         if (scnName == null || scnName.length() < 2 || scnName.length() > SCN_MAX_LEN)
             throw new IllegalArgumentException("Service class name must be between 2-16 characters");
         this.scnName = scnName;
+        this.scnBytes = scnName.getBytes();
         this.envelope = envelope;
     }
 
@@ -67,17 +73,18 @@ public class DOCSISServiceClassNameTrafficProfile extends PCMMBaseObject impleme
     }
 
     @Override
-    protected byte[] getBytes() {
-        final int padLen;
-        if ((scnName.length() % 4) != 0) padLen = 4 - (scnName.length() % 4);
-        else padLen = 0;
-
-        final byte[] data = new byte[4 + scnName.getBytes().length + padLen];
-        Arrays.fill(data, (byte) 0);
-        data[0] = envelope;
+    protected int getDataLength() {
+        return 4 + scnBytes.length + getPadLength(scnBytes.length);
+    }
 
-        System.arraycopy(scnName.getBytes(), 0, data, 4, scnName.getBytes().length);
-        return data;
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.put(envelope);
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+        buffer.put(scnBytes);
+        for (int i = getPadLength(scnBytes.length); i > 0; i--) {
+            buffer.put((byte) 0);
+        }
     }
 
     @Override
@@ -110,19 +117,27 @@ public class DOCSISServiceClassNameTrafficProfile extends PCMMBaseObject impleme
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static DOCSISServiceClassNameTrafficProfile parse(final byte[] data) {
-        // variable i will denote the index where the data padding starts (if any) or the end of the array
-        int i = 4;
-        for (; i < data.length; i++) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a DOCSISServiceClassNameTrafficProfile object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static DOCSISServiceClassNameTrafficProfile parse(final byte[] data, final int offset, final int length) {
+        // variable i will denote the index where the data padding starts (if any) or the end of the range
+        final int end = offset + length;
+        int i = offset + 4;
+        for (; i < end; i++) {
             if (data[i] == 0) {
                 break;
             }
         }
-        final int nameLength = i - 4;
-
-        final byte[] scnNameBytes = new byte[nameLength];
-        System.arraycopy(data, 4, scnNameBytes, 0, nameLength);
-        final String scnName = new String(scnNameBytes);
-        return new DOCSISServiceClassNameTrafficProfile(data[0], scnName);
+        final String scnName = new String(data, offset + 4, i - offset - 4);
+        return new DOCSISServiceClassNameTrafficProfile(data[offset], scnName);
     }
 
 }
@@ -11,8 +11,6 @@ package org.pcmm.gates.impl;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITrafficProfile;
 import org.pcmm.utils.PCMMUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.nio.ByteBuffer;
@@ -23,7 +21,6 @@ import java.nio.ByteBuffer;
  */
 public class DOCSISUGSTrafficProfile extends PCMMBaseObject implements ITrafficProfile {
 
-    private final Logger logger = LoggerFactory.getLogger(DOCSISUGSTrafficProfile.class);
     public static final byte STYPE = 6;
 
     /**
@@ -188,17 +185,19 @@ public class DOCSISUGSTrafficProfile extends PCMMBaseObject implements ITrafficP
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] data = new byte[4+(4*7*3)];
-        ByteBuffer buffer = ByteBuffer.wrap(data);
-        
+    protected int getDataLength() {
+        return 4 + (4 * 7 * 3);
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
         buffer.put(envelope);
         buffer.put((byte)0); // reserved
         buffer.put((byte)0); // reserved
         buffer.put((byte)0); // reserved
 
         final int value = ((int)unsolicitedGrantSize<<16) | ((int)grantsPerInterval<<8);
-  
+
         // Authorized Envelope
         buffer.putInt(requestTransmissionPolicy);
         buffer.putInt(value);
@@ -225,12 +224,6 @@ public class DOCSISUGSTrafficProfile extends PCMMBaseObject implements ITrafficP
         buffer.putInt(requiredAttributeMask);
         buffer.putInt(forbiddenAttributeMask);
         buffer.putInt(attributeAggregationRuleMask);
-
-        if (buffer.hasRemaining()) {
-            logger.error("Original buffer too large");
-        }
-
-        return data;
     }
 
     @Override
@@ -299,20 +292,31 @@ public class DOCSISUGSTrafficProfile extends PCMMBaseObject implements ITrafficP
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static DOCSISUGSTrafficProfile parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a DOCSISUGSTrafficProfile object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static DOCSISUGSTrafficProfile parse(final byte[] data, final int offset, final int length) {
         byte env = 0, gpi = 0;
         int rtp, ugs,ngi,tgj,uptr = 0,ram,fam,aarm;
 
-        env = data[0];
+        env = data[offset];
+
+        rtp = byteToInt(data, offset + 4);
+        ugs = shortToInt(data, offset + 8);
+        gpi = data[offset + 10];
+        ngi = byteToInt(data, offset + 12);
+        tgj = byteToInt(data, offset + 16);
+        ram = byteToInt(data, offset + 20);
+        fam = byteToInt(data, offset + 24);
+        aarm= byteToInt(data, offset + 28);
 
-        rtp = byteToInt(data, 4);
-        ugs = shortToInt(data, 8);
-        gpi = data[10];
-        ngi = byteToInt(data, 12);
-        tgj = byteToInt(data, 16);
-        ram = byteToInt(data, 20);
-        fam = byteToInt(data, 24);
-        aarm= byteToInt(data, 28);
-        
         return new DOCSISUGSTrafficProfile(env,rtp,ugs,gpi,ngi,tgj,uptr,ram,fam,aarm);
     }
 
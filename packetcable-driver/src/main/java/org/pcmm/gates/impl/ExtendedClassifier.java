@@ -8,15 +8,14 @@
 
 package org.pcmm.gates.impl;
 
-import com.google.common.primitives.Bytes;
 import org.pcmm.gates.IExtendedClassifier;
 import org.umu.cops.stack.COPSMsgParser;
 
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Implementation of the IExtendedClassifier interface
@@ -176,27 +175,30 @@ public class ExtendedClassifier extends Classifier implements IExtendedClassifie
     }
 
     @Override
-    protected byte[] getBytes() {
-        final List<Byte> byteList = new ArrayList<>(Bytes.asList(COPSMsgParser.shortToBytes(protocol.getValue())));
-        byteList.add(tosOverwrite);
-        byteList.add(tosMask);
-        byteList.addAll(Bytes.asList(srcAddress.getAddress()));
-        byteList.addAll(Bytes.asList(srcMask.getAddress()));
-        byteList.addAll(Bytes.asList(dstAddress.getAddress()));
-        byteList.addAll(Bytes.asList(dstMask.getAddress()));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(srcPort)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(srcPortEnd)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(dstPort)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(dstPortEnd)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(classifierId)));
-        byteList.add(priority);
-        byteList.add(activationState.getValue());
-        byteList.add(action.getByte());
+    protected int getDataLength() {
+        return 36;
+    }
 
-        // reserved padding
-        byteList.addAll(Bytes.asList((byte) 0, (byte) 0, (byte) 0));
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(protocol.getValue());
+        buffer.put(tosOverwrite);
+        buffer.put(tosMask);
+        buffer.put(srcAddress.getAddress());
+        buffer.put(srcMask.getAddress());
+        buffer.put(dstAddress.getAddress());
+        buffer.put(dstMask.getAddress());
+        buffer.putShort(srcPort);
+        buffer.putShort(srcPortEnd);
+        buffer.putShort(dstPort);
+        buffer.putShort(dstPortEnd);
+        buffer.putShort(classifierId);
+        buffer.put(priority);
+        buffer.put(activationState.getValue());
+        buffer.put(action.getByte());
 
-        return Bytes.toArray(byteList);
+        // reserved padding
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
     }
 
     @Override
@@ -237,19 +239,30 @@ public class ExtendedClassifier extends Classifier implements IExtendedClassifie
      * TODO - make me more robust as exceptions can be swallowed here.
      */
     public static ExtendedClassifier parse(final byte[] data) {
-        final List<Byte> bytes = new ArrayList<>(Bytes.asList(data));
+        return parse(data, 0, data.length);
+    }
 
+    /**
+     * Returns an ExtendedClassifier object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object or null if cannot be parsed
+     */
+    public static ExtendedClassifier parse(final byte[] data, final int offset, final int length) {
         try {
-            return new ExtendedClassifier(Protocol.valueOf(COPSMsgParser.bytesToShort(data[0], data[1])),
-                    data[2], data[3],
-                    (Inet4Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(4, 8))),
-                    (Inet4Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(8, 12))),
-                    COPSMsgParser.bytesToShort(data[20], data[21]), COPSMsgParser.bytesToShort(data[24], data[25]),
-                    data[30], (Inet4Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(12, 16))),
-                    (Inet4Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(16, 20))),
-                    COPSMsgParser.bytesToShort(data[22], data[23]), COPSMsgParser.bytesToShort(data[26], data[27]),
-                    COPSMsgParser.bytesToShort(data[28], data[29]), ActivationState.valueOf(data[31]),
-                    Action.getFromByte(data[32]));
+            return new ExtendedClassifier(Protocol.valueOf(COPSMsgParser.bytesToShort(data[offset], data[offset + 1])),
+                    data[offset + 2], data[offset + 3],
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 4, offset + 8)),
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 8, offset + 12)),
+                    COPSMsgParser.bytesToShort(data[offset + 20], data[offset + 21]),
+                    COPSMsgParser.bytesToShort(data[offset + 24], data[offset + 25]), data[offset + 30],
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 12, offset + 16)),
+                    (Inet4Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 16, offset + 20)),
+                    COPSMsgParser.bytesToShort(data[offset + 22], data[offset + 23]),
+                    COPSMsgParser.bytesToShort(data[offset + 26], data[offset + 27]),
+                    COPSMsgParser.bytesToShort(data[offset + 28], data[offset + 29]),
+                    ActivationState.valueOf(data[offset + 31]), Action.getFromByte(data[offset + 32]));
         } catch (UnknownHostException e) {
             return null;
         }
@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IGateID;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IGateID interface
  */
@@ -37,8 +39,13 @@ public class GateID extends PCMMBaseObject implements IGateID {
     }
 
     @Override
-    protected byte[] getBytes() {
-        return COPSMsgParser.intToBytes(gateId);
+    protected int getDataLength() {
+        return 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putInt(gateId);
     }
 
     @Override
@@ -70,6 +77,17 @@ public class GateID extends PCMMBaseObject implements IGateID {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static GateID parse(final byte[] data) {
-        return new GateID(COPSMsgParser.bytesToInt(data[0], data[1], data[2], data[3]));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a GateID object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static GateID parse(final byte[] data, final int offset, final int length) {
+        return new GateID(COPSMsgParser.bytesToInt(data[offset], data[offset + 1], data[offset + 2], data[offset + 3]));
     }
 }
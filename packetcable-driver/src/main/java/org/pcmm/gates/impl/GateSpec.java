@@ -13,6 +13,8 @@ import org.pcmm.gates.IGateSpec;
 import org.pcmm.gates.ISessionClassID;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IGateSpec interface
  */
@@ -148,30 +150,20 @@ public class GateSpec extends PCMMBaseObject implements IGateSpec {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] data = new byte[12];
-        data[0] = direction.getValue();
-        data[1] = tosOverwrite;
-        data[2] = tosMask;
-        data[3] = sessionClassID.toSingleByte();
-
-        final byte[] timer1Bytes = COPSMsgParser.shortToBytes(timer1);
-        data[4] = timer1Bytes[0];
-        data[5] = timer1Bytes[1];
-
-        final byte[] timer2Bytes = COPSMsgParser.shortToBytes(timer2);
-        data[6] = timer2Bytes[0];
-        data[7] = timer2Bytes[1];
-
-        final byte[] timer3Bytes = COPSMsgParser.shortToBytes(timer3);
-        data[8] = timer3Bytes[0];
-        data[9] = timer3Bytes[1];
-
-        final byte[] timer4Bytes = COPSMsgParser.shortToBytes(timer4);
-        data[10] = timer4Bytes[0];
-        data[11] = timer4Bytes[1];
+    protected int getDataLength() {
+        return 12;
+    }
 
-        return data;
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.put(direction.getValue());
+        buffer.put(tosOverwrite);
+        buffer.put(tosMask);
+        buffer.put(sessionClassID.toSingleByte());
+        buffer.putShort(timer1);
+        buffer.putShort(timer2);
+        buffer.putShort(timer3);
+        buffer.putShort(timer4);
     }
 
     @Override
@@ -213,9 +205,21 @@ public class GateSpec extends PCMMBaseObject implements IGateSpec {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static GateSpec parse(final byte[] data) {
-        return new GateSpec(Direction.valueOf(data[0]), data[1], data[2],
-                new SessionClassID(data[3]), COPSMsgParser.bytesToShort(data[4], data[5]),
-                COPSMsgParser.bytesToShort(data[6], data[7]), COPSMsgParser.bytesToShort(data[8], data[9]),
-                COPSMsgParser.bytesToShort(data[10], data[11]));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a GateSpec object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static GateSpec parse(final byte[] data, final int offset, final int length) {
+        return new GateSpec(Direction.valueOf(data[offset]), data[offset + 1], data[offset + 2],
+                new SessionClassID(data[offset + 3]), COPSMsgParser.bytesToShort(data[offset + 4], data[offset + 5]),
+                COPSMsgParser.bytesToShort(data[offset + 6], data[offset + 7]),
+                COPSMsgParser.bytesToShort(data[offset + 8], data[offset + 9]),
+                COPSMsgParser.bytesToShort(data[offset + 10], data[offset + 11]));
     }
 }
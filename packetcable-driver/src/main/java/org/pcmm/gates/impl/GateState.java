@@ -13,6 +13,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IGateState;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IGateID interface
  */
@@ -48,8 +50,13 @@ public class GateState extends PCMMBaseObject implements IGateState {
 	}
 
     @Override
-    protected byte[] getBytes() {
-        return COPSMsgParser.shortToBytes(gateState.getValue());
+    protected int getDataLength() {
+        return 2;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(gateState.getValue());
     }
 
     @Override
@@ -84,8 +91,19 @@ public class GateState extends PCMMBaseObject implements IGateState {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static GateState parse(final byte[] data) {
-        return new GateState(GateStateType.valueOf(COPSMsgParser.bytesToShort(data[0], data[1])),
-        		GateStateReasonType.valueOf(COPSMsgParser.bytesToShort(data[2], data[3])));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a GateState object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static GateState parse(final byte[] data, final int offset, final int length) {
+        return new GateState(GateStateType.valueOf(COPSMsgParser.bytesToShort(data[offset], data[offset + 1])),
+                GateStateReasonType.valueOf(COPSMsgParser.bytesToShort(data[offset + 2], data[offset + 3])));
     }
 
 
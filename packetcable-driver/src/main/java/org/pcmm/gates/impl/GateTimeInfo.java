@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IGateTimeInfo;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IGateSpec interface
  */
@@ -31,11 +33,28 @@ public class GateTimeInfo extends PCMMBaseObject implements IGateTimeInfo {
 
 
     @Override
-    protected byte[] getBytes() {
-        return COPSMsgParser.intToBytes(gateTimeInfo);
+    protected int getDataLength() {
+        return 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putInt(gateTimeInfo);
     }
 
     public static GateTimeInfo parse(final byte[] data) {
-        return new GateTimeInfo((COPSMsgParser.bytesToInt(data[0], data[1],data[2], data[3])));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a GateTimeInfo object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static GateTimeInfo parse(final byte[] data, final int offset, final int length) {
+        return new GateTimeInfo(
+                COPSMsgParser.bytesToInt(data[offset], data[offset + 1], data[offset + 2], data[offset + 3]));
     }
 }
@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IGateUsageInfo;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IGateSpec interface
  */
@@ -33,15 +35,29 @@ public class GateUsageInfo extends PCMMBaseObject implements IGateUsageInfo {
 
 
     @Override
-    protected byte[] getBytes() {
-    	byte[] first = COPSMsgParser.intToBytes((int)gateUsageInfo>>32);
-    	byte[] second = COPSMsgParser.intToBytes((int)gateUsageInfo);
-    	return new byte[first.length+second.length];
+    protected int getDataLength() {
+        return 8;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putLong(gateUsageInfo);
     }
 
     public static GateUsageInfo parse(final byte[] data) {
-        return new GateUsageInfo(
-        		(long)(COPSMsgParser.bytesToInt(data[0], data[1],data[2], data[3]))<<32
-        		| (COPSMsgParser.bytesToInt(data[4], data[5],data[6], data[7]))& 0xFFFFFFFFL);
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a GateUsageInfo object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static GateUsageInfo parse(final byte[] data, final int offset, final int length) {
+        final long high = COPSMsgParser.bytesToInt(data[offset], data[offset + 1], data[offset + 2], data[offset + 3]);
+        final int low = COPSMsgParser.bytesToInt(data[offset + 4], data[offset + 5], data[offset + 6], data[offset + 7]);
+        return new GateUsageInfo(high << 32 | low & 0xFFFFFFFFL);
     }
 }
@@ -8,15 +8,14 @@
 
 package org.pcmm.gates.impl;
 
-import com.google.common.primitives.Bytes;
 import org.pcmm.gates.IIPv6Classifier;
 import org.umu.cops.stack.COPSMsgParser;
 
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Implementation of the IIPv6Classifier interface
@@ -158,31 +157,33 @@ public class IPv6Classifier extends ExtendedClassifier implements IIPv6Classifie
     }
 
     @Override
-    protected byte[] getBytes() {
-        final List<Byte> byteList = new ArrayList<>();
-        byteList.add(flowEnabled.getValue());
-        byteList.add(tcLow);
-        byteList.add(tcHigh);
-        byteList.add(tcMask);
-        byteList.addAll(Bytes.asList(COPSMsgParser.intToBytes(flowLabel)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(nextHdr)));
-        byteList.add(srcPrefixLen);
-        byteList.add(dstPrefixLen);
-        byteList.addAll(Bytes.asList(srcAddress.getAddress()));
-        byteList.addAll(Bytes.asList(dstAddress.getAddress()));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(srcPort)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(srcPortEnd)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(dstPort)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(dstPortEnd)));
-        byteList.addAll(Bytes.asList(COPSMsgParser.shortToBytes(classifierId)));
-        byteList.add(priority);
-        byteList.add(activationState.getValue());
-        byteList.add(action.getByte());
+    protected int getDataLength() {
+        return 60;
+    }
 
-        // reserved padding
-        byteList.addAll(Bytes.asList((byte) 0, (byte) 0, (byte) 0));
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.put(flowEnabled.getValue());
+        buffer.put(tcLow);
+        buffer.put(tcHigh);
+        buffer.put(tcMask);
+        buffer.putInt(flowLabel);
+        buffer.putShort(nextHdr);
+        buffer.put(srcPrefixLen);
+        buffer.put(dstPrefixLen);
+        buffer.put(srcAddress.getAddress());
+        buffer.put(dstAddress.getAddress());
+        buffer.putShort(srcPort);
+        buffer.putShort(srcPortEnd);
+        buffer.putShort(dstPort);
+        buffer.putShort(dstPortEnd);
+        buffer.putShort(classifierId);
+        buffer.put(priority);
+        buffer.put(activationState.getValue());
+        buffer.put(action.getByte());
 
-        return Bytes.toArray(byteList);
+        // reserved padding
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
     }
 
     @Override
@@ -223,27 +224,39 @@ public class IPv6Classifier extends ExtendedClassifier implements IIPv6Classifie
      * TODO - make me more robust as exceptions can be swallowed here.
      */
     public static IPv6Classifier parse(final byte[] data) {
-        final List<Byte> bytes = new ArrayList<>(Bytes.asList(data));
+        return parse(data, 0, data.length);
+    }
 
+    /**
+     * Returns an IPv6Classifier object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object or null if cannot be parsed
+     */
+    public static IPv6Classifier parse(final byte[] data, final int offset, final int length) {
         try {
-            final Inet6Address srcAddress = (Inet6Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(12, 28)));
-            final Inet6Address dstAddress = (Inet6Address)InetAddress.getByAddress(Bytes.toArray(bytes.subList(28, 44)));
-            final short srcPortBegin = COPSMsgParser.bytesToShort(data[44], data[45]);
-            final short srcPortEnd = COPSMsgParser.bytesToShort(data[46], data[47]);
-            final short dstPortBegin = COPSMsgParser.bytesToShort(data[48], data[49]);
-            final short dstPortEnd = COPSMsgParser.bytesToShort(data[50], data[51]);
-            final short classifierId = COPSMsgParser.bytesToShort(data[52], data[53]);
-            final byte priority = data[54];
-            final ActivationState activationState = ActivationState.valueOf(data[55]);
-            final Action action = Action.getFromByte(data[56]);
-            final FlowLabel flowEnabled = FlowLabel.valueOf(data[0]);
-            final byte tcLow = data[1];
-            final byte tcHigh = data[2];
-            final byte tcMask = data[3];
-            final int flowLabel = COPSMsgParser.bytesToInt(data[4], data[5], data[6], data[7]);
-            final short nextHdr = COPSMsgParser.bytesToShort(data[8], data[9]);
-            final byte srcPrefixLen = data[10];
-            final byte dstPrefixLen = data[11];
+            final Inet6Address srcAddress =
+                    (Inet6Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 12, offset + 28));
+            final Inet6Address dstAddress =
+                    (Inet6Address)InetAddress.getByAddress(Arrays.copyOfRange(data, offset + 28, offset + 44));
+            final short srcPortBegin = COPSMsgParser.bytesToShort(data[offset + 44], data[offset + 45]);
+            final short srcPortEnd = COPSMsgParser.bytesToShort(data[offset + 46], data[offset + 47]);
+            final short dstPortBegin = COPSMsgParser.bytesToShort(data[offset + 48], data[offset + 49]);
+            final short dstPortEnd = COPSMsgParser.bytesToShort(data[offset + 50], data[offset + 51]);
+            final short classifierId = COPSMsgParser.bytesToShort(data[offset + 52], data[offset + 53]);
+            final byte priority = data[offset + 54];
+            final ActivationState activationState = ActivationState.valueOf(data[offset + 55]);
+            final Action action = Action.getFromByte(data[offset + 56]);
+            final FlowLabel flowEnabled = FlowLabel.valueOf(data[offset]);
+            final byte tcLow = data[offset + 1];
+            final byte tcHigh = data[offset + 2];
+            final byte tcMask = data[offset + 3];
+            final int flowLabel =
+                    COPSMsgParser.bytesToInt(data[offset + 4], data[offset + 5], data[offset + 6], data[offset + 7]);
+            final short nextHdr = COPSMsgParser.bytesToShort(data[offset + 8], data[offset + 9]);
+            final byte srcPrefixLen = data[offset + 10];
+            final byte dstPrefixLen = data[offset + 11];
 
             return new IPv6Classifier(srcAddress, dstAddress, srcPortBegin, dstPortBegin, priority, srcPortEnd,
                     dstPortEnd, classifierId, activationState, action, flowEnabled, tcLow, tcHigh, tcMask, flowLabel,
@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.IPCMMError;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the IPCMMError interface
  */
@@ -89,13 +91,14 @@ public class PCMMError extends PCMMBaseObject implements IPCMMError {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] errorCodeBytes = COPSMsgParser.shortToBytes(errorCode.getCode());
-        final byte[] subErrCodeBytes = COPSMsgParser.shortToBytes(subErrCode);
-        final byte[] data = new byte[errorCodeBytes.length + subErrCodeBytes.length];
-        System.arraycopy(errorCodeBytes, 0, data, 0, errorCodeBytes.length);
-        System.arraycopy(subErrCodeBytes, 0, data, errorCodeBytes.length, subErrCodeBytes.length);
-        return data;
+    protected int getDataLength() {
+        return 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(errorCode.getCode());
+        buffer.putShort(subErrCode);
     }
 
     @Override
@@ -128,9 +131,19 @@ public class PCMMError extends PCMMBaseObject implements IPCMMError {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static PCMMError parse(final byte[] data) {
-        return new PCMMError(ErrorCode.valueOf(COPSMsgParser.bytesToShort(data[0], data[1])),
-                (COPSMsgParser.bytesToShort(data[2], data[3])));
+        return parse(data, 0, data.length);
+    }
 
+    /**
+     * Returns a PCMMError object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static PCMMError parse(final byte[] data, final int offset, final int length) {
+        return new PCMMError(ErrorCode.valueOf(COPSMsgParser.bytesToShort(data[offset], data[offset + 1])),
+                COPSMsgParser.bytesToShort(data[offset + 2], data[offset + 3]));
     }
 
 }
@@ -9,8 +9,8 @@
 package org.pcmm.gates.impl;
 
 import com.google.common.collect.Lists;
-import com.google.common.primitives.Bytes;
 import java.util.Collections;
+import org.pcmm.base.IPCMMBaseObject;
 import org.pcmm.base.impl.PCMMBaseObject.SNum;
 import org.pcmm.gates.IAMID;
 import org.pcmm.gates.IClassifier;
@@ -32,9 +32,12 @@ import org.pcmm.gates.impl.BestEffortService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.pcmm.utils.PCMMUtils;
+import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 /**
@@ -48,10 +51,17 @@ public class PCMMGateReq implements IPCMMGate {
 
     public static final Logger logger = LoggerFactory.getLogger(PCMMGateReq.class);
 
-    // Immutable references
+    /**
+     * The S-Nums of the single occurrence objects decoded by {@link #parseLazy(byte[], int, int)}
+     */
+    private static final EnumSet<SNum> DECODED_SNUMS = EnumSet.of(SNum.TRANSACTION_ID, SNum.AMID, SNum.SUBSCRIBER_ID,
+            SNum.GATE_ID, SNum.GATE_SPEC, SNum.TRAFFIC_PROFILE, SNum.PCMM_ERROR, SNum.GATE_STATE, SNum.GATE_TIME_INFO,
+            SNum.GATE_USAGE_INFO);
+
+    // References only assigned at construction or when lazily decoded
     private final boolean multicast;
-    private final IAMID iamid;
-    private final ISubscriberID subscriberID;
+    private IAMID iamid;
+    private ISubscriberID subscriberID;
     private transient ITransactionID transactionID;
     private transient IGateSpec gateSpec;
     private transient ITrafficProfile trafficProfile;
@@ -65,6 +75,11 @@ public class PCMMGateReq implements IPCMMGate {
     private IGateTimeInfo gateTimeInfo;
     private IGateUsageInfo gateUsageInfo;
 
+    // The encoded objects of a lazily decoded request and the offsets of those not decoded yet, null otherwise
+    private final byte[] encoded;
+    private final int[] pending;
+    private int[] classifierOffsets;
+
     /**
      * Constructor
      * @param iamid - the Application Manager ID
@@ -94,6 +109,24 @@ public class PCMMGateReq implements IPCMMGate {
         this.igateState = igateState;
         this.gateTimeInfo = gateTimeInfo;
         this.gateUsageInfo = gateUsageInfo;
+        this.encoded = null;
+        this.pending = null;
+        this.classifierOffsets = null;
+    }
+
+    /**
+     * Constructor for a lazily decoded request, see {@link #parseLazy(byte[], int, int)}
+     * @param data - the encoded gate objects
+     * @param pending - the offset of the object of each S-Num in data, -1 when absent
+     * @param classifierOffsets - the offsets of the classifier objects in data
+     */
+    private PCMMGateReq(final byte[] data, final int[] pending, final int[] classifierOffsets) {
+        this.multicast = false;
+        this.iamid = null;
+        this.subscriberID = null;
+        this.encoded = data;
+        this.pending = pending;
+        this.classifierOffsets = classifierOffsets;
     }
 
     /**
@@ -102,102 +135,206 @@ public class PCMMGateReq implements IPCMMGate {
      * @return - the request
      */
     public static PCMMGateReq parse(byte[] data) {
-        GateID gateID = null;
-        AMID amid = null;
-        SubscriberID subscriberID = null;
-        TransactionID transactionID = null;
-        GateSpec gateSpec = null;
-        ITrafficProfile trafficProfile = null;
-        List<IClassifier> classifiers = Lists.newArrayListWithExpectedSize(4);
-        PCMMError error = null;
-        GateState gateState = null;
-        GateTimeInfo gateTimeInfo = null;
-        GateUsageInfo gateUsageInfo = null;
-
-
-        short offset = 0;
-        while (offset + 5 < data.length) {
-            short len = 0;
-            len |= ((short) data[offset]) << 8;
-            len |= ((short) data[offset + 1]) & 0xFF;
-            final SNum sNum = SNum.valueOf(data[offset + 2]);
-            final byte sType = data[offset + 3];
-            final int dataIndx = offset + 4;
-            byte[] dataBuffer = Arrays.copyOfRange(data, dataIndx, dataIndx + len - 4);
-            switch (sNum) {
-            case GATE_ID:
-                gateID = GateID.parse(dataBuffer);
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Creates a PCMM Gate Request object from parsing a range of a byte array, e.g. the data of a COPS ClientSI object
+     * still held in the received message buffer
+     * @param data - the data to parse
+     * @param start - the index of the first byte of the request
+     * @param length - the number of bytes of the request
+     * @return - the request
+     */
+    public static PCMMGateReq parse(final byte[] data, final int start, final int length) {
+        final PCMMGateReq gateReq = parseLazy(data, start, length);
+        gateReq.decodeAll();
+        return gateReq;
+    }
+
+    /**
+     * Creates a PCMM Gate Request object by only locating the gate objects within a range of a byte array. Each
+     * object is decoded the first time its getter is called, so a caller only interested in the transaction ID, gate
+     * ID or state of a response does not pay for the traffic profile and classifiers echoed back by the CMTS.
+     * The array must not be modified while objects remain to be decoded.
+     * @param data - the data to parse
+     * @param start - the index of the first byte of the request
+     * @param length - the number of bytes of the request
+     * @return - the request
+     */
+    public static PCMMGateReq parseLazy(final byte[] data, final int start, final int length) {
+        final int[] pending = new int[SNum.values().length];
+        Arrays.fill(pending, -1);
+        int[] classifierOffsets = new int[4];
+        int nClassifiers = 0;
+
+        final int end = start + length;
+        int offset = start;
+        while (offset + 5 < end) {
+            final int len = COPSMsgParser.bytesToShort(data[offset], data[offset + 1]) & 0xFFFF;
+            if (len < 4 || offset + len > end) {
+                logger.warn("Invalid object length " + len + " at offset " + (offset - start) + ", ignoring the rest");
                 break;
+            }
+            final SNum sNum = SNum.lookup(data[offset + 2]);
+            if (sNum == null) {
+                logger.warn("Unhandled Object skept : S-NUM=" + data[offset + 2] + "  S-TYPE=" + data[offset + 3]
+                        + "  LEN=" + len);
+            } else if (sNum == SNum.CLASSIFIERS) {
+                if (nClassifiers == classifierOffsets.length) {
+                    classifierOffsets = Arrays.copyOf(classifierOffsets, nClassifiers * 2);
+                }
+                classifierOffsets[nClassifiers++] = offset;
+            } else if (DECODED_SNUMS.contains(sNum)) {
+                pending[sNum.ordinal()] = offset;
+            } else {
+                logger.warn("Unhandled Object skept : S-NUM=" + sNum + "  S-TYPE=" + data[offset + 3] + "  LEN=" + len);
+            }
+            offset += len;
+        }
+
+        return new PCMMGateReq(data, pending, Arrays.copyOf(classifierOffsets, nClassifiers));
+    }
+
+    /**
+     * Decodes the object found at the given offset
+     * @param data - the encoded gate objects
+     * @param offset - the offset of the object header
+     * @return - the object or null when its S-Type is not supported
+     */
+    private static IPCMMBaseObject decodeObject(final byte[] data, final int offset) {
+        final int len = COPSMsgParser.bytesToShort(data[offset], data[offset + 1]) & 0xFFFF;
+        final SNum sNum = SNum.valueOf(data[offset + 2]);
+        final byte sType = data[offset + 3];
+        final int bodyOffset = offset + 4;
+        final int bodyLength = len - 4;
+        switch (sNum) {
+            case GATE_ID:
+                return GateID.parse(data, bodyOffset, bodyLength);
             case AMID:
-                amid = AMID.parse(dataBuffer);
-                break;
+                return AMID.parse(data, bodyOffset, bodyLength);
             case SUBSCRIBER_ID:
-                subscriberID = SubscriberID.parse(dataBuffer);
-                break;
+                return SubscriberID.parse(data, bodyOffset, bodyLength);
             case TRANSACTION_ID:
-                transactionID = TransactionID.parse(dataBuffer);
-                break;
+                return TransactionID.parse(data, bodyOffset, bodyLength);
             case GATE_SPEC:
-                gateSpec = GateSpec.parse(dataBuffer);
-                break;
+                return GateSpec.parse(data, bodyOffset, bodyLength);
             case TRAFFIC_PROFILE:
                 switch (sType) {
-        case DOCSISUGSTrafficProfile.STYPE:
-          trafficProfile = DOCSISUGSTrafficProfile.parse(dataBuffer);
-          break;
-                case DOCSISServiceClassNameTrafficProfile.STYPE:
-                    trafficProfile = DOCSISServiceClassNameTrafficProfile.parse(dataBuffer);
-                    break;
-                case DOCSISFlowSpecTrafficProfile.STYPE:
-                    trafficProfile = DOCSISFlowSpecTrafficProfile.parse(dataBuffer);
-                    break;
-        case DOCSISRTPTrafficProfile.STYPE:
-          trafficProfile = DOCSISRTPTrafficProfile.parse(dataBuffer);
-          break;
-                case BestEffortService.STYPE:
-                    trafficProfile = BestEffortService.parse(dataBuffer);
-                    break;
+                    case DOCSISUGSTrafficProfile.STYPE:
+                        return DOCSISUGSTrafficProfile.parse(data, bodyOffset, bodyLength);
+                    case DOCSISServiceClassNameTrafficProfile.STYPE:
+                        return DOCSISServiceClassNameTrafficProfile.parse(data, bodyOffset, bodyLength);
+                    case DOCSISFlowSpecTrafficProfile.STYPE:
+                        return DOCSISFlowSpecTrafficProfile.parse(data, bodyOffset, bodyLength);
+                    case DOCSISRTPTrafficProfile.STYPE:
+                        return DOCSISRTPTrafficProfile.parse(data, bodyOffset, bodyLength);
+                    case BestEffortService.STYPE:
+                        return BestEffortService.parse(data, bodyOffset, bodyLength);
+                    default:
+                        return null;
                 }
-                break;
             case CLASSIFIERS:
                 switch (sType) {
-                case IClassifier.STYPE:
-                    classifiers.add(Classifier.parse(dataBuffer));
-                    break;
-                case IExtendedClassifier.STYPE:
-                    classifiers.add(ExtendedClassifier.parse(dataBuffer));
-                    break;
-                case IIPv6Classifier.STYPE:
-                    classifiers.add(IPv6Classifier.parse(dataBuffer));
-                    break;
+                    case IClassifier.STYPE:
+                        return Classifier.parse(data, bodyOffset, bodyLength);
+                    case IExtendedClassifier.STYPE:
+                        return ExtendedClassifier.parse(data, bodyOffset, bodyLength);
+                    case IIPv6Classifier.STYPE:
+                        return IPv6Classifier.parse(data, bodyOffset, bodyLength);
+                    default:
+                        return null;
                 }
+            case PCMM_ERROR:
+                return PCMMError.parse(data, bodyOffset, bodyLength);
+            case GATE_STATE:
+                return GateState.parse(data, bodyOffset, bodyLength);
+            case GATE_TIME_INFO:
+                final GateTimeInfo gateTimeInfo = GateTimeInfo.parse(data, bodyOffset, bodyLength);
+                if (logger.isDebugEnabled()) logger.debug("Gate Time Info: " + gateTimeInfo);
+                return gateTimeInfo;
+            case GATE_USAGE_INFO:
+                final GateUsageInfo gateUsageInfo = GateUsageInfo.parse(data, bodyOffset, bodyLength);
+                if (logger.isDebugEnabled()) logger.debug("Gate Usage Info: " + gateUsageInfo);
+                return gateUsageInfo;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Decodes the pending object of the given S-Num, if any, into its attribute
+     * @param sNum - the S-Num
+     */
+    private synchronized void decode(final SNum sNum) {
+        if (sNum == SNum.CLASSIFIERS) {
+            if (classifierOffsets == null) return;
+            final List<IClassifier> decoded = Lists.newArrayListWithExpectedSize(classifierOffsets.length);
+            for (final int offset : classifierOffsets) {
+                final IClassifier classifier = (IClassifier) decodeObject(encoded, offset);
+                if (classifier != null) decoded.add(classifier);
+            }
+            classifiers = decoded;
+            classifierOffsets = null;
+            return;
+        }
+        final int offset = pending[sNum.ordinal()];
+        if (offset < 0) return;
+        pending[sNum.ordinal()] = -1;
+        final IPCMMBaseObject obj = decodeObject(encoded, offset);
+        switch (sNum) {
+            case GATE_ID:
+                gateID = (IGateID) obj;
+                break;
+            case AMID:
+                iamid = (IAMID) obj;
+                break;
+            case SUBSCRIBER_ID:
+                subscriberID = (ISubscriberID) obj;
+                break;
+            case TRANSACTION_ID:
+                transactionID = (ITransactionID) obj;
+                break;
+            case GATE_SPEC:
+                gateSpec = (IGateSpec) obj;
+                break;
+            case TRAFFIC_PROFILE:
+                trafficProfile = (ITrafficProfile) obj;
                 break;
             case PCMM_ERROR:
-                error = PCMMError.parse(dataBuffer);
+                error = (IPCMMError) obj;
                 break;
-                //adding GATE_STATE
             case GATE_STATE:
-                gateState = GateState.parse(dataBuffer);
+                igateState = (IGateState) obj;
                 break;
-                //adding GATE_TIME_INFO
             case GATE_TIME_INFO:
-                gateTimeInfo = GateTimeInfo.parse(dataBuffer);
-                logger.info("Gate Time Info: "+gateTimeInfo);
+                gateTimeInfo = (IGateTimeInfo) obj;
                 break;
-                //adding GATE_USAGE_INFO
             case GATE_USAGE_INFO:
-                gateUsageInfo = GateUsageInfo.parse(dataBuffer);
-                logger.info("Gate Usage Info: "+gateUsageInfo);
+                gateUsageInfo = (IGateUsageInfo) obj;
                 break;
-            default:
-                logger.warn("Unhandled Object skept : S-NUM=" + sNum
-                            + "  S-TYPE=" + sType + "  LEN=" + len);
-            }
-            offset += len;
         }
+    }
 
-        return new PCMMGateReq(amid, subscriberID, transactionID, gateSpec, trafficProfile,
-        		classifiers, gateID, error, gateState, gateTimeInfo,gateUsageInfo);
+    /**
+     * Discards the pending object of the given S-Num as its attribute is being replaced
+     * @param sNum - the S-Num
+     */
+    private synchronized void discard(final SNum sNum) {
+        if (pending == null) return;
+        if (sNum == SNum.CLASSIFIERS) classifierOffsets = null;
+        else pending[sNum.ordinal()] = -1;
+    }
+
+    /**
+     * Decodes all the objects still pending
+     */
+    private void decodeAll() {
+        if (pending == null) return;
+        for (final SNum sNum : DECODED_SNUMS) {
+            decode(sNum);
+        }
+        decode(SNum.CLASSIFIERS);
     }
 
     @Override
@@ -208,28 +345,33 @@ public class PCMMGateReq implements IPCMMGate {
 
     @Override
     public void setGateID(IGateID gateid) {
+        discard(SNum.GATE_ID);
         this.gateID = gateid;
 
     }
 
     @Override
     public void setGateState(IGateState gatestate) {
+        discard(SNum.GATE_STATE);
         this.igateState = gatestate;
     }
 
     @Override
     public void setTransactionID(ITransactionID transactionID) {
+        discard(SNum.TRANSACTION_ID);
         this.transactionID = transactionID;
 
     }
 
     @Override
     public void setGateSpec(IGateSpec gateSpec) {
+        discard(SNum.GATE_SPEC);
         this.gateSpec = gateSpec;
     }
 
     @Override
     public void setClassifiers(List<IClassifier> classifiers) {
+        discard(SNum.CLASSIFIERS);
         if (classifiers == null) {
             this.classifiers = null;
         }
@@ -240,48 +382,57 @@ public class PCMMGateReq implements IPCMMGate {
 
     @Override
     public void setTrafficProfile(ITrafficProfile profile) {
+        discard(SNum.TRAFFIC_PROFILE);
         this.trafficProfile = profile;
     }
 
     @Override
     public void setGateTimeInfo(IGateTimeInfo gateTimeInfo) {
+        discard(SNum.GATE_TIME_INFO);
         this.gateTimeInfo = gateTimeInfo;
     }
 
     @Override
     public void setGateUsageInfo(IGateUsageInfo gateUsageInfo) {
+        discard(SNum.GATE_USAGE_INFO);
         this.gateUsageInfo = gateUsageInfo;
     }
 
 
     @Override
     public IGateID getGateID() {
+        if (pending != null) decode(SNum.GATE_ID);
         return gateID;
     }
 
    @Override
    public IGateState getGateState() {
+        if (pending != null) decode(SNum.GATE_STATE);
         return igateState;
    }
 
 
     @Override
     public IAMID getAMID() {
+        if (pending != null) decode(SNum.AMID);
         return iamid;
     }
 
     @Override
     public ISubscriberID getSubscriberID() {
+        if (pending != null) decode(SNum.SUBSCRIBER_ID);
         return subscriberID;
     }
 
     @Override
     public IGateSpec getGateSpec() {
+        if (pending != null) decode(SNum.GATE_SPEC);
         return gateSpec;
     }
 
     @Override
     public List<IClassifier> getClassifiers() {
+        if (pending != null) decode(SNum.CLASSIFIERS);
         if (classifiers == null) {
             return null;
         }
@@ -290,68 +441,87 @@ public class PCMMGateReq implements IPCMMGate {
 
     @Override
     public ITrafficProfile getTrafficProfile() {
+        if (pending != null) decode(SNum.TRAFFIC_PROFILE);
         return trafficProfile;
     }
 
     @Override
     public ITransactionID getTransactionID() {
+        if (pending != null) decode(SNum.TRANSACTION_ID);
         return transactionID;
     }
 
     public IPCMMError getError() {
+        if (pending != null) decode(SNum.PCMM_ERROR);
         return error;
     }
 
     @Override
     public IGateTimeInfo getGateTimeInfo() {
+        if (pending != null) decode(SNum.GATE_TIME_INFO);
          return gateTimeInfo;
     }
 
     @Override
     public IGateUsageInfo getGateUsageInfo() {
+        if (pending != null) decode(SNum.GATE_USAGE_INFO);
          return gateUsageInfo;
     }
 
     public void setError(IPCMMError error) {
+        discard(SNum.PCMM_ERROR);
         this.error = error;
     }
 
     @Override
     public byte[] getData() {
-        final List<Byte> byteList = new ArrayList<>();
-        if (getTransactionID() != null) {
-            byteList.addAll(Bytes.asList(getTransactionID().getAsBinaryArray()));
-        }
-        if (getGateID() != null) {
-            byteList.addAll(Bytes.asList(getGateID().getAsBinaryArray()));
-        }
-        if (getAMID() != null) {
-            byteList.addAll(Bytes.asList(getAMID().getAsBinaryArray()));
-        }
-        if (getSubscriberID() != null) {
-            byteList.addAll(Bytes.asList(getSubscriberID().getAsBinaryArray()));
-        }
-        if (getGateSpec() != null) {
-            byteList.addAll(Bytes.asList(getGateSpec().getAsBinaryArray()));
-        }
-        if (getTrafficProfile() != null) {
-            byteList.addAll(Bytes.asList(getTrafficProfile().getAsBinaryArray()));
-        }
+        final ByteBuffer buffer = ByteBuffer.allocate(encodedLength());
+        encodeTo(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Returns the number of bytes written by {@link #encodeTo(ByteBuffer)}
+     * @return - the length of the encoded gate objects
+     */
+    public int encodedLength() {
+        int length = 0;
+        if (getTransactionID() != null) length += getTransactionID().encodedLength();
+        if (getGateID() != null) length += getGateID().encodedLength();
+        if (getAMID() != null) length += getAMID().encodedLength();
+        if (getSubscriberID() != null) length += getSubscriberID().encodedLength();
+        if (getGateSpec() != null) length += getGateSpec().encodedLength();
+        if (getTrafficProfile() != null) length += getTrafficProfile().encodedLength();
         if (getClassifiers() != null) {
-            for (IClassifier classifier : getClassifiers()) {
-                byteList.addAll(Bytes.asList(classifier.getAsBinaryArray()));
+            for (final IClassifier classifier : getClassifiers()) {
+                length += classifier.encodedLength();
             }
         }
-        if (getGateState() != null) {
-            byteList.addAll(Bytes.asList(getGateState().getAsBinaryArray()));
-        }
-        if (getGateTimeInfo() != null) {
-            byteList.addAll(Bytes.asList(getGateTimeInfo().getAsBinaryArray()));
-        }
-        if (getGateUsageInfo() != null) {
-            byteList.addAll(Bytes.asList(getGateUsageInfo().getAsBinaryArray()));
+        if (getGateState() != null) length += getGateState().encodedLength();
+        if (getGateTimeInfo() != null) length += getGateTimeInfo().encodedLength();
+        if (getGateUsageInfo() != null) length += getGateUsageInfo().encodedLength();
+        return length;
+    }
+
+    /**
+     * Encodes all gate objects into the buffer at its current position
+     * @param buffer - a buffer with at least {@link #encodedLength()} bytes remaining
+     */
+    public void encodeTo(final ByteBuffer buffer) {
+        if (getTransactionID() != null) getTransactionID().encodeTo(buffer);
+        if (getGateID() != null) getGateID().encodeTo(buffer);
+        if (getAMID() != null) getAMID().encodeTo(buffer);
+        if (getSubscriberID() != null) getSubscriberID().encodeTo(buffer);
+        if (getGateSpec() != null) getGateSpec().encodeTo(buffer);
+        if (getTrafficProfile() != null) getTrafficProfile().encodeTo(buffer);
+        if (getClassifiers() != null) {
+            for (final IClassifier classifier : getClassifiers()) {
+                classifier.encodeTo(buffer);
+            }
         }
-        return Bytes.toArray(byteList);
+        if (getGateState() != null) getGateState().encodeTo(buffer);
+        if (getGateTimeInfo() != null) getGateTimeInfo().encodeTo(buffer);
+        if (getGateUsageInfo() != null) getGateUsageInfo().encodeTo(buffer);
     }
 
 /*
@@ -14,8 +14,11 @@ import java.net.Inet4Address;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ISubscriberID;
 
+import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Implementation of the ISubscriberID interface
@@ -43,8 +46,13 @@ public class SubscriberID extends PCMMBaseObject implements ISubscriberID {
     }
 
     @Override
-    protected byte[] getBytes() {
-        return srcIp.getAddress();
+    protected int getDataLength() {
+        return srcIp instanceof Inet6Address ? 16 : 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.put(srcIp.getAddress());
     }
 
     @Override
@@ -86,8 +94,19 @@ public class SubscriberID extends PCMMBaseObject implements ISubscriberID {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static SubscriberID parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a SubscriberID object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object or null if cannot be parsed
+     */
+    public static SubscriberID parse(final byte[] data, final int offset, final int length) {
         try {
-            return new SubscriberID(InetAddress.getByAddress(data));
+            return new SubscriberID(InetAddress.getByAddress(Arrays.copyOfRange(data, offset, offset + length)));
         } catch (UnknownHostException e) {
             return null;
         }
@@ -12,6 +12,8 @@ import org.pcmm.base.impl.PCMMBaseObject;
 import org.pcmm.gates.ITransactionID;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * Implementation of the ITransactionID interface
  */
@@ -51,14 +53,14 @@ public class TransactionID extends PCMMBaseObject implements ITransactionID {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] transIdBytes = COPSMsgParser.shortToBytes(transId);
-        final byte[] data = new byte[transIdBytes.length + transIdBytes.length];
-        System.arraycopy(transIdBytes, 0, data, 0, transIdBytes.length);
+    protected int getDataLength() {
+        return 4;
+    }
 
-        final byte[] gateCmdBytes = COPSMsgParser.shortToBytes(gateCommandType.getValue());
-        System.arraycopy(gateCmdBytes, 0, data, transIdBytes.length, gateCmdBytes.length);
-        return data;
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(transId);
+        buffer.putShort(gateCommandType.getValue());
     }
 
     /**
@@ -68,7 +70,18 @@ public class TransactionID extends PCMMBaseObject implements ITransactionID {
      * TODO - make me more robust as RuntimeExceptions can be thrown here.
      */
     public static TransactionID parse(final byte[] data) {
-        return new TransactionID(COPSMsgParser.bytesToShort(data[0], data[1]),
-                GateCommandType.valueOf(COPSMsgParser.bytesToShort(data[2], data[3])));
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Returns a TransactionID object from a range of a byte array
+     * @param data - the data to parse
+     * @param offset - the index of the first byte of the object body
+     * @param length - the number of bytes of the object body
+     * @return - the object
+     */
+    public static TransactionID parse(final byte[] data, final int offset, final int length) {
+        return new TransactionID(COPSMsgParser.bytesToShort(data[offset], data[offset + 1]),
+                GateCommandType.valueOf(COPSMsgParser.bytesToShort(data[offset + 2], data[offset + 3])));
     }
 }
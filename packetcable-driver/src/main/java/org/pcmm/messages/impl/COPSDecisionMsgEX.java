@@ -13,7 +13,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -65,11 +65,11 @@ public class COPSDecisionMsgEX extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
+    protected void writeBody(final ByteBuffer buffer) {
         if (_clientHandle != null)
-            _clientHandle.writeData(socket);
+            _clientHandle.writeData(buffer);
         if (_error != null)
-            _error.writeData(socket);
+            _error.writeData(buffer);
 
         // Display decisions
         // Display any local decisions
@@ -77,16 +77,16 @@ public class COPSDecisionMsgEX extends COPSMsg {
 
             final COPSContext context = entry.getKey();
             final List<COPSDecision> decisions = entry.getValue();
-            context.writeData(socket);
+            context.writeData(buffer);
 
             for (final COPSDecision decision : decisions) {
-                decision.writeData(socket);
+                decision.writeData(buffer);
             }
         }
         if (clientSI != null)
-            clientSI.writeData(socket);
+            clientSI.writeData(buffer);
         if (_integrity != null)
-            _integrity.writeData(socket);
+            _integrity.writeData(buffer);
     }
 
     /**
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2014, 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.nio;
+
+import org.umu.cops.stack.COPSException;
+import org.umu.cops.stack.COPSMsg;
+
+/**
+ * Receives the events of a channel registered with a {@link PCMMEventLoop}. All methods are invoked on the event
+ * loop thread owning the channel and must therefore not block for long.
+ */
+public interface IPCMMChannelHandler {
+
+    /**
+     * Called for each complete COPS message read from the channel
+     * @param msg - the message
+     * @throws COPSException - when the message cannot be processed, the channel remains open
+     */
+    void messageReceived(COPSMsg msg) throws COPSException;
+
+    /**
+     * Called once the channel has been registered, before any message is delivered
+     */
+    void channelRegistered();
+
+    /**
+     * Called once when the channel has been closed either locally or by the peer
+     */
+    void channelClosed();
+
+}
@@ -64,7 +64,7 @@ public class PCMMChannel {
 	 * @throws COPSException
 	 */
 	public COPSMsg receiveMessage() throws IOException, COPSException {
-        return COPSMsgParser.parseMessage(socket);
+        return COPSMsgParser.parseMessage(socket, timeout);
 	}
 
 	/**
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2014, 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.nio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Presents a non-blocking SocketChannel owned by a {@link PCMMEventLoop} as a Socket so the COPS state managers and
+ * message senders can keep writing messages through the Socket API. Inbound data is only delivered through the
+ * event loop, so the input stream is not available. Once registered, the bytes written are queued and written by the
+ * event loop (see {@link PCMMEventLoop}), so concurrent senders never interleave their messages.
+ */
+public class PCMMChannelSocket extends Socket {
+
+    private final static Logger logger = LoggerFactory.getLogger(PCMMChannelSocket.class);
+
+    /**
+     * The wrapped channel
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Stream writing directly to the channel
+     */
+    private final OutputStream outputStream;
+
+    /**
+     * The registration with the event loop, set once the channel is registered
+     */
+    private volatile PCMMEventLoop.ChannelContext context;
+
+    /**
+     * Set by {@link #close()}, the channel of a registered socket being closed later by its event loop
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     * @param channel - a connected channel
+     */
+    public PCMMChannelSocket(final SocketChannel channel) {
+        if (channel == null) throw new IllegalArgumentException("Channel must not be null");
+        this.channel = channel;
+        this.outputStream = new ChannelOutputStream();
+    }
+
+    void setContext(final PCMMEventLoop.ChannelContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        throw new SocketException("Inbound data is delivered by the event loop");
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (isClosed()) throw new SocketException("Socket is closed");
+        return outputStream;
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    @Override
+    public int getPort() {
+        return channel.socket().getPort();
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return channel.socket().getLocalAddress();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return channel.socket().getRemoteSocketAddress();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return channel.socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public void setTcpNoDelay(final boolean on) throws SocketException {
+        channel.socket().setTcpNoDelay(on);
+    }
+
+    @Override
+    public boolean getTcpNoDelay() throws SocketException {
+        return channel.socket().getTcpNoDelay();
+    }
+
+    @Override
+    public synchronized void setSoTimeout(final int timeout) throws SocketException {
+        channel.socket().setSoTimeout(timeout);
+    }
+
+    @Override
+    public synchronized int getSoTimeout() throws SocketException {
+        return channel.socket().getSoTimeout();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return channel.isConnected();
+    }
+
+    @Override
+    public boolean isBound() {
+        return channel.socket().isBound();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed || !channel.isOpen();
+    }
+
+    /**
+     * Closes the socket without blocking. Once registered, the channel is closed by its event loop after writing the
+     * messages still queued, within {@link PCMMEventLoop#CLOSE_TIMEOUT_MILLIS}.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        final PCMMEventLoop.ChannelContext ctx = context;
+        if (ctx != null) {
+            ctx.closeGracefully();
+        } else {
+            channel.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PCMMChannelSocket[" + channel.socket() + "]";
+    }
+
+    /**
+     * Writes the whole content of the buffer. When the channel's send buffer is full, the calling thread waits on a
+     * temporary selector until the channel becomes writable again.
+     * @param buffer - the data to write
+     * @throws IOException
+     */
+    void writeFully(final ByteBuffer buffer) throws IOException {
+        Selector selector = null;
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    if (selector == null) {
+                        selector = Selector.open();
+                        channel.register(selector, SelectionKey.OP_WRITE);
+                    }
+                    selector.select();
+                    selector.selectedKeys().clear();
+                }
+            }
+        } finally {
+            if (selector != null) {
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    logger.warn("Error closing write selector", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stream writing through the channel. Once the channel is registered each write is queued for the event loop,
+     * until then concurrent calls to write() are serialized.
+     */
+    private class ChannelOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            final PCMMEventLoop.ChannelContext ctx = context;
+            if (ctx != null) {
+                ctx.write(b, off, len);
+                return;
+            }
+            synchronized (this) {
+                writeFully(ByteBuffer.wrap(b, off, len));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2014, 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.nio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umu.cops.stack.COPSException;
+import org.umu.cops.stack.COPSFrameDecoder;
+import org.umu.cops.stack.COPSMsg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.net.SocketException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single thread owning a Selector and all the COPS channels registered with it. Inbound bytes are framed into COPS
+ * messages as they arrive by the channel's {@link COPSFrameDecoder} and handed to its {@link IPCMMChannelHandler}.
+ * <p>
+ * Outbound messages written by any thread are copied into the channel's outbound queue and written by the loop, all
+ * the messages queued since the previous flush leaving with a single gathering write. A flush is requested as soon as
+ * a message is queued, or only once the queued messages reach the flush threshold or the oldest has lingered for the
+ * configured time when a linger time is set, trading latency for fewer and larger writes.
+ * <p>
+ * Closing a channel never blocks: the loop keeps flushing the messages still queued, e.g. a Client-Close, as the
+ * channel accepts them and closes it once they are written or {@link #CLOSE_TIMEOUT_MILLIS} has elapsed, so a peer
+ * which stopped reading cannot hold the thread closing the connection.
+ */
+public class PCMMEventLoop implements Runnable {
+
+    private final static Logger logger = LoggerFactory.getLogger(PCMMEventLoop.class);
+
+    /**
+     * Size of the per channel receive buffer, messages larger than it are reassembled by the decoder
+     */
+    static final int READ_BUFFER_SIZE = 4096;
+
+    /**
+     * Number of queued bytes flushed without waiting for the linger time, when not configured with the
+     * pcmm.nio.flush.threshold property
+     */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 16 * 1024;
+
+    /**
+     * Time (ms) an outbound message may wait for others to be written with it, when not configured with the
+     * pcmm.nio.flush.linger property
+     */
+    public static final int DEFAULT_FLUSH_LINGER = 0;
+
+    /**
+     * Time (ms) given to a closing channel to write its queued messages, the remainder being dropped
+     */
+    static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Largest COPS message accepted, larger frames are considered corrupt and close the channel
+     */
+    private final int maxFrameSize;
+
+    private final int flushThreshold;
+
+    private final long lingerNanos;
+
+    private final Selector selector;
+
+    private final Thread thread;
+
+    /**
+     * Registrations and closures requested by other threads, executed by the loop thread
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Channels whose queued messages wait for the linger time, in the order of their flush deadlines. Only accessed by
+     * the loop thread.
+     */
+    private final Queue<ChannelContext> lingering = new ArrayDeque<>();
+
+    /**
+     * Closing channels still writing their queued messages, in the order of their close deadlines. Only accessed by
+     * the loop thread.
+     */
+    private final Queue<ChannelContext> closing = new ArrayDeque<>();
+
+    private volatile boolean running;
+
+    /**
+     * Constructor accepting messages up to {@link COPSFrameDecoder#DEFAULT_MAX_FRAME_SIZE} bytes
+     * @param name - the name of the loop thread
+     * @throws IOException - when the selector cannot be opened
+     */
+    PCMMEventLoop(final String name) throws IOException {
+        this(name, COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE, DEFAULT_FLUSH_THRESHOLD, DEFAULT_FLUSH_LINGER);
+    }
+
+    /**
+     * Constructor
+     * @param name - the name of the loop thread
+     * @param maxFrameSize - the largest COPS message accepted (bytes)
+     * @param flushThreshold - the number of queued outbound bytes flushed without waiting for the linger time
+     * @param lingerMillis - the time (ms) an outbound message may wait for others, 0 to flush as soon as possible
+     * @throws IOException - when the selector cannot be opened
+     */
+    PCMMEventLoop(final String name, final int maxFrameSize, final int flushThreshold, final int lingerMillis)
+            throws IOException {
+        if (maxFrameSize < 8) throw new IllegalArgumentException("Invalid maximum frame size - " + maxFrameSize);
+        if (flushThreshold < 1) throw new IllegalArgumentException("Invalid flush threshold - " + flushThreshold);
+        if (lingerMillis < 0) throw new IllegalArgumentException("Invalid linger time - " + lingerMillis);
+        this.maxFrameSize = maxFrameSize;
+        this.flushThreshold = flushThreshold;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        selector = Selector.open();
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Registers a connected channel, switching it to non-blocking mode. From then on the handler receives all
+     * messages arriving on it.
+     * @param socket - the socket wrapping the channel
+     * @param handler - the handler for the channel events
+     * @throws IOException - when the channel cannot be switched to non-blocking mode
+     */
+    public void register(final PCMMChannelSocket socket, final IPCMMChannelHandler handler) throws IOException {
+        final SocketChannel channel = socket.getChannel();
+        channel.configureBlocking(false);
+        final ChannelContext ctx = new ChannelContext(socket, handler);
+        socket.setContext(ctx);
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ctx.key = channel.register(selector, SelectionKey.OP_READ, ctx);
+                    logger.info("Registered channel " + socket);
+                    handler.channelRegistered();
+                    ctx.flush();
+                } catch (IOException e) {
+                    logger.error("Unable to register channel " + socket, e);
+                    ctx.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops the loop and closes all the channels registered with it
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void execute(final Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                select();
+                runTasks();
+                processSelectedKeys();
+                flushLingering();
+                closeExpired();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in event loop " + thread.getName() + ", continue processing", e);
+            }
+        }
+        closeAll();
+    }
+
+    /**
+     * Waits for I/O events, tasks, the flush deadline of the first lingering channel or the close deadline of the
+     * first closing channel
+     */
+    private void select() throws IOException {
+        final ChannelContext firstLingering = lingering.peek();
+        final ChannelContext firstClosing = closing.peek();
+        if (firstLingering == null && firstClosing == null) {
+            selector.select();
+            return;
+        }
+        final long deadline;
+        if (firstClosing == null) {
+            deadline = firstLingering.flushDeadline;
+        } else if (firstLingering == null) {
+            deadline = firstClosing.closeDeadline;
+        } else {
+            deadline = firstLingering.flushDeadline - firstClosing.closeDeadline < 0
+                    ? firstLingering.flushDeadline : firstClosing.closeDeadline;
+        }
+        final long delay = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (delay > 0) {
+            selector.select(delay);
+        } else {
+            selector.selectNow();
+        }
+    }
+
+    /**
+     * Flushes the lingering channels whose deadline has passed
+     */
+    private void flushLingering() {
+        final long now = System.nanoTime();
+        ChannelContext ctx;
+        while ((ctx = lingering.peek()) != null && ctx.flushDeadline - now <= 0) {
+            lingering.poll();
+            ctx.lingerScheduled.set(false);
+            ctx.flush();
+        }
+    }
+
+    /**
+     * Closes the closing channels whose deadline has passed, dropping the messages they could not write
+     */
+    private void closeExpired() {
+        final long now = System.nanoTime();
+        ChannelContext ctx;
+        while ((ctx = closing.peek()) != null && ctx.closeDeadline - now <= 0) {
+            closing.poll();
+            if (ctx.isFlushPending()) {
+                logger.warn("Closing " + ctx.socket + " with messages not written after " + CLOSE_TIMEOUT_MILLIS
+                        + "ms");
+            }
+            ctx.close();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void processSelectedKeys() {
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            final ChannelContext ctx = (ChannelContext) key.attachment();
+            if (key.isValid() && key.isReadable()) {
+                ctx.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                ctx.flush();
+            }
+        }
+    }
+
+    private void closeAll() {
+        runTasks();
+        for (final SelectionKey key : selector.keys()) {
+            ((ChannelContext) key.attachment()).close();
+        }
+        runTasks();
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.error("Error closing selector", e);
+        }
+    }
+
+    /**
+     * The state of one registered channel
+     */
+    final class ChannelContext {
+
+        private final PCMMChannelSocket socket;
+        private final IPCMMChannelHandler handler;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final COPSFrameDecoder decoder = new COPSFrameDecoder(maxFrameSize);
+        private final List<COPSMsg> msgs = new ArrayList<>();
+        private SelectionKey key;
+
+        /**
+         * Copies of the messages written by any thread since the last flush, and their total size
+         */
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outboundBytes = new AtomicInteger();
+
+        /**
+         * Set while a flush task is pending, so a burst of messages requests a single flush
+         */
+        private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+        /**
+         * Set while the channel is in the lingering queue of the loop
+         */
+        private final AtomicBoolean lingerScheduled = new AtomicBoolean(false);
+        private long flushDeadline;
+
+        /**
+         * Set once the channel is closing, it then accepts no more messages and is closed once its queue is written
+         */
+        private final AtomicBoolean closeRequested = new AtomicBoolean(false);
+        private long closeDeadline;
+
+        /**
+         * Messages taken from the outbound queue and not completely written yet, guarded by itself
+         */
+        private final Queue<ByteBuffer> unflushed = new ArrayDeque<>();
+
+        private final Runnable flushTask = new Runnable() {
+            @Override
+            public void run() {
+                flushRequested.set(false);
+                flush();
+            }
+        };
+
+        private ChannelContext(final PCMMChannelSocket socket, final IPCMMChannelHandler handler) {
+            this.socket = socket;
+            this.handler = handler;
+        }
+
+        /**
+         * Reads the available bytes and dispatches every message they complete. A message which cannot be parsed is
+         * logged and skipped, the following ones being still delivered.
+         */
+        private void read() {
+            try {
+                buffer.clear();
+                if (socket.getChannel().read(buffer) < 0) {
+                    logger.info("Connection closed by peer " + socket);
+                    close();
+                    return;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    try {
+                        decoder.decode(buffer, msgs);
+                    } catch (COPSException e) {
+                        logger.error("Unable to parse message from " + socket + ", continue processing", e);
+                    }
+                    dispatch();
+                }
+            } catch (IOException e) {
+                dispatch();
+                logger.error("Error reading from " + socket + ", closing", e);
+                close();
+            }
+        }
+
+        /**
+         * Delivers the decoded messages. Each message has been parsed in place from its own array (see
+         * {@link COPSFrameDecoder}), so it may keep referencing those bytes (e.g. a handle kept as a map key).
+         */
+        private void dispatch() {
+            for (final COPSMsg msg : msgs) {
+                try {
+                    handler.messageReceived(msg);
+                } catch (Exception e) {
+                    logger.error("Error while processing message from " + socket + ", continue processing", e);
+                }
+            }
+            msgs.clear();
+        }
+
+        /**
+         * Queues a copy of the bytes, the caller being free to reuse its array, and requests a flush according to
+         * the flush threshold and linger time of the loop
+         * @throws IOException - when the channel has been closed
+         */
+        void write(final byte[] b, final int off, final int len) throws IOException {
+            if (closed.get() || closeRequested.get()) throw new SocketException("Socket is closed");
+            outbound.add(ByteBuffer.wrap(Arrays.copyOfRange(b, off, off + len)));
+            final int queued = outboundBytes.addAndGet(len);
+            if (lingerNanos == 0 || queued >= flushThreshold) {
+                if (flushRequested.compareAndSet(false, true)) execute(flushTask);
+            } else if (lingerScheduled.compareAndSet(false, true)) {
+                final long deadline = System.nanoTime() + lingerNanos;
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        flushDeadline = deadline;
+                        lingering.add(ChannelContext.this);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Writes as much of the queued messages as the channel accepts without blocking, in one gathering write.
+         * The remainder is written once the loop finds the channel writable again. A closing channel is closed once
+         * everything has been written.
+         */
+        private void flush() {
+            if (closed.get()) return;
+            try {
+                synchronized (unflushed) {
+                    takeOutbound();
+                    if (!unflushed.isEmpty()) {
+                        socket.getChannel().write(unflushed.toArray(new ByteBuffer[unflushed.size()]));
+                        while (!unflushed.isEmpty() && !unflushed.peek().hasRemaining()) {
+                            unflushed.poll();
+                        }
+                    }
+                    final int ops = unflushed.isEmpty() ? SelectionKey.OP_READ
+                            : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+                    if (key != null && key.isValid() && key.interestOps() != ops) {
+                        key.interestOps(ops);
+                    }
+                    if (closeRequested.get() && unflushed.isEmpty() && outbound.isEmpty()) {
+                        close();
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Error writing to " + socket + ", closing", e);
+                close();
+            }
+        }
+
+        /**
+         * Closes the channel once the messages queued so far are written, so the last messages written (e.g. a
+         * Client-Close) are not lost, or after {@link #CLOSE_TIMEOUT_MILLIS} at the latest. Returns at once, the
+         * writes being done by the loop without blocking.
+         */
+        void closeGracefully() {
+            if (closed.get() || !closeRequested.compareAndSet(false, true)) return;
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+            execute(new Runnable() {
+                @Override
+                public void run() {
+                    closeDeadline = deadline;
+                    closing.add(ChannelContext.this);
+                    flush();
+                }
+            });
+        }
+
+        /**
+         * @return - true while queued messages have not been completely written
+         */
+        private boolean isFlushPending() {
+            synchronized (unflushed) {
+                return !unflushed.isEmpty() || !outbound.isEmpty();
+            }
+        }
+
+        private void takeOutbound() {
+            ByteBuffer buffer;
+            while ((buffer = outbound.poll()) != null) {
+                outboundBytes.addAndGet(-buffer.remaining());
+                unflushed.add(buffer);
+            }
+        }
+
+        /**
+         * Closes the channel and notifies the handler on the loop thread, only the first call has an effect
+         */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (key != null) key.cancel();
+                        try {
+                            socket.getChannel().close();
+                        } catch (IOException e) {
+                            logger.error("Error closing channel " + socket, e);
+                        }
+                        try {
+                            handler.channelClosed();
+                        } catch (Exception e) {
+                            logger.error("Error notifying the closure of " + socket, e);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2014, 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.nio;
+
+import org.pcmm.PCMMConstants;
+import org.pcmm.PCMMProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umu.cops.stack.COPSFrameDecoder;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of {@link PCMMEventLoop}s sharing the COPS connections between them. Each connection is owned by a
+ * single loop for its whole life, so thousands of CCAP connections are served by a handful of threads.
+ */
+public class PCMMEventLoopGroup {
+
+    private final static Logger logger = LoggerFactory.getLogger(PCMMEventLoopGroup.class);
+
+    /**
+     * Number of loops used by the shared group when not configured with the pcmm.nio.event.loops property
+     */
+    public static final int DEFAULT_EVENT_LOOPS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private static PCMMEventLoopGroup defaultGroup;
+
+    private final PCMMEventLoop[] loops;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates and starts a group accepting messages up to {@link COPSFrameDecoder#DEFAULT_MAX_FRAME_SIZE} bytes
+     * @param nLoops - the number of event loop threads
+     * @param name - the prefix of the thread names
+     * @throws IOException - when a selector cannot be opened
+     */
+    public PCMMEventLoopGroup(final int nLoops, final String name) throws IOException {
+        this(nLoops, name, COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Creates and starts a group flushing each outbound message as soon as possible
+     * @param nLoops - the number of event loop threads
+     * @param name - the prefix of the thread names
+     * @param maxFrameSize - the largest COPS message accepted (bytes)
+     * @throws IOException - when a selector cannot be opened
+     */
+    public PCMMEventLoopGroup(final int nLoops, final String name, final int maxFrameSize) throws IOException {
+        this(nLoops, name, maxFrameSize, PCMMEventLoop.DEFAULT_FLUSH_THRESHOLD, PCMMEventLoop.DEFAULT_FLUSH_LINGER);
+    }
+
+    /**
+     * Creates and starts a group
+     * @param nLoops - the number of event loop threads
+     * @param name - the prefix of the thread names
+     * @param maxFrameSize - the largest COPS message accepted (bytes)
+     * @param flushThreshold - the number of queued outbound bytes of a channel flushed without waiting for the linger
+     *                       time
+     * @param lingerMillis - the time (ms) an outbound message may wait for others, 0 to flush as soon as possible
+     * @throws IOException - when a selector cannot be opened
+     */
+    public PCMMEventLoopGroup(final int nLoops, final String name, final int maxFrameSize, final int flushThreshold,
+                              final int lingerMillis) throws IOException {
+        if (nLoops < 1) throw new IllegalArgumentException("At least one event loop is required");
+        loops = new PCMMEventLoop[nLoops];
+        try {
+            for (int i = 0; i < nLoops; i++) {
+                loops[i] = new PCMMEventLoop(name + "-" + i, maxFrameSize, flushThreshold, lingerMillis);
+            }
+        } catch (IOException e) {
+            for (final PCMMEventLoop loop : loops) {
+                if (loop != null) loop.shutdown();
+            }
+            throw e;
+        }
+        for (final PCMMEventLoop loop : loops) {
+            loop.start();
+        }
+        logger.info("Started " + nLoops + " event loops for " + name);
+    }
+
+    /**
+     * Returns the group shared by all PCMM PDP agents, creating it on first use
+     * @return - the shared group
+     * @throws IOException - when a selector cannot be opened
+     */
+    public static synchronized PCMMEventLoopGroup getDefault() throws IOException {
+        if (defaultGroup == null) {
+            final int nLoops = PCMMProperties.get(PCMMConstants.NIO_EVENT_LOOPS, Integer.class, DEFAULT_EVENT_LOOPS);
+            final int maxFrameSize = PCMMProperties.get(PCMMConstants.MAX_FRAME_SIZE, Integer.class,
+                    COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE);
+            final int flushThreshold = PCMMProperties.get(PCMMConstants.NIO_FLUSH_THRESHOLD, Integer.class,
+                    PCMMEventLoop.DEFAULT_FLUSH_THRESHOLD);
+            final int lingerMillis = PCMMProperties.get(PCMMConstants.NIO_FLUSH_LINGER, Integer.class,
+                    PCMMEventLoop.DEFAULT_FLUSH_LINGER);
+            defaultGroup = new PCMMEventLoopGroup(nLoops, "PCMM-EventLoop", maxFrameSize, flushThreshold,
+                    lingerMillis);
+        }
+        return defaultGroup;
+    }
+
+    /**
+     * Returns the loop that should own the next registered channel
+     * @return - the event loop
+     */
+    public PCMMEventLoop next() {
+        return loops[(next.getAndIncrement() & Integer.MAX_VALUE) % loops.length];
+    }
+
+    /**
+     * Registers a connected channel with one of the loops
+     * @param socket - the socket wrapping the channel
+     * @param handler - the handler for the channel events
+     * @throws IOException - when the channel cannot be switched to non-blocking mode
+     */
+    public void register(final PCMMChannelSocket socket, final IPCMMChannelHandler handler) throws IOException {
+        next().register(socket, handler);
+    }
+
+    /**
+     * Stops all loops, closing their channels
+     */
+    public void shutdown() {
+        for (final PCMMEventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+}
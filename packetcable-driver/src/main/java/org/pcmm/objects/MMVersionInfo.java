@@ -11,6 +11,8 @@ package org.pcmm.objects;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * The Version Info object is used to enable Multimedia applications to adapt their interactions with other devices so
  * that interoperability can be achieved between products supporting different protocol versions. Both the Major
@@ -58,13 +60,14 @@ public class MMVersionInfo extends PCMMBaseObject {
     }
 
     @Override
-    protected byte[] getBytes() {
-        final byte[] majVerBytes = COPSMsgParser.shortToBytes(majorVersionNB);
-        final byte[] minVerBytes = COPSMsgParser.shortToBytes(minorVersionNB);
-        final byte[] data = new byte[majVerBytes.length + minVerBytes.length];
-        System.arraycopy(majVerBytes, 0, data, 0, majVerBytes.length);
-        System.arraycopy(minVerBytes, 0, data, majVerBytes.length, minVerBytes.length);
-        return data;
+    protected int getDataLength() {
+        return 4;
+    }
+
+    @Override
+    protected void writeBody(final ByteBuffer buffer) {
+        buffer.putShort(majorVersionNB);
+        buffer.putShort(minorVersionNB);
     }
 
     /**
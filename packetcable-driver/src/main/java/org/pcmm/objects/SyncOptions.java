@@ -11,6 +11,8 @@ package org.pcmm.objects;
 import org.pcmm.base.impl.PCMMBaseObject;
 import org.umu.cops.stack.COPSMsgParser;
 
+import java.nio.ByteBuffer;
+
 /**
  * PCMM SyncOptions object
  */
@@ -54,13 +56,14 @@ public class SyncOptions extends PCMMBaseObject {
 	}
 
 	@Override
-	protected byte[] getBytes() {
-		final byte[] rptTypeBytes = COPSMsgParser.shortToBytes(reportType.getValue());
-		final byte[] syncTypeBytes = COPSMsgParser.shortToBytes(syncType.getValue());
-		final byte[] data = new byte[rptTypeBytes.length + syncTypeBytes.length];
-		System.arraycopy(rptTypeBytes, 0, data, 0, rptTypeBytes.length);
-		System.arraycopy(syncTypeBytes, 0, data, rptTypeBytes.length, syncTypeBytes.length);
-		return data;
+	protected int getDataLength() {
+		return 4;
+	}
+
+	@Override
+	protected void writeBody(final ByteBuffer buffer) {
+		buffer.putShort(reportType.getValue());
+		buffer.putShort(syncType.getValue());
 	}
 
 	@Override
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.stats;
+
+import org.pcmm.gates.IPCMMError.ErrorCode;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the statistics of one gate command (Gate-Set, Gate-Info or Gate-Delete) on a CCAP connection. The
+ * latencies run from the writing of the decision to the matching of its report, in microseconds.
+ */
+@Immutable
+public class PCMMCommandStatistics {
+
+    private final GateCommandType commandType;
+    private final long requests;
+    private final long reports;
+    private final long timeouts;
+    private final long expired;
+    private final int inFlight;
+    private final long latencyMean;
+    private final long latency50;
+    private final long latency90;
+    private final long latency99;
+    private final long latency999;
+    private final long latencyMax;
+    private final Map<ErrorCode, Long> errors;
+
+    PCMMCommandStatistics(final GateCommandType commandType, final long requests, final long timeouts,
+                          final long expired, final int inFlight, final PCMMLatencyHistogram latencies,
+                          final Map<ErrorCode, Long> errors) {
+        this.commandType = commandType;
+        this.requests = requests;
+        this.timeouts = timeouts;
+        this.expired = expired;
+        this.inFlight = inFlight;
+        this.reports = latencies.getCount();
+        this.latencyMean = latencies.getMean();
+        final long[] percentiles = latencies.getValuesAtPercentiles(50, 90, 99, 99.9);
+        this.latency50 = percentiles[0];
+        this.latency90 = percentiles[1];
+        this.latency99 = percentiles[2];
+        this.latency999 = percentiles[3];
+        this.latencyMax = latencies.getMax();
+        this.errors = Collections.unmodifiableMap(errors);
+    }
+
+    /**
+     * Returns the command
+     * @return - GATE_SET, GATE_INFO or GATE_DELETE
+     */
+    public GateCommandType getCommandType() {
+        return commandType;
+    }
+
+    /**
+     * Returns the number of requests written to the CCAP
+     * @return - the count
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of reports matched to their request
+     * @return - the count
+     */
+    public long getReports() {
+        return reports;
+    }
+
+    /**
+     * Returns the number of requests whose caller stopped waiting for the report
+     * @return - the count
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the number of requests dropped from the transaction table without a report
+     * @return - the count
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Returns the number of requests written and awaiting their report
+     * @return - the count
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return - the mean latency (us)
+     */
+    public long getLatencyMean() {
+        return latencyMean;
+    }
+
+    /**
+     * @return - the median latency (us)
+     */
+    public long getLatency50() {
+        return latency50;
+    }
+
+    /**
+     * @return - the 90th percentile latency (us)
+     */
+    public long getLatency90() {
+        return latency90;
+    }
+
+    /**
+     * @return - the 99th percentile latency (us)
+     */
+    public long getLatency99() {
+        return latency99;
+    }
+
+    /**
+     * @return - the 99.9th percentile latency (us)
+     */
+    public long getLatency999() {
+        return latency999;
+    }
+
+    /**
+     * @return - the highest latency (us)
+     */
+    public long getLatencyMax() {
+        return latencyMax;
+    }
+
+    /**
+     * Returns the number of reports carrying each PCMM error code, codes never reported are left out
+     * @return - the counts by error code
+     */
+    public Map<ErrorCode, Long> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return commandType + ": requests=" + requests + ", reports=" + reports + ", timeouts=" + timeouts
+                + ", expired=" + expired + ", inFlight=" + inFlight + ", latency(us) mean=" + latencyMean
+                + " p50=" + latency50 + " p90=" + latency90 + " p99=" + latency99 + " p99.9=" + latency999
+                + " max=" + latencyMax + ", errors=" + errors;
+    }
+
+}
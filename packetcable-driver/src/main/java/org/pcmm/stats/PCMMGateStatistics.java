@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.stats;
+
+import org.pcmm.gates.IPCMMError.ErrorCode;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of the Gate-Set, Gate-Info and Gate-Delete requests sent to a CCAP: the latency from the writing of the
+ * decision to the matching of its report, the number of requests in flight, timed out or expired and the PCMM error
+ * codes reported. Recording only updates atomic counters and never blocks, so it is done on the sending threads and
+ * on the event loop processing the reports.
+ * <p>
+ * The responses (ACK and ERR) are accounted for under the command of their request. Other commands are ignored.
+ */
+@ThreadSafe
+public class PCMMGateStatistics implements PCMMGateStatisticsMXBean {
+
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private static class CommandCounters {
+        final GateCommandType commandType;
+        final PCMMLatencyHistogram latencies = new PCMMLatencyHistogram();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong timeouts = new AtomicLong();
+        final AtomicLong expired = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicLongArray errors = new AtomicLongArray(ERROR_CODES.length);
+
+        CommandCounters(final GateCommandType commandType) {
+            this.commandType = commandType;
+        }
+    }
+
+    private final CommandCounters gateSet = new CommandCounters(GateCommandType.GATE_SET);
+    private final CommandCounters gateInfo = new CommandCounters(GateCommandType.GATE_INFO);
+    private final CommandCounters gateDelete = new CommandCounters(GateCommandType.GATE_DELETE);
+
+    private CommandCounters countersOf(final GateCommandType commandType) {
+        if (commandType == null) return null;
+        switch (commandType) {
+            case GATE_SET:
+            case GATE_SET_ACK:
+            case GATE_SET_ERR:
+                return gateSet;
+            case GATE_INFO:
+            case GATE_INFO_ACK:
+            case GATE_INFO_ERR:
+                return gateInfo;
+            case GATE_DELETE:
+            case GATE_DELETE_ACK:
+            case GATE_DELETE_ERR:
+                return gateDelete;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Records a request being written to the CCAP
+     * @param commandType - the command of the request
+     */
+    public void requestSent(final GateCommandType commandType) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) return;
+        counters.requests.incrementAndGet();
+        counters.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the report of a request sent with {@link #requestSent(GateCommandType)}
+     * @param commandType - the command of the request or of its response
+     * @param latencyNanos - the time from the writing of the request to the matching of its report (ns)
+     */
+    public void reportReceived(final GateCommandType commandType, final long latencyNanos) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) return;
+        counters.inFlight.decrementAndGet();
+        counters.latencies.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    }
+
+    /**
+     * Records a request sent with {@link #requestSent(GateCommandType)} being dropped without a report
+     * @param commandType - the command of the request
+     */
+    public void requestExpired(final GateCommandType commandType) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) return;
+        counters.inFlight.decrementAndGet();
+        counters.expired.incrementAndGet();
+    }
+
+    /**
+     * Records a request sent with {@link #requestSent(GateCommandType)} no longer awaiting its report as it could not
+     * be written or its connection has been closed
+     * @param commandType - the command of the request
+     */
+    public void requestCancelled(final GateCommandType commandType) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) return;
+        counters.inFlight.decrementAndGet();
+    }
+
+    /**
+     * Records a request sent with {@link #requestSent(GateCommandType)} being dropped as its caller stopped waiting
+     * for its report
+     * @param commandType - the command of the request
+     */
+    public void requestTimedOut(final GateCommandType commandType) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) return;
+        counters.inFlight.decrementAndGet();
+        counters.timeouts.incrementAndGet();
+    }
+
+    /**
+     * Records a report carrying a PCMM error
+     * @param commandType - the command of the request or of its response
+     * @param errorCode - the error code
+     */
+    public void errorReceived(final GateCommandType commandType, final ErrorCode errorCode) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null || errorCode == null) return;
+        counters.errors.incrementAndGet(errorCode.ordinal());
+    }
+
+    /**
+     * Returns a snapshot of the statistics of a command
+     * @param commandType - the command of the requests or of their responses
+     * @return - the statistics
+     * @throws IllegalArgumentException - when the command is not a Gate-Set, Gate-Info or Gate-Delete
+     */
+    public PCMMCommandStatistics getStatistics(final GateCommandType commandType) {
+        final CommandCounters counters = countersOf(commandType);
+        if (counters == null) throw new IllegalArgumentException("No statistics kept for " + commandType);
+        return snapshot(counters);
+    }
+
+    @Override
+    public PCMMCommandStatistics getGateSet() {
+        return snapshot(gateSet);
+    }
+
+    @Override
+    public PCMMCommandStatistics getGateInfo() {
+        return snapshot(gateInfo);
+    }
+
+    @Override
+    public PCMMCommandStatistics getGateDelete() {
+        return snapshot(gateDelete);
+    }
+
+    @Override
+    public void reset() {
+        for (final CommandCounters counters : new CommandCounters[] {gateSet, gateInfo, gateDelete}) {
+            counters.latencies.reset();
+            counters.requests.set(0);
+            counters.timeouts.set(0);
+            counters.expired.set(0);
+            for (int i = 0; i < ERROR_CODES.length; i++) {
+                counters.errors.set(i, 0);
+            }
+        }
+    }
+
+    private static PCMMCommandStatistics snapshot(final CommandCounters counters) {
+        final Map<ErrorCode, Long> errors = new EnumMap<>(ErrorCode.class);
+        for (int i = 0; i < ERROR_CODES.length; i++) {
+            final long count = counters.errors.get(i);
+            if (count > 0) errors.put(ERROR_CODES[i], count);
+        }
+        return new PCMMCommandStatistics(counters.commandType, counters.requests.get(), counters.timeouts.get(),
+                counters.expired.get(), counters.inFlight.get(), counters.latencies, errors);
+    }
+
+}
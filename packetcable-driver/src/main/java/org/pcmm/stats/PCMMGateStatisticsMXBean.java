@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.stats;
+
+/**
+ * JMX view of the gate command statistics of a CCAP.
+ */
+public interface PCMMGateStatisticsMXBean {
+
+    /**
+     * @return - the Gate-Set statistics
+     */
+    PCMMCommandStatistics getGateSet();
+
+    /**
+     * @return - the Gate-Info statistics
+     */
+    PCMMCommandStatistics getGateInfo();
+
+    /**
+     * @return - the Gate-Delete statistics
+     */
+    PCMMCommandStatistics getGateDelete();
+
+    /**
+     * Discards the latencies and counters recorded so far, the in-flight requests are kept
+     */
+    void reset();
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.pcmm.stats;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with log-linear buckets in the manner of HdrHistogram: each power of two range of values is split
+ * into 64 equal buckets, so a value is known within 1/64 (1.6%) of itself whatever its magnitude. Values are recorded
+ * in microseconds up to about 19 hours with a single atomic increment and without locking, the percentiles being
+ * computed from a copy of the buckets when read.
+ */
+@ThreadSafe
+public class PCMMLatencyHistogram {
+
+    /**
+     * Values below 2^SUB_BUCKET_BITS have a bucket each, the larger ones are recorded with SUB_BUCKET_BITS - 1 bits of
+     * precision
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * The highest value distinguished, larger ones are recorded as this value (us)
+     */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << 36) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(HIGHEST_TRACKABLE_VALUE) + 1);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value
+     * @param value - the latency (us), negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long bounded = Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(indexOf(bounded));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(bounded);
+        long max = maxValue.get();
+        while (bounded > max && !maxValue.compareAndSet(max, bounded)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Returns the number of values recorded
+     * @return - the count
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded
+     * @return - the mean (us) or 0 when nothing has been recorded
+     */
+    public long getMean() {
+        final long count = totalCount.get();
+        return count == 0 ? 0 : totalValue.get() / count;
+    }
+
+    /**
+     * Returns the highest value recorded
+     * @return - the maximum (us)
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the values below which the given percentages of the recorded values fall. Each value is the highest one
+     * of its bucket, never more than the maximum recorded.
+     * @param percentiles - the percentiles (0 - 100)
+     * @return - the values (us), in the order of the percentiles, 0 when nothing has been recorded
+     */
+    public long[] getValuesAtPercentiles(final double... percentiles) {
+        final long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        final long max = maxValue.get();
+        final long[] values = new long[percentiles.length];
+        if (total == 0) return values;
+        for (int p = 0; p < percentiles.length; p++) {
+            final double percentile = Math.min(Math.max(percentiles[p], 0), 100);
+            final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long cumulative = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                cumulative += snapshot[i];
+                if (cumulative >= rank) {
+                    values[p] = Math.min(highestValueAt(i), max);
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Discards the values recorded so far. Values recorded concurrently may be partially discarded.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        totalValue.set(0);
+        maxValue.set(0);
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        // keeps SUB_BUCKET_BITS significant bits, the highest one being always set
+        final int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    static long highestValueAt(final int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -12,10 +12,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umu.cops.stack.COPSClientCloseMsg;
 import org.umu.cops.stack.COPSError;
+import org.umu.cops.stack.COPSFrameDecoder;
+import org.umu.cops.stack.COPSMsgParser;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
 import java.net.Socket;
+import java.util.concurrent.Executor;
 
 /**
  * Abstract class for all COPS connection implementations.
@@ -25,6 +28,17 @@ public abstract class COPSConnection implements Runnable {
 
     private final static Logger logger = LoggerFactory.getLogger(COPSConnection.class);
 
+    /**
+     * Timer shared by all connections for scheduling their keep-alive and accounting deadlines
+     */
+    protected final static COPSHashedWheelTimer TIMER = COPSHashedWheelTimer.getDefault();
+
+    /**
+     * Runs the keep-alive and accounting tasks once due, null to run them on the timer thread shared by all the
+     * connections, which only suits a socket whose writes never block
+     */
+    protected transient volatile Executor _timerExecutor;
+
     /**
      Socket connected to PEP
      */
@@ -32,7 +46,6 @@ public abstract class COPSConnection implements Runnable {
 
     /**
      * Accounting timer value (secs)
-     * TODO FIXME - Why is this member never being used?
      */
     protected transient short _acctTimer;
 
@@ -41,6 +54,16 @@ public abstract class COPSConnection implements Runnable {
      */
     protected transient short _kaTimer;
 
+    /**
+     * Maximum idle time (msecs) tolerated while reading the remainder of a message
+     */
+    protected transient int _readTimeout = COPSMsgParser.DEFAULT_READ_TIMEOUT;
+
+    /**
+     * Largest message (bytes) accepted from the peer, a larger declared length closes the connection
+     */
+    protected transient int _maxFrameSize = COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE;
+
     /**
      * COPS error returned by PEP
      */
@@ -74,6 +97,31 @@ public abstract class COPSConnection implements Runnable {
         _acctTimer = acctTimer;
     }
 
+    /**
+     * Sets the executor running the keep-alive and accounting tasks, owned by the caller. Must be called before the
+     * timers are started.
+     * @param timerExecutor the executor, null to run the tasks on the shared timer thread
+     */
+    public void setTimerExecutor(Executor timerExecutor) {
+        _timerExecutor = timerExecutor;
+    }
+
+    /**
+     * Sets the read timeout value
+     * @param readTimeout Maximum idle time (msecs) while reading a message, 0 to block until data arrives
+     */
+    public void setReadTimeout(int readTimeout) {
+        _readTimeout = readTimeout;
+    }
+
+    /**
+     * Sets the largest message accepted from the peer, effective for the messages read once the connection runs
+     * @param maxFrameSize Maximum message length (bytes), header included
+     */
+    public void setMaxFrameSize(int maxFrameSize) {
+        _maxFrameSize = maxFrameSize;
+    }
+
     /**
      * Checks whether the socket to the PEP is closed or not
      * @return   <tt>true</tt> if closed, <tt>false</tt> otherwise
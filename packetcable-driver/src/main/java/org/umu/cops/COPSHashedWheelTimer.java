@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.umu.cops;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Hashed wheel timer shared by the COPS connections for their keep-alive and accounting deadlines. A timeout is hashed
+ * by its deadline into one bucket of a wheel which a single thread turns by one bucket every tick, running the
+ * timeouts of the bucket which are due. Scheduling and cancelling therefore take constant time whatever the number of
+ * connections, at the cost of a timeout running up to one tick late.
+ * <p>
+ * New and cancelled timeouts are handed to the timer thread through lock-free queues, the buckets themselves are only
+ * touched by the timer thread. The tasks run on the timer thread and must not block for long: a task which may block,
+ * on I/O for instance, is scheduled with an executor to which the timer thread only hands it once due.
+ */
+@ThreadSafe
+public class COPSHashedWheelTimer {
+
+    private final static Logger logger = LoggerFactory.getLogger(COPSHashedWheelTimer.class);
+
+    /**
+     * Tick duration of the shared timer (ms)
+     */
+    public static final long DEFAULT_TICK_MILLIS = 100;
+
+    /**
+     * Number of buckets of the shared timer, one turn of its wheel lasting 51.2 seconds
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * Maximum number of new timeouts put into the wheel per tick so a flood of them cannot delay the due ones
+     */
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private static final int ST_INIT = 0;
+    private static final int ST_STARTED = 1;
+    private static final int ST_STOPPED = 2;
+
+    private static final COPSHashedWheelTimer DEFAULT_TIMER =
+            new COPSHashedWheelTimer("COPS-Timer-%d", DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+    /**
+     * The time (ns) the timer was started, the deadlines being relative to it
+     */
+    private volatile long startTime;
+
+    /**
+     * Returns the timer shared by all the connections
+     * @return - the timer, started on first use
+     */
+    public static COPSHashedWheelTimer getDefault() {
+        return DEFAULT_TIMER;
+    }
+
+    /**
+     * Creates a timer, its thread being started when the first timeout is scheduled
+     * @param nameFormat - the name format of the timer thread
+     * @param tickMillis - the tick duration (ms)
+     * @param wheelSize - the number of buckets, rounded up to a power of 2
+     */
+    public COPSHashedWheelTimer(final String nameFormat, final long tickMillis, final int wheelSize) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("The tick duration must be > 0");
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) throw new IllegalArgumentException("Invalid wheel size");
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = 1;
+        while (size < wheelSize) size <<= 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+        worker = new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build()
+                .newThread(new Worker());
+    }
+
+    /**
+     * Schedules a task
+     * @param task - the task, run on the timer thread
+     * @param delay - the delay after which the task runs
+     * @param unit - the unit of the delay
+     * @return - the handle cancelling the task
+     * @throws IllegalStateException - when the timer has been stopped
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        return schedule(task, delay, unit, null);
+    }
+
+    /**
+     * Schedules a task which may block, so that it does not delay the other timeouts
+     * @param task - the task, run on the executor
+     * @param delay - the delay after which the task is handed to the executor
+     * @param unit - the unit of the delay
+     * @param executor - runs the task once due, null to run it on the timer thread
+     * @return - the handle cancelling the task
+     * @throws IllegalStateException - when the timer has been stopped
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit, final Executor executor) {
+        if (task == null) throw new IllegalArgumentException("Task must not be null");
+        start();
+        final long deadline = System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay));
+        final Timeout timeout = new Timeout(this, task, executor, deadline);
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer thread, the pending timeouts never run
+     */
+    public void stop() {
+        if (state.getAndSet(ST_STOPPED) == ST_STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case ST_INIT:
+                synchronized (this) {
+                    if (state.get() == ST_INIT) {
+                        startTime = System.nanoTime();
+                        state.set(ST_STARTED);
+                        worker.start();
+                    }
+                }
+                if (state.get() == ST_STOPPED) throw new IllegalStateException("The timer has been stopped");
+                break;
+            case ST_STARTED:
+                break;
+            default:
+                throw new IllegalStateException("The timer has been stopped");
+        }
+    }
+
+    private final class Worker implements Runnable {
+
+        private long tick;
+
+        @Override
+        public void run() {
+            while (state.get() == ST_STARTED) {
+                final long deadline = waitForNextTick();
+                if (deadline < 0) break;
+                removeCancelled();
+                transferAdded();
+                wheel[(int) (tick & mask)].expire(deadline);
+                tick++;
+            }
+        }
+
+        /**
+         * Sleeps until the end of the current tick
+         * @return - the current time relative to the start time (ns) or -1 when stopped
+         */
+        private long waitForNextTick() {
+            final long deadline = tickNanos * (tick + 1);
+            while (true) {
+                final long current = System.nanoTime() - startTime;
+                final long sleepNanos = deadline - current;
+                if (sleepNanos <= 0) return current;
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (state.get() == ST_STOPPED) return -1;
+                }
+            }
+        }
+
+        private void transferAdded() {
+            for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+                final Timeout timeout = added.poll();
+                if (timeout == null) return;
+                if (timeout.state != Timeout.ST_INIT) continue;
+                final long calculated = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                // a timeout already due goes into the current bucket
+                final long ticks = Math.max(calculated, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+
+        private void removeCancelled() {
+            while (true) {
+                final Timeout timeout = cancelled.poll();
+                if (timeout == null) return;
+                if (timeout.bucket != null) timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * The timeouts hashed into one slot of the wheel, as a doubly linked list only accessed by the timer thread
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Runs the timeouts of this bucket due in the current round, the others being one round closer
+         */
+        void expire(final long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        logger.error("Timeout placed in the wrong bucket, deadline {} > {}", timeout.deadline,
+                                deadline);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * A task scheduled on the timer
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final COPSHashedWheelTimer timer;
+        private final Runnable task;
+        private final Executor executor;
+        private final long deadline;
+        private volatile int state = ST_INIT;
+
+        // only accessed by the timer thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(final COPSHashedWheelTimer timer, final Runnable task, final Executor executor,
+                        final long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task unless it has already run
+         * @return - true when cancelled by this call
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) return false;
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * @return - true when cancelled before running
+         */
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        /**
+         * @return - true once the task has been run
+         */
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) return;
+            try {
+                if (executor != null) {
+                    executor.execute(task);
+                } else {
+                    task.run();
+                }
+            } catch (RejectedExecutionException e) {
+                logger.warn("Timer task " + task + " rejected by its executor", e);
+            } catch (Throwable t) {
+                logger.warn("Timer task " + task + " failed", t);
+            }
+        }
+    }
+
+}
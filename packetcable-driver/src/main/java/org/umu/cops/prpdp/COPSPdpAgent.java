@@ -6,6 +6,7 @@
 
 package org.umu.cops.prpdp;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.pcmm.objects.MMVersionInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +18,8 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Core PDP agent for managing the connection to one PDP.
@@ -89,6 +92,11 @@ public class COPSPdpAgent {
      */
     protected transient Thread _thread;
 
+    /**
+     * Sends the keep-alive messages of the connection, whose blocking writes must not hold the shared timer thread
+     */
+    protected transient ExecutorService _timerExecutor;
+
     /**
      * Creates a PDP Agent
      *
@@ -132,8 +140,7 @@ public class COPSPdpAgent {
      */
     public void connect() throws IOException, COPSException {
         // Create Socket and send OPN
-        _socket = new Socket();
-        _socket.connect(new InetSocketAddress(InetAddress.getByName(_host), _serverPort));
+        _socket = openSocket(new InetSocketAddress(InetAddress.getByName(_host), _serverPort));
         logger.info("PDP Socket Opened. Waiting to receive client-open message");
         final COPSMsg msg = COPSTransceiver.receiveMsg(_socket);
         logger.debug("Message received of type - " + msg.getHeader().getOpCode());
@@ -148,6 +155,18 @@ public class COPSPdpAgent {
         }
     }
 
+    /**
+     * Opens the blocking socket used to exchange the client-open handshake with the PEP
+     * @param address - the PEP's address
+     * @return - the connected socket
+     * @throws IOException
+     */
+    protected Socket openSocket(final InetSocketAddress address) throws IOException {
+        final Socket socket = new Socket();
+        socket.connect(address);
+        return socket;
+    }
+
     /**
      * Disconnects a PEP and stops the listener thread
      * @param error COPS Error to be reported as a reason
@@ -160,7 +179,8 @@ public class COPSPdpAgent {
             logger.warn("Unable to locate PDP connection. Cannot close");
         }
         if (_thread != null) _thread.interrupt();
-        else logger.warn("Unable to locate PDP connection thread. Cannot stop it.");
+        else logger.debug("No PDP connection thread to stop");
+        if (_timerExecutor != null) _timerExecutor.shutdownNow();
 
         if (_socket != null && _socket.isConnected())
             try {
@@ -173,6 +193,7 @@ public class COPSPdpAgent {
         _pepId = null;
         _pdpConn = null;
         _thread = null;
+        _timerExecutor = null;
     }
 
     /**
@@ -239,13 +260,26 @@ public class COPSPdpAgent {
         if (_handle != null) {
             // Connection accepted
             _pdpConn = setputPdpConnection(conn, _handle);
-            _thread = new Thread(_pdpConn, "PDP Agent for PEP ID " + _pepId.getData().str());
-            _thread.start();
+            startPdpConnection(_pdpConn);
         } else {
             throw new COPSException("Unable to connect to PDP");
         }
     }
 
+    /**
+     * Starts receiving messages on the PDP connection. The default implementation dedicates a thread to it, and
+     * another to its keep-alive messages.
+     * @param pdpConn - the PDP connection created by setputPdpConnection()
+     * @throws IOException
+     */
+    protected void startPdpConnection(final COPSPdpConnection pdpConn) throws IOException {
+        _timerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("COPS-PDP-Timer-%d").setDaemon(true).build());
+        pdpConn.setTimerExecutor(_timerExecutor);
+        _thread = new Thread(pdpConn, "PDP Agent for PEP ID " + _pepId.getData().str());
+        _thread.start();
+    }
+
     /**
      * Creates and sends a client close message
      * @param conn - the socket connection
@@ -9,14 +9,18 @@ package org.umu.cops.prpdp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umu.cops.COPSConnection;
+import org.umu.cops.COPSHashedWheelTimer.Timeout;
 import org.umu.cops.stack.*;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class for managing an provisioning connection at the PDP side.
@@ -38,6 +42,21 @@ public class COPSPdpConnection extends COPSConnection {
      */
     private volatile Date _lastKa;
 
+    /**
+     * Time (msecs) of the latest message received from the PEP
+     */
+    private volatile long _lastRecKa;
+
+    /**
+     * Time (msecs) of the latest keep-alive sent to the PEP
+     */
+    private volatile long _lastSendKa;
+
+    /**
+     * The pending keep-alive timer
+     */
+    private volatile Timeout _kaTimeout;
+
     /**
      * Maps a Client Handle to a Handler
      */
@@ -73,6 +92,8 @@ public class COPSPdpConnection extends COPSConnection {
         _pepId = pepId;
         _process = process;
         _lastKa = new Date();
+        _lastRecKa = System.currentTimeMillis();
+        _lastSendKa = _lastRecKa;
         _managerMap = new ConcurrentHashMap<>();
     }
 
@@ -81,52 +102,92 @@ public class COPSPdpConnection extends COPSConnection {
     }
 
     /**
-     * Main loop
+     * Main loop. Blocks on the socket until bytes arrive and dispatches every message they complete, in order. A
+     * message may span several reads and a read may hold several messages. Keep-alive deadlines are handled by a
+     * timer.
      */
     public void run () {
-        Date lastSendKa = new Date();
-        Date lastRecKa = new Date();
+        startTimers();
+        final COPSFrameDecoder decoder = new COPSFrameDecoder(_maxFrameSize);
+        final List<COPSMsg> msgs = new ArrayList<>();
         while (!_sock.isClosed()) {
             try {
-                if (_sock.getInputStream().available() != 0) {
-                    processMessage(_sock);
-                    lastRecKa = new Date();
-                }
+                decoder.read(_sock, _readTimeout, msgs);
+            } catch (IOException e) {
+                if (!_sock.isClosed()) logger.error("Error reading from socket, closing connection", e);
+                break;
+            } catch (Exception e) {
+                logger.error("Error while processing socket messages, continue processing", e);
+            } finally {
+                processMessages(msgs);
+            }
+        }
 
-                // Keep Alive
-                if (_kaTimer > 0) {
-                    // Timeout at PDP
-                    int _startTime = (int) (lastRecKa.getTime());
-                    int cTime = (int) (new Date().getTime());
-
-                    if ((cTime - _startTime) > _kaTimer*1000) {
-                        _sock.close();
-                        // Notify all Request State Managers
-                        notifyNoKAAllReqStateMan();
-                    }
-
-                    // Send to PEP
-                    _startTime = (int) (lastSendKa.getTime());
-                    cTime = (int) (new Date().getTime());
-
-                    if ((cTime - _startTime) > ((_kaTimer*3/4)*1000)) {
-                        // TODO - what should the real clientType be here???
-                        final COPSKAMsg msg = new COPSKAMsg(null);
-                        COPSTransceiver.sendMsg(msg, _sock);
-                        lastSendKa = new Date();
-                    }
-                }
+        connectionClosed();
+    }
 
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException e) {
-                    logger.warn("Thread interrupted, shutting down", e);
-                    break;
-                }
+    /**
+     * Processes the messages read, an error on one of them not preventing the processing of the following ones
+     * @param msgs - the messages, cleared once processed
+     */
+    private void processMessages(final List<COPSMsg> msgs) {
+        for (final COPSMsg msg : msgs) {
+            try {
+                processMessage(_sock, msg);
             } catch (Exception e) {
                 logger.error("Error while processing socket messages, continue processing", e);
             }
         }
+        msgs.clear();
+    }
+
+    /**
+     * Starts the keep-alive timer, when enabled. Must be called once the connection is ready to exchange messages.
+     */
+    protected void startTimers() {
+        if (_kaTimer > 0) {
+            scheduleKeepAlive(nextKeepAliveDelay());
+        }
+    }
+
+    /**
+     * Cancels the pending keep-alive timer, if any
+     */
+    protected void stopTimers() {
+        final Timeout kaTimeout = _kaTimeout;
+        if (kaTimeout != null) kaTimeout.cancel();
+    }
+
+    private void scheduleKeepAlive(final long delay) {
+        _kaTimeout = TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (_sock.isClosed()) return;
+                try {
+                    checkKeepAlive();
+                } catch (Exception e) {
+                    logger.error("Error while checking the keep-alive timer", e);
+                }
+                if (!_sock.isClosed()) scheduleKeepAlive(nextKeepAliveDelay());
+            }
+        }, delay, TimeUnit.MILLISECONDS, _timerExecutor);
+    }
+
+    /**
+     * Returns the time (msecs) until the next keep-alive deadline checked by {@link #checkKeepAlive()}
+     */
+    private long nextKeepAliveDelay() {
+        final long recDeadline = _lastRecKa + _kaTimer * 1000L;
+        final long sendDeadline = _lastSendKa + _kaTimer * 750L;
+        return Math.max(0, Math.min(recDeadline, sendDeadline) - System.currentTimeMillis()) + 1;
+    }
+
+    /**
+     * Closes the socket and notifies all request state managers that the connection is no longer usable. Called once
+     * the connection has been closed either locally or by the PEP.
+     */
+    protected void connectionClosed() {
+        stopTimers();
 
         // connection closed by server
         try {
@@ -146,11 +207,40 @@ public class COPSPdpConnection extends COPSConnection {
     }
 
     /**
-     * Gets a COPS message from the socket and processes it
+     * Closes the connection when the PEP has been silent longer than the keep-alive timer and sends a keep-alive
+     * message once 3/4 of the timer has elapsed since the last one was sent. Invoked by the keep-alive timer.
+     * @throws COPSException
+     * @throws IOException
+     */
+    protected void checkKeepAlive() throws COPSException, IOException {
+        if (_kaTimer > 0) {
+            final long now = System.currentTimeMillis();
+
+            // Timeout at PDP
+            if (now - _lastRecKa > _kaTimer * 1000L) {
+                _sock.close();
+                // Notify all Request State Managers
+                notifyNoKAAllReqStateMan();
+                return;
+            }
+
+            // Send to PEP
+            if (now - _lastSendKa > _kaTimer * 750L) {
+                // TODO - what should the real clientType be here???
+                final COPSKAMsg msg = new COPSKAMsg(null);
+                COPSTransceiver.sendMsg(msg, _sock);
+                _lastSendKa = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Processes a COPS message already received from the PEP
      * @param    conn Socket connected to the PEP
+     * @param    msg the message
      */
-    private void processMessage(final Socket conn) throws COPSException, IOException {
-        final COPSMsg msg = COPSTransceiver.receiveMsg(conn);
+    protected void processMessage(final Socket conn, final COPSMsg msg) throws COPSException {
+        _lastRecKa = System.currentTimeMillis();
         switch (msg.getHeader().getOpCode()) {
             case CC:
                 handleClientCloseMsg(conn, (COPSClientCloseMsg)msg);
@@ -6,6 +6,7 @@
 
 package org.umu.cops.prpep;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umu.cops.stack.*;
@@ -15,6 +16,8 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This is a provisioning COPS PEP. Responsible for making
@@ -53,6 +56,12 @@ public class COPSPepAgent {
      */
     private transient Thread thread;
 
+    /**
+     * Sends the keep-alive and accounting messages of the connection, whose blocking writes must not hold the shared
+     * timer thread
+     */
+    private transient ExecutorService timerExecutor;
+
     /**
      * Creates a PEP agent
      * @param    clientType         Client-type
@@ -100,6 +109,8 @@ public class COPSPepAgent {
         final COPSClientCloseMsg closeMsg = new COPSClientCloseMsg(_clientType, error, null, null);
         thread.interrupt();
         thread = null;
+        timerExecutor.shutdownNow();
+        timerExecutor = null;
         closeMsg.writeData(_conn.getSocket());
         _conn.close();
         _conn = null;
@@ -179,6 +190,11 @@ public class COPSPepAgent {
             final COPSPepConnection conn = createPepConnection(socket);
             conn.setKaTimer(_kaTimeVal);
             conn.setAcctTimer(_acctTimer);
+            // replaces the executor of a connection closed by the PDP
+            if (timerExecutor != null) timerExecutor.shutdownNow();
+            timerExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("COPS-PEP-Timer-%d").setDaemon(true).build());
+            conn.setTimerExecutor(timerExecutor);
             thread = new Thread(conn);
             thread.start();
 
@@ -9,6 +9,7 @@ package org.umu.cops.prpep;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umu.cops.COPSConnection;
+import org.umu.cops.COPSHashedWheelTimer.Timeout;
 import org.umu.cops.stack.*;
 import org.umu.cops.stack.COPSDecision.Command;
 import org.umu.cops.stack.COPSDecision.DecisionFlag;
@@ -16,10 +17,12 @@ import org.umu.cops.stack.COPSDecision.DecisionFlag;
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.IOException;
 import java.net.Socket;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * COPSPepConnection represents a PEP-PDP Connection Manager.
@@ -41,6 +44,31 @@ public class COPSPepConnection extends COPSConnection {
      */
     protected final Map<COPSHandle, COPSPepReqStateMan> _managerMap;
 
+    /**
+     * Time (msecs) of the latest message received from the PDP
+     */
+    private volatile long _lastRecKa;
+
+    /**
+     * Time (msecs) of the latest keep-alive sent to the PDP
+     */
+    private volatile long _lastSendKa;
+
+    /**
+     * The pending keep-alive timer
+     */
+    private volatile Timeout _kaTimeout;
+
+    /**
+     * The pending accounting timer
+     */
+    private volatile Timeout _acctTimeout;
+
+    /**
+     * Time (msecs) of the next accounting reports, which are sent at a fixed rate
+     */
+    private volatile long _nextAcct;
+
     /**
      * Creates a new PEP connection
      * @param clientType    PEP's client-type
@@ -54,69 +82,30 @@ public class COPSPepConnection extends COPSConnection {
     }
 
     /**
-     * Message-processing loop
+     * Message-processing loop. Blocks on the socket until bytes arrive and processes every message they complete, in
+     * order. A message may span several reads and a read may hold several messages. Keep-alive and accounting
+     * deadlines are handled by timers.
      */
     public void run () {
-        Date lastSendKa = new Date();
-        Date lastSendAcc = new Date();
-        Date lastRecKa = new Date();
-            while (!_sock.isClosed()) {
-                try {
-                    if (_sock.getInputStream().available() != 0) {
-                        processMessage(_sock);
-                        lastRecKa = new Date();
-                    }
-
-                    // Keep Alive
-                    if (_kaTimer > 0) {
-                        // Timeout at PDP
-                        int _startTime = (int) (lastRecKa.getTime());
-                        int cTime = (int) (new Date().getTime());
-
-                        if ((cTime - _startTime) > _kaTimer*1000) {
-                            _sock.close();
-                            // Notify all Request State Managers
-                            notifyNoKAAllReqStateMan();
-                        }
-
-                        // Send to PEP
-                        _startTime = (int) (lastSendKa.getTime());
-                        cTime = (int) (new Date().getTime());
-
-                        if ((cTime - _startTime) > ((_kaTimer*3/4) * 1000)) {
-                            final COPSKAMsg msg = new COPSKAMsg(null);
-                            COPSTransceiver.sendMsg(msg, _sock);
-                            lastSendKa = new Date();
-                        }
-                    }
-
-                    // Accounting
-                    if (_acctTimer > 0) {
-                        int _startTime = (int) (lastSendAcc.getTime());
-                        int cTime = (int) (new Date().getTime());
-
-                        if ((cTime - _startTime) > ((_acctTimer*3/4)*1000)) {
-                            // Notify all Request State Managers
-                            notifyAcctAllReqStateMan();
-                            lastSendAcc = new Date();
-                        }
-                    }
-
-                    try {
-                        Thread.sleep(500);
-                    } catch (InterruptedException e) {
-                        logger.error("Closing connection");
-                        break;
-                    } catch (Exception e) {
-                        logger.error("Unexpected exception while sleeping. Continue processing messages", e);
-                    }
-                } catch (Exception e) {
-                    logger.error("Unexpected error while processing socket messages. Continue processing", e);
-                } catch (Throwable e) {
-                    logger.error("Unexpected fatal error while processing COPS messages. Stopping thread", e);
-                    break;
-                }
+        startTimers();
+        final COPSFrameDecoder decoder = new COPSFrameDecoder(_maxFrameSize);
+        final List<COPSMsg> msgs = new ArrayList<>();
+        while (!_sock.isClosed()) {
+            try {
+                decoder.read(_sock, _readTimeout, msgs);
+            } catch (IOException e) {
+                if (!_sock.isClosed()) logger.error("Error reading from socket, closing connection", e);
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error while processing socket messages. Continue processing", e);
+            } catch (Throwable e) {
+                logger.error("Unexpected fatal error while processing COPS messages. Stopping thread", e);
+                break;
+            } finally {
+                processMessages(msgs);
             }
+        }
+        stopTimers();
 
         // connection closed by server
         // COPSDebug.out(getClass().getName(),"Connection closed by server");
@@ -135,13 +124,121 @@ public class COPSPepConnection extends COPSConnection {
     }
 
     /**
-     * Gets a COPS message from the socket and processes it
-     * @param conn  Socket connected to the PDP
+     * Starts the keep-alive and accounting timers, when enabled
+     */
+    protected void startTimers() {
+        _lastRecKa = System.currentTimeMillis();
+        _lastSendKa = _lastRecKa;
+        if (_kaTimer > 0) {
+            scheduleKeepAlive(nextKeepAliveDelay());
+        }
+        if (_acctTimer > 0) {
+            _nextAcct = _lastRecKa + _acctTimer * 750L;
+            scheduleAccounting();
+        }
+    }
+
+    /**
+     * Cancels the pending keep-alive and accounting timers
+     */
+    protected void stopTimers() {
+        final Timeout kaTimeout = _kaTimeout;
+        if (kaTimeout != null) kaTimeout.cancel();
+        final Timeout acctTimeout = _acctTimeout;
+        if (acctTimeout != null) acctTimeout.cancel();
+    }
+
+    private void scheduleAccounting() {
+        _acctTimeout = TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (_sock.isClosed()) return;
+                try {
+                    // Notify all Request State Managers
+                    notifyAcctAllReqStateMan();
+                } catch (Exception e) {
+                    logger.error("Error while sending the accounting reports", e);
+                }
+                _nextAcct += _acctTimer * 750L;
+                if (!_sock.isClosed()) scheduleAccounting();
+            }
+        }, _nextAcct - System.currentTimeMillis(), TimeUnit.MILLISECONDS, _timerExecutor);
+    }
+
+    private void scheduleKeepAlive(final long delay) {
+        _kaTimeout = TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (_sock.isClosed()) return;
+                try {
+                    checkKeepAlive();
+                } catch (Exception e) {
+                    logger.error("Error while checking the keep-alive timer", e);
+                }
+                if (!_sock.isClosed()) scheduleKeepAlive(nextKeepAliveDelay());
+            }
+        }, delay, TimeUnit.MILLISECONDS, _timerExecutor);
+    }
+
+    /**
+     * Returns the time (msecs) until the next keep-alive deadline checked by {@link #checkKeepAlive()}
+     */
+    private long nextKeepAliveDelay() {
+        final long recDeadline = _lastRecKa + _kaTimer * 1000L;
+        final long sendDeadline = _lastSendKa + _kaTimer * 750L;
+        return Math.max(0, Math.min(recDeadline, sendDeadline) - System.currentTimeMillis()) + 1;
+    }
+
+    /**
+     * Closes the connection when the PDP has been silent longer than the keep-alive timer and sends a keep-alive
+     * message once 3/4 of the timer has elapsed since the last one was sent. Invoked by the keep-alive timer.
      * @throws COPSException
      * @throws IOException
      */
-    protected void processMessage(final Socket conn) throws COPSException, IOException {
-        final COPSMsg msg = COPSTransceiver.receiveMsg(conn);
+    protected void checkKeepAlive() throws COPSException, IOException {
+        if (_kaTimer > 0) {
+            final long now = System.currentTimeMillis();
+
+            // Timeout at PDP
+            if (now - _lastRecKa > _kaTimer * 1000L) {
+                _sock.close();
+                // Notify all Request State Managers
+                notifyNoKAAllReqStateMan();
+                return;
+            }
+
+            // Send to PDP
+            if (now - _lastSendKa > _kaTimer * 750L) {
+                final COPSKAMsg msg = new COPSKAMsg(null);
+                COPSTransceiver.sendMsg(msg, _sock);
+                _lastSendKa = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Processes the messages read, an error on one of them not preventing the processing of the following ones
+     * @param msgs - the messages, cleared once processed
+     */
+    private void processMessages(final List<COPSMsg> msgs) {
+        for (final COPSMsg msg : msgs) {
+            try {
+                processMessage(_sock, msg);
+            } catch (Exception e) {
+                logger.error("Unexpected error while processing socket messages. Continue processing", e);
+            }
+        }
+        msgs.clear();
+    }
+
+    /**
+     * Processes a COPS message received from the PDP
+     * @param conn  Socket connected to the PDP
+     * @param msg   the message
+     * @throws COPSException
+     */
+    protected void processMessage(final Socket conn, final COPSMsg msg) throws COPSException {
+        _lastRecKa = System.currentTimeMillis();
 
         switch (msg.getHeader().getOpCode()) {
             case CC:
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Client-Accept (CAT)  PDP -> PEP (RFC 2748 pag. 26)
@@ -122,10 +122,10 @@ public class COPSClientAcceptMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _kaTimer.writeData(socket);
-        if (_acctTimer != null) _acctTimer.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _kaTimer.writeData(buffer);
+        if (_acctTimer != null) _acctTimer.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Client Close Message (RFC 2748 pg. 27)
@@ -104,10 +104,10 @@ public class COPSClientCloseMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _error.writeData(socket);
-        if (_redirAddr != null) _redirAddr.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _error.writeData(buffer);
+        if (_redirAddr != null) _redirAddr.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Client Open Message (RFC 2748 page. 26)
@@ -125,15 +125,14 @@ public class COPSClientOpenMsg extends COPSMsg {
 
     /**
      * Method writeData
-     * @param    socket                  a  Socket
-     * @throws   IOException
+     * @param    buffer                  a  ByteBuffer
      */
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _pepId.writeData(socket);
-        if (_clientSI != null) _clientSI.writeData(socket);
-        if (_pdpAddress != null) _pdpAddress.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _pepId.writeData(buffer);
+        if (_clientSI != null) _clientSI.writeData(buffer);
+        if (_pdpAddress != null) _pdpAddress.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
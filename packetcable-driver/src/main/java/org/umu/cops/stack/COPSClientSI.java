@@ -11,9 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Client Specific Information Object (RFC 2748)
@@ -40,12 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSClientSI extends COPSObjBase {
 
-    private final static Map<Integer, CSIType> VAL_TO_CSI = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_CSI.put(CSIType.NA.ordinal(), CSIType.NA);
-        VAL_TO_CSI.put(CSIType.SIGNALED.ordinal(), CSIType.SIGNALED);
-        VAL_TO_CSI.put(CSIType.NAMED.ordinal(), CSIType.NAMED);
-    }
+    private final static COPSDecodeTable<CSIType> VAL_TO_CSI = COPSDecodeTable.byOrdinal(CSIType.class);
 
     /**
      * This value is not being used here but stored only for clarity as it is being mapped directly to the
@@ -140,9 +133,9 @@ public class COPSClientSI extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(final Socket socket) throws IOException {
-        COPSUtil.writeData(socket, _data.getData(), _data.length());
-        if (_padding.length() > 0) COPSUtil.writeData(socket, _padding.getData(), _padding.length());
+    public void writeBody(final ByteBuffer buffer) {
+        _data.writeData(buffer);
+        if (_padding.length() > 0) _padding.writeData(buffer);
     }
 
     @Override
@@ -188,6 +181,20 @@ public class COPSClientSI extends COPSObjBase {
         return new COPSClientSI(objHdrData.header, new COPSData(dataPtr, 4, dLen));
     }
 
+    /**
+     * Parses the bytes of an object starting at the given offset. Unlike {@link #parse(COPSObjHeaderData, byte[])} the
+     * returned object references dataPtr instead of copying its content.
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSClientSI parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
+        final int dLen = objHdrData.msgByteCount - 4;
+        return new COPSClientSI(objHdrData.header, COPSData.wrap(dataPtr, offset + 4, dLen));
+    }
+
     /**
      * The different CSI types. NA does not exist but is a placeholder for 0 as the ordinal values will be used
      * to determine which type for marshalling
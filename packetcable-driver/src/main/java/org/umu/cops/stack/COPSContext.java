@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -48,24 +48,26 @@ import java.util.concurrent.ConcurrentHashMap;
 public class COPSContext extends COPSObjBase {
 
     /**
-     * A Map containing each RType by the byte value
+     * A Map containing the byte value by RType
      */
-    public final static Map<Integer, RType> VAL_TO_RTYPE = new ConcurrentHashMap<>();
+    private final static Map<RType, Integer> RTYPE_TO_VAL = new ConcurrentHashMap<>();
     static {
-        VAL_TO_RTYPE.put(1, RType.IN_ADMIN);
-        VAL_TO_RTYPE.put(2, RType.RES_ALLOC);
-        VAL_TO_RTYPE.put(4, RType.OUT);
-        VAL_TO_RTYPE.put(8, RType.CONFIG);
+        RTYPE_TO_VAL.put(RType.IN_ADMIN, 1);
+        RTYPE_TO_VAL.put(RType.RES_ALLOC, 2);
+        RTYPE_TO_VAL.put(RType.OUT, 4);
+        RTYPE_TO_VAL.put(RType.CONFIG, 8);
     }
 
     /**
-     * A Map containing the byte value by RType
+     * A table containing each RType by the byte value
      */
-    private final static Map<RType, Integer> RTYPE_TO_VAL = new ConcurrentHashMap<>();
+    public final static COPSDecodeTable<RType> VAL_TO_RTYPE;
     static {
-        for (final Map.Entry<Integer, RType> entry : VAL_TO_RTYPE.entrySet()) {
-            RTYPE_TO_VAL.put(entry.getValue(), entry.getKey());
+        final COPSDecodeTable.Builder<RType> builder = COPSDecodeTable.builder(RType.class);
+        for (final Map.Entry<RType, Integer> entry : RTYPE_TO_VAL.entrySet()) {
+            builder.put(entry.getValue(), entry.getKey());
         }
+        VAL_TO_RTYPE = builder.build();
     }
 
     /**
@@ -110,7 +112,7 @@ public class COPSContext extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(final Socket socket) throws IOException {
+    public void writeBody(final ByteBuffer buffer) {
         byte[] buf = new byte[4];
 
         final int rType = RTYPE_TO_VAL.get(_rType);
@@ -120,7 +122,7 @@ public class COPSContext extends COPSObjBase {
         buf[2] = (byte)(_mType >> 8);
         buf[3] = (byte)_mType;
 
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
@@ -181,13 +183,25 @@ public class COPSContext extends COPSObjBase {
      * @throws java.lang.IllegalArgumentException
      */
     public static COPSContext parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr) {
+        return parse(objHdrData, dataPtr, 0);
+    }
+
+    /**
+     * Parses the bytes of an object starting at the given offset
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSContext parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
         short rType = 0;
-        rType |= ((short) dataPtr[4]) << 8;
-        rType |= ((short) dataPtr[5]) & 0xFF;
+        rType |= ((short) dataPtr[offset + 4]) << 8;
+        rType |= ((short) dataPtr[offset + 5]) & 0xFF;
 
         short mType = 0;
-        mType |= ((short) dataPtr[6]) << 8;
-        mType |= ((short) dataPtr[7]) & 0xFF;
+        mType |= ((short) dataPtr[offset + 6]) << 8;
+        mType |= ((short) dataPtr[offset + 7]) & 0xFF;
 
         return new COPSContext(objHdrData.header, VAL_TO_RTYPE.get((int)rType), mType);
     }
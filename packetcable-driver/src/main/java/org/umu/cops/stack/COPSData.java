@@ -7,6 +7,7 @@
 package org.umu.cops.stack;
 
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -24,6 +25,11 @@ public class COPSData {
      */
     private final byte[] _dataBuf;
 
+    /**
+     * Index of the first data byte in _dataBuf, non zero only for views created with {@link #wrap(byte[], int, int)}
+     */
+    private final int _offset;
+
     /**
      * TODO - determine a good description for this attribute
      */
@@ -34,6 +40,7 @@ public class COPSData {
      */
     public COPSData() {
         _dataBuf = new byte[0];
+        _offset = 0;
         _dLen = 0;
     }
 
@@ -45,17 +52,48 @@ public class COPSData {
      * @throws java.lang.IllegalArgumentException
      */
     public COPSData(final byte[] dPtr, final int offset, final int dLen) {
+        this(dPtr, offset, dLen, true);
+    }
+
+    /**
+     * Constructor
+     * @param dPtr - the data
+     * @param offset - the byte offset
+     * @param dLen - the data length
+     * @param copy - when false the range of dPtr is referenced instead of copied
+     * @throws java.lang.IllegalArgumentException
+     */
+    private COPSData(final byte[] dPtr, final int offset, final int dLen, final boolean copy) {
         if (dPtr == null) throw new IllegalArgumentException("The data array must not be null");
         if (offset < 0) throw new IllegalArgumentException("The offset must not be < 0");
         if (dLen < 0) throw new IllegalArgumentException("The length < 0");
         if (dLen > dPtr.length - offset)
             throw new IllegalArgumentException("The length must be less than the dPtr size less the offset");
 
-        _dataBuf = new byte[dLen];
-        System.arraycopy(dPtr, offset, _dataBuf, 0, dLen);
+        if (copy) {
+            _dataBuf = new byte[dLen];
+            System.arraycopy(dPtr, offset, _dataBuf, 0, dLen);
+            _offset = 0;
+        } else {
+            _dataBuf = dPtr;
+            _offset = offset;
+        }
         _dLen = dLen;
     }
 
+    /**
+     * Creates a view over a range of an existing array without copying it. The array must not be modified afterwards
+     * as the returned object keeps referencing it.
+     * @param dPtr - the data
+     * @param offset - the byte offset
+     * @param dLen - the data length
+     * @return - the view
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSData wrap(final byte[] dPtr, final int offset, final int dLen) {
+        return new COPSData(dPtr, offset, dLen, false);
+    }
+
     /**
      * Constructor
      * @param data - the data as a String
@@ -65,16 +103,42 @@ public class COPSData {
         _dLen = data.getBytes().length;
         _dataBuf = new byte[_dLen];
         System.arraycopy(data.getBytes(),0,_dataBuf,0,_dLen);
+        _offset = 0;
     }
 
     /**
-     * Method getData
+     * Method getData. When this object is a view over part of a larger array, the data is copied into a new array.
      * @return   a byte[]
      */
     public byte[] getData() {
+        if (_offset == 0 && _dLen == _dataBuf.length) return _dataBuf;
+        return Arrays.copyOfRange(_dataBuf, _offset, _offset + _dLen);
+    }
+
+    /**
+     * Returns the array holding the data which may be larger than the data itself, see {@link #getOffset()}
+     * @return   a byte[] that must not be modified
+     */
+    public byte[] getBuffer() {
         return _dataBuf;
     }
 
+    /**
+     * Returns the index of the first data byte in the array returned by {@link #getBuffer()}
+     * @return   an int
+     */
+    public int getOffset() {
+        return _offset;
+    }
+
+    /**
+     * Writes the data into a buffer
+     * @param buffer - the buffer
+     */
+    public void writeData(final ByteBuffer buffer) {
+        buffer.put(_dataBuf, _offset, _dLen);
+    }
+
     /**
      * Method length
      * @return   an int
@@ -89,7 +153,7 @@ public class COPSData {
      */
     public String str() {
         if (_dataBuf == null) return "";
-        else return new String (_dataBuf);
+        else return new String (_dataBuf, _offset, _dLen);
     }
 
     public String toString() {
@@ -105,12 +169,20 @@ public class COPSData {
             return false;
         }
         final COPSData copsData = (COPSData) o;
-        return _dLen == copsData._dLen && Arrays.equals(_dataBuf, copsData._dataBuf);
+        if (_dLen != copsData._dLen) return false;
+        for (int i = 0; i < _dLen; i++) {
+            if (_dataBuf[_offset + i] != copsData._dataBuf[copsData._offset + i]) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        int result = _dataBuf != null ? Arrays.hashCode(_dataBuf) : 0;
+        // Same value as Arrays.hashCode() over the data range
+        int result = 1;
+        for (int i = _offset; i < _offset + _dLen; i++) {
+            result = 31 * result + _dataBuf[i];
+        }
         result = 31 * result + _dLen;
         return result;
     }
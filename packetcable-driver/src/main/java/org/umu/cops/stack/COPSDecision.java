@@ -11,9 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Decision (RFC 2748)
@@ -84,19 +82,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSDecision extends COPSObjBase {
 
-    static Map<Integer, Command> VAL_TO_CMD = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_CMD.put(Command.NULL.ordinal(), Command.NULL);
-        VAL_TO_CMD.put(Command.INSTALL.ordinal(), Command.INSTALL);
-        VAL_TO_CMD.put(Command.REMOVE.ordinal(), Command.REMOVE);
-    }
+    final static COPSDecodeTable<Command> VAL_TO_CMD = COPSDecodeTable.byOrdinal(Command.class);
 
-    static Map<Integer, DecisionFlag> VAL_TO_FLAG = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_FLAG.put(DecisionFlag.NA.ordinal(), DecisionFlag.NA);
-        VAL_TO_FLAG.put(DecisionFlag.REQERROR.ordinal(), DecisionFlag.REQERROR);
-        VAL_TO_FLAG.put(DecisionFlag.REQSTATE.ordinal(), DecisionFlag.REQSTATE);
-    }
+    final static COPSDecodeTable<DecisionFlag> VAL_TO_FLAG = COPSDecodeTable.byOrdinal(DecisionFlag.class);
 
     /**
      * All CTypes are supported except NA
@@ -242,17 +230,17 @@ public class COPSDecision extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
+    protected void writeBody(final ByteBuffer buffer) {
         final byte[] buf = new byte[4];
         buf[0] = (byte) (_cmdCode.ordinal() >> 8);
         buf[1] = (byte) _cmdCode.ordinal();
         buf[2] = (byte) (_flags.ordinal() >> 8);
         buf[3] = (byte) _flags.ordinal();
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
 
-        COPSUtil.writeData(socket, _data.getData(), _data.length());
+        _data.writeData(buffer);
         if (_padding != null) {
-            COPSUtil.writeData(socket, _padding.getData(), _padding.length());
+            _padding.writeData(buffer);
         }
     }
 
@@ -323,6 +311,34 @@ public class COPSDecision extends COPSObjBase {
                 COPSDecision.VAL_TO_FLAG.get(_flags), d);
     }
 
+    /**
+     * Parses the bytes of an object starting at the given offset. Unlike {@link #parse(COPSObjHeaderData, byte[])} the
+     * returned object references dataPtr instead of copying its content.
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSDecision parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
+        int _cmdCode = 0;
+        _cmdCode |= ((short) dataPtr[offset + 4]) << 8;
+        _cmdCode |= ((short) dataPtr[offset + 5]) & 0xFF;
+
+        int _flags = 0;
+        _flags |= ((short) dataPtr[offset + 6]) << 8;
+        _flags |= ((short) dataPtr[offset + 7]) & 0xFF;
+
+        final COPSData d;
+        if (objHdrData.header.getCType().equals(CType.DEF)) {
+            d = null;
+        } else {
+            d = COPSData.wrap(dataPtr, offset + 8, objHdrData.msgByteCount - 8);
+        }
+        return new COPSDecision(objHdrData.header, COPSDecision.VAL_TO_CMD.get(_cmdCode),
+                COPSDecision.VAL_TO_FLAG.get(_flags), d);
+    }
+
     /**
      * Supported command types
      */
@@ -12,7 +12,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -206,21 +206,21 @@ public class COPSDecisionMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _clientHandle.writeData(socket);
-        if (_error != null) _error.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _clientHandle.writeData(buffer);
+        if (_error != null) _error.writeData(buffer);
 
         //Display decisions
         //Display any local decisions
         for (final Map.Entry<COPSContext, Set<COPSDecision>> entry : _decisions.entrySet()) {
-            entry.getKey().writeData(socket);
+            entry.getKey().writeData(buffer);
             for (final COPSDecision decision : entry.getValue()) {
-                decision.writeData(socket);
+                decision.writeData(buffer);
             }
         }
 
-        if (_integrity != null) _integrity.writeData(socket);
-        if (_decSI != null) _decSI.writeData(socket);
+        if (_integrity != null) _integrity.writeData(buffer);
+        if (_decSI != null) _decSI.writeData(buffer);
     }
 
     @Override
@@ -301,6 +301,22 @@ public class COPSDecisionMsg extends COPSMsg {
      * @throws COPSException
      */
     public static COPSDecisionMsg parse(final COPSHeaderData hdrData, final byte[] data) throws COPSException {
+        return parse(hdrData, data, 0, data.length);
+    }
+
+    /**
+     * Responsible for parsing a byte array to create a COPSDecisionMsg object. The objects carrying opaque
+     * data (handle, client SI, decision data, integrity digest) reference data instead of copying it, so the array must
+     * not be modified afterwards.
+     * @param hdrData - the object's header data
+     * @param data - the byte array to parse
+     * @param offset - the index of the first object following the message header
+     * @param length - the number of bytes following the message header
+     * @return - the message object
+     * @throws COPSException
+     */
+    public static COPSDecisionMsg parse(final COPSHeaderData hdrData, final byte[] data, final int offset, final int length)
+            throws COPSException {
         // Variables for constructor
         COPSHandle clientHandle = null;
         COPSContext context = null;
@@ -309,36 +325,36 @@ public class COPSDecisionMsg extends COPSMsg {
         COPSClientSI descSi = null;
         final Map<COPSContext, Set<COPSDecision>> decisionMap = new HashMap<>();
 
-        int dataStart = 0;
-        while (dataStart < data.length) {
-            final byte[] buf = new byte[data.length - dataStart];
-            System.arraycopy(data, dataStart, buf, 0, data.length - dataStart);
-
-            final COPSObjHeaderData objHdrData = COPSObjectParser.parseObjHeader(buf);
+        final int end = offset + length;
+        int dataStart = offset;
+        while (dataStart < end) {
+            final COPSObjHeaderData objHdrData = COPSObjectParser.parseObjHeader(data, dataStart);
+            if (objHdrData.msgByteCount < 4 || objHdrData.msgByteCount > end - dataStart)
+                throw new COPSException("Bad object length - " + objHdrData.msgByteCount);
             switch (objHdrData.header.getCNum()) {
                 case HANDLE:
-                    clientHandle = COPSHandle.parse(objHdrData, buf);
+                    clientHandle = COPSHandle.parse(objHdrData, data, dataStart);
                     break;
                 case CONTEXT:
                     if (context == null) {
-                        context = COPSContext.parse(objHdrData, buf);
-                    } else context = COPSContext.parse(objHdrData, buf);
+                        context = COPSContext.parse(objHdrData, data, dataStart);
+                    } else context = COPSContext.parse(objHdrData, data, dataStart);
                     break;
                 case ERROR:
-                    error = COPSError.parse(objHdrData, buf);
+                    error = COPSError.parse(objHdrData, data, dataStart);
                     break;
                 case DEC:
                     COPSDecision dec;
                     if (objHdrData.header.getCType().equals(CType.CSI)) {
                         // TODO - Revisit, this is pretty darn clunky
                         try {
-                            dec = COPSDecision.parse(objHdrData, buf);
+                            dec = COPSDecision.parse(objHdrData, data, dataStart);
                         } catch (IllegalArgumentException e) {
-                            descSi = COPSClientSI.parse(objHdrData, buf);
+                            descSi = COPSClientSI.parse(objHdrData, data, dataStart);
                             dec = null;
                         }
                     } else {
-                        dec = COPSDecision.parse(objHdrData, buf);
+                        dec = COPSDecision.parse(objHdrData, data, dataStart);
                     }
                     if (dec != null) {
                         if (decisionMap.get(context) != null)
@@ -351,10 +367,10 @@ public class COPSDecisionMsg extends COPSMsg {
                     }
                     break;
                 case CSI:
-                    descSi = COPSClientSI.parse(objHdrData, buf);
+                    descSi = COPSClientSI.parse(objHdrData, data, dataStart);
                     break;
                 case MSG_INTEGRITY:
-                    integrity = COPSIntegrity.parse(objHdrData, buf);
+                    integrity = COPSIntegrity.parse(objHdrData, data, dataStart);
                     break;
                 default:
                     throw new COPSException("Bad Message format, unknown object type with CNum - "
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.umu.cops.stack;
+
+import javax.annotation.concurrent.Immutable;
+import java.lang.reflect.Array;
+
+/**
+ * Decodes the numeric codes of the COPS and PCMM headers and objects into their enumeration constants. The constants
+ * are held in a dense array indexed by the code, covering every value of an unsigned byte, so decoding is a single
+ * array access: no boxing of the code as with a Map and no search as with a switch or a loop over values().
+ * <p>
+ * Codes without a constant, including those beyond the range of the table, decode to null.
+ * @param <E> - the enumeration
+ */
+@Immutable
+public final class COPSDecodeTable<E extends Enum<E>> {
+
+    /**
+     * Number of entries of a table, one per value of an unsigned byte
+     */
+    public static final int SIZE = 256;
+
+    private final E[] table;
+
+    private COPSDecodeTable(final E[] table) {
+        this.table = table;
+    }
+
+    /**
+     * Creates the table of an enumeration whose constants are declared in the order of their codes
+     * @param type - the enumeration
+     * @param <E> - the enumeration
+     * @return - the table decoding the ordinal of each constant
+     */
+    public static <E extends Enum<E>> COPSDecodeTable<E> byOrdinal(final Class<E> type) {
+        final Builder<E> builder = builder(type);
+        for (final E constant : type.getEnumConstants()) {
+            builder.put(constant.ordinal(), constant);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder for the tables of enumerations holding their own codes
+     * @param type - the enumeration
+     * @param <E> - the enumeration
+     * @return - the builder
+     */
+    public static <E extends Enum<E>> Builder<E> builder(final Class<E> type) {
+        return new Builder<>(type);
+    }
+
+    /**
+     * Decodes a code read from a single byte, taken as unsigned
+     * @param code - the byte
+     * @return - the constant or null when the code is not defined
+     */
+    public E get(final byte code) {
+        return table[code & 0xFF];
+    }
+
+    /**
+     * Decodes a code
+     * @param code - the code
+     * @return - the constant or null when the code is not defined
+     */
+    public E get(final int code) {
+        if (code < 0 || code >= SIZE) return null;
+        return table[code];
+    }
+
+    /**
+     * Builds a table one code at a time
+     * @param <E> - the enumeration
+     */
+    public static final class Builder<E extends Enum<E>> {
+
+        private final E[] table;
+
+        @SuppressWarnings("unchecked")
+        private Builder(final Class<E> type) {
+            if (type == null) throw new IllegalArgumentException("Type must not be null");
+            table = (E[]) Array.newInstance(type, SIZE);
+        }
+
+        /**
+         * Maps a code to a constant
+         * @param code - the code, between 0 and 255
+         * @param constant - the constant
+         * @return - this builder
+         * @throws IllegalArgumentException - when the code is out of range or already mapped to another constant
+         */
+        public Builder<E> put(final int code, final E constant) {
+            if (constant == null) throw new IllegalArgumentException("Constant must not be null");
+            if (code < 0 || code >= SIZE) throw new IllegalArgumentException("Code out of range - " + code);
+            if (table[code] != null && table[code] != constant)
+                throw new IllegalArgumentException("Code " + code + " already mapped to " + table[code]);
+            table[code] = constant;
+            return this;
+        }
+
+        /**
+         * @return - the table, later changes to this builder not affecting it
+         */
+        public COPSDecodeTable<E> build() {
+            return new COPSDecodeTable<>(table.clone());
+        }
+    }
+
+}
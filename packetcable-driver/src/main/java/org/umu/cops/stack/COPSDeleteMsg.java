@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Delete Message (RFC 2748 pag. 24)
@@ -114,10 +114,10 @@ public class COPSDeleteMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _clientHandle.writeData(socket);
-        _reason.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _clientHandle.writeData(buffer);
+        _reason.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
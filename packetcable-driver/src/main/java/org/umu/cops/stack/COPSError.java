@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -48,26 +48,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSError extends COPSObjBase {
 
-    public final static Map<Integer, ErrorTypes> ERROR_CODE_TO_TYPE = new ConcurrentHashMap<>();
-    static {
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.NA.ordinal(), ErrorTypes.NA);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.BAD_HANDLE.ordinal(), ErrorTypes.BAD_HANDLE);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.BAD_HANDLE_REF.ordinal(), ErrorTypes.BAD_HANDLE_REF);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.BAD_MSG_FORMAT.ordinal(), ErrorTypes.BAD_MSG_FORMAT);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.FAIL_PROCESS.ordinal(), ErrorTypes.FAIL_PROCESS);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.MISSING_INFO.ordinal(), ErrorTypes.MISSING_INFO);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.UNSUPPORTED_CLIENT_TYPE.ordinal(), ErrorTypes.UNSUPPORTED_CLIENT_TYPE);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.MANDATORY_OBJECT_MISSING.ordinal(), ErrorTypes.MANDATORY_OBJECT_MISSING);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.CLIENT_FAILURE.ordinal(), ErrorTypes.CLIENT_FAILURE);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.COMM_FAILURE.ordinal(), ErrorTypes.COMM_FAILURE);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.UNKNOWN.ordinal(), ErrorTypes.UNKNOWN);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.SHUTTING_DOWN.ordinal(), ErrorTypes.SHUTTING_DOWN);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.PDP_REDIRECT.ordinal(), ErrorTypes.PDP_REDIRECT);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.UNKNOWN_OBJECT.ordinal(), ErrorTypes.UNKNOWN_OBJECT);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.AUTH_FAILURE.ordinal(), ErrorTypes.AUTH_FAILURE);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.AUTH_REQUIRED.ordinal(), ErrorTypes.AUTH_REQUIRED);
-        ERROR_CODE_TO_TYPE.put(ErrorTypes.MA.ordinal(), ErrorTypes.MA);
-    }
+    public final static COPSDecodeTable<ErrorTypes> ERROR_CODE_TO_TYPE = COPSDecodeTable.byOrdinal(ErrorTypes.class);
 
     private final static Map<ErrorTypes, String> ERROR_TYPE_TO_STRING = new ConcurrentHashMap<>();
     static {
@@ -161,7 +142,7 @@ public class COPSError extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(final Socket socket) throws IOException {
+    public void writeBody(final ByteBuffer buffer) {
         final byte[] buf = new byte[4];
 
         buf[0] = (byte) ((byte)_errCode.ordinal() >> 8);
@@ -169,7 +150,7 @@ public class COPSError extends COPSObjBase {
         buf[2] = (byte) ((byte)_errSubCode.ordinal() >> 8);
         buf[3] = (byte)_errSubCode.ordinal();
 
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
@@ -212,13 +193,25 @@ public class COPSError extends COPSObjBase {
      * @throws java.lang.IllegalArgumentException
      */
     public static COPSError parse(final COPSObjHeaderData objHdrData, byte[] dataPtr) {
+        return parse(objHdrData, dataPtr, 0);
+    }
+
+    /**
+     * Parses the bytes of an object starting at the given offset
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSError parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
         int errCode = 0;
-        errCode |= ((short) dataPtr[4]) << 8;
-        errCode |= ((short) dataPtr[5]) & 0xFF;
+        errCode |= ((short) dataPtr[offset + 4]) << 8;
+        errCode |= ((short) dataPtr[offset + 5]) & 0xFF;
 
         int errSubCode = 0;
-        errSubCode |= ((short) dataPtr[6]) << 8;
-        errSubCode |= ((short) dataPtr[7]) & 0xFF;
+        errSubCode |= ((short) dataPtr[offset + 6]) << 8;
+        errSubCode |= ((short) dataPtr[offset + 7]) & 0xFF;
 
         return new COPSError(objHdrData.header, ERROR_CODE_TO_TYPE.get(errCode), ERROR_CODE_TO_TYPE.get(errSubCode));
     }
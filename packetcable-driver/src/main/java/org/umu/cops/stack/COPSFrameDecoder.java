@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.umu.cops.stack;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Reassembles the COPS messages of one connection from the chunks of bytes read from it, whatever the way the stream
+ * has been split: a chunk may end in the middle of a header or a body and may hold several messages back to back.
+ * The decoder keeps the incomplete message between calls, so a message arriving slowly is simply completed by later
+ * chunks.
+ * <p>
+ * Each message is accumulated into its own array allocated once its length is known, then parsed in place from it
+ * (see {@link COPSMsgParser#parseMessage(byte[], int)}), so the messages returned never share a buffer reused for
+ * later reads. A message declaring a length larger than the maximum frame size is rejected before anything is
+ * allocated for it.
+ */
+@NotThreadSafe
+public class COPSFrameDecoder {
+
+    /**
+     * Largest COPS message accepted by default (bytes)
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 1024 * 1024;
+
+    /**
+     * Size of the buffer used by {@link #read(Socket, int, List)}
+     */
+    static final int READ_BUFFER_SIZE = 4096;
+
+    /**
+     * Size of the COPS common header
+     */
+    private static final int HEADER_LENGTH = 8;
+
+    private final int maxFrameSize;
+
+    /**
+     * The header being read while the message length is not known yet
+     */
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private int headerRead;
+
+    /**
+     * The message being read once its length is known
+     */
+    private byte[] frame;
+    private int frameRead;
+
+    /**
+     * Set once an invalid length has been read, the stream can no longer be split into messages
+     */
+    private boolean corrupted;
+
+    // state of read(Socket, int, List)
+    private ByteBuffer readBuffer;
+    private int soTimeout = -1;
+
+    /**
+     * Creates a decoder accepting messages up to {@link #DEFAULT_MAX_FRAME_SIZE} bytes
+     */
+    public COPSFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Creates a decoder
+     * @param maxFrameSize - the largest message accepted (bytes), header included
+     */
+    public COPSFrameDecoder(final int maxFrameSize) {
+        if (maxFrameSize < HEADER_LENGTH)
+            throw new IllegalArgumentException("The maximum frame size must be at least " + HEADER_LENGTH);
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    /**
+     * @return - the largest message accepted (bytes)
+     */
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * @return - true when the bytes of an incomplete message are held, waiting for the next chunks
+     */
+    public boolean isPartial() {
+        return headerRead > 0 || frame != null;
+    }
+
+    /**
+     * Consumes the bytes remaining in the buffer and adds the messages they complete to out. A message which cannot be
+     * parsed stops the decoding right after its bytes: the messages preceding it have been added to out and the
+     * following ones are decoded by the next call with the same buffer.
+     * @param in - the bytes read from the connection
+     * @param out - receives the complete messages, in the order of the stream
+     * @throws IOException - when a message declares an invalid length, the decoder is then unusable
+     * @throws COPSException - when a complete message cannot be parsed, the decoder remains usable
+     */
+    public void decode(final ByteBuffer in, final List<? super COPSMsg> out) throws IOException, COPSException {
+        if (corrupted) throw new IOException("COPS stream corrupted by a previous invalid message length");
+        while (in.hasRemaining()) {
+            if (frame == null) {
+                final int count = Math.min(HEADER_LENGTH - headerRead, in.remaining());
+                in.get(header, headerRead, count);
+                headerRead += count;
+                if (headerRead < HEADER_LENGTH) return;
+
+                final int msgLength = COPSMsgParser.getMessageLength(header, 0);
+                if (msgLength < HEADER_LENGTH || msgLength > maxFrameSize) {
+                    corrupted = true;
+                    throw new IOException("Invalid COPS message length - " + msgLength);
+                }
+                frame = new byte[msgLength];
+                System.arraycopy(header, 0, frame, 0, HEADER_LENGTH);
+                frameRead = HEADER_LENGTH;
+                headerRead = 0;
+            }
+
+            final int count = Math.min(frame.length - frameRead, in.remaining());
+            in.get(frame, frameRead, count);
+            frameRead += count;
+            if (frameRead < frame.length) return;
+
+            final byte[] complete = frame;
+            frame = null;
+            out.add(COPSMsgParser.parseMessage(complete, 0));
+        }
+    }
+
+    /**
+     * Reads once from a blocking socket and adds the messages completed to out. The bytes left over by a previous
+     * call which threw a COPSException are decoded first, without reading. The read blocks until bytes arrive
+     * between messages, and for at most readTimeout milliseconds while a message is incomplete.
+     * @param socket - the socket, only read by this decoder
+     * @param readTimeout - the maximum idle time in milliseconds within a message (0 blocks forever)
+     * @param out - receives the complete messages, in the order of the stream
+     * @throws IOException - when the read fails or times out, at the end of the stream or on an invalid length
+     * @throws COPSException - when a complete message cannot be parsed, the next call continues after it
+     */
+    public void read(final Socket socket, final int readTimeout, final List<? super COPSMsg> out)
+            throws IOException, COPSException {
+        if (readBuffer == null) {
+            readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            readBuffer.limit(0);
+        }
+        if (!readBuffer.hasRemaining()) {
+            final int timeout = isPartial() ? Math.max(readTimeout, 0) : 0;
+            if (timeout != soTimeout) {
+                socket.setSoTimeout(timeout);
+                soTimeout = timeout;
+            }
+            final int count = socket.getInputStream().read(readBuffer.array(), 0, readBuffer.capacity());
+            if (count < 0) {
+                throw new EOFException(isPartial() ? "End of stream within a COPS message" : "End of stream");
+            }
+            readBuffer.position(0);
+            readBuffer.limit(count);
+        }
+        decode(readBuffer, out);
+    }
+
+}
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -101,9 +101,9 @@ public class COPSHandle extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        COPSUtil.writeData(socket, _data.getData(), _data.length());
-        if (_padding.length() != 0) COPSUtil.writeData(socket, _padding.getData(), _padding.length());
+    protected void writeBody(final ByteBuffer buffer) {
+        _data.writeData(buffer);
+        if (_padding.length() != 0) _padding.writeData(buffer);
     }
 
     @Override
@@ -167,5 +167,23 @@ public class COPSHandle extends COPSObjBase {
         return new COPSHandle(objHdrData.header, id);
     }
 
+    /**
+     * Parses the bytes of an object starting at the given offset. Unlike {@link #parse(COPSObjHeaderData, byte[])} the
+     * returned object references dataPtr instead of copying its content.
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSHandle parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
+        if (dataPtr == null || dataPtr.length - offset < 5)
+            throw new IllegalArgumentException("Data cannot be null or fewer than 5 bytes");
+
+        final COPSData id = COPSData.wrap(dataPtr, offset + 4,
+                objHdrData.msgByteCount - objHdrData.header.getHdrLength());
+        return new COPSHandle(objHdrData.header, id);
+    }
+
 }
 
@@ -9,8 +9,7 @@ package org.umu.cops.stack;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Header (RFC 2748 pag. 6)
@@ -60,23 +59,10 @@ import java.util.concurrent.ConcurrentHashMap;
 public class COPSHeader {
 
     /**
-     * Map allowing for the quick retrieval of the operation based on the numeric value coming in via the
+     * Table allowing for the quick retrieval of the operation based on the numeric value coming in via the
      * COPS payload.
      */
-    final static Map<Integer, OPCode> VAL_TO_OP = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_OP.put(OPCode.NA.ordinal(), OPCode.NA);
-        VAL_TO_OP.put(OPCode.REQ.ordinal(), OPCode.REQ);
-        VAL_TO_OP.put(OPCode.DEC.ordinal(), OPCode.DEC);
-        VAL_TO_OP.put(OPCode.RPT.ordinal(), OPCode.RPT);
-        VAL_TO_OP.put(OPCode.DRQ.ordinal(), OPCode.DRQ);
-        VAL_TO_OP.put(OPCode.SSQ.ordinal(), OPCode.SSQ);
-        VAL_TO_OP.put(OPCode.OPN.ordinal(), OPCode.OPN);
-        VAL_TO_OP.put(OPCode.CAT.ordinal(), OPCode.CAT);
-        VAL_TO_OP.put(OPCode.CC.ordinal(), OPCode.CC);
-        VAL_TO_OP.put(OPCode.KA.ordinal(), OPCode.KA);
-        VAL_TO_OP.put(OPCode.SSC.ordinal(), OPCode.SSC);
-    }
+    final static COPSDecodeTable<OPCode> VAL_TO_OP = COPSDecodeTable.byOrdinal(OPCode.class);
 
     /**
      * Represents the PCMM version number of the message
@@ -100,7 +86,7 @@ public class COPSHeader {
 
     /**
      * Represents client type which there are currently 3 types supported.
-     * Uses the 3rd byte of the message and inbound messages should use the constant Map VAL_TO_OP during construction
+     * Uses the 3rd byte of the message and inbound messages should use the constant table VAL_TO_OP during construction
      */
     private final short _cType;
 
@@ -174,18 +160,21 @@ public class COPSHeader {
      * @throws   IOException
      */
     public void writeData(final Socket socket, final int msgLength) throws IOException {
-        byte buf[] = new byte[8];
-        buf[0] = (byte) COPSMsgParser.combineNibbles((byte)_pcmmVersion, (byte) _flag.ordinal());
-        buf[1] = (byte) _opCode.ordinal();
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        writeData(buffer, msgLength);
+        COPSUtil.writeData(socket, buffer.array(), 8);
+    }
 
-        final byte[] cTypeBytes = COPSMsgParser.shortToBytes(_cType);
-        buf[2] = cTypeBytes[0];
-        buf[3] = cTypeBytes[1];
-        buf[4] = (byte) (msgLength >> 24);
-        buf[5] = (byte) (msgLength >> 16);
-        buf[6] = (byte) (msgLength >> 8);
-        buf[7] = (byte) msgLength;
-        COPSUtil.writeData(socket, buf, 8);
+    /**
+     * Encodes the header into the buffer in network byte order
+     * @param    buffer                  a  ByteBuffer
+     * @param    msgLength               the length of the whole message
+     */
+    public void writeData(final ByteBuffer buffer, final int msgLength) {
+        buffer.put((byte) COPSMsgParser.combineNibbles((byte)_pcmmVersion, (byte) _flag.ordinal()));
+        buffer.put((byte) _opCode.ordinal());
+        buffer.putShort(_cType);
+        buffer.putInt(msgLength);
     }
 
     @Override
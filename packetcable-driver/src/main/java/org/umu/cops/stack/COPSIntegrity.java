@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Integrity Object (RFC 2748)
@@ -122,7 +122,7 @@ public class COPSIntegrity extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(final Socket socket) throws IOException {
+    public void writeBody(final ByteBuffer buffer) {
         final byte[] buf = new byte[8];
         buf[0] = (byte) (_keyId >> 24);
         buf[1] = (byte) (_keyId >> 16);
@@ -132,11 +132,11 @@ public class COPSIntegrity extends COPSObjBase {
         buf[5] = (byte) (_seqNum >> 16);
         buf[6] = (byte) (_seqNum >> 8);
         buf[7] = (byte) _seqNum;
-        COPSUtil.writeData(socket, buf, 8);
+        buffer.put(buf, 0, 8);
 
-        COPSUtil.writeData(socket, _keyDigest.getData(), _keyDigest.length());
+        _keyDigest.writeData(buffer);
         if (_padding != null) {
-            COPSUtil.writeData(socket, _padding.getData(), _padding.length());
+            _padding.writeData(buffer);
         }
     }
 
@@ -210,6 +210,35 @@ public class COPSIntegrity extends COPSObjBase {
         else return new COPSIntegrity(objHdrData.header, keyId, seqNum, new COPSData());
     }
 
+    /**
+     * Parses the bytes of an object starting at the given offset. Unlike {@link #parse(COPSObjHeaderData, byte[])} the
+     * returned object references dataPtr instead of copying its content.
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSIntegrity parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
+        int keyId = 0;
+        keyId |= ((short) dataPtr[offset + 4]) << 24;
+        keyId |= ((short) dataPtr[offset + 5]) << 16;
+        keyId |= ((short) dataPtr[offset + 6]) << 8;
+        keyId |= ((short) dataPtr[offset + 7]) & 0xFF;
+
+        int seqNum = 0;
+        seqNum |= ((short) dataPtr[offset + 8]) << 24;
+        seqNum |= ((short) dataPtr[offset + 9]) << 16;
+        seqNum |= ((short) dataPtr[offset + 10]) << 8;
+        seqNum |= ((short) dataPtr[offset + 11]) & 0xFF;
+
+        final int usedBytes = objHdrData.header.getHdrLength() + 8;
+        if (objHdrData.msgByteCount > usedBytes)
+            return new COPSIntegrity(objHdrData.header, keyId, seqNum,
+                    COPSData.wrap(dataPtr, offset + usedBytes, objHdrData.msgByteCount - usedBytes));
+        else return new COPSIntegrity(objHdrData.header, keyId, seqNum, new COPSData());
+    }
+
 }
 
 
@@ -9,7 +9,7 @@ package org.umu.cops.stack;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Abstract COPS Interface for extension of all COPS interface types
@@ -48,14 +48,14 @@ abstract class COPSInterface extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _addr.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _addr.writeData(buffer);
         final byte[] buf = new byte[4];
         buf[0] = (byte) (_ifindex >> 24);
         buf[1] = (byte) (_ifindex >> 16);
         buf[2] = (byte) (_ifindex >> 8);
         buf[3] = (byte) _ifindex;
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
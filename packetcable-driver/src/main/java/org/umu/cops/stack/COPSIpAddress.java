@@ -3,6 +3,7 @@ package org.umu.cops.stack;
 import java.io.IOException;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -64,6 +65,14 @@ public abstract class COPSIpAddress {
         COPSUtil.writeData(socket, _addr, _addr.length);
     }
 
+    /**
+     * Encodes the address into the buffer
+     * @param    buffer                  a  ByteBuffer
+     */
+    public void writeData(final ByteBuffer buffer) {
+        buffer.put(_addr);
+    }
+
 
     @Override
     public boolean equals(final Object o) {
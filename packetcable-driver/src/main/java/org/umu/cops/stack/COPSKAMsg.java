@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Keep Alive Message (RFC 2748 pg. 27)
@@ -86,8 +86,8 @@ public class COPSKAMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
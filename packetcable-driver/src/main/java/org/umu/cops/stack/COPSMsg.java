@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Represents messages coming from and going to a COPS device such as a CMTS
@@ -20,6 +21,21 @@ abstract public class COPSMsg {
 
     private static final Logger logger = LoggerFactory.getLogger(COPSMsg.class);
 
+    /**
+     * Size of the per thread buffer used to encode outgoing messages, larger messages get their own buffer
+     */
+    private static final int WRITE_BUFFER_SIZE = 4096;
+
+    /**
+     * Per thread buffer into which outgoing messages are encoded before being written in a single call
+     */
+    private static final ThreadLocal<ByteBuffer> WRITE_BUFFER = new ThreadLocal<ByteBuffer>() {
+        @Override
+        protected ByteBuffer initialValue() {
+            return ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        }
+    };
+
     /**
      * The COPS header that is associated with all COPS messages
      */
@@ -42,15 +58,48 @@ abstract public class COPSMsg {
     }
 
     /**
-     * Method writeData. Implementers should be calling super.writeData() for the header prior to writing out the rest.
+     * Writes the whole message to the socket. The message is first encoded into a single buffer so it leaves with
+     * one socket write instead of one per header and object. The write holds the lock of the socket's output stream
+     * so messages sent concurrently on the same socket never interleave.
      * @param    socket                  a  Socket
      * @throws   IOException
      */
     public final void writeData(final Socket socket) throws IOException {
         logger.debug("Writing data for OPCode - " + _hdr.getOpCode());
 
-        _hdr.writeData(socket, _hdr.getHdrLength() + getDataLength());
-        writeBody(socket);
+        final int msgLength = getMsgLength();
+        ByteBuffer buffer = WRITE_BUFFER.get();
+        if (msgLength > buffer.capacity()) {
+            buffer = ByteBuffer.allocate(msgLength);
+        }
+        buffer.clear();
+        writeData(buffer, msgLength);
+        final OutputStream out = socket.getOutputStream();
+        synchronized (out) {
+            out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        }
+    }
+
+    /**
+     * Encodes the whole message (header included) into the buffer at its current position
+     * @param    buffer - the buffer with at least {@link #getMsgLength()} bytes remaining
+     * @throws   java.nio.BufferOverflowException when the buffer is too small
+     */
+    public final void writeData(final ByteBuffer buffer) {
+        writeData(buffer, getMsgLength());
+    }
+
+    private void writeData(final ByteBuffer buffer, final int msgLength) {
+        _hdr.writeData(buffer, msgLength);
+        writeBody(buffer);
+    }
+
+    /**
+     * Returns the number of bytes of the encoded message including the header
+     * @return - the message length
+     */
+    public final int getMsgLength() {
+        return _hdr.getHdrLength() + getDataLength();
     }
 
     /**
@@ -60,10 +109,10 @@ abstract public class COPSMsg {
     protected abstract int getDataLength();
 
     /**
-     * Writes out the body data over a socket
-     * @param socket - the socket to which to write
+     * Encodes the body data into a buffer
+     * @param buffer - the buffer to which to write
      */
-    protected abstract void writeBody(Socket socket) throws IOException;
+    protected abstract void writeBody(ByteBuffer buffer);
 
     /**
      * Write an object textual description in the output stream
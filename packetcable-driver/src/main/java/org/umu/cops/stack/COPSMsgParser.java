@@ -16,7 +16,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Socket;
-import java.util.Date;
+import java.net.SocketTimeoutException;
 
 /**
  * Utility for parsing COPS messages obtained from a Socket connection
@@ -26,6 +26,11 @@ public class COPSMsgParser {
 
     public final static Logger logger = LoggerFactory.getLogger(COPSMsgParser.class);
 
+    /**
+     * The default number of milliseconds a read may stay idle before the message is abandoned
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 2000;
+
     /**
      * Transforms a COPS message streaming in from a Socket connection into a COPSMsg object
      * @param socket - the socket
@@ -34,42 +39,114 @@ public class COPSMsgParser {
      * @throws COPSException
      */
     public static COPSMsg parseMessage(final Socket socket) throws IOException, COPSException {
-        final COPSHeaderData hdrData = readHeader(socket);
-        return readBody(socket, hdrData);
+        return parseMessage(socket, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Transforms a COPS message streaming in from a Socket connection into a COPSMsg object
+     * @param socket - the socket
+     * @param readTimeout - the maximum number of milliseconds to block waiting for more bytes (0 blocks forever)
+     * @return - an implementation of the abstract COPSMsg object
+     * @throws IOException
+     * @throws COPSException
+     */
+    public static COPSMsg parseMessage(final Socket socket, final int readTimeout) throws IOException, COPSException {
+        return parseMessage(socket, readTimeout, readTimeout);
+    }
+
+    /**
+     * Transforms a COPS message streaming in from a Socket connection into a COPSMsg object. The header and the body
+     * have their own timeouts so a dispatch thread can wait indefinitely for the next message to start while still
+     * bounding the time spent on a message that stalls half way.
+     * @param socket - the socket
+     * @param headerTimeout - the maximum number of milliseconds to block waiting for the header (0 blocks forever)
+     * @param readTimeout - the maximum number of milliseconds to block waiting for more body bytes (0 blocks forever)
+     * @return - an implementation of the abstract COPSMsg object
+     * @throws IOException
+     * @throws COPSException
+     */
+    public static COPSMsg parseMessage(final Socket socket, final int headerTimeout, final int readTimeout)
+            throws IOException, COPSException {
+        final COPSHeaderData hdrData = readHeader(socket, headerTimeout);
+        return readBody(socket, hdrData, readTimeout);
     }
 
 
     /**
      * Unmarshalls the COPS Header data from the bytes received on the Socket
      * @param socket - the socket
+     * @param readTimeout - the read timeout in milliseconds
      * @return - the header data
      * @throws IOException
      */
-    private static COPSHeaderData readHeader(final Socket socket) throws IOException {
+    private static COPSHeaderData readHeader(final Socket socket, final int readTimeout) throws IOException {
         logger.debug("Reading COPS Header");
         final byte[] data = new byte[8];
-        final int bytesRead = readData(socket, data, 8);
+        final int bytesRead = readData(socket, data, 8, readTimeout);
         if (bytesRead != 8) throw new IOException("Expected 8 bytes, read in " + bytesRead);
+        return parseHeader(data, 0);
+    }
 
-        final byte[] vFlagsNibbles = splitByteToNibbles(data[0]);
-        byte version = vFlagsNibbles[0];
+    /**
+     * Unmarshalls the COPS Header data from 8 bytes already held in memory
+     * @param data - the buffer containing the header
+     * @param offset - the index of the first header byte
+     * @return - the header data
+     */
+    private static COPSHeaderData parseHeader(final byte[] data, final int offset) {
+        // version and flags nibbles
+        final int version = data[offset] >>> 4 & 0x0F;
         final Flag flag;
-        if (vFlagsNibbles[1] == 1) flag = Flag.SOLICITED; else flag = Flag.UNSOLICITED;
+        if ((data[offset] & 0x0F) == 1) flag = Flag.SOLICITED; else flag = Flag.UNSOLICITED;
 
-        final OPCode opCode;
-        if (COPSHeader.VAL_TO_OP.get((int)data[1]) == null) opCode = OPCode.NA;
-        else opCode = COPSHeader.VAL_TO_OP.get((int)data[1]);
+        final OPCode decoded = COPSHeader.VAL_TO_OP.get(data[offset + 1]);
+        final OPCode opCode = decoded == null ? OPCode.NA : decoded;
 
-        short cType = bytesToShort(data[2], data[3]);
+        short cType = bytesToShort(data[offset + 2], data[offset + 3]);
 
-        int msgLength = ((short) data[4]) << 24;
-        msgLength |= ((short) data[5]) << 16;
-        msgLength |= ((short) data[6]) << 8;
-        msgLength |= ((short) data[7]) & 0xFF;
+        final int msgLength = bytesToInt(data[offset + 4], data[offset + 5], data[offset + 6], data[offset + 7]);
 
         return new COPSHeaderData(new COPSHeader(version, flag, opCode, cType), msgLength);
     }
 
+    /**
+     * Returns the total length of a message (header included) as declared in its header
+     * @param data - the buffer containing at least the 8 header bytes
+     * @param offset - the index of the first header byte
+     * @return - the message length
+     */
+    public static int getMessageLength(final byte[] data, final int offset) {
+        return bytesToInt(data[offset + 4], data[offset + 5], data[offset + 6], data[offset + 7]);
+    }
+
+    /**
+     * Transforms a complete COPS message already held in memory (header included) into a COPSMsg object. Report and
+     * decision messages, the bulk of the PCMM traffic, are parsed in place and the returned message may reference
+     * data, which must therefore not be modified afterwards.
+     * @param data - the buffer containing the message
+     * @param offset - the index of the first header byte
+     * @return - an implementation of the abstract COPSMsg object
+     * @throws COPSException when the message length is invalid or the message cannot be parsed
+     */
+    public static COPSMsg parseMessage(final byte[] data, final int offset) throws COPSException {
+        final COPSHeaderData hdrData = parseHeader(data, offset);
+        final int hdrLength = hdrData.header.getHdrLength();
+        if (hdrData.msgByteCount < hdrLength || offset + hdrData.msgByteCount > data.length) {
+            throw new COPSException("Bad COPS message length - " + hdrData.msgByteCount);
+        }
+        final int bodyLength = hdrData.msgByteCount - hdrLength;
+        switch (hdrData.header.getOpCode()) {
+            case RPT:
+                return COPSReportMsg.parse(hdrData, data, offset + hdrLength, bodyLength);
+            case DEC:
+                return COPSDecisionMsg.parse(hdrData, data, offset + hdrLength, bodyLength);
+            default:
+                final byte[] body = new byte[bodyLength];
+                System.arraycopy(data, offset + hdrLength, body, 0, bodyLength);
+                return parse(hdrData, body);
+        }
+    }
+
     /**
      * Takes a short value and splits it into 2 bytes
      * @param val - the value to split
@@ -97,11 +174,15 @@ public class COPSMsgParser {
         return Ints.fromBytes(byte1, byte2, byte3, byte4);
     }
 
-    private static COPSMsg readBody(final Socket socket, final COPSHeaderData hdrData) throws IOException, COPSException {
+    private static COPSMsg readBody(final Socket socket, final COPSHeaderData hdrData, final int readTimeout)
+            throws IOException, COPSException {
         logger.debug("Reading COPS Body of type - " + hdrData.header.getOpCode());
         final int expectedBytes = hdrData.msgByteCount - hdrData.header.getHdrLength();
+        if (expectedBytes < 0) {
+            throw new COPSException("Bad COPS message length - " + hdrData.msgByteCount);
+        }
         final byte[] buffer = new byte[expectedBytes];
-        final int nread = readData(socket, buffer, expectedBytes);
+        final int nread = readData(socket, buffer, expectedBytes, readTimeout);
         if (nread != expectedBytes) {
             throw new COPSException("Bad COPS message");
         }
@@ -119,22 +200,45 @@ public class COPSMsgParser {
      * @throws   IOException
      */
     public static int readData(final Socket socket, final byte[] dataRead, final int nchar)  throws IOException {
+        return readData(socket, dataRead, nchar, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Reads nchar from a given socket. The calling thread blocks inside the socket read until bytes arrive, so no
+     * CPU is consumed while the connection is idle. The read gives up when no bytes have arrived for readTimeout
+     * milliseconds or when the peer closes the connection.
+     * @param    socket              a  Socket
+     * @param    dataRead            a  byte[] - this array should be initialized to the proper size but is then
+     *                               populated by reference
+     * @param    nchar               an int
+     * @param    readTimeout         the maximum idle time in milliseconds between two reads (0 blocks forever)
+     * @return   the number of bytes read, less than nchar on timeout or end of stream
+     * @throws   IOException
+     */
+    public static int readData(final Socket socket, final byte[] dataRead, final int nchar, final int readTimeout)
+            throws IOException {
         final InputStream input = socket.getInputStream();
+        final int timeout = Math.max(readTimeout, 0);
+        final int origTimeout = socket.getSoTimeout();
+        if (origTimeout != timeout) socket.setSoTimeout(timeout);
         int nread = 0;
-        int startTime = (int) (new Date().getTime());
-        do {
-            if (input.available() != 0) {
-                nread += input.read(dataRead, nread, nchar-nread);
-                startTime = (int) (new Date().getTime());
-            } else {
-                int nowTime = (int) (new Date().getTime());
-                // Read Timeout - TODO - May want to make this configurable
-                if ((nowTime - startTime) > 2000)
+        try {
+            while (nread < nchar) {
+                final int count = input.read(dataRead, nread, nchar - nread);
+                if (count < 0) {
+                    logger.debug("End of stream reached after reading " + nread + " of " + nchar + " bytes");
                     break;
+                }
+                nread += count;
             }
-        } while (nread != nchar);
+        } catch (SocketTimeoutException e) {
+            logger.debug("Read timed out after reading " + nread + " of " + nchar + " bytes");
+        } finally {
+            if (origTimeout != timeout && !socket.isClosed()) socket.setSoTimeout(origTimeout);
+        }
         return nread;
     }
+
     /**
      * Parse the message with given header , the data is pointing
      * to the data following the header
@@ -9,6 +9,7 @@ package org.umu.cops.stack;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Represents objects that can be contained within COPS messages.
@@ -41,11 +42,25 @@ public abstract class COPSObjBase {
      * @throws   IOException
      */
     final public void writeData(final Socket socket) throws IOException {
-        _objHdr.writeData(socket, getDataLength());
-        writeBody(socket);
+        final ByteBuffer buffer = ByteBuffer.allocate(_objHdr.getHdrLength() + getDataLength());
+        writeData(buffer);
+        socket.getOutputStream().write(buffer.array(), 0, buffer.position());
     }
 
-    protected abstract void writeBody(Socket socket) throws IOException;
+    /**
+     * Encodes the object (header included) into the buffer at its current position
+     * @param    buffer                  a  ByteBuffer
+     */
+    final public void writeData(final ByteBuffer buffer) {
+        _objHdr.writeData(buffer, getDataLength());
+        writeBody(buffer);
+    }
+
+    /**
+     * Encodes the body data (not including header) into the buffer
+     * @param buffer - the buffer to which to write
+     */
+    protected abstract void writeBody(ByteBuffer buffer);
 
     /**
      * Returns the length of the body data to be output (not including header)
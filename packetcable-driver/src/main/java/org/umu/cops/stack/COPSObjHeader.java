@@ -9,8 +9,7 @@ package org.umu.cops.stack;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Object Header
@@ -20,36 +19,9 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSObjHeader  {
 
-    static Map<Integer, CNum> VAL_TO_CNUM = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_CNUM.put(CNum.NA.ordinal(), CNum.NA);
-        VAL_TO_CNUM.put(CNum.HANDLE.ordinal(), CNum.HANDLE);
-        VAL_TO_CNUM.put(CNum.CONTEXT.ordinal(), CNum.CONTEXT);
-        VAL_TO_CNUM.put(CNum.ININTF.ordinal(), CNum.ININTF);
-        VAL_TO_CNUM.put(CNum.OUTINTF.ordinal(), CNum.OUTINTF);
-        VAL_TO_CNUM.put(CNum.REASON_CODE.ordinal(), CNum.REASON_CODE);
-        VAL_TO_CNUM.put(CNum.DEC.ordinal(), CNum.DEC);
-        VAL_TO_CNUM.put(CNum.LPDP_DEC.ordinal(), CNum.LPDP_DEC);
-        VAL_TO_CNUM.put(CNum.ERROR.ordinal(), CNum.ERROR);
-        VAL_TO_CNUM.put(CNum.CSI.ordinal(), CNum.CSI);
-        VAL_TO_CNUM.put(CNum.KA.ordinal(), CNum.KA);
-        VAL_TO_CNUM.put(CNum.PEPID.ordinal(), CNum.PEPID);
-        VAL_TO_CNUM.put(CNum.RPT.ordinal(), CNum.RPT);
-        VAL_TO_CNUM.put(CNum.PDP_REDIR.ordinal(), CNum.PDP_REDIR);
-        VAL_TO_CNUM.put(CNum.LAST_PDP_ADDR.ordinal(), CNum.LAST_PDP_ADDR);
-        VAL_TO_CNUM.put(CNum.ACCT_TIMER.ordinal(), CNum.ACCT_TIMER);
-        VAL_TO_CNUM.put(CNum.MSG_INTEGRITY.ordinal(), CNum.MSG_INTEGRITY);
-    }
+    final static COPSDecodeTable<CNum> VAL_TO_CNUM = COPSDecodeTable.byOrdinal(CNum.class);
 
-    static Map<Integer, CType> VAL_TO_CTYPE = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_CTYPE.put(CType.NA.ordinal(), CType.NA);
-        VAL_TO_CTYPE.put(CType.DEF.ordinal(), CType.DEF);
-        VAL_TO_CTYPE.put(CType.STATELESS.ordinal(), CType.STATELESS);
-        VAL_TO_CTYPE.put(CType.REPL.ordinal(), CType.REPL);
-        VAL_TO_CTYPE.put(CType.CSI.ordinal(), CType.CSI);
-        VAL_TO_CTYPE.put(CType.NAMED.ordinal(), CType.NAMED);
-    }
+    final static COPSDecodeTable<CType> VAL_TO_CTYPE = COPSDecodeTable.byOrdinal(CType.class);
 
     /**
      * Denotes the type of COPSMsg
@@ -147,14 +119,22 @@ public class COPSObjHeader  {
      * @throws   IOException
      */
     public void writeData(final Socket socket, final int dataLength) throws IOException {
-        final int payloadSize = + getHdrLength() + dataLength;
-        final byte[] buf = new byte[4];
-        buf[0] = (byte) (payloadSize >> 8);
-        buf[1] = (byte) payloadSize;
-        buf[2] = (byte)_cNum.ordinal();
-        buf[3] = (byte)_cType.ordinal();
-
-        COPSUtil.writeData(socket, buf, 4);
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        writeData(buffer, dataLength);
+        COPSUtil.writeData(socket, buffer.array(), 4);
+    }
+
+    /**
+     * Encodes the object header into the buffer in network byte order
+     * @param    buffer                  a  ByteBuffer
+     * @param    dataLength              the length of the object body
+     */
+    public void writeData(final ByteBuffer buffer, final int dataLength) {
+        final int payloadSize = getHdrLength() + dataLength;
+        buffer.put((byte) (payloadSize >> 8));
+        buffer.put((byte) payloadSize);
+        buffer.put((byte)_cNum.ordinal());
+        buffer.put((byte)_cType.ordinal());
     }
 
     /**
@@ -13,22 +13,26 @@ public class COPSObjectParser {
      * @return - the header
      */
     public static COPSObjHeaderData parseObjHeader(final byte[] data) {
-        if (data == null || data.length < 4)
+        return parseObjHeader(data, 0);
+    }
+
+    /**
+     * Parses the header information for a COPSObjBase object starting at the given offset.
+     * @param data - the data to parse
+     * @param offset - the index of the first header byte
+     * @return - the header
+     */
+    public static COPSObjHeaderData parseObjHeader(final byte[] data, final int offset) {
+        if (data == null || data.length - offset < 4)
             throw new IllegalArgumentException("Data cannot be null or fewer than 4 bytes");
 
         // TODO - Determine what setting the _len value from the data buffer really means
         int len = 0;
-        len |= ((short) data[0]) << 8;
-        len |= ((short) data[1]) & 0xFF;
-
-        int cNum = 0;
-        cNum |= data[2];
-
-        int cType = 0;
-        cType |= data[3];
+        len |= ((short) data[offset]) << 8;
+        len |= ((short) data[offset + 1]) & 0xFF;
 
-        return new COPSObjHeaderData(
-                new COPSObjHeader(COPSObjHeader.VAL_TO_CNUM.get(cNum), COPSObjHeader.VAL_TO_CTYPE.get(cType)), len);
+        return new COPSObjHeaderData(new COPSObjHeader(COPSObjHeader.VAL_TO_CNUM.get(data[offset + 2]),
+                COPSObjHeader.VAL_TO_CTYPE.get(data[offset + 3])), len);
     }
 
     /**
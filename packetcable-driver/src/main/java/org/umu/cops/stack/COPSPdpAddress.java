@@ -8,7 +8,7 @@ package org.umu.cops.stack;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Superclass for  all PDP Address classes for which we appear to only have 2 concrete implementations and 4
@@ -115,8 +115,8 @@ abstract public class COPSPdpAddress extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(final Socket socket) throws IOException {
-        _addr.writeData(socket);
+    public void writeBody(final ByteBuffer buffer) {
+        _addr.writeData(buffer);
 
         byte[] buf = new byte[4];
         buf[0] = (byte) (_reserved >> 8);
@@ -124,7 +124,7 @@ abstract public class COPSPdpAddress extends COPSObjBase {
         buf[2] = (byte) (_tcpPort >> 8);
         buf[3] = (byte) _tcpPort ;
 
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
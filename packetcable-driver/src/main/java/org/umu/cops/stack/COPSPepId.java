@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS PEP Identification Object (RFC 2748)
@@ -90,10 +90,10 @@ public class COPSPepId extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        COPSUtil.writeData(socket, _data.getData(), _data.length());
+    protected void writeBody(final ByteBuffer buffer) {
+        _data.writeData(buffer);
         if (_padding != null) {
-            COPSUtil.writeData(socket, _padding.getData(), _padding.length());
+            _padding.writeData(buffer);
         }
     }
 
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -52,23 +52,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSReason extends COPSObjBase {
 
-    private final static Map<Integer, ReasonCode> VAL_TO_REASON = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_REASON.put(ReasonCode.NA.ordinal(), ReasonCode.NA);
-        VAL_TO_REASON.put(ReasonCode.UNSPECIFIED.ordinal(), ReasonCode.UNSPECIFIED);
-        VAL_TO_REASON.put(ReasonCode.MANAGEMENT.ordinal(), ReasonCode.MANAGEMENT);
-        VAL_TO_REASON.put(ReasonCode.PREEMPTED.ordinal(), ReasonCode.PREEMPTED);
-        VAL_TO_REASON.put(ReasonCode.TEAR.ordinal(), ReasonCode.TEAR);
-        VAL_TO_REASON.put(ReasonCode.TIMEOUT.ordinal(), ReasonCode.TIMEOUT);
-        VAL_TO_REASON.put(ReasonCode.ROUTE_CHANGE.ordinal(), ReasonCode.ROUTE_CHANGE);
-        VAL_TO_REASON.put(ReasonCode.INSUFF_RESOURCES.ordinal(), ReasonCode.INSUFF_RESOURCES);
-        VAL_TO_REASON.put(ReasonCode.PDP_DIRECTIVE.ordinal(), ReasonCode.PDP_DIRECTIVE);
-        VAL_TO_REASON.put(ReasonCode.UNSUPPORT_DEC.ordinal(), ReasonCode.UNSUPPORT_DEC);
-        VAL_TO_REASON.put(ReasonCode.SYNC_HANDLE.ordinal(), ReasonCode.SYNC_HANDLE);
-        VAL_TO_REASON.put(ReasonCode.TRANS_HANDLE.ordinal(), ReasonCode.TRANS_HANDLE);
-        VAL_TO_REASON.put(ReasonCode.MALFORMED_DEC.ordinal(), ReasonCode.MALFORMED_DEC);
-        VAL_TO_REASON.put(ReasonCode.UNKNOWN_COPS_OBJ.ordinal(), ReasonCode.UNKNOWN_COPS_OBJ);
-    }
+    private final static COPSDecodeTable<ReasonCode> VAL_TO_REASON = COPSDecodeTable.byOrdinal(ReasonCode.class);
 
     private final static Map<ReasonCode, String> REASON_TO_STRING = new ConcurrentHashMap<>();
     static {
@@ -147,13 +131,13 @@ public class COPSReason extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket id) throws IOException {
+    protected void writeBody(final ByteBuffer buffer) {
         final byte[] buf = new byte[4];
         buf[0] = (byte) (_reasonCode.ordinal() >> 8);
         buf[1] = (byte) _reasonCode.ordinal();
         buf[2] = (byte) (_reasonSubCode.ordinal() >> 8);
         buf[3] = (byte) _reasonSubCode.ordinal();
-        COPSUtil.writeData(id, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Report Message (RFC 2748 pag. 25)
@@ -140,11 +140,11 @@ public class COPSReportMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _clientHandle.writeData(socket);
-        _report.writeData(socket);
-        if (_clientSI != null) _clientSI.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _clientHandle.writeData(buffer);
+        _report.writeData(buffer);
+        if (_clientSI != null) _clientSI.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
@@ -194,30 +194,46 @@ public class COPSReportMsg extends COPSMsg {
      * @throws COPSException
      */
     public static COPSReportMsg parse(final COPSHeaderData hdrData, final byte[] data) throws COPSException {
+        return parse(hdrData, data, 0, data.length);
+    }
+
+    /**
+     * Responsible for parsing a byte array to create a COPSReportMsg object. The objects carrying opaque
+     * data (handle, client SI, integrity digest) reference data instead of copying it, so the array must not be
+     * modified afterwards.
+     * @param hdrData - the object's header data
+     * @param data - the byte array to parse
+     * @param offset - the index of the first object following the message header
+     * @param length - the number of bytes following the message header
+     * @return - the message object
+     * @throws COPSException
+     */
+    public static COPSReportMsg parse(final COPSHeaderData hdrData, final byte[] data, final int offset, final int length)
+            throws COPSException {
         // Variables for constructor
         COPSHandle clientHandle = null;
         COPSReportType report = null;
         COPSIntegrity integrity = null;
         COPSClientSI clientSI = null;
 
-        int dataStart = 0;
-        while (dataStart < data.length) {
-            final byte[] buf = new byte[data.length - dataStart];
-            System.arraycopy(data, dataStart, buf, 0, data.length - dataStart);
-
-            final COPSObjHeaderData objHdrData = COPSObjectParser.parseObjHeader(buf);
+        final int end = offset + length;
+        int dataStart = offset;
+        while (dataStart < end) {
+            final COPSObjHeaderData objHdrData = COPSObjectParser.parseObjHeader(data, dataStart);
+            if (objHdrData.msgByteCount < 4 || objHdrData.msgByteCount > end - dataStart)
+                throw new COPSException("Bad object length - " + objHdrData.msgByteCount);
             switch (objHdrData.header.getCNum()) {
                 case HANDLE:
-                    clientHandle = COPSHandle.parse(objHdrData, buf);
+                    clientHandle = COPSHandle.parse(objHdrData, data, dataStart);
                     break;
                 case RPT:
-                    report = COPSReportType.parse(objHdrData, buf);
+                    report = COPSReportType.parse(objHdrData, data, dataStart);
                     break;
                 case CSI:
-                    clientSI = COPSClientSI.parse(objHdrData, buf);
+                    clientSI = COPSClientSI.parse(objHdrData, data, dataStart);
                     break;
                 case MSG_INTEGRITY:
-                    integrity = COPSIntegrity.parse(objHdrData, buf);
+                    integrity = COPSIntegrity.parse(objHdrData, data, dataStart);
                     break;
                 default:
                     throw new COPSException("Bad Message format, unknown object type");
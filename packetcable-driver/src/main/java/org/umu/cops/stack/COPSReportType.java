@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -38,13 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class COPSReportType extends COPSObjBase {
 
-    private final static Map<Integer, ReportType> VAL_TO_RPT_TYPE = new ConcurrentHashMap<>();
-    static {
-        VAL_TO_RPT_TYPE.put(ReportType.NA.ordinal(), ReportType.NA);
-        VAL_TO_RPT_TYPE.put(ReportType.SUCCESS.ordinal(), ReportType.SUCCESS);
-        VAL_TO_RPT_TYPE.put(ReportType.FAILURE.ordinal(), ReportType.FAILURE);
-        VAL_TO_RPT_TYPE.put(ReportType.ACCOUNTING.ordinal(), ReportType.ACCOUNTING);
-    }
+    private final static COPSDecodeTable<ReportType> VAL_TO_RPT_TYPE = COPSDecodeTable.byOrdinal(ReportType.class);
 
     private final static Map<ReportType, String> RPT_TYPE_TO_STRING = new ConcurrentHashMap<>();
     static {
@@ -103,7 +97,7 @@ public class COPSReportType extends COPSObjBase {
     }
 
     @Override
-    protected void writeBody(final Socket id) throws IOException {
+    protected void writeBody(final ByteBuffer buffer) {
         final byte[] buf = new byte[4];
 
         buf[0] = (byte) (_rType.ordinal() >> 8);
@@ -111,7 +105,7 @@ public class COPSReportType extends COPSObjBase {
         buf[2] = (byte) (_reserved >> 8);
         buf[3] = (byte) _reserved;
 
-        COPSUtil.writeData(id, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
@@ -127,13 +121,25 @@ public class COPSReportType extends COPSObjBase {
      * @throws java.lang.IllegalArgumentException
      */
     public static COPSReportType parse(final COPSObjHeaderData objHdrData, byte[] dataPtr) {
+        return parse(objHdrData, dataPtr, 0);
+    }
+
+    /**
+     * Parses the bytes of an object starting at the given offset
+     * @param objHdrData - the associated header
+     * @param dataPtr - the data to parse
+     * @param offset - the index of the first byte of the object (its header) in dataPtr
+     * @return - the object
+     * @throws java.lang.IllegalArgumentException
+     */
+    public static COPSReportType parse(final COPSObjHeaderData objHdrData, final byte[] dataPtr, final int offset) {
         short rType = 0;
-        rType |= ((short) dataPtr[4]) << 8;
-        rType |= ((short) dataPtr[5]) & 0xFF;
+        rType |= ((short) dataPtr[offset + 4]) << 8;
+        rType |= ((short) dataPtr[offset + 5]) & 0xFF;
 
         short reserved = 0;
-        reserved |= ((short) dataPtr[6]) << 8;
-        reserved |= ((short) dataPtr[7]) & 0xFF;
+        reserved |= ((short) dataPtr[offset + 6]) << 8;
+        reserved |= ((short) dataPtr[offset + 7]) & 0xFF;
 
         return new COPSReportType(objHdrData.header, VAL_TO_RPT_TYPE.get((int)rType), reserved);
     }
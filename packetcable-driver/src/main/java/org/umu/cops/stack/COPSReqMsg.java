@@ -12,7 +12,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -180,26 +180,26 @@ public class COPSReqMsg extends COPSMsg {
 //    public COPSContext getLpdpContext() { return _lpdpContext; }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        _clientHandle.writeData(socket);
-        _context.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        _clientHandle.writeData(buffer);
+        _context.writeData(buffer);
 
-        if (_inInterface != null) _inInterface.writeData(socket);
-        if (_outInterface != null) _outInterface.writeData(socket);
+        if (_inInterface != null) _inInterface.writeData(buffer);
+        if (_outInterface != null) _outInterface.writeData(buffer);
 
         for (final COPSClientSI clientSI : _clientSIs) {
-            clientSI.writeData(socket);
+            clientSI.writeData(buffer);
         }
 
         //Display any local decisions
         for (final Map.Entry<COPSContext, Set<COPSLPDPDecision>> entry : _decisions.entrySet()) {
-            entry.getKey().writeData(socket);
+            entry.getKey().writeData(buffer);
             for (final COPSDecision decision : entry.getValue()) {
-                decision.writeData(socket);
+                decision.writeData(buffer);
             }
         }
 
-        if (_integrity != null) _integrity.writeData(socket);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
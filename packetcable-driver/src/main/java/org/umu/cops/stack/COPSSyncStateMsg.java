@@ -11,7 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * COPS Sync State Message (RFC 2748 pg. 26 and pg. 29
@@ -81,7 +81,8 @@ public class COPSSyncStateMsg extends COPSMsg {
 
     /**
      * Constructor generally used when parsing the bytes of an inbound COPS message but can also be used when the
-     * COPSHeader information is known.
+     * COPSHeader information is known. The same message format is used by the Synchronize State Request (SSQ) and
+     * the Synchronize State Complete (SSC).
      * @param hdr - COPS Header
      * @param handle - the handle (optional)
      * @param integrity - the integrity (optional)
@@ -89,8 +90,8 @@ public class COPSSyncStateMsg extends COPSMsg {
      */
     protected COPSSyncStateMsg(final COPSHeader hdr, final COPSHandle handle, final COPSIntegrity integrity) {
         super(hdr);
-        if (!hdr.getOpCode().equals(OPCode.SSQ))
-            throw new IllegalArgumentException("OPCode must be of type - " + OPCode.SSQ);
+        if (!hdr.getOpCode().equals(OPCode.SSQ) && !hdr.getOpCode().equals(OPCode.SSC))
+            throw new IllegalArgumentException("OPCode must be of type - " + OPCode.SSQ + " or " + OPCode.SSC);
         _clientHandle = handle;
         _integrity = integrity;
     }
@@ -112,9 +113,9 @@ public class COPSSyncStateMsg extends COPSMsg {
     }
 
     @Override
-    protected void writeBody(final Socket socket) throws IOException {
-        if (_clientHandle != null) _clientHandle.writeData(socket);
-        if (_integrity != null) _integrity.writeData(socket);
+    protected void writeBody(final ByteBuffer buffer) {
+        if (_clientHandle != null) _clientHandle.writeData(buffer);
+        if (_integrity != null) _integrity.writeData(buffer);
     }
 
     @Override
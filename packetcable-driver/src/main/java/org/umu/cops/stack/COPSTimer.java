@@ -8,7 +8,7 @@ package org.umu.cops.stack;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * For extension by other COPS Timer Objects such as COPSAcctTimer & COPSKATimer
@@ -45,14 +45,14 @@ public abstract class COPSTimer extends COPSObjBase {
     }
 
     @Override
-    public void writeBody(Socket socket) throws IOException {
+    public void writeBody(final ByteBuffer buffer) {
         byte[] buf = new byte[4];
 
         buf[0] = (byte) (_reserved >> 8);
         buf[1] = (byte) _reserved;
         buf[2] = (byte) (_timerValue >> 8);
         buf[3] = (byte) _timerValue;
-        COPSUtil.writeData(socket, buf, 4);
+        buffer.put(buf, 0, 4);
     }
 
     @Override
@@ -38,5 +38,31 @@ public class COPSTransceiver {
     static public COPSMsg receiveMsg(final Socket socket) throws IOException, COPSException {
         return COPSMsgParser.parseMessage(socket);
     }
+
+    /**
+     * Parses a COPS message coming in via the socket
+     * @param    socket - the socket from which the message will arrive
+     * @param    readTimeout - the maximum idle time in milliseconds while reading (0 blocks forever)
+     * @return   a COPSMsg object
+     * @throws   IOException
+     * @throws   COPSException
+     */
+    static public COPSMsg receiveMsg(final Socket socket, final int readTimeout) throws IOException, COPSException {
+        return COPSMsgParser.parseMessage(socket, readTimeout);
+    }
+
+    /**
+     * Parses a COPS message coming in via the socket
+     * @param    socket - the socket from which the message will arrive
+     * @param    headerTimeout - the maximum time in milliseconds to wait for the message to start (0 blocks forever)
+     * @param    readTimeout - the maximum idle time in milliseconds while reading the body (0 blocks forever)
+     * @return   a COPSMsg object
+     * @throws   IOException
+     * @throws   COPSException
+     */
+    static public COPSMsg receiveMsg(final Socket socket, final int headerTimeout, final int readTimeout)
+            throws IOException, COPSException {
+        return COPSMsgParser.parseMessage(socket, headerTimeout, readTimeout);
+    }
 }
 
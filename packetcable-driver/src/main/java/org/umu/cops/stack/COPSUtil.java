@@ -11,10 +11,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.Socket;
 import java.util.Arrays;
-import java.util.Date;
 
 /**
  * Class to hold static utilitarian methods for streaming bytes over a Socket.
@@ -85,22 +83,6 @@ public class COPSUtil {
      */
     @Deprecated
     static int readData(Socket connId, byte[] dataRead, int nchar)  throws IOException {
-        InputStream input;
-        input = connId.getInputStream();
-
-        int nread = 0;
-        int startTime = (int) (new Date().getTime());
-        do {
-            if (input.available() != 0) {
-                nread += input.read(dataRead,nread,nchar-nread);
-                startTime = (int) (new Date().getTime());
-            } else {
-                int nowTime = (int) (new Date().getTime());
-                if ((nowTime - startTime) > 2000)
-                    break;
-            }
-        } while (nread != nchar);
-
-        return nread;
+        return COPSMsgParser.readData(connId, dataRead, nchar);
     }
 }
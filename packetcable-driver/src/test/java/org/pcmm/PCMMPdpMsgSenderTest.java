@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.pcmm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.gates.IClassifier;
+import org.pcmm.gates.IPCMMGate;
+import org.pcmm.gates.impl.GateID;
+import org.pcmm.gates.impl.PCMMGateReq;
+import org.pcmm.rcd.IPCMMClient;
+import org.umu.cops.prpdp.COPSPdpException;
+import org.umu.cops.stack.COPSData;
+import org.umu.cops.stack.COPSHandle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Collections;
+
+/**
+ * Tests that the gate requests of PCMMPdpMsgSender report the failure to write their decision.
+ */
+public class PCMMPdpMsgSenderTest {
+
+    private final PCMMTransactionTable transactions = new PCMMTransactionTable();
+    private final PCMMPdpMsgSender sender = new PCMMPdpMsgSender(IPCMMClient.CLIENT_TYPE,
+            new COPSHandle(new COPSData("handle")), new BrokenSocket(), transactions);
+
+    private static IPCMMGate newGate() {
+        return new PCMMGateReq(null, null, null, null, null, Collections.<IClassifier>emptyList(), new GateID(1),
+                null, null, null, null);
+    }
+
+    @Test
+    public void gateSetFailure() {
+        try {
+            sender.sendGateSet(newGate());
+            Assert.fail("Gate-Set written to a broken socket");
+        } catch (COPSPdpException e) {
+            Assert.assertEquals(0, transactions.size());
+        }
+    }
+
+    @Test
+    public void gateDeleteFailure() {
+        try {
+            sender.sendGateDelete(newGate());
+            Assert.fail("Gate-Delete written to a broken socket");
+        } catch (COPSPdpException e) {
+            Assert.assertEquals(0, transactions.size());
+        }
+    }
+
+    @Test
+    public void gateInfoFailure() {
+        try {
+            sender.sendGateInfo(newGate());
+            Assert.fail("Gate-Info written to a broken socket");
+        } catch (COPSPdpException e) {
+            Assert.assertEquals(0, transactions.size());
+        }
+    }
+
+    /**
+     * Unconnected socket failing every write
+     */
+    private static class BrokenSocket extends Socket {
+        @Override
+        public OutputStream getOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    throw new IOException("Broken pipe");
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    throw new IOException("Broken pipe");
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.pcmm;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.gates.IClassifier;
+import org.pcmm.gates.IPCMMGate;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+import org.pcmm.gates.impl.PCMMGateReq;
+import org.pcmm.stats.PCMMCommandStatistics;
+import org.pcmm.stats.PCMMGateStatistics;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests the transaction ID allocation and the outstanding request table of PCMMTransactionTable.
+ */
+public class PCMMTransactionTableTest {
+
+    private static IPCMMGate newGate() {
+        return new PCMMGateReq(null, null, null, null, null, Collections.<IClassifier>emptyList(), null, null, null,
+                null, null);
+    }
+
+    @Test
+    public void allocatedIdsAreUniqueAndTracked() {
+        final PCMMTransactionTable table = new PCMMTransactionTable(60000);
+        final Set<Short> ids = new HashSet<>();
+        final IPCMMGate[] gates = new IPCMMGate[1000];
+        final short[] trIds = new short[gates.length];
+        for (int i = 0; i < gates.length; i++) {
+            gates[i] = newGate();
+            trIds[i] = table.allocate(gates[i]);
+            Assert.assertNotEquals(0, trIds[i]);
+            Assert.assertTrue(ids.add(trIds[i]));
+        }
+        Assert.assertEquals(gates.length, table.size());
+        for (int i = 0; i < gates.length; i++) {
+            Assert.assertSame(gates[i], table.get(trIds[i]));
+        }
+        // Remove every other one, the remaining ones must still be found
+        for (int i = 0; i < gates.length; i += 2) {
+            Assert.assertSame(gates[i], table.remove(trIds[i]));
+            Assert.assertNull(table.remove(trIds[i]));
+        }
+        Assert.assertEquals(gates.length / 2, table.size());
+        for (int i = 1; i < gates.length; i += 2) {
+            Assert.assertSame(gates[i], table.get(trIds[i]));
+        }
+    }
+
+    @Test
+    public void allocationSkipsIdsInFlight() {
+        final PCMMTransactionTable table = new PCMMTransactionTable(60000);
+        final short first = table.allocate(newGate());
+        // Wrap the counter around, the first ID is still in flight and must not be handed out again
+        for (int i = 0; i < 65534; i++) {
+            final short id = table.allocate(newGate());
+            Assert.assertNotEquals(first, id);
+            table.remove(id);
+        }
+        Assert.assertEquals(1, table.size());
+    }
+
+    @Test
+    public void outstandingRequestsExpire() throws Exception {
+        final PCMMTransactionTable table = new PCMMTransactionTable(1);
+        final short id = table.allocate(newGate());
+        table.allocate(newGate());
+        Thread.sleep(10);
+        Assert.assertEquals(2, table.expire());
+        Assert.assertEquals(0, table.size());
+        Assert.assertNull(table.get(id));
+    }
+
+    @Test
+    public void fullWindowFailsAtOnce() {
+        final PCMMTransactionTable table = new PCMMTransactionTable(60000, 2);
+        final short first = table.allocate(newGate());
+        table.allocate(newGate());
+        final long start = System.nanoTime();
+        try {
+            table.allocate(newGate());
+            Assert.fail("Transaction allocated beyond the window");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(System.nanoTime() - start < 1000000000L);
+        }
+        Assert.assertEquals(2, table.size());
+
+        // a report frees a slot of the window
+        table.remove(first);
+        table.allocate(newGate());
+        Assert.assertEquals(2, table.size());
+    }
+
+    @Test
+    public void fullWindowDropsExpiredRequests() throws Exception {
+        final PCMMTransactionTable table = new PCMMTransactionTable(1, 1);
+        table.allocate(newGate());
+        Thread.sleep(10);
+        // The first request expires and the second takes its place
+        table.allocate(newGate());
+        Assert.assertEquals(1, table.size());
+    }
+
+    @Test
+    public void sentRequestsAreRecordedInTheStatistics() throws Exception {
+        final PCMMTransactionTable table = new PCMMTransactionTable(60000);
+        final PCMMGateStatistics statistics = new PCMMGateStatistics();
+        table.setStatistics(statistics);
+
+        final short reported = table.allocate(newGate());
+        final short cancelled = table.allocate(newGate());
+        final short notSent = table.allocate(newGate());
+        table.sent(reported, GateCommandType.GATE_SET);
+        table.sent(cancelled, GateCommandType.GATE_SET);
+        Assert.assertEquals(2, statistics.getGateSet().getInFlight());
+
+        Thread.sleep(5);
+        table.remove(reported);
+        table.cancel(cancelled);
+        table.remove(notSent);
+
+        final PCMMCommandStatistics gateSet = statistics.getGateSet();
+        Assert.assertEquals(2, gateSet.getRequests());
+        Assert.assertEquals(1, gateSet.getReports());
+        Assert.assertEquals(0, gateSet.getInFlight());
+        Assert.assertTrue(gateSet.getLatencyMax() >= 5000);
+        Assert.assertEquals(0, statistics.getGateInfo().getRequests());
+    }
+
+    @Test
+    public void expiredRequestsAreRecordedInTheStatistics() throws Exception {
+        final PCMMTransactionTable table = new PCMMTransactionTable(1);
+        table.sent(table.allocate(newGate()), GateCommandType.GATE_INFO);
+        table.sent(table.allocate(newGate()), GateCommandType.GATE_DELETE);
+        Thread.sleep(10);
+        table.expire();
+        table.sent(table.allocate(newGate()), GateCommandType.GATE_INFO);
+        table.clear();
+
+        final PCMMCommandStatistics gateInfo = table.getStatistics().getGateInfo();
+        Assert.assertEquals(2, gateInfo.getRequests());
+        Assert.assertEquals(1, gateInfo.getExpired());
+        Assert.assertEquals(0, gateInfo.getReports());
+        Assert.assertEquals(0, gateInfo.getInFlight());
+        Assert.assertEquals(1, table.getStatistics().getGateDelete().getExpired());
+    }
+
+    @Test
+    public void timedOutRequestsLeaveTheWindow() {
+        final PCMMTransactionTable table = new PCMMTransactionTable(60000, 1);
+        final IPCMMGate gate = newGate();
+        final short id = table.allocate(gate);
+        table.sent(id, GateCommandType.GATE_INFO);
+
+        // only the request owning the transaction may time it out
+        Assert.assertFalse(table.timeOut(id, newGate()));
+        Assert.assertTrue(table.timeOut(id, gate));
+        Assert.assertEquals(0, table.size());
+        Assert.assertNull(table.remove(id));
+        Assert.assertFalse(table.timeOut(id, gate));
+
+        final PCMMCommandStatistics gateInfo = table.getStatistics().getGateInfo();
+        Assert.assertEquals(1, gateInfo.getTimeouts());
+        Assert.assertEquals(0, gateInfo.getExpired());
+        Assert.assertEquals(0, gateInfo.getInFlight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidExpiry() {
+        new PCMMTransactionTable(0);
+    }
+
+}
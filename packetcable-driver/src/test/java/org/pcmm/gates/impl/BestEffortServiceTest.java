@@ -81,4 +81,17 @@ public class BestEffortServiceTest {
         Assert.assertEquals(service, parsed);
     }
 
+    @Test
+    public void byteParsingAllWithinLargerArray() {
+        final BEEnvelop auth = new BEEnvelop((byte)0, 1, 2, 3, 4, (short)5, (short)6, 7, 8, 9, 0, 1, 2, 3);
+        final BEEnvelop resv = new BEEnvelop((byte)10, 11, 12, 13, 14, (short)15, (short)16, 17, 18, 19, 10, 11, 12, 13);
+        final BEEnvelop cmmt = new BEEnvelop((byte)20, 21, 22, 23, 24, (short)25, (short)26, 27, 28, 29, 20, 21, 22, 23);
+        final BestEffortService service = new BestEffortService(auth, resv, cmmt);
+        final byte[] bytes = service.getBytes();
+        final byte[] padded = new byte[bytes.length + 7];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        final BestEffortService parsed = BestEffortService.parse(padded, 5, bytes.length);
+        Assert.assertEquals(service, parsed);
+    }
+
 }
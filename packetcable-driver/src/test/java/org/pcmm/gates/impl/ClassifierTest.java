@@ -14,6 +14,8 @@ import org.pcmm.gates.IClassifier.Protocol;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Tests the data holder class Classifier to ensure both construction and byte parsing result in correct object
@@ -62,4 +64,19 @@ public class ClassifierTest {
         Assert.assertEquals(classifier, parsed);
     }
 
+    @Test
+    public void encodeToBuffer() throws UnknownHostException {
+        final Classifier classifier = new Classifier(Protocol.TCP, (byte)1, (byte)4,
+                (Inet4Address)InetAddress.getByName("127.0.0.1"), (Inet4Address)InetAddress.getByName("127.0.0.2"),
+                (short)5, (short)6, (byte)7);
+        final ByteBuffer buffer = ByteBuffer.allocate(classifier.encodedLength() + 2);
+        buffer.put((byte)9);
+        classifier.encodeTo(buffer);
+        Assert.assertEquals(1 + classifier.encodedLength(), buffer.position());
+
+        final byte[] encoded = Arrays.copyOfRange(buffer.array(), 1, buffer.position());
+        Assert.assertArrayEquals(classifier.getAsBinaryArray(), encoded);
+        Assert.assertEquals(classifier, Classifier.parse(Arrays.copyOfRange(encoded, 4, encoded.length)));
+    }
+
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.pcmm.gates.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.gates.IClassifier;
+import org.pcmm.gates.IClassifier.Protocol;
+import org.pcmm.gates.IExtendedClassifier;
+import org.pcmm.gates.IExtendedClassifier.ActivationState;
+import org.pcmm.gates.IIPv6Classifier.FlowLabel;
+import org.pcmm.gates.IGateSpec.Direction;
+import org.pcmm.gates.IGateState.GateStateReasonType;
+import org.pcmm.gates.IGateState.GateStateType;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the eager and lazy byte parsing of PCMMGateReq.
+ */
+public class PCMMGateReqTest {
+
+    private static PCMMGateReq buildGateReq() throws Exception {
+        final List<IClassifier> classifiers = Arrays.<IClassifier>asList(
+                new Classifier(Protocol.TCP, (byte)1, (byte)4, (Inet4Address)InetAddress.getByName("10.0.0.1"),
+                        (Inet4Address)InetAddress.getByName("10.0.0.2"), (short)5, (short)6, (byte)7),
+                new Classifier(Protocol.UDP, (byte)2, (byte)3, (Inet4Address)InetAddress.getByName("10.0.0.3"),
+                        (Inet4Address)InetAddress.getByName("10.0.0.4"), (short)8, (short)9, (byte)10));
+        return new PCMMGateReq(new AMID((short)1, (short)2),
+                new SubscriberID(InetAddress.getByName("10.1.0.1")),
+                new TransactionID((short)11, GateCommandType.GATE_SET_ACK),
+                new GateSpec(Direction.UPSTREAM, (byte)1, (byte)2, new SessionClassID((byte)3),
+                        (short)4, (short)5, (short)6, (short)7),
+                new DOCSISServiceClassNameTrafficProfile("extrm_up"), classifiers, new GateID(12), null,
+                new GateState(GateStateType.COMMITTED, GateStateReasonType.ZERO), new GateTimeInfo(13),
+                new GateUsageInfo(14L));
+    }
+
+    @Test
+    public void lazyParseMatchesEagerParse() throws Exception {
+        final byte[] data = buildGateReq().getData();
+        final byte[] padded = new byte[data.length + 6];
+        System.arraycopy(data, 0, padded, 3, data.length);
+
+        final PCMMGateReq eager = PCMMGateReq.parse(data);
+        final PCMMGateReq lazy = PCMMGateReq.parseLazy(padded, 3, data.length);
+
+        Assert.assertEquals(eager.getTransactionID(), lazy.getTransactionID());
+        Assert.assertEquals(eager.getGateID(), lazy.getGateID());
+        Assert.assertEquals(eager.getAMID(), lazy.getAMID());
+        Assert.assertEquals(eager.getSubscriberID(), lazy.getSubscriberID());
+        Assert.assertEquals(eager.getGateSpec(), lazy.getGateSpec());
+        Assert.assertEquals(eager.getTrafficProfile(), lazy.getTrafficProfile());
+        Assert.assertEquals(eager.getClassifiers(), lazy.getClassifiers());
+        Assert.assertEquals(2, lazy.getClassifiers().size());
+        Assert.assertEquals(GateStateType.COMMITTED, lazy.getGateState().getGateState());
+        Assert.assertEquals(13, lazy.getGateTimeInfo().getGateTimeInfo());
+        Assert.assertEquals(14L, lazy.getGateUsageInfo().getGateUsageInfo());
+        Assert.assertNull(lazy.getError());
+        Assert.assertArrayEquals(data, lazy.getData());
+    }
+
+    @Test
+    public void lazySetterReplacesPendingObject() throws Exception {
+        final byte[] data = buildGateReq().getData();
+        final PCMMGateReq lazy = PCMMGateReq.parseLazy(data, 0, data.length);
+
+        final GateID gateID = new GateID(99);
+        lazy.setGateID(gateID);
+        lazy.setClassifiers(null);
+        Assert.assertEquals(gateID, lazy.getGateID());
+        Assert.assertNull(lazy.getClassifiers());
+        Assert.assertEquals(new TransactionID((short)11, GateCommandType.GATE_SET_ACK), lazy.getTransactionID());
+    }
+
+    @Test
+    public void unknownSNumSkipped() throws Exception {
+        final byte[] data = buildGateReq().getData();
+        // object of an S-Num this driver does not define, placed before the known ones
+        final byte[] unknown = {0, 8, (byte)0x80, 1, 1, 2, 3, 4};
+        final byte[] withUnknown = new byte[unknown.length + data.length];
+        System.arraycopy(unknown, 0, withUnknown, 0, unknown.length);
+        System.arraycopy(data, 0, withUnknown, unknown.length, data.length);
+
+        final PCMMGateReq gateReq = PCMMGateReq.parse(withUnknown);
+        Assert.assertEquals(new GateID(12), gateReq.getGateID());
+        Assert.assertEquals(new TransactionID((short)11, GateCommandType.GATE_SET_ACK), gateReq.getTransactionID());
+        Assert.assertEquals(2, gateReq.getClassifiers().size());
+        Assert.assertEquals(14L, gateReq.getGateUsageInfo().getGateUsageInfo());
+    }
+
+    @Test
+    public void lazyParseOfIPv6ClassifiersAndBestEffort() throws Exception {
+        final List<IClassifier> classifiers = Arrays.<IClassifier>asList(
+                new IPv6Classifier((Inet6Address)InetAddress.getByName("2001:db8::1"),
+                        (Inet6Address)InetAddress.getByName("2001:db8::2"), (short)21, (short)22, (byte)24,
+                        (short)25, (short)26, (short)27, ActivationState.ACTIVE, IExtendedClassifier.Action.ADD,
+                        FlowLabel.VALID, (byte)31, (byte)32, (byte)33, 34, (short)35, (byte)36, (byte)37),
+                new IPv6Classifier((Inet6Address)InetAddress.getByName("2001:db8::4"),
+                        (Inet6Address)InetAddress.getByName("2001:db8::5"), (short)41, (short)42, (byte)44,
+                        (short)45, (short)46, (short)47, ActivationState.INACTIVE, IExtendedClassifier.Action.ADD,
+                        FlowLabel.IRRELEVANT, (byte)51, (byte)52, (byte)53, 54, (short)55, (byte)56, (byte)57));
+        final BestEffortService profile = new BestEffortService(
+                new BEEnvelop((byte)0, 1, 2, 3, 4, (short)5, (short)6, 7, 8, 9, 0, 1, 2, 3),
+                new BEEnvelop((byte)10, 11, 12, 13, 14, (short)15, (short)16, 17, 18, 19, 10, 11, 12, 13), null);
+        final byte[] data = new PCMMGateReq(new AMID((short)1, (short)2),
+                new SubscriberID(InetAddress.getByName("2001:db8::3")),
+                new TransactionID((short)11, GateCommandType.GATE_SET), null, profile, classifiers,
+                new GateID(12), null, null, null, null).getData();
+        final byte[] padded = new byte[data.length + 6];
+        System.arraycopy(data, 0, padded, 3, data.length);
+
+        final PCMMGateReq lazy = PCMMGateReq.parseLazy(padded, 3, data.length);
+        Assert.assertEquals(new SubscriberID(InetAddress.getByName("2001:db8::3")), lazy.getSubscriberID());
+        Assert.assertEquals(profile, lazy.getTrafficProfile());
+        Assert.assertEquals(classifiers, lazy.getClassifiers());
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.pcmm.nio;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.pcmm.rcd.IPCMMClient;
+import org.umu.cops.stack.COPSData;
+import org.umu.cops.stack.COPSException;
+import org.umu.cops.stack.COPSFrameDecoder;
+import org.umu.cops.stack.COPSHandle;
+import org.umu.cops.stack.COPSHeader.Flag;
+import org.umu.cops.stack.COPSMsg;
+import org.umu.cops.stack.COPSSyncStateMsg;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the outbound queue of the channels registered with a PCMMEventLoop: messages sent concurrently by several
+ * threads must reach the peer whole and in the order each thread sent them.
+ */
+public class PCMMEventLoopTest {
+
+    private static final int THREADS = 4;
+    private static final int MSGS_PER_THREAD = 500;
+
+    private ServerSocketChannel server;
+    private PCMMChannelSocket socket;
+    private Socket peer;
+
+    @Before
+    public void setup() throws Exception {
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        peer = new Socket(InetAddress.getLoopbackAddress(), server.socket().getLocalPort());
+        final SocketChannel channel = server.accept();
+        socket = new PCMMChannelSocket(channel);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        peer.close();
+        socket.close();
+        server.close();
+    }
+
+    @Test
+    public void flushAtOnce() throws Exception {
+        concurrentSenders(new PCMMEventLoopGroup(1, "Test-Flush", COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE,
+                PCMMEventLoop.DEFAULT_FLUSH_THRESHOLD, 0));
+    }
+
+    @Test
+    public void flushAfterLinger() throws Exception {
+        concurrentSenders(new PCMMEventLoopGroup(1, "Test-Linger", COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE,
+                1024, 20));
+    }
+
+    @Test
+    public void drainOnClose() throws Exception {
+        final PCMMEventLoopGroup group = new PCMMEventLoopGroup(1, "Test-Close",
+                COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE, Integer.MAX_VALUE, 60000);
+        try {
+            group.register(socket, new Handler());
+            final COPSMsg msg = newMsg(1, 1);
+            msg.writeData(socket);
+            socket.close();
+
+            final List<COPSMsg> msgs = new ArrayList<>();
+            final COPSFrameDecoder decoder = new COPSFrameDecoder();
+            while (msgs.isEmpty()) {
+                decoder.read(peer, 1000, msgs);
+            }
+            Assert.assertEquals(msg, msgs.get(0));
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    @Test
+    public void closeDoesNotBlockOnSilentPeer() throws Exception {
+        final PCMMEventLoopGroup group = new PCMMEventLoopGroup(1, "Test-Silent",
+                COPSFrameDecoder.DEFAULT_MAX_FRAME_SIZE, PCMMEventLoop.DEFAULT_FLUSH_THRESHOLD, 0);
+        try {
+            group.register(socket, new Handler());
+            // far more than the socket buffers hold, the peer never reading
+            final COPSMsg msg = new COPSSyncStateMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE,
+                    new COPSHandle(new COPSData(new byte[32 * 1024], 0, 32 * 1024)), null);
+            for (int i = 0; i < 1024; i++) {
+                msg.writeData(socket);
+            }
+
+            final long start = System.nanoTime();
+            socket.close();
+            Assert.assertTrue(socket.isClosed());
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assert.assertTrue(elapsed + "ms", elapsed < PCMMEventLoop.CLOSE_TIMEOUT_MILLIS);
+
+            // closed by the loop once the close timeout has elapsed
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (socket.getChannel().isOpen() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(socket.getChannel().isOpen());
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    private void concurrentSenders(final PCMMEventLoopGroup group) throws Exception {
+        try {
+            group.register(socket, new Handler());
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> senders = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final int sender = i;
+                final Thread thread = new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                            for (int j = 0; j < MSGS_PER_THREAD; j++) {
+                                newMsg(sender, j).writeData(socket);
+                            }
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                };
+                thread.start();
+                senders.add(thread);
+            }
+            start.countDown();
+
+            final List<COPSMsg> msgs = new ArrayList<>();
+            final COPSFrameDecoder decoder = new COPSFrameDecoder();
+            while (msgs.size() < THREADS * MSGS_PER_THREAD) {
+                decoder.read(peer, 1000, msgs);
+            }
+            for (final Thread thread : senders) {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            }
+
+            final int[] next = new int[THREADS];
+            for (final COPSMsg msg : msgs) {
+                final String[] ids = ((COPSSyncStateMsg) msg).getClientHandle().getId().str().trim().split(":");
+                final int sender = Integer.parseInt(ids[0]);
+                Assert.assertEquals(next[sender]++, Integer.parseInt(ids[1]));
+            }
+        } finally {
+            group.shutdown();
+        }
+    }
+
+    private static COPSMsg newMsg(final int sender, final int index) {
+        return new COPSSyncStateMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE,
+                new COPSHandle(new COPSData(sender + ":" + index)), null);
+    }
+
+    private static class Handler implements IPCMMChannelHandler {
+        @Override
+        public void messageReceived(final COPSMsg msg) throws COPSException {
+        }
+
+        @Override
+        public void channelRegistered() {
+        }
+
+        @Override
+        public void channelClosed() {
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.pcmm.stats;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.gates.IPCMMError.ErrorCode;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+
+/**
+ * Tests the bucketing and percentiles of PCMMLatencyHistogram and the accounting of PCMMGateStatistics.
+ */
+public class PCMMLatencyHistogramTest {
+
+    @Test
+    public void bucketsBoundTheRelativeError() {
+        for (long value = 0; value < 10000000L; value = value * 11 / 10 + 1) {
+            final long highest = PCMMLatencyHistogram.highestValueAt(PCMMLatencyHistogram.indexOf(value));
+            Assert.assertTrue(highest >= value);
+            Assert.assertTrue(value + " -> " + highest, highest - value <= value / 64);
+        }
+        final int last = PCMMLatencyHistogram.indexOf(PCMMLatencyHistogram.HIGHEST_TRACKABLE_VALUE);
+        Assert.assertEquals(PCMMLatencyHistogram.HIGHEST_TRACKABLE_VALUE, PCMMLatencyHistogram.highestValueAt(last));
+        // contiguous buckets
+        for (int index = 1; index <= last; index++) {
+            final long lowest = PCMMLatencyHistogram.highestValueAt(index - 1) + 1;
+            Assert.assertEquals(index, PCMMLatencyHistogram.indexOf(lowest));
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        final PCMMLatencyHistogram histogram = new PCMMLatencyHistogram();
+        Assert.assertArrayEquals(new long[] {0, 0}, histogram.getValuesAtPercentiles(50, 99));
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(value);
+        }
+        Assert.assertEquals(10000, histogram.getCount());
+        Assert.assertEquals(5000, histogram.getMean());
+        Assert.assertEquals(10000, histogram.getMax());
+
+        final long[] values = histogram.getValuesAtPercentiles(50, 90, 99, 100);
+        Assert.assertEquals(5000, values[0], 5000 / 64);
+        Assert.assertEquals(9000, values[1], 9000 / 64);
+        Assert.assertEquals(9900, values[2], 9900 / 64);
+        Assert.assertEquals(10000, values[3]);
+
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void concurrentRecording() throws Exception {
+        final PCMMLatencyHistogram histogram = new PCMMLatencyHistogram();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100000; j++) {
+                        histogram.record(j % 1000);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(400000, histogram.getCount());
+        Assert.assertEquals(999, histogram.getMax());
+        Assert.assertEquals(999, histogram.getValuesAtPercentiles(100)[0]);
+    }
+
+    @Test
+    public void responsesAreAccountedUnderTheirRequest() {
+        final PCMMGateStatistics statistics = new PCMMGateStatistics();
+        statistics.requestSent(GateCommandType.GATE_DELETE);
+        statistics.requestSent(GateCommandType.GATE_DELETE);
+        statistics.requestSent(GateCommandType.GATE_DELETE);
+        statistics.reportReceived(GateCommandType.GATE_DELETE_ERR, 2000000);
+        statistics.errorReceived(GateCommandType.GATE_DELETE_ERR, ErrorCode.UNK_GATE_ID);
+        statistics.requestTimedOut(GateCommandType.GATE_DELETE);
+        statistics.requestSent(GateCommandType.SYNC_REQUEST);
+
+        final PCMMCommandStatistics gateDelete = statistics.getStatistics(GateCommandType.GATE_DELETE_ACK);
+        Assert.assertEquals(GateCommandType.GATE_DELETE, gateDelete.getCommandType());
+        Assert.assertEquals(3, gateDelete.getRequests());
+        Assert.assertEquals(1, gateDelete.getReports());
+        Assert.assertEquals(1, gateDelete.getTimeouts());
+        Assert.assertEquals(1, gateDelete.getInFlight());
+        Assert.assertEquals(2000, gateDelete.getLatencyMax());
+        Assert.assertEquals(Long.valueOf(1), gateDelete.getErrors().get(ErrorCode.UNK_GATE_ID));
+        Assert.assertEquals(1, gateDelete.getErrors().size());
+
+        statistics.reset();
+        Assert.assertEquals(0, statistics.getGateDelete().getRequests());
+        Assert.assertEquals(1, statistics.getGateDelete().getInFlight());
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.umu.cops;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umu.cops.COPSHashedWheelTimer.Timeout;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the scheduling and cancellation of COPSHashedWheelTimer.
+ */
+public class COPSHashedWheelTimerTest {
+
+    // 8 buckets of 10ms, one turn of the wheel lasting 80ms
+    private final COPSHashedWheelTimer timer = new COPSHashedWheelTimer("test-timer-%d", 10, 8);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void timeoutsRunOnceDue() throws Exception {
+        final long[] delays = {0, 5, 30, 100, 250};
+        final CountDownLatch latch = new CountDownLatch(delays.length);
+        final long[] elapsed = new long[delays.length];
+        final long start = System.nanoTime();
+        for (int i = 0; i < delays.length; i++) {
+            final int index = i;
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    elapsed[index] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    latch.countDown();
+                }
+            }, delays[i], TimeUnit.MILLISECONDS);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < delays.length; i++) {
+            // never early, late by about a tick at most
+            Assert.assertTrue(elapsed[i] + " >= " + delays[i], elapsed[i] >= delays[i]);
+            Assert.assertTrue(elapsed[i] + " < " + delays[i] + " + 200", elapsed[i] < delays[i] + 200);
+        }
+    }
+
+    @Test
+    public void cancelledTimeoutsNeverRun() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        final Timeout pending = timer.schedule(task, 10, TimeUnit.MILLISECONDS);
+        final Timeout wheeled = timer.schedule(task, 200, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(pending.cancel());
+        Thread.sleep(50);
+        // already in its bucket
+        Assert.assertTrue(wheeled.cancel());
+        Assert.assertFalse(wheeled.cancel());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Timeout last = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 300, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, runs.get());
+        Assert.assertTrue(pending.isCancelled());
+        Assert.assertTrue(wheeled.isCancelled());
+        Assert.assertTrue(last.isExpired());
+        Assert.assertFalse(last.cancel());
+    }
+
+    @Test
+    public void failingTasksDoNotStopTheTimer() throws Exception {
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("test");
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 20, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void blockingTasksRunOnTheirExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, 0, TimeUnit.MILLISECONDS, executor);
+            Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            // the timer thread is not held by the blocked task
+            final CountDownLatch latch = new CountDownLatch(1);
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    latch.countDown();
+                }
+            }, 20, TimeUnit.MILLISECONDS);
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            release.countDown();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void stoppedTimerRejectsTimeouts() {
+        timer.stop();
+        timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 0, TimeUnit.MILLISECONDS);
+    }
+
+}
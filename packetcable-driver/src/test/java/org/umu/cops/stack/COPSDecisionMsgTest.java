@@ -17,6 +17,7 @@ import org.umu.cops.stack.COPSObjHeader.CType;
 import java.io.ByteArrayOutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -371,4 +372,27 @@ public class COPSDecisionMsgTest {
         Assert.assertEquals(msg, server.copsMsgs.get(0));
     }
 
+    /**
+     * Encodes a COPSDecisionMsg with all objects into a buffer and parses it back without any socket
+     * @throws Exception - Test should fail if any exception is thrown
+     */
+    @Test
+    public void testWriteDecisionsToBuffer() throws Exception {
+        final Map<COPSContext, Set<COPSDecision>> decisions = new HashMap<>();
+        final Set<COPSDecision> decisions1 = new HashSet<>();
+        decisions1.add(new COPSDecision(CType.CSI, Command.INSTALL, DecisionFlag.REQERROR, new COPSData("12345")));
+        decisions.put(new COPSContext(RType.CONFIG, (short)1), decisions1);
+
+        final COPSDecisionMsg msg = new COPSDecisionMsg(2, Flag.UNSOLICITED, IPCMMClient.CLIENT_TYPE,
+                new COPSHandle(new COPSData("12345")), decisions, new COPSIntegrity(4, 5, new COPSData("123456")),
+                new COPSClientSI(CSIType.NAMED, new COPSData("123")));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(msg.getMsgLength());
+        msg.writeData(buffer);
+
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(msg.getMsgLength(), COPSMsgParser.getMessageLength(buffer.array(), 0));
+        Assert.assertEquals(msg, COPSMsgParser.parseMessage(buffer.array(), 0));
+    }
+
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.umu.cops.stack;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.base.impl.PCMMBaseObject.SNum;
+import org.pcmm.gates.IGateState.GateStateReasonType;
+import org.pcmm.gates.IGateState.GateStateType;
+import org.pcmm.gates.IPCMMError.ErrorCode;
+import org.pcmm.gates.ITransactionID.GateCommandType;
+import org.umu.cops.stack.COPSContext.RType;
+import org.umu.cops.stack.COPSHeader.OPCode;
+import org.umu.cops.stack.COPSObjHeader.CNum;
+
+/**
+ * Tests COPSDecodeTable and the decoding of the COPS and PCMM codes through it.
+ */
+public class COPSDecodeTableTest {
+
+    @Test
+    public void unsignedBytes() {
+        final COPSDecodeTable<OPCode> table = COPSDecodeTable.builder(OPCode.class)
+                .put(3, OPCode.RPT).put(255, OPCode.KA).build();
+        Assert.assertEquals(OPCode.RPT, table.get((byte) 3));
+        Assert.assertEquals(OPCode.KA, table.get((byte) 0xFF));
+        Assert.assertEquals(OPCode.KA, table.get(255));
+        Assert.assertNull(table.get((byte) 4));
+        Assert.assertNull(table.get(-1));
+        Assert.assertNull(table.get(256));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void codeOutOfRange() {
+        COPSDecodeTable.builder(OPCode.class).put(256, OPCode.REQ);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateCode() {
+        COPSDecodeTable.builder(OPCode.class).put(1, OPCode.REQ).put(1, OPCode.DEC);
+    }
+
+    @Test
+    public void copsCodes() {
+        for (final OPCode opCode : OPCode.values()) {
+            Assert.assertEquals(opCode, COPSHeader.VAL_TO_OP.get((byte) opCode.ordinal()));
+        }
+        for (final CNum cNum : CNum.values()) {
+            Assert.assertEquals(cNum, COPSObjHeader.VAL_TO_CNUM.get((byte) cNum.ordinal()));
+        }
+        Assert.assertNull(COPSObjHeader.VAL_TO_CNUM.get((byte) CNum.values().length));
+        Assert.assertEquals(RType.CONFIG, COPSContext.VAL_TO_RTYPE.get(8));
+        Assert.assertNull(COPSContext.VAL_TO_RTYPE.get(3));
+    }
+
+    @Test
+    public void pcmmCodes() {
+        for (final SNum sNum : SNum.values()) {
+            Assert.assertEquals(sNum, SNum.valueOf(sNum.getValue()));
+        }
+        for (final GateCommandType type : GateCommandType.values()) {
+            Assert.assertEquals(type, GateCommandType.valueOf(type.getValue()));
+        }
+        for (final ErrorCode errorCode : ErrorCode.values()) {
+            Assert.assertEquals(errorCode, ErrorCode.valueOf(errorCode.getCode()));
+        }
+        for (final GateStateType type : GateStateType.values()) {
+            Assert.assertEquals(type, GateStateType.valueOf(type.getValue()));
+        }
+        for (final GateStateReasonType type : GateStateReasonType.values()) {
+            Assert.assertEquals(type, GateStateReasonType.valueOf(type.getValue()));
+        }
+        Assert.assertNull(ErrorCode.valueOf((short) 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownSNum() {
+        SNum.valueOf((byte) 0x80);
+    }
+
+}
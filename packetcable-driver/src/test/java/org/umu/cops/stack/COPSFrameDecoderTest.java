@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015 Cable Television Laboratories, Inc and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.umu.cops.stack;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.pcmm.rcd.IPCMMClient;
+import org.umu.cops.stack.COPSHeader.Flag;
+import org.umu.cops.stack.COPSHeader.OPCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the reassembly of COPS messages by COPSFrameDecoder whatever the way the stream is split.
+ */
+public class COPSFrameDecoderTest {
+
+    private final COPSMsg keepAlive = new COPSKAMsg(null);
+    private final COPSMsg syncState = new COPSSyncStateMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE,
+            new COPSHandle(new COPSData("12345")), null);
+
+    @Test
+    public void byteByByte() throws Exception {
+        final byte[] bytes = encode(syncState, keepAlive);
+        final COPSFrameDecoder decoder = new COPSFrameDecoder();
+        final List<COPSMsg> msgs = new ArrayList<>();
+        for (final byte b : bytes) {
+            decoder.decode(ByteBuffer.wrap(new byte[] {b}), msgs);
+        }
+        Assert.assertFalse(decoder.isPartial());
+        Assert.assertEquals(2, msgs.size());
+        Assert.assertEquals(syncState, msgs.get(0));
+        Assert.assertEquals(keepAlive, msgs.get(1));
+    }
+
+    @Test
+    public void backToBack() throws Exception {
+        final byte[] bytes = encode(keepAlive, syncState, keepAlive);
+        final COPSFrameDecoder decoder = new COPSFrameDecoder();
+        final List<COPSMsg> msgs = new ArrayList<>();
+
+        // the first chunk ends within the header of the last message
+        final ByteBuffer first = ByteBuffer.wrap(bytes, 0, bytes.length - keepAlive.getMsgLength() + 3);
+        decoder.decode(first, msgs);
+        Assert.assertTrue(decoder.isPartial());
+        Assert.assertEquals(2, msgs.size());
+
+        decoder.decode(ByteBuffer.wrap(bytes, first.position(), bytes.length - first.position()), msgs);
+        Assert.assertFalse(decoder.isPartial());
+        Assert.assertEquals(3, msgs.size());
+        Assert.assertEquals(keepAlive, msgs.get(0));
+        Assert.assertEquals(syncState, msgs.get(1));
+        Assert.assertEquals(keepAlive, msgs.get(2));
+    }
+
+    @Test
+    public void frameTooLarge() throws Exception {
+        final COPSFrameDecoder decoder = new COPSFrameDecoder(syncState.getMsgLength() - 1);
+        final List<COPSMsg> msgs = new ArrayList<>();
+        try {
+            decoder.decode(ByteBuffer.wrap(encode(keepAlive, syncState)), msgs);
+            Assert.fail("Frame larger than the maximum accepted");
+        } catch (IOException e) {
+            Assert.assertEquals(1, msgs.size());
+        }
+        try {
+            decoder.decode(ByteBuffer.wrap(encode(keepAlive)), msgs);
+            Assert.fail("Decoder usable after an invalid length");
+        } catch (IOException e) {
+            Assert.assertEquals(1, msgs.size());
+        }
+    }
+
+    @Test
+    public void resumeAfterInvalidMessage() throws Exception {
+        final byte[] bytes = encode(keepAlive, keepAlive, syncState);
+        // unknown op code in the second message
+        bytes[keepAlive.getMsgLength() + 1] = (byte) 0x7F;
+
+        final COPSFrameDecoder decoder = new COPSFrameDecoder();
+        final List<COPSMsg> msgs = new ArrayList<>();
+        final ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            decoder.decode(in, msgs);
+            Assert.fail("Invalid op code");
+        } catch (COPSException e) {
+            Assert.assertEquals(1, msgs.size());
+        }
+        decoder.decode(in, msgs);
+        Assert.assertEquals(2, msgs.size());
+        Assert.assertEquals(syncState, msgs.get(1));
+    }
+
+    @Test
+    public void readSocket() throws Exception {
+        final Socket socket = new StreamSocket(new ByteArrayInputStream(encode(syncState, keepAlive)));
+        final COPSFrameDecoder decoder = new COPSFrameDecoder();
+        final List<COPSMsg> msgs = new ArrayList<>();
+        decoder.read(socket, 100, msgs);
+        Assert.assertEquals(2, msgs.size());
+        try {
+            decoder.read(socket, 100, msgs);
+            Assert.fail("End of stream expected");
+        } catch (EOFException e) {
+            Assert.assertEquals(2, msgs.size());
+        }
+    }
+
+    private static byte[] encode(final COPSMsg... msgs) throws Exception {
+        int length = 0;
+        for (final COPSMsg msg : msgs) {
+            length += msg.getMsgLength();
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (final COPSMsg msg : msgs) {
+            msg.writeData(buffer);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Unconnected socket reading from a stream
+     */
+    private static class StreamSocket extends Socket {
+        private final InputStream in;
+
+        private StreamSocket(final InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        @Override
+        public void setSoTimeout(final int timeout) {
+        }
+    }
+
+}
@@ -8,6 +8,10 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.pcmm.rcd.IPCMMClient;
 
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.util.Random;
 
 /**
@@ -135,6 +139,47 @@ public class COPSMsgParserTest {
         COPSMsgParser.combineNibbles((byte)0, (byte)-1);
     }
 
+    @Test
+    public void testReadDataAllBytes() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0);
+             final Socket outSocket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             final Socket inSocket = server.accept()) {
+            final OutputStream out = outSocket.getOutputStream();
+            out.write(new byte[] {1, 2, 3});
+            out.write(new byte[] {4, 5});
+            out.flush();
+
+            final byte[] data = new byte[5];
+            Assert.assertEquals(5, COPSMsgParser.readData(inSocket, data, 5, 1000));
+            Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, data);
+            Assert.assertEquals(0, inSocket.getSoTimeout());
+        }
+    }
+
+    @Test
+    public void testReadDataTimeout() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0);
+             final Socket outSocket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             final Socket inSocket = server.accept()) {
+            outSocket.getOutputStream().write(new byte[] {1, 2});
+
+            final long start = System.currentTimeMillis();
+            Assert.assertEquals(2, COPSMsgParser.readData(inSocket, new byte[8], 8, 100));
+            Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+        }
+    }
+
+    @Test
+    public void testReadDataPeerClosed() throws Exception {
+        try (final ServerSocket server = new ServerSocket(0);
+             final Socket outSocket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+             final Socket inSocket = server.accept()) {
+            outSocket.getOutputStream().write(new byte[] {1, 2, 3});
+            outSocket.close();
+            Assert.assertEquals(3, COPSMsgParser.readData(inSocket, new byte[8], 8, 0));
+        }
+    }
+
     // TODO - determine if tests for marshalling & un should be done with this class or implicitly via the COPSMsg objects
 
 }
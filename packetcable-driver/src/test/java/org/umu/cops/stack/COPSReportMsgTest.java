@@ -13,6 +13,7 @@ import org.umu.cops.stack.COPSReportType.ReportType;
 import java.io.ByteArrayOutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Tests for the first constructor of the COPSReportMsg class.
@@ -174,4 +175,28 @@ public class COPSReportMsgTest {
         Assert.assertEquals(msg, server.copsMsgs.get(0));
     }
 
+    /**
+     * This test is responsible for parsing a COPSReportMsg held in the middle of a larger buffer, as done by the event
+     * loop, and validating that the objects referencing that buffer are equal to the ones originally encoded.
+     * @throws Exception - Test should fail if any exception is thrown
+     */
+    @Test
+    public void testParseFromBufferOffset() throws Exception {
+        final COPSReportMsg msg = new COPSReportMsg(1, Flag.SOLICITED, IPCMMClient.CLIENT_TYPE,
+                new COPSHandle(new COPSData("handle")), new COPSReportType(ReportType.ACCOUNTING),
+                new COPSClientSI(CSIType.NAMED, new COPSData("1234")), new COPSIntegrity(4, 5, new COPSData("123456")));
+
+        final ByteBuffer buffer = ByteBuffer.allocate(msg.getMsgLength() + 10);
+        buffer.put(new byte[3]);
+        msg.writeData(buffer);
+        buffer.put(new byte[7]);
+
+        final COPSMsg parsed = COPSMsgParser.parseMessage(buffer.array(), 3);
+        Assert.assertEquals(msg, parsed);
+        final COPSData csiData = ((COPSReportMsg)parsed).getClientSI().getData();
+        Assert.assertSame(buffer.array(), csiData.getBuffer());
+        Assert.assertEquals("1234", csiData.str());
+        Assert.assertArrayEquals("1234".getBytes(), csiData.getData());
+    }
+
 }
@@ -11,6 +11,7 @@ import org.umu.cops.stack.COPSHeader.OPCode;
 import java.io.ByteArrayOutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 /**
  * Tests for the first constructor of the COPSSyncStateMsg class.
@@ -81,6 +82,19 @@ public class COPSSyncStateMsgTest {
         Assert.assertEquals(new COPSIntegrity(), msg.getIntegrity());
     }
 
+    @Test
+    public void syncComplete() throws Exception {
+        final COPSSyncStateMsg msg = new COPSSyncStateMsg(
+                new COPSHeader(1, Flag.SOLICITED, OPCode.SSC, IPCMMClient.CLIENT_TYPE),
+                new COPSHandle(new COPSData("12345")), null);
+        final ByteBuffer buffer = ByteBuffer.allocate(msg.getMsgLength());
+        msg.writeData(buffer);
+
+        final COPSMsg parsed = COPSMsgParser.parseMessage(buffer.array(), 0);
+        Assert.assertEquals(OPCode.SSC, parsed.getHeader().getOpCode());
+        Assert.assertEquals(msg, parsed);
+    }
+
     /**
      * This test is responsible for creating a COPSSyncStateMsg object without any nulls or empty collections
      * and then is dumped to an OutputStream.
@@ -10,9 +10,7 @@ package org.opendaylight.controller.packetcable.provider;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.collect.Maps;
 import java.util.Collection;
-import java.util.Map;
 import java.util.NoSuchElementException;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.binding.api.DataObjectModification;
@@ -60,50 +58,59 @@ public abstract class AbstractDataTreeChangeListener<T extends DataObject> imple
     @Override
     public void onDataTreeChanged(@Nonnull Collection<DataTreeModification<T>> changes)
     {
-        Map<DataTreeModification<T>, ValidationException> exceptionMap = Maps.newHashMap();
         for (final DataTreeModification<T> change : changes) {
-            final DataObjectModification<T> root = change.getRootNode();
-            switch (root.getModificationType()) {
-                case SUBTREE_MODIFIED:
-                    try{
-                        ValidationException validationException = validateData(change);
-                        if(validationException != null){
-                            handleInvalidData(change,validationException);
-                        }
-                        else {
-                            handleUpdatedData(change);
-                        }
-                    }catch (NoSuchElementException e) {
-                        logger.error("Unable to find validator for data: {}", change.getRootNode().getDataAfter(), e);
+            handleChange(change);
+        }
+    }
+
+    /**
+     * Validates a single modification and dispatches it to the matching handler. Subclasses overriding
+     * onDataTreeChanged to process the changes elsewhere call this for each of them.
+     * @param change - the modification
+     */
+    protected void handleChange(final DataTreeModification<T> change) {
+        final DataObjectModification<T> root = change.getRootNode();
+        switch (root.getModificationType()) {
+            case SUBTREE_MODIFIED:
+                try{
+                    ValidationException validationException = validateData(change);
+                    if(validationException != null){
+                        handleInvalidData(change,validationException);
                     }
-                    break;
-                case WRITE:
-                    try{
-                        ValidationException validationException = validateData(change);
-                        if(validationException != null){
-                            handleInvalidData(change,validationException);
-                        }
-                        else {
-                            // Treat an overwrite as an update
-                            boolean update = change.getRootNode().getDataBefore() != null;
-                            if (update) {
-                                handleUpdatedData(change);
-                            } else {
-                                handleCreatedData(change);
-                            }
+                    else {
+                        handleUpdatedData(change);
+                    }
+                }catch (NoSuchElementException e) {
+                    logger.error("Unable to find validator for data: {}", change.getRootNode().getDataAfter(), e);
+                }
+                break;
+            case WRITE:
+                try{
+                    ValidationException validationException = validateData(change);
+                    if(validationException != null){
+                        handleInvalidData(change,validationException);
+                    }
+                    else {
+                        // Treat an overwrite as an update
+                        boolean update = change.getRootNode().getDataBefore() != null;
+                        if (update) {
+                            handleUpdatedData(change);
+                        } else {
+                            handleCreatedData(change);
                         }
-                    }catch (NoSuchElementException e) {
-                        logger.error("Unable to find validator for data: {}", change.getRootNode().getDataAfter(), e);
                     }
-                    break;
-                case DELETE:
-                    handleRemovedData(change);
-                    break;
-                default:
-                    break;
-            }
+                }catch (NoSuchElementException e) {
+                    logger.error("Unable to find validator for data: {}", change.getRootNode().getDataAfter(), e);
+                }
+                break;
+            case DELETE:
+                handleRemovedData(change);
+                break;
+            default:
+                break;
         }
     }
+
     protected abstract void handleCreatedData(final DataTreeModification<T> change);
 
     protected abstract void handleUpdatedData(final DataTreeModification<T> change);
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yangtools.yang.binding.DataObject;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind batching of datastore writes. Writes are queued and returned a future at once, a single background
+ * thread applies up to {@link #getMaxBatchSize()} queued writes to one write transaction and submits it. While a
+ * transaction commits the next writes keep queueing so under load each commit carries a full batch instead of
+ * paying a commit per write.
+ * <p>
+ * Writes are applied in the order they were queued. A write the transaction refuses fails on its own, a failed
+ * commit fails every write of its batch. Callers learn of failures through the returned futures, failed commits are
+ * also logged.
+ */
+@ThreadSafe
+public class DatastoreWriteBatcher implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreWriteBatcher.class);
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private abstract static class Write {
+        final LogicalDatastoreType store;
+        final SettableFuture<Void> future = SettableFuture.create();
+
+        Write(final LogicalDatastoreType store) {
+            this.store = store;
+        }
+
+        abstract void applyTo(WriteTransaction transaction);
+    }
+
+    private static final class Put<D extends DataObject> extends Write {
+        private final InstanceIdentifier<D> path;
+        private final D data;
+        private final boolean merge;
+
+        Put(final LogicalDatastoreType store, final InstanceIdentifier<D> path, final D data, final boolean merge) {
+            super(store);
+            this.path = path;
+            this.data = data;
+            this.merge = merge;
+        }
+
+        @Override
+        void applyTo(final WriteTransaction transaction) {
+            if (merge) {
+                transaction.merge(store, path, data, true);
+            } else {
+                transaction.put(store, path, data, true);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return (merge ? "merge " : "put ") + path;
+        }
+    }
+
+    private static final class Delete extends Write {
+        private final InstanceIdentifier<?> path;
+
+        Delete(final LogicalDatastoreType store, final InstanceIdentifier<?> path) {
+            super(store);
+            this.path = path;
+        }
+
+        @Override
+        void applyTo(final WriteTransaction transaction) {
+            transaction.delete(store, path);
+        }
+
+        @Override
+        public String toString() {
+            return "delete " + path;
+        }
+    }
+
+    private final DataBroker dataBroker;
+    private final int maxBatchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-datastore-%d").setDaemon(true).build());
+
+    @GuardedBy("this")
+    private final Deque<Write> pending = new ArrayDeque<>();
+
+    /** True from queueing a write on an idle batcher until the queue has been drained and committed */
+    @GuardedBy("this")
+    private boolean committing;
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * Constructor using the {@link #DEFAULT_MAX_BATCH_SIZE}.
+     * @param dataBroker the broker opening the write transactions
+     */
+    public DatastoreWriteBatcher(@Nonnull final DataBroker dataBroker) {
+        this(dataBroker, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     * @param dataBroker the broker opening the write transactions
+     * @param maxBatchSize the maximum number of writes committed in one transaction
+     */
+    public DatastoreWriteBatcher(@Nonnull final DataBroker dataBroker, final int maxBatchSize) {
+        checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+        this.dataBroker = checkNotNull(dataBroker, "dataBroker must not be null");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Queues a put, creating missing parents.
+     *
+     * @param store the datastore to modify
+     * @param path the path to write
+     * @param data the data to write
+     * @param <D> the data object type
+     * @return a future completed once the write has been committed
+     */
+    public <D extends DataObject> ListenableFuture<Void> put(@Nonnull final LogicalDatastoreType store,
+            @Nonnull final InstanceIdentifier<D> path, @Nonnull final D data) {
+        return enqueue(new Put<>(checkNotNull(store), checkNotNull(path), checkNotNull(data), false));
+    }
+
+    /**
+     * Queues a merge, creating missing parents.
+     *
+     * @param store the datastore to modify
+     * @param path the path to write
+     * @param data the data to merge
+     * @param <D> the data object type
+     * @return a future completed once the write has been committed
+     */
+    public <D extends DataObject> ListenableFuture<Void> merge(@Nonnull final LogicalDatastoreType store,
+            @Nonnull final InstanceIdentifier<D> path, @Nonnull final D data) {
+        return enqueue(new Put<>(checkNotNull(store), checkNotNull(path), checkNotNull(data), true));
+    }
+
+    /**
+     * Queues a delete.
+     *
+     * @param store the datastore to modify
+     * @param path the path to delete
+     * @return a future completed once the delete has been committed
+     */
+    public ListenableFuture<Void> delete(@Nonnull final LogicalDatastoreType store,
+            @Nonnull final InstanceIdentifier<?> path) {
+        return enqueue(new Delete(checkNotNull(store), checkNotNull(path)));
+    }
+
+    private ListenableFuture<Void> enqueue(final Write write) {
+        synchronized (this) {
+            if (closed) {
+                write.future.setException(new IllegalStateException("DatastoreWriteBatcher is closed"));
+                return write.future;
+            }
+            pending.add(write);
+            if (committing) {
+                return write.future;
+            }
+            committing = true;
+        }
+        executor.execute(this::commitNextBatch);
+        return write.future;
+    }
+
+    /**
+     * Commits the next batch of queued writes, runs on the executor only.
+     */
+    private void commitNextBatch() {
+        final List<Write> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                committing = false;
+                notifyAll();
+                return;
+            }
+            batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+            while (batch.size() < maxBatchSize && !pending.isEmpty()) {
+                batch.add(pending.poll());
+            }
+        }
+
+        final List<Write> applied = new ArrayList<>(batch.size());
+        try {
+            final WriteTransaction transaction = dataBroker.newWriteOnlyTransaction();
+            for (final Write write : batch) {
+                try {
+                    write.applyTo(transaction);
+                    applied.add(write);
+                } catch (RuntimeException e) {
+                    LOG.warn("Failed to {}", write, e);
+                    write.future.setException(e);
+                }
+            }
+            if (applied.isEmpty()) {
+                transaction.cancel();
+                commitNextBatch();
+                return;
+            }
+
+            Futures.addCallback(transaction.submit(), new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(final Void result) {
+                    for (final Write write : applied) {
+                        write.future.set(null);
+                    }
+                    commitNextBatch();
+                }
+
+                @Override
+                public void onFailure(@Nonnull final Throwable throwable) {
+                    failBatch(applied, throwable);
+                    commitNextBatch();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            // the transaction could not be opened or submitted
+            failBatch(batch, e);
+            commitNextBatch();
+        }
+    }
+
+    private static void failBatch(final List<Write> batch, final Throwable cause) {
+        LOG.warn("Failed to commit a batch of {} datastore writes", batch.size(), cause);
+        for (final Write write : batch) {
+            write.future.setException(cause);
+        }
+    }
+
+    /**
+     * Stops accepting writes and waits a bounded time for the queued ones to be committed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SECONDS);
+            try {
+                long remaining;
+                while (committing && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (committing) {
+                LOG.warn("Closing with {} datastore writes not committed", pending.size());
+            }
+        }
+        executor.shutdown();
+    }
+}
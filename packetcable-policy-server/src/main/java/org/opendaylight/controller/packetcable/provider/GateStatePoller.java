@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.yang.types.rev130715.DateAndTime;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.Gate;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.GateBuilder;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the state and usage of the active gates in the background and merges them into the operational datastore,
+ * only for the gates whose state or usage changed since their last poll.
+ * <p>
+ * Each gate has its own poll interval, starting at the minimum interval when the gate is added. The interval is
+ * reset to the minimum whenever the state or usage of the gate changes and doubles, up to the maximum, each time
+ * they do not. Recently created gates and gates carrying traffic are therefore polled often and idle gates rarely.
+ * Every poll is scheduled at its interval plus or minus a random jitter, and the first one at a random point of the
+ * minimum interval, so that gates added together do not keep being polled together.
+ * <p>
+ * The polls sent to a CCAP are rate limited, a gate due while its CCAP is over the rate being polled on a later tick.
+ * Gate-Info requests go through {@link PCMMService#sendGateInfoPipelined(String)} so they also share the Gate-Info
+ * window of the connection with the qos-poll-gates RPC.
+ */
+@ThreadSafe
+public class GateStatePoller implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GateStatePoller.class);
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = TimeUnit.SECONDS.toMillis(30);
+    public static final long DEFAULT_MAX_INTERVAL_MS = TimeUnit.MINUTES.toMillis(15);
+    public static final double DEFAULT_MAX_POLLS_PER_SECOND = 50;
+
+    // the poll intervals are spread by up to this fraction either way
+    private static final double JITTER = 0.2;
+
+    // how often the due gates are polled
+    private static final long TICK_MS = 500;
+
+    private final class GateState implements Delayed {
+        final InstanceIdentifier<Gate> gateIid;
+        final String gatePathStr;
+        final String ccapId;
+
+        // the following are only accessed by the tick and the poll completing, never at once
+        long intervalMs = minIntervalMs;
+        long nextPollNanos;
+        String copsGateState;
+        String copsGateUsageInfo;
+
+        /** Guarded by this */
+        boolean removed;
+
+        GateState(final InstanceIdentifier<Gate> gateIid, final String gatePathStr, final String ccapId) {
+            this.gateIid = gateIid;
+            this.gatePathStr = gatePathStr;
+            this.ccapId = ccapId;
+        }
+
+        @Override
+        public long getDelay(@Nonnull final TimeUnit unit) {
+            return unit.convert(nextPollNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(@Nonnull final Delayed other) {
+            return Long.compare(nextPollNanos, ((GateState) other).nextPollNanos);
+        }
+    }
+
+    private final Function<String, PCMMService> pcmmServices;
+    private final DatastoreWriteBatcher writeBatcher;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final double maxPollsPerSecond;
+
+    /** The gates polled, by gate path */
+    private final Map<String, GateState> gates = new ConcurrentHashMap<>();
+
+    /** The gates awaiting their next poll, a removed gate being dropped once due */
+    private final DelayQueue<GateState> schedule = new DelayQueue<>();
+
+    private final Map<String, RateLimiter> ccapRateLimiters = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-gate-poller-%d").setDaemon(true).build());
+
+    @GuardedBy("this")
+    private boolean started;
+
+    /**
+     * Constructor using the default intervals and rate.
+     * @param pcmmServices finds the PCMMService of a CCAP by its ID, null when there is none
+     * @param writeBatcher writes the changed gates
+     */
+    public GateStatePoller(@Nonnull final Function<String, PCMMService> pcmmServices,
+                           @Nonnull final DatastoreWriteBatcher writeBatcher) {
+        this(pcmmServices, writeBatcher, DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS, DEFAULT_MAX_POLLS_PER_SECOND);
+    }
+
+    /**
+     * Constructor.
+     * @param pcmmServices finds the PCMMService of a CCAP by its ID, null when there is none
+     * @param writeBatcher writes the changed gates
+     * @param minIntervalMs the poll interval of new and changing gates
+     * @param maxIntervalMs the longest poll interval of a gate which does not change
+     * @param maxPollsPerSecond the maximum rate of polls sent to a CCAP
+     */
+    public GateStatePoller(@Nonnull final Function<String, PCMMService> pcmmServices,
+                           @Nonnull final DatastoreWriteBatcher writeBatcher, final long minIntervalMs,
+                           final long maxIntervalMs, final double maxPollsPerSecond) {
+        checkArgument(minIntervalMs > 0 && maxIntervalMs >= minIntervalMs,
+                "Invalid poll intervals: %s - %s ms", minIntervalMs, maxIntervalMs);
+        checkArgument(maxPollsPerSecond > 0, "maxPollsPerSecond must be positive: %s", maxPollsPerSecond);
+        this.pcmmServices = checkNotNull(pcmmServices);
+        this.writeBatcher = checkNotNull(writeBatcher);
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.maxPollsPerSecond = maxPollsPerSecond;
+    }
+
+    /**
+     * Starts polling the gates on a background thread.
+     */
+    public synchronized void start() {
+        if (!started) {
+            started = true;
+            timer.scheduleWithFixedDelay(this::pollDueGates, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        gates.clear();
+        schedule.clear();
+    }
+
+    /**
+     * Starts polling an active gate, replacing any gate with the same path.
+     * @param gateIid the path of the gate in the operational datastore
+     * @param operationalGate the gate as last written to the operational datastore
+     */
+    public void addGate(@Nonnull final InstanceIdentifier<Gate> gateIid, @Nonnull final Gate operationalGate) {
+        final GateState state =
+                new GateState(checkNotNull(gateIid), operationalGate.getGatePath(), operationalGate.getCcapId());
+        state.copsGateState = operationalGate.getCopsGateState();
+        state.copsGateUsageInfo = operationalGate.getCopsGateUsageInfo();
+        // spreads the first polls of the gates added together over the minimum interval
+        state.nextPollNanos = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(minIntervalMs) + 1);
+
+        final GateState replaced = gates.put(state.gatePathStr, state);
+        if (replaced != null) {
+            markRemoved(replaced);
+        }
+        schedule.add(state);
+    }
+
+    /**
+     * Stops polling a gate. Once this returns no poll of the gate still in progress writes it.
+     * @param gatePathStr the path of the gate
+     */
+    public void removeGate(@Nonnull final String gatePathStr) {
+        final GateState state = gates.remove(gatePathStr);
+        if (state != null) {
+            markRemoved(state);
+        }
+    }
+
+    /**
+     * Stops polling the gates of a CCAP.
+     * @param ccapId the ID of the CCAP
+     */
+    public void removeCcap(@Nonnull final String ccapId) {
+        for (final Iterator<GateState> it = gates.values().iterator(); it.hasNext(); ) {
+            final GateState state = it.next();
+            if (ccapId.equals(state.ccapId)) {
+                it.remove();
+                markRemoved(state);
+            }
+        }
+        ccapRateLimiters.remove(ccapId);
+    }
+
+    /**
+     * Returns the number of gates polled.
+     * @return the count
+     */
+    public int getGateCount() {
+        return gates.size();
+    }
+
+    private static void markRemoved(final GateState state) {
+        synchronized (state) {
+            state.removed = true;
+        }
+    }
+
+    private static boolean isRemoved(final GateState state) {
+        synchronized (state) {
+            return state.removed;
+        }
+    }
+
+    /**
+     * Sends a Gate-Info for each gate due whose CCAP is under its poll rate.
+     */
+    void pollDueGates() {
+        try {
+            GateState state;
+            while ((state = schedule.poll()) != null) {
+                if (isRemoved(state)) {
+                    continue;
+                }
+                final PCMMService pcmmService = pcmmServices.apply(state.ccapId);
+                if (pcmmService == null || pcmmService.getPcmmPdpSocket()
+                        || !pcmmService.getPcmmCcapClientIsConnected()) {
+                    // tried again later, as if it had not changed
+                    reschedule(state, false);
+                } else if (!ccapRateLimiters.computeIfAbsent(state.ccapId,
+                        ccapId -> RateLimiter.create(maxPollsPerSecond)).tryAcquire()) {
+                    state.nextPollNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+                    schedule.add(state);
+                } else {
+                    poll(pcmmService, state);
+                }
+            }
+        } catch (RuntimeException e) {
+            // keeps the timer running
+            logger.error("Background gate poll failed", e);
+        }
+    }
+
+    private void poll(final PCMMService pcmmService, final GateState state) {
+        pcmmService.sendGateInfoPipelined(state.gatePathStr).whenComplete((status, failure) -> {
+            if (failure != null || !status.didSucceed()) {
+                logger.debug("Background poll of gate {} failed: {}", state.gatePathStr,
+                        failure != null ? failure.getMessage() : status.getMessage());
+                reschedule(state, false);
+                return;
+            }
+
+            final String copsGateState = status.getCopsGateState() + "/" + status.getCopsGateStateReason();
+            final boolean changed = !Objects.equals(copsGateState, state.copsGateState)
+                    || !Objects.equals(status.getCopsGateUsageInfo(), state.copsGateUsageInfo);
+            if (changed) {
+                state.copsGateState = copsGateState;
+                state.copsGateUsageInfo = status.getCopsGateUsageInfo();
+                final Gate gate = new GateBuilder()
+                        .setGateId(InstanceIdentifier.keyOf(state.gateIid).getGateId())
+                        .setCopsGateState(copsGateState)
+                        .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
+                        .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
+                        .setTimestamp(PacketcableProvider.getNowTimeStamp())
+                        .build();
+                // a removed gate must not be recreated by a late merge
+                synchronized (state) {
+                    if (!state.removed) {
+                        writeBatcher.merge(LogicalDatastoreType.OPERATIONAL, state.gateIid, gate);
+                    }
+                }
+            }
+            reschedule(state, changed);
+        });
+    }
+
+    private void reschedule(final GateState state, final boolean changed) {
+        if (isRemoved(state)) {
+            return;
+        }
+        state.intervalMs = changed ? minIntervalMs : Math.min(state.intervalMs * 2, maxIntervalMs);
+        final double jitter = 1 + JITTER * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        state.nextPollNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos((long) (state.intervalMs * jitter));
+        schedule.add(state);
+    }
+
+    /**
+     * Returns the current poll interval of a gate.
+     * @param gatePathStr the path of the gate
+     * @return the interval in ms or -1 if the gate is not polled
+     */
+    long getIntervalMs(final String gatePathStr) {
+        final GateState state = gates.get(gatePathStr);
+        return state != null ? state.intervalMs : -1;
+    }
+}
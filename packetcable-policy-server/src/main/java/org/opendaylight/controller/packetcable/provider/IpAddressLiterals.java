@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import javax.annotation.Nullable;
+
+/**
+ * Parses ipv4 dotted quad and ipv6 address literals without ever falling back to name resolution, unlike
+ * {@link InetAddress#getByName(String)} which looks up anything it can not parse. The address bytes are written
+ * straight into the returned array, nothing else is allocated.
+ * <p>
+ * Ipv6 literals may compress zero groups with "::", end with a dotted quad and carry a "%zone" suffix which is
+ * ignored.
+ */
+public final class IpAddressLiterals {
+
+    private static final int IPV4_LENGTH = 4;
+    private static final int IPV6_LENGTH = 16;
+
+    private IpAddressLiterals() {
+    }
+
+    /**
+     * Returns true if a string is an ipv4 or ipv6 address literal.
+     * @param literal the string or null
+     * @return true if it parses as an address
+     */
+    public static boolean isLiteral(@Nullable final String literal) {
+        return parse(literal) != null;
+    }
+
+    /**
+     * Parses an address literal into an InetAddress, never resolving a name.
+     * @param literal the literal or null
+     * @return the address or null if the string is not an ipv4 or ipv6 literal
+     */
+    @Nullable
+    public static InetAddress forString(@Nullable final String literal) {
+        final byte[] address = parse(literal);
+        if (address == null) {
+            return null;
+        }
+        try {
+            // Only builds the address from its bytes
+            return InetAddress.getByAddress(address);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Unexpected address length " + address.length, e);
+        }
+    }
+
+    /**
+     * Parses an address literal into its bytes in network byte order.
+     * @param literal the literal or null
+     * @return the 4 bytes of an ipv4 or the 16 bytes of an ipv6 address, null if the string is not a literal
+     */
+    @Nullable
+    public static byte[] parse(@Nullable final String literal) {
+        if (literal == null) {
+            return null;
+        }
+        int end = literal.length();
+        boolean ipv6 = false;
+        for (int i = 0; i < end; i++) {
+            final char c = literal.charAt(i);
+            if (c == ':') {
+                ipv6 = true;
+            } else if (c == '%') {
+                if (!ipv6 || i == end - 1) {
+                    return null;
+                }
+                end = i;
+            }
+        }
+
+        if (ipv6) {
+            return parseIpv6(literal, end);
+        }
+        final byte[] address = new byte[IPV4_LENGTH];
+        return parseIpv4(literal, 0, end, address, 0) ? address : null;
+    }
+
+    private static boolean parseIpv4(final String literal, final int start, final int end, final byte[] address,
+            final int offset) {
+        int octets = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            final char c = literal.charAt(i);
+            if (c == '.') {
+                if (digits == 0 || octets == IPV4_LENGTH - 1) {
+                    return false;
+                }
+                address[offset + octets++] = (byte) value;
+                value = 0;
+                digits = 0;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0 || octets != IPV4_LENGTH - 1) {
+            return false;
+        }
+        address[offset + octets] = (byte) value;
+        return true;
+    }
+
+    private static byte[] parseIpv6(final String literal, final int end) {
+        final byte[] address = new byte[IPV6_LENGTH];
+        // number of 16 bit groups parsed and the group at which "::" stands, if any
+        int groups = 0;
+        int compressAt = -1;
+        int i = 0;
+
+        if (literal.startsWith("::")) {
+            compressAt = 0;
+            i = 2;
+        } else if (end > 0 && literal.charAt(0) == ':') {
+            return null;
+        }
+
+        while (i < end) {
+            final int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            while (i < end) {
+                final int digit = hexDigit(literal.charAt(i));
+                if (digit < 0) {
+                    break;
+                }
+                value = (value << 4) | digit;
+                if (++digits > 4) {
+                    return null;
+                }
+                i++;
+            }
+
+            if (i < end && literal.charAt(i) == '.') {
+                // trailing dotted quad, taking the last two groups
+                if (groups > IPV6_LENGTH / 2 - 2
+                        || !parseIpv4(literal, groupStart, end, address, groups * 2)) {
+                    return null;
+                }
+                groups += 2;
+                break;
+            }
+            if (digits == 0 || groups == IPV6_LENGTH / 2) {
+                return null;
+            }
+            address[groups * 2] = (byte) (value >> 8);
+            address[groups * 2 + 1] = (byte) value;
+            groups++;
+
+            if (i == end) {
+                break;
+            }
+            if (literal.charAt(i++) != ':' || i == end) {
+                return null;
+            }
+            if (literal.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return null;
+                }
+                compressAt = groups;
+                i++;
+            }
+        }
+
+        if (compressAt < 0) {
+            return groups == IPV6_LENGTH / 2 ? address : null;
+        }
+        if (groups == IPV6_LENGTH / 2) {
+            return null;
+        }
+        // move the groups following "::" to the end of the address
+        final int tail = (groups - compressAt) * 2;
+        System.arraycopy(address, compressAt * 2, address, IPV6_LENGTH - tail, tail);
+        for (int b = compressAt * 2; b < IPV6_LENGTH - tail; b++) {
+            address[b] = 0;
+        }
+        return address;
+    }
+
+    private static int hexDigit(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+}
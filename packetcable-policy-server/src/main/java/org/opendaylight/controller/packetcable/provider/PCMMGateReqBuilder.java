@@ -14,7 +14,6 @@ import com.google.common.collect.Lists;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.util.List;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ServiceFlowDirection;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.TosByte;
@@ -189,12 +188,11 @@ public class PCMMGateReqBuilder {
     }
 
     private InetAddress getByName(final String ipAddressStr) {
-        try {
-            return InetAddress.getByName(ipAddressStr);
-        } catch (UnknownHostException e) {
-            logger.error(e.getMessage());
+        final InetAddress address = IpAddressLiterals.forString(ipAddressStr);
+        if (address == null) {
+            logger.error("Not an IP address literal: " + ipAddressStr);
         }
-        return null;
+        return address;
     }
 
     public void setClassifiers(final List<ClassifierContainer> classifiers) {
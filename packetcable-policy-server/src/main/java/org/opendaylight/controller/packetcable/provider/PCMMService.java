@@ -8,43 +8,119 @@
 package org.opendaylight.controller.packetcable.provider;
 
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.InetAddress;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.ThreadSafe;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.PortNumber;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ServiceClassName;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ServiceFlowDirection;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccaps.Ccap;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.Gate;
+import org.pcmm.PCMMConstants;
 import org.pcmm.PCMMPdpAgent;
 import org.pcmm.PCMMPdpDataProcess;
 import org.pcmm.PCMMPdpMsgSender;
+import org.pcmm.PCMMProperties;
+import org.pcmm.PCMMTransactionTable;
+import org.pcmm.gates.IClassifier;
 import org.pcmm.gates.IGateState;
-import org.pcmm.gates.ITransactionID;
+import org.pcmm.gates.IPCMMGate;
 import org.pcmm.gates.impl.PCMMGateReq;
-import org.pcmm.gates.impl.TransactionID;
+import org.pcmm.stats.PCMMGateStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umu.cops.COPSHashedWheelTimer;
+import org.umu.cops.COPSHashedWheelTimer.Timeout;
 import org.umu.cops.prpdp.COPSPdpException;
 import org.umu.cops.stack.COPSError;
 import org.umu.cops.stack.COPSError.ErrorTypes;
-import java.nio.ByteBuffer;
 
 
 /**
  * Class responsible for managing the gates for a single CCAP.
+ * <p>
+ * The gate requests are pipelined: concurrent callers each send their decision at once and only wait for the report
+ * matching their own transaction ID, up to the transaction window of the connection (pcmm.transaction.window).
+ * The asynchronous methods return a status completed directly by the report, without parking the calling thread
+ * unless the transaction window is full.
  */
 @ThreadSafe
 public class PCMMService {
     private final Logger logger = LoggerFactory.getLogger(PCMMService.class);
 
+    // gate response timeouts (ms)
+    private static final long GATE_SET_TIMEOUT = 5000;
+    private static final long GATE_DELETE_TIMEOUT = 1000;
+    private static final long GATE_INFO_TIMEOUT = 5000;
+
+    // Gate-Info requests awaiting their report at once on a CCAP connection when pipelined
+    private static final int GATE_INFO_WINDOW = 32;
+
+    /**
+     * Timer shared by all the CCAPs and their COPS connections, here for the gate response timeouts
+     */
+    private static final COPSHashedWheelTimer TIMEOUT_TIMER = COPSHashedWheelTimer.getDefault();
+
+    /**
+     * Sends the queued requests freed by a report and completes the requests timing out, keeping this work off the
+     * event loop reading the reports and off the timer thread shared by every timeout.
+     */
+    private static final Executor GATE_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-gate-send-%d").setDaemon(true).build());
+
     private final Ccap ccap;
     private final IpAddress ipAddr;
     private final PortNumber portNum;
     protected final CcapClient ccapClient;
     protected Map<String, PCMMGateReq> gateRequests = Maps.newConcurrentMap();
 
+    /**
+     * The gate requests awaiting their report. Each request sends its own gate object, which is updated by the report
+     * of its transaction only, so the requests are told apart by identity even when several target the same gate.
+     */
+    private final ConcurrentMap<IPCMMGate, CompletableFuture<PCMMGateReq>> pendingReports = new ConcurrentHashMap<>();
+
+    /**
+     * Queues the gate requests beyond the transaction window of the CCAP connection, so the driver always has a free
+     * transaction for the requests sent and never has to wait for one on the sending thread
+     */
+    private final RequestWindow<Supplier<CompletionStage<PCMMGateReq>>, PCMMGateReq> transactionWindow =
+            new RequestWindow<>(Supplier::get, PCMMProperties.get(PCMMConstants.TRANSACTION_WINDOW, Integer.class,
+                    PCMMTransactionTable.DEFAULT_WINDOW), GATE_EXECUTOR);
+
+    /**
+     * Pipelines the Gate-Info requests of the gate polls, leaving part of the transaction window to the other requests
+     */
+    private final RequestWindow<String, GateSendStatus> gateInfoWindow =
+            new RequestWindow<>(this::sendGateInfoAsync, GATE_INFO_WINDOW, GATE_EXECUTOR);
+
+    /**
+     * The latency and outcome of the gate requests, kept across the reconnections of the CCAP
+     */
+    private final PCMMGateStatistics statistics = new PCMMGateStatistics();
+
+    /**
+     * The name under which the statistics are registered with the platform MBean server, null when not registered
+     */
+    private ObjectName statisticsName;
+
     private final short clientType;
 
     public PCMMService(final short clientType, final Ccap ccap) {
@@ -62,6 +138,47 @@ public class PCMMService {
         ccapClient.disconnect();
     }
 
+    /**
+     * Returns the statistics of the gate requests sent to the CCAP
+     * @return - the statistics
+     */
+    public PCMMGateStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Exposes the statistics of the gate requests over JMX as
+     * org.opendaylight.packetcable:type=GateStatistics,ccap="ccapId"
+     */
+    public synchronized void registerStatistics() {
+        if (statisticsName != null) {
+            return;
+        }
+        try {
+            final ObjectName name = new ObjectName(
+                    "org.opendaylight.packetcable:type=GateStatistics,ccap=" + ObjectName.quote(ccap.getCcapId()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, name);
+            statisticsName = name;
+        } catch (JMException e) {
+            logger.warn("Unable to register the gate statistics of CCAP {}", ccap.getCcapId(), e);
+        }
+    }
+
+    /**
+     * Removes the statistics of the gate requests from JMX
+     */
+    public synchronized void unregisterStatistics() {
+        if (statisticsName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(statisticsName);
+        } catch (JMException e) {
+            logger.warn("Unable to unregister the gate statistics of CCAP {}", ccap.getCcapId(), e);
+        }
+        statisticsName = null;
+    }
+
     // TODO - try and change the return to something other than a String to be parsed to determine success
     public String addCcap() {
         ccapClient.connect();
@@ -142,10 +259,23 @@ public class PCMMService {
         return x & 0xFFFFFFFFL;
     }
 
+    /**
+     * Sends a Gate-Set and waits for its report
+     * @see #sendGateSetAsync(String, InetAddress, Gate)
+     */
     public GateSendStatus sendGateSet(final String gatePathStr, final InetAddress subId, final Gate qosGate) {
+        return sendGateSetAsync(gatePathStr, subId, qosGate).toCompletableFuture().join();
+    }
 
-        GateSendStatus status = new GateSendStatus();
-
+    /**
+     * Sends a Gate-Set to the CCAP without waiting for its report
+     * @param gatePathStr - the path of the gate
+     * @param subId - the subscriber address
+     * @param qosGate - the gate to set
+     * @return - the status, completed when the report is received or the gate response timeout is exceeded
+     */
+    public CompletionStage<GateSendStatus> sendGateSetAsync(final String gatePathStr, final InetAddress subId,
+                                                            final Gate qosGate) {
         logger.info("Sending gate to CCAP with ID - " + ccap.getCcapId());
 
         // assemble the gate request for this subId
@@ -166,97 +296,177 @@ public class PCMMService {
         // assemble the final gate request
         final PCMMGateReq gateReq = gateBuilder.build();
 
-        if (gateRequests.get(gatePathStr) == null) {
-            // and remember it
-            gateRequests.put(gatePathStr, gateReq);
-            // and send it to the CCAP
-            ccapClient.sendGateSet(gateReq);
-            // and wait for the COPS response to complete processing gate request
-            try {
-                // TODO - see PCMMPdpReqStateMan#processReport() gate.notify(). Should determine a better means to
-                // TODO - handle this synchronization.
-                // TODO - if not changing this, may want to make this timeout configurable
-                synchronized (gateReq) {
-                    logger.info("Waiting 5000ms for gate request to be updated");
-                    gateReq.wait(5000);
-                    logger.debug("Gate request error - " + gateReq.getError());
-                    logger.debug("Gate request ID - " + gateReq.getGateID());
-                }
-            } catch (Exception e) {
-                logger.error("PCMMService: sendGateSet(): gate response timeout exceeded for " + gatePathStr + '/' + gateReq,
-                             e);
-                status.setDidSucceed(false);
+        // and remember it
+        if (gateRequests.putIfAbsent(gatePathStr, gateReq) != null) {
+            logger.info("PCMMService: sendGateSet(): no gateId returned:");
+            final GateSendStatus status = new GateSendStatus();
+            status.setMessage(String.format("404 Not Found - sendGateSet for %s/%s already exists", ccap.getCcapId(), gatePathStr));
+            return CompletableFuture.completedFuture(status);
+        }
+
+        // and send it to the CCAP
+        return sendAndAwaitReport(gateReq, ccapClient::sendGateSet, GATE_SET_TIMEOUT)
+                .handle((gate, failure) -> gateSetStatus(gatePathStr, gateReq, failure));
+    }
+
+    private GateSendStatus gateSetStatus(final String gatePathStr, final PCMMGateReq gateReq, final Throwable failure) {
+        final GateSendStatus status = new GateSendStatus();
+        if (failure != null) {
+            gateRequests.remove(gatePathStr, gateReq);
+            status.setDidSucceed(false);
+            if (failure instanceof TimeoutException) {
+                logger.error("PCMMService: sendGateSet(): gate response timeout exceeded for " + gatePathStr + '/' + gateReq);
                 status.setMessage(String.format("408 Request Timeout - gate response timeout exceeded for %s/%s", ccap.getCcapId(),
                                                 gatePathStr));
-                return status;
+            } else {
+                status.setMessage(String.format("404 Not Found - sendGateSet for %s/%s failed - %s", ccap.getCcapId(),
+                                                gatePathStr, failure.getMessage()));
             }
+            return status;
+        }
 
-            if (gateReq.getError() != null) {
-                gateRequests.remove(gatePathStr);
-                status.setDidSucceed(false);
-                status.setMessage(String.format("404 Not Found - sendGateSet for %s/%s returned error - %s", ccap.getCcapId(),
-                                                gatePathStr, gateReq.getError().toString()));
+        logger.debug("Gate request error - " + gateReq.getError());
+        logger.debug("Gate request ID - " + gateReq.getGateID());
+        if (gateReq.getError() != null) {
+            gateRequests.remove(gatePathStr);
+            status.setDidSucceed(false);
+            status.setMessage(String.format("404 Not Found - sendGateSet for %s/%s returned error - %s", ccap.getCcapId(),
+                                            gatePathStr, gateReq.getError().toString()));
 
-                logger.error("PCMMService: sendGateSet(): returned error: {}", gateReq.getError().toString());
+            logger.error("PCMMService: sendGateSet(): returned error: {}", gateReq.getError().toString());
+        } else {
+            if (gateReq.getGateID() != null) {
+                status.setDidSucceed(true);
+                status.setCopsGateId(String.format("%d", getUnsignedInt(gateReq.getGateID().getGateID())));
+                status.setMessage(String.format("200 OK - sendGateSet for %s/%s returned GateId %d",
+                                                ccap.getCcapId(), gatePathStr, getUnsignedInt(gateReq.getGateID().getGateID())) );
+                logger.info(String.format("PCMMService: sendGateSet(): returned GateId %d: ",
+                                          getUnsignedInt(gateReq.getGateID().getGateID())));
             } else {
-                if (gateReq.getGateID() != null) {
-                    status.setDidSucceed(true);
-                    status.setCopsGateId(String.format("%d", getUnsignedInt(gateReq.getGateID().getGateID())));
-                    status.setMessage(String.format("200 OK - sendGateSet for %s/%s returned GateId %d",
-                                                    ccap.getCcapId(), gatePathStr, getUnsignedInt(gateReq.getGateID().getGateID())) );
-                    logger.info(String.format("PCMMService: sendGateSet(): returned GateId %d: ",
-                                              getUnsignedInt(gateReq.getGateID().getGateID())));
-                } else {
-                    status.setDidSucceed(false);
-                    status.setMessage(
-                                      String.format("404 Not Found - sendGateSet for %s/%s no gateId returned", ccap.getCcapId(),
-                                                    gatePathStr));
-
-                    logger.info("PCMMService: sendGateSet(): no gateId returned:");
-                }
+                status.setDidSucceed(false);
+                status.setMessage(
+                                  String.format("404 Not Found - sendGateSet for %s/%s no gateId returned", ccap.getCcapId(),
+                                                gatePathStr));
+
+                logger.info("PCMMService: sendGateSet(): no gateId returned:");
             }
-        } else {
-            logger.info("PCMMService: sendGateSet(): no gateId returned:");
-            status.setMessage(String.format("404 Not Found - sendGateSet for %s/%s already exists", ccap.getCcapId(), gatePathStr));
         }
-
         return status;
     }
 
+    /**
+     * Sends a Gate-Delete and waits for its report
+     * @see #sendGateDeleteAsync(String)
+     */
     public Boolean sendGateDelete(final String gatePathStr) {
+        return sendGateDeleteAsync(gatePathStr).toCompletableFuture().join().didSucceed();
+    }
+
+    /**
+     * Sends a Gate-Delete to the CCAP without waiting for its report. The gate is considered deleted unless the CCAP
+     * reports an error.
+     * @param gatePathStr - the path of the gate
+     * @return - the status, completed when the report is received or the gate response timeout is exceeded
+     */
+    public CompletionStage<GateSendStatus> sendGateDeleteAsync(final String gatePathStr) {
         logger.info("sendGateDelete() - " + ccap);
         // recover the original gate request
-        final PCMMGateReq gateReq = gateRequests.remove(gatePathStr);
-        if (gateReq != null) {
-            ccapClient.sendGateDelete(gateReq);
-            // and wait for the response to complete
-            try {
-                // TODO - see PCMMPdpReqStateMan#processReport() gate.notify(). Should determine a better means to
-                // TODO - handle this synchronization.
-                synchronized (gateReq) {
-                    gateReq.wait(1000);
-                }
-            } catch (InterruptedException e) {
-                logger.error("PCMMService: sendGateDelete(): gate response timeout exceeded for {}/{}", gatePathStr,
-                        gateReq);
-            }
-            if (gateReq.getError() != null) {
-                logger.warn("PCMMService: sendGateDelete(): returned error: {}", gateReq.getError().toString());
-                return false;
+        final PCMMGateReq gateSet = gateRequests.remove(gatePathStr);
+        if (gateSet == null) {
+            logger.warn("Attempt to delete non-existent gate with path - " + gatePathStr);
+            final GateSendStatus status = new GateSendStatus();
+            status.setMessage("Attempt to delete non-existent gate with path - " + gatePathStr);
+            return CompletableFuture.completedFuture(status);
+        }
+        final PCMMGateReq gateReq = newFollowUpRequest(gateSet);
+        return sendAndAwaitReport(gateReq, ccapClient::sendGateDelete, GATE_DELETE_TIMEOUT)
+                .handle((gate, failure) -> gateDeleteStatus(gatePathStr, gateReq, failure));
+    }
+
+    private GateSendStatus gateDeleteStatus(final String gatePathStr, final PCMMGateReq gateReq,
+                                            final Throwable failure) {
+        final GateSendStatus status = new GateSendStatus();
+        if (failure instanceof TimeoutException) {
+            logger.error("PCMMService: sendGateDelete(): gate response timeout exceeded for {}/{}", gatePathStr,
+                    gateReq);
+        } else if (failure != null) {
+            status.setMessage(String.format("sendGateDelete for %s/%s failed - %s", ccap.getCcapId(), gatePathStr,
+                    failure.getMessage()));
+            return status;
+        }
+        if (gateReq.getError() != null) {
+            logger.warn("PCMMService: sendGateDelete(): returned error: {}", gateReq.getError().toString());
+            status.setMessage(String.format("sendGateDelete for %s/%s returned error - %s", ccap.getCcapId(),
+                    gatePathStr, gateReq.getError().toString()));
+        } else {
+            if (gateReq.getGateID() != null) {
+                logger.info(String.format("PCMMService: sendGateDelete(): deleted GateId %d: ",
+                                          getUnsignedInt(gateReq.getGateID().getGateID())));
             } else {
-                if (gateReq.getGateID() != null) {
-                    logger.info(String.format("PCMMService: sendGateDelete(): deleted GateId %d: ",
-                                              getUnsignedInt(gateReq.getGateID().getGateID())));
-                } else {
-                    logger.error("PCMMService: sendGateDelete(): deleted but no gateId returned");
-                }
-                return true;
+                logger.error("PCMMService: sendGateDelete(): deleted but no gateId returned");
             }
-        } else {
-            logger.warn("Attempt to delete non-existent gate with path - " + gatePathStr);
-            return false;
-        	}
+            status.setDidSucceed(true);
         }
+        return status;
+    }
+
+    /**
+     * Builds a Gate-Info or Gate-Delete request for a gate previously set. Only the AMID, subscriber ID and gate ID
+     * are sent, and the gate set is left untouched: each request gets its own transaction ID and is updated by its
+     * own report, whatever the other requests in flight for the same gate.
+     * @param gateSet - the request which set the gate
+     * @return - a new gate request
+     */
+    private static PCMMGateReq newFollowUpRequest(final PCMMGateReq gateSet) {
+        return new PCMMGateReq(gateSet.getAMID(), gateSet.getSubscriberID(), null, null, null,
+                Collections.<IClassifier>emptyList(), gateSet.getGateID(), null, null, null, null);
+    }
+
+    /**
+     * Sends the gate request once a transaction of the connection is free and registers it as awaiting its report
+     * @param gateReq - the gate request
+     * @param sender - sends the request, returns false on failure
+     * @param timeout - the gate response timeout from the sending of the request (ms)
+     * @return - completed with the gate once it has been updated by its report, or with a TimeoutException
+     */
+    private CompletionStage<PCMMGateReq> sendAndAwaitReport(final PCMMGateReq gateReq,
+                                                           final Predicate<PCMMGateReq> sender,
+                                                           final long timeout) {
+        return transactionWindow.send(() -> sendNow(gateReq, sender, timeout));
+    }
+
+    private CompletableFuture<PCMMGateReq> sendNow(final PCMMGateReq gateReq, final Predicate<PCMMGateReq> sender,
+                                                   final long timeout) {
+        final CompletableFuture<PCMMGateReq> report = new CompletableFuture<>();
+        // registered before sending as the report may be processed before the send returns
+        pendingReports.put(gateReq, report);
+        if (!sender.test(gateReq)) {
+            if (pendingReports.remove(gateReq, report)) {
+                report.completeExceptionally(new IOException("Unable to send the gate request"));
+            }
+            return report;
+        }
+        final Timeout timer = TIMEOUT_TIMER.schedule(() -> {
+            if (pendingReports.remove(gateReq, report)) {
+                // frees the transaction for the next requests, whatever the CCAP does with this one
+                ccapClient.timeOut(gateReq);
+                report.completeExceptionally(new TimeoutException("No report within " + timeout + "ms"));
+            }
+        }, timeout, TimeUnit.MILLISECONDS, GATE_EXECUTOR);
+        // cancelling is constant time, most timeouts being cancelled by their report
+        report.whenComplete((gate, failure) -> timer.cancel());
+        return report;
+    }
+
+    /**
+     * Called by the event loop of the CCAP connection once a gate has been updated from its report
+     */
+    private void reportReceived(final IPCMMGate gate) {
+        final CompletableFuture<PCMMGateReq> report = pendingReports.remove(gate);
+        if (report != null) {
+            report.complete((PCMMGateReq) gate);
+        }
+    }
 
     	public Boolean getPcmmPdpSocket() {
     		try {
@@ -286,66 +496,35 @@ public class PCMMService {
     	}
 
         //new gate-info method
+        /**
+         * Sends a Gate-Info and waits for its report
+         * @see #sendGateInfoAsync(String)
+         */
     	public GateSendStatus sendGateInfo(final String gatePathStr) {
+    		return sendGateInfoAsync(gatePathStr).toCompletableFuture().join();
+    	}
 
-    		logger.info("sendGateInfo() - " + ccap);
+        /**
+         * Sends a Gate-Info to the CCAP without waiting for its report
+         * @param gatePathStr - the path of the gate
+         * @return - the status, completed when the report is received or the gate response timeout is exceeded
+         */
+    	public CompletionStage<GateSendStatus> sendGateInfoAsync(final String gatePathStr) {
 
-    		GateSendStatus status = new GateSendStatus();
+    		logger.debug("sendGateInfo() - {}", ccap);
 
             // recover the original gate request
-            final PCMMGateReq gateReq = gateRequests.get(gatePathStr);
+            final PCMMGateReq gateSet = gateRequests.get(gatePathStr);
 
             // is the ccap socket open?
             final Boolean socketIsClosed = getPcmmPdpSocket();
 
-            if ((gateReq != null) && (!socketIsClosed)) {
-                gateReq.setTransactionID(new TransactionID(gateReq.getTransactionID().getTransactionIdentifier(),
-                        ITransactionID.GateCommandType.GATE_INFO));
-
-                ccapClient.sendGateInfo(gateReq);
-                // and wait for the response to complete
-                try {
-                    // TODO - see PCMMPdpReqStateMan#processReport() gate.notify(). Should determine a better means to
-                    // TODO - handle this synchronization.
-                    synchronized (gateReq) {
-                        logger.info("Waiting 5000ms for gate request to be updated");
-                        gateReq.wait(5000);
-                        logger.debug("Gate request error - " + gateReq.getError());
-                        logger.debug("Gate request ID - " + gateReq.getGateID());
-                    }
-                } catch (InterruptedException e) {
-                    status.setDidSucceed(false);
-                    status.setMessage(String.format("Gate-Info Request Timeout for %s", ccap.getCcapId()));
-                    return status;
-                }
-                if (gateReq.getError() != null) {
-                    status.setDidSucceed(false);
-                    status.setMessage(
-                            String.format("%s reports '%s'", ccap.getCcapId(), gateReq.getError().toString()));
-                    logger.error("PCMMService: sendGateInfo(): returned error: {}", gateReq.getError().toString());
-                } else {
-                    if (gateReq.getGateID() != null) {
-                        status.setDidSucceed(true);
-                        status.setCopsGateId(String.format("%d", getUnsignedInt(gateReq.getGateID().getGateID())));
-
-                        final IGateState gateState = gateReq.getGateState();
-                        status.setCopsGateState(gateState.getGateState().toString());
-                        status.setCopsGateStateReason(gateState.getGateStateReason().toString());
-                        status.setCopsGateTimeInfo(String.format("%d", gateReq.getGateTimeInfo().getGateTimeInfo()));
-                        status.setCopsGateUsageInfo(String.format("%d", gateReq.getGateUsageInfo().getGateUsageInfo()));
-                        logger.info(String.format("PCMMService: sendGateInfo(): returned GateId %d: ",
-                                getUnsignedInt(gateReq.getGateID().getGateID())));
-                    } else {
-                        status.setDidSucceed(false);
-                        status.setMessage(
-                                String.format("404 Not Found - sendGateInfo for %s/%s no gateId returned", ccap.getCcapId(),
-                                        gatePathStr));
-
-                        logger.info("PCMMService: sendGateInfo(): no gateId returned:");
-                    }
-                    return status;
-                }
+            if ((gateSet != null) && (!socketIsClosed)) {
+                final PCMMGateReq gateReq = newFollowUpRequest(gateSet);
+                return sendAndAwaitReport(gateReq, ccapClient::sendGateInfo, GATE_INFO_TIMEOUT)
+                        .handle((gate, failure) -> gateInfoStatus(gatePathStr, gateReq, failure));
             } else {
+                final GateSendStatus status = new GateSendStatus();
             	status.setDidSucceed(false);
                 if (socketIsClosed) {
                 	status.setMessage(String.format("%s: CCAP Cops Socket is closed",ccap.getCcapId()));
@@ -353,10 +532,63 @@ public class PCMMService {
                 else {
                 	status.setMessage( String.format("Attempt to get info of non-existent gate with path - " + gatePathStr));
                 }
-            	return status;
+            	return CompletableFuture.completedFuture(status);
             }
-			return status;
+    }
 
+    /**
+     * Sends a Gate-Info to the CCAP once less than GATE_INFO_WINDOW Gate-Info requests are awaiting their report,
+     * so that polling many gates keeps the connection busy without flooding it.
+     * @param gatePathStr - the path of the gate
+     * @return - the status, completed when the report is received or the gate response timeout is exceeded
+     * @see #sendGateInfoAsync(String)
+     */
+    public CompletionStage<GateSendStatus> sendGateInfoPipelined(final String gatePathStr) {
+        return gateInfoWindow.send(gatePathStr);
+    }
+
+    private GateSendStatus gateInfoStatus(final String gatePathStr, final PCMMGateReq gateReq,
+                                          final Throwable failure) {
+        final GateSendStatus status = new GateSendStatus();
+        if (failure != null) {
+            status.setDidSucceed(false);
+            if (failure instanceof TimeoutException) {
+                status.setMessage(String.format("Gate-Info Request Timeout for %s", ccap.getCcapId()));
+            } else {
+                status.setMessage(String.format("Gate-Info Request for %s failed - %s", ccap.getCcapId(),
+                        failure.getMessage()));
+            }
+            return status;
+        }
+        logger.debug("Gate request error - " + gateReq.getError());
+        logger.debug("Gate request ID - " + gateReq.getGateID());
+        if (gateReq.getError() != null) {
+            status.setDidSucceed(false);
+            status.setMessage(
+                    String.format("%s reports '%s'", ccap.getCcapId(), gateReq.getError().toString()));
+            logger.error("PCMMService: sendGateInfo(): returned error: {}", gateReq.getError().toString());
+        } else {
+            if (gateReq.getGateID() != null) {
+                status.setDidSucceed(true);
+                status.setCopsGateId(String.format("%d", getUnsignedInt(gateReq.getGateID().getGateID())));
+
+                final IGateState gateState = gateReq.getGateState();
+                status.setCopsGateState(gateState.getGateState().toString());
+                status.setCopsGateStateReason(gateState.getGateStateReason().toString());
+                status.setCopsGateTimeInfo(String.format("%d", gateReq.getGateTimeInfo().getGateTimeInfo()));
+                status.setCopsGateUsageInfo(String.format("%d", gateReq.getGateUsageInfo().getGateUsageInfo()));
+                logger.debug("PCMMService: sendGateInfo(): returned GateId {}",
+                        getUnsignedInt(gateReq.getGateID().getGateID()));
+            } else {
+                status.setDidSucceed(false);
+                status.setMessage(
+                        String.format("404 Not Found - sendGateInfo for %s/%s no gateId returned", ccap.getCcapId(),
+                                gatePathStr));
+
+                logger.info("PCMMService: sendGateInfo(): no gateId returned:");
+            }
+        }
+        return status;
     }
 
     /**
@@ -407,7 +639,10 @@ public class PCMMService {
                 pcmmPdp.connect();
 
                 // Cannot instantiate until after pcmmPdp.connect() is called as this is where the client handle is created
-                pcmmSender = new PCMMPdpMsgSender(clientType, pcmmPdp.getClientHandle(), pcmmPdp.getSocket());
+                pcmmSender = new PCMMPdpMsgSender(clientType, pcmmPdp.getClientHandle(), pcmmPdp.getSocket(),
+                        pcmmPdp.getTransactionTable());
+                pcmmPdp.getTransactionTable().setListener(PCMMService.this::reportReceived);
+                pcmmPdp.getTransactionTable().setStatistics(statistics);
 
                 isConnected = true;
             } catch (Exception e) {
@@ -423,15 +658,24 @@ public class PCMMService {
             isConnected = false;
         }
 
+        /**
+         * Stops awaiting the report of a request whose gate response timeout has been exceeded
+         */
+        public void timeOut(final PCMMGateReq gateReq) {
+            final PCMMPdpMsgSender sender = pcmmSender;
+            if (sender != null) {
+                sender.timeOut(gateReq);
+            }
+        }
+
         // TODO - consider returning a new PCMMGateReq object or a future here instead of setting the ID on the old
         // TODO - request by reference which makes the code more convoluted thus making issues more difficult to track down.
         public Boolean sendGateSet(final PCMMGateReq gateReq) {
             logger.info("CcapClient: sendGateSet(): {}:{} => {}", ipv4, port, gateReq);
             try {
+                // the gate ID is set on the gateRequest object by the report for gate delete later
                 pcmmSender.sendGateSet(gateReq);
-            // and save it back to the gateRequest object for gate delete later
-            gateReq.setGateID(pcmmSender.getGateID());
-            return true;
+                return true;
             } catch (COPSPdpException e) {
                 logger.error("CcapClient: sendGateSet(): {}:{} => {} FAILED: {}", ipv4, port, gateReq,
                              e.getMessage());
@@ -462,11 +706,10 @@ public class PCMMService {
        }
 
         public Boolean sendGateInfo(final PCMMGateReq gateReq) {
-            logger.info("CcapClient: sendGateInfo(): {}:{} => {}", ipv4, port);
+            logger.debug("CcapClient: sendGateInfo(): {}:{} => {}", ipv4, port, gateReq);
             try {
+                // the gate ID is set on the gateRequest object by the report for operational sal persistance
                 pcmmSender.sendGateInfo(gateReq);
-                // and save it back to the gateRequest object for operational sal persistance
-                gateReq.setGateID(pcmmSender.getGateID());
                 return true;
             } catch (COPSPdpException e) {
                 logger.error("CcapClient: sendGateInfo(): {}:{} => {} FAILED: {}", ipv4, port,
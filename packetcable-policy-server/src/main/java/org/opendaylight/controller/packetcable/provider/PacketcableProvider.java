@@ -11,25 +11,38 @@ package org.opendaylight.controller.packetcable.provider;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.CheckedFuture;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.math.BigInteger;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -76,14 +89,23 @@ import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.QosSetGateOutputBu
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ServiceClassName;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ServiceFlowDirection;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.ConnectionBuilder;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.GateStatistics;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.GateStatisticsBuilder;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.gate.statistics.Command;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.gate.statistics.CommandBuilder;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.gate.statistics.command.PcmmError;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccap.attributes.gate.statistics.command.PcmmErrorBuilder;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccaps.Ccap;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccaps.CcapBuilder;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.ccaps.CcapKey;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gate.spec.GateSpec;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gate.spec.GateSpecBuilder;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.Apps;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.App;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.AppBuilder;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.AppKey;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.PollStatus;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.PollStatusBuilder;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.Subscribers;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.SubscribersBuilder;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.Subscriber;
@@ -117,7 +139,12 @@ import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.RpcResult;
 import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
+import org.pcmm.gates.IGateState.GateStateReasonType;
+import org.pcmm.gates.IGateState.GateStateType;
+import org.pcmm.gates.IPCMMError.ErrorCode;
 import org.pcmm.rcd.IPCMMClient;
+import org.pcmm.stats.PCMMCommandStatistics;
+import org.pcmm.stats.PCMMGateStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -137,16 +164,45 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
     private static final InstanceIdentifier<Ccaps> ccapsIID = InstanceIdentifier.builder(Ccaps.class).build();
     private static final InstanceIdentifier<Qos> qosIID = InstanceIdentifier.builder(Qos.class).build();
 
+    // interval of the updates of the gate-statistics of the CCAPs in the operational datastore
+    private static final long GATE_STATISTICS_INTERVAL_SECONDS = 60;
+
+    // operational state of a gate acknowledged by its Gate-Set-Ack until the poller sends its first Gate-Info, in the
+    // format of the Gate-Info results: the gates are set with the default envelope (authorized, reserved and
+    // committed) and have neither elapsed time nor usage yet
+    static final String INITIAL_COPS_GATE_STATE = GateStateType.COMMITTED + "/" + GateStateReasonType.ZERO;
+    static final String INITIAL_COPS_GATE_TIME_INFO = "0";
+    static final String INITIAL_COPS_GATE_USAGE_INFO = "0";
+
     // TODO - Revisit these maps and remove the ones no longer necessary
     private final Map<String, Ccap> ccapMap = new ConcurrentHashMap<>();
     private final Map<String, Gate> gateMap = new ConcurrentHashMap<>();
     private final Map<String, String> gateCcapMap = new ConcurrentHashMap<>();
     private final Map<Subnet, Ccap> subscriberSubnetsMap = new ConcurrentHashMap<>();
+    private final SubnetTrie<Ccap> subscriberSubnetTrie = new SubnetTrie<>();
     private final Map<ServiceClassName, List<Ccap>> downstreamScnMap = new ConcurrentHashMap<>();
     private final Map<ServiceClassName, List<Ccap>> upstreamScnMap = new ConcurrentHashMap<>();
 
     private final Executor executor = Executors.newSingleThreadExecutor();
 
+    /**
+     * Completes the gate RPCs once the CCAP has reported, off the event loops receiving the reports
+     */
+    private final ExecutorService rpcExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-rpc-%d").setDaemon(true).build());
+
+    /**
+     * Runs the workers provisioning the gates written to the config datastore
+     */
+    private final ExecutorService gateExecutor = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-gate-%d").setDaemon(true).build());
+
+    /**
+     * Copies the gate statistics of the CCAPs to the operational datastore
+     */
+    private final ScheduledExecutorService statisticsExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("packetcable-statistics-%d").setDaemon(true).build());
+
     /**
      * Holds a PCMMService object for each CCAP being managed.
      */
@@ -158,6 +214,23 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
     private final DataBroker dataBroker;
     private final MdsalUtils mdsalUtils;
 
+    /**
+     * Batches the operational datastore writes of the gates, keeping the commits off the COPS response path
+     */
+    private final DatastoreWriteBatcher writeBatcher;
+
+    /**
+     * Keeps the state and usage of the active gates up to date in the operational datastore
+     */
+    private final GateStatePoller gateStatePoller;
+
+    /**
+     * When set, a gate created in the config datastore is followed by a Gate-Info filling its operational state,
+     * costing a second round trip to the CCAP. Otherwise the operational gate is filled from the Gate-Set-Ack and
+     * refreshed by the gate state poller.
+     */
+    private volatile boolean gateInfoOnCreate = false;
+
     //Routed RPC Registration
     private RoutedRpcRegistration<PacketcableService> routedRpcRegistration;
 
@@ -181,6 +254,65 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         this.dataBroker = dataBroker;
         this.rpcProviderRegistry = rpcProviderRegistry;
         mdsalUtils = new MdsalUtils(dataBroker);
+        writeBatcher = new DatastoreWriteBatcher(dataBroker);
+        gateStatePoller = new GateStatePoller(pcmmServiceMap::get, writeBatcher);
+    }
+
+    /**
+     * Sets whether the created gates are confirmed by a Gate-Info right after their Gate-Set (blueprint property).
+     * @param gateInfoOnCreate true to send the Gate-Info, false to rely on the Gate-Set-Ack
+     */
+    public void setGateInfoOnCreate(final boolean gateInfoOnCreate) {
+        this.gateInfoOnCreate = gateInfoOnCreate;
+    }
+
+    /**
+     * Fills the COPS gate ID and state of a gate accepted by its Gate-Set, following it with a Gate-Info when
+     * gateInfoOnCreate is set.
+     * @param pcmmService - the service of the CCAP holding the gate
+     * @param gatePathStr - the path of the gate
+     * @param status - the successful status of the Gate-Set
+     * @param gateBuilder - the builder of the operational gate
+     * @return - completed once the gate builder is filled
+     */
+    CompletionStage<Void> fillCreatedGate(final PCMMService pcmmService, final String gatePathStr,
+                                          final PCMMService.GateSendStatus status, final GateBuilder gateBuilder) {
+        gateBuilder.setCopsGateId(status.getCopsGateId());
+
+        if (!gateInfoOnCreate) {
+            //
+            // the Gate-Set-Ack carries no state, the poller replaces the initial one in the background
+            //
+            gateBuilder.setCopsGateState(INITIAL_COPS_GATE_STATE)
+                    .setCopsGateTimeInfo(INITIAL_COPS_GATE_TIME_INFO)
+                    .setCopsGateUsageInfo(INITIAL_COPS_GATE_USAGE_INFO);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        //
+        // inquire as to the status, and implementation info of the requested gate
+        //
+        return pcmmService.sendGateInfoAsync(gatePathStr).thenAccept(infoStatus -> {
+            if (infoStatus.didSucceed()) {
+                //
+                // update builder with info for operational storage
+                //
+                gateBuilder.setCopsGateState(
+                        infoStatus.getCopsGateState() + "/" + infoStatus.getCopsGateStateReason())
+                        .setCopsGateTimeInfo(infoStatus.getCopsGateTimeInfo())
+                        .setCopsGateUsageInfo(infoStatus.getCopsGateUsageInfo());
+            } else {
+                List<String> errors = new ArrayList<>(2);
+
+                // Keep GateSetErrors
+                if (gateBuilder.getError() != null) {
+                    errors.addAll(gateBuilder.getError());
+                }
+
+                errors.add(infoStatus.getMessage());
+                gateBuilder.setError(errors);
+            }
+        });
     }
 
     public void init() {
@@ -203,6 +335,10 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         rpcRegistration = rpcProviderRegistry.addRpcImplementation(PacketcableService.class, this);
         routedRpcRegistration = rpcProviderRegistry.addRoutedRpcImplementation(PacketcableService.class, this);
 
+        gateStatePoller.start();
+        statisticsExecutor.scheduleWithFixedDelay(this::writeAllGateStatistics, GATE_STATISTICS_INTERVAL_SECONDS,
+                GATE_STATISTICS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
         logger.info("Packetcable Session Initiated");
     }
 
@@ -226,13 +362,74 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         if (routedRpcRegistration != null) {
             routedRpcRegistration.close();
         }
+
+        rpcExecutor.shutdown();
+        gateExecutor.shutdown();
+        statisticsExecutor.shutdown();
+        for (final PCMMService pcmmService : pcmmServiceMap.values()) {
+            pcmmService.unregisterStatistics();
+        }
+        gateStatePoller.close();
+        writeBatcher.close();
+    }
+
+    private void writeAllGateStatistics() {
+        for (final Map.Entry<String, PCMMService> entry : pcmmServiceMap.entrySet()) {
+            try {
+                writeGateStatistics(ccapsIID.child(Ccap.class, new CcapKey(entry.getKey())), entry.getValue());
+            } catch (RuntimeException e) {
+                // keeps the periodic updates going
+                logger.error("Unable to write the gate statistics of CCAP {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes the Gate-Set, Gate-Info and Gate-Delete statistics of a CCAP to its operational gate-statistics, unless
+     * the CCAP was removed meanwhile: the put would create the operational CCAP again.
+     */
+    private void writeGateStatistics(final InstanceIdentifier<Ccap> ccapIid, final PCMMService pcmmService) {
+        if (pcmmServiceMap.get(ccapIid.firstKeyOf(Ccap.class).getCcapId()) != pcmmService) {
+            return;
+        }
+        final PCMMGateStatistics statistics = pcmmService.getStatistics();
+        final List<Command> commands = new ArrayList<>();
+        for (final PCMMCommandStatistics commandStatistics : Arrays.asList(statistics.getGateSet(),
+                statistics.getGateInfo(), statistics.getGateDelete())) {
+            final List<PcmmError> errors = new ArrayList<>();
+            for (final Map.Entry<ErrorCode, Long> error : commandStatistics.getErrors().entrySet()) {
+                errors.add(new PcmmErrorBuilder().setCode((int) error.getKey().getCode())
+                        .setDescription(error.getKey().getDescription())
+                        .setCount(BigInteger.valueOf(error.getValue()))
+                        .build());
+            }
+            commands.add(new CommandBuilder().setCommandType(commandStatistics.getCommandType().name())
+                    .setRequests(BigInteger.valueOf(commandStatistics.getRequests()))
+                    .setReports(BigInteger.valueOf(commandStatistics.getReports()))
+                    .setTimeouts(BigInteger.valueOf(commandStatistics.getTimeouts()))
+                    .setExpired(BigInteger.valueOf(commandStatistics.getExpired()))
+                    .setInFlight((long) Math.max(0, commandStatistics.getInFlight()))
+                    .setLatencyMean(BigInteger.valueOf(commandStatistics.getLatencyMean()))
+                    .setLatencyP50(BigInteger.valueOf(commandStatistics.getLatency50()))
+                    .setLatencyP90(BigInteger.valueOf(commandStatistics.getLatency90()))
+                    .setLatencyP99(BigInteger.valueOf(commandStatistics.getLatency99()))
+                    .setLatencyP999(BigInteger.valueOf(commandStatistics.getLatency999()))
+                    .setLatencyMax(BigInteger.valueOf(commandStatistics.getLatencyMax()))
+                    .setPcmmError(errors)
+                    .build());
+        }
+        final GateStatistics gateStatistics =
+                new GateStatisticsBuilder().setCommand(commands).setTimestamp(getNowTimeStamp()).build();
+        writeBatcher.put(LogicalDatastoreType.OPERATIONAL, ccapIid.child(GateStatistics.class), gateStatistics);
     }
 
     private void updateCcapMaps(final Ccap ccap) {
         // add ccap to the subscriberSubnets map
         for (final IpPrefix ipPrefix : ccap.getSubscriberSubnets()) {
             try {
-                subscriberSubnetsMap.put(Subnet.createInstance(getIpPrefixStr(ipPrefix)), ccap);
+                final Subnet subnet = Subnet.createInstance(getIpPrefixStr(ipPrefix));
+                subscriberSubnetsMap.put(subnet, ccap);
+                subscriberSubnetTrie.put(subnet, ccap);
             } catch (UnknownHostException e) {
                 logger.error("updateSubscriberSubnets: {}:{} FAILED: {}", ipPrefix, ccap, e.getMessage());
             }
@@ -269,29 +466,16 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
     }
 
     public InetAddress getInetAddress(final String subId) {
-        try {
-            return InetAddress.getByName(subId);
-        } catch (UnknownHostException e) {
-            logger.error("getInetAddress: {} FAILED: {}", subId, e.getMessage());
-            return null;
+        // never resolve a name while provisioning a gate
+        final InetAddress address = IpAddressLiterals.forString(subId);
+        if (address == null) {
+            logger.error("getInetAddress: {} FAILED: not an IP address literal", subId);
         }
+        return address;
     }
 
     private Ccap findCcapForSubscriberId(final InetAddress inetAddr) {
-        // TODO replace this with a loading cache, https://github.com/google/guava/wiki/CachesExplained
-        Ccap matchedCcap = null;
-        int longestPrefixLen = -1;
-        for (final Map.Entry<Subnet, Ccap> entry : subscriberSubnetsMap.entrySet()) {
-            final Subnet subnet = entry.getKey();
-            if (subnet.isInNet(inetAddr)) {
-                int prefixLen = subnet.getPrefixLen();
-                if (prefixLen > longestPrefixLen) {
-                    matchedCcap = entry.getValue();
-                    longestPrefixLen = prefixLen;
-                }
-            }
-        }
-        return matchedCcap;
+        return subscriberSubnetTrie.lookup(inetAddr);
     }
 
     private ServiceFlowDirection findScnOnCcap(final ServiceClassName scn, final Ccap ccap) {
@@ -318,6 +502,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         for (final Map.Entry<Subnet, Ccap> entry : subscriberSubnetsMap.entrySet()) {
             if (entry.getValue() == ccap) {
                 subscriberSubnetsMap.remove(entry.getKey());
+                subscriberSubnetTrie.remove(entry.getKey());
             }
         }
         // ccap to upstream SCN map
@@ -337,8 +522,11 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             }
         }
 
+        gateStatePoller.removeCcap(ccap.getCcapId());
+
         final PCMMService service = pcmmServiceMap.remove(ccap.getCcapId());
         if (service != null) {
+            service.unregisterStatistics();
             service.disconect();
         }
     }
@@ -507,11 +695,17 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                 if (optional.isPresent()) {
 
                     if (shouldClean(optional.get())) {
-                        if (mdsalUtils.delete(datastoreType, tIID)) {
-                            postRemove(tIID);
-                        } else {
-                            removeFailed(tIID);
-                        }
+                        Futures.addCallback(writeBatcher.delete(datastoreType, tIID), new FutureCallback<Void>() {
+                            @Override
+                            public void onSuccess(final Void result) {
+                                postRemove(tIID);
+                            }
+
+                            @Override
+                            public void onFailure(@Nonnull final Throwable throwable) {
+                                removeFailed(tIID);
+                            }
+                        }, executor);
                     }
 
                 }
@@ -577,6 +771,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             String message = pcmmService.addCcap();
             if (message.contains("200 OK")) {
                 pcmmServiceMap.put(ccap.getCcapId(), pcmmService);
+                pcmmService.registerStatistics();
                 ccapMap.put(ccap.getCcapId(), ccap);
                 updateCcapMaps(ccap);
                 logger.info("Created CCAP: {}/{} : {}", iid, ccap, message);
@@ -640,10 +835,11 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             logger.info("Un-Registering CCAP Routed RPC Path...");
             routedRpcRegistration.unregisterPath(CcapContext.class, iid);
 
-            mdsalUtils.delete(LogicalDatastoreType.OPERATIONAL, iid);
-
-            // clean up ccaps level if it is now empty
-            executor.execute(new CcapsCleaner(iid));
+            // queued after any statistics write of the CCAP, the statistics being written by this executor and
+            // skipping the CCAPs removed from the maps
+            statisticsExecutor.execute(() -> writeBatcher.delete(LogicalDatastoreType.OPERATIONAL, iid)
+                    // clean up ccaps level if it is now empty
+                    .addListener(new CcapsCleaner(iid), executor));
         }
 
         @Override
@@ -656,10 +852,79 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
 
     private class QosDataTreeChangeListener extends AbstractDataTreeChangeListener<Gate> {
 
+        /**
+         * Number of workers sharing the gate executor, bounding the gates provisioned concurrently
+         */
+        private static final int GATE_WORKERS = 16;
+
         private final Set<InstanceIdentifier<Gate>> updateQueue = Sets.newConcurrentHashSet();
 
+        /**
+         * The workers handling the changes, a gate path always hashing to the same worker
+         */
+        private final Executor[] gateWorkers = new Executor[GATE_WORKERS];
+
+        /**
+         * The last change of each gate path not handled yet, the next change of the path being chained on it
+         */
+        private final Map<String, CompletableFuture<Void>> pendingChanges = new ConcurrentHashMap<>();
+
+        /**
+         * The gate request sent by the change being handled for each gate path, its change completing with it
+         */
+        private final Map<String, CompletionStage<?>> pendingRequests = new ConcurrentHashMap<>();
+
         public QosDataTreeChangeListener() {
             super(Gate.class,new DataValidator(new QosValidatorProviderFactory().build()));
+            for (int i = 0; i < gateWorkers.length; i++) {
+                gateWorkers[i] = new SequentialExecutor(gateExecutor);
+            }
+        }
+
+        /**
+         * Hands each change to the worker of its gate path without holding the notification thread. A change is
+         * handled once the gate request of the previous change of the same path is reported, so a gate is never
+         * deleted before its Gate-Set completed, whatever the CCAPs configured meanwhile. The changes of the other
+         * gates proceed in the meantime.
+         */
+        @Override
+        public void onDataTreeChanged(@Nonnull final Collection<DataTreeModification<Gate>> changes) {
+            for (final DataTreeModification<Gate> change : changes) {
+                final String gatePathStr = makeGatePathString(change.getRootPath().getRootIdentifier());
+                final Executor worker = gateWorkers[Math.floorMod(gatePathStr.hashCode(), gateWorkers.length)];
+                final CompletableFuture<Void> handled = pendingChanges.compute(gatePathStr, (path, previous) ->
+                        (previous == null ? CompletableFuture.<Void>completedFuture(null) : previous)
+                                .thenComposeAsync(ignored -> handleGateChange(gatePathStr, change), worker));
+                handled.whenComplete((ignored, failure) -> pendingChanges.remove(gatePathStr, handled));
+            }
+        }
+
+        /**
+         * Handles a change of a gate
+         * @param gatePathStr - the path of the gate
+         * @param change - the change
+         * @return - completed once the gate request sent by the change, if any, is reported, never exceptionally
+         */
+        private CompletableFuture<Void> handleGateChange(final String gatePathStr,
+                                                         final DataTreeModification<Gate> change) {
+            final CompletableFuture<Void> handled = new CompletableFuture<>();
+            try {
+                handleChange(change);
+            } catch (RuntimeException e) {
+                logger.error("Unable to handle the change of gate {}", gatePathStr, e);
+            }
+            final CompletionStage<?> request = pendingRequests.remove(gatePathStr);
+            if (request == null) {
+                handled.complete(null);
+            } else {
+                request.whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        logger.error("Unable to handle the change of gate {}", gatePathStr, failure);
+                    }
+                    handled.complete(null);
+                });
+            }
+            return handled;
         }
 
         @Override
@@ -776,44 +1041,24 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             //
             // send gate request to Ccap
             //
-            PCMMService.GateSendStatus status =
-                    pcmmService.sendGateSet(newGatePathStr, subscriberAddr, requestGate);
-            if (status.didSucceed()) {
-                gateMap.put(newGatePathStr, requestGate);
-                gateCcapMap.put(newGatePathStr, ccap.getCcapId());
-
-                //
-                // inquire as to the status, and implementation info of the requested gate
-                //
-                PCMMService.GateSendStatus infoStatus = pcmmService.sendGateInfo(newGatePathStr);
-
-                if (infoStatus.didSucceed()) {
-                    //
-                    // update builder with info for operational storage
-                    //
-                    gateBuilder.setCopsGateState(
-                            infoStatus.getCopsGateState() + "/" + infoStatus.getCopsGateStateReason())
-                            .setCopsGateTimeInfo(infoStatus.getCopsGateTimeInfo())
-                            .setCopsGateUsageInfo(infoStatus.getCopsGateUsageInfo())
-                            .setCopsGateId(status.getCopsGateId());
-                } else {
-                    List<String> errors = new ArrayList<>(2);
-
-                    // Keep GateSetErrors
-                    if (gateBuilder.getError() != null) {
-                        errors.addAll(gateBuilder.getError());
-                    }
-
-                    errors.add(infoStatus.getMessage());
-                    gateBuilder.setError(errors);
-                }
-            }
-            else {
-                gateBuilder.setError(Collections.singletonList(status.getMessage()));
-            }
-
-            Gate operationalGate = gateBuilder.build();
-            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIID, operationalGate);
+            final CompletionStage<?> request = pcmmService.sendGateSetAsync(newGatePathStr, subscriberAddr, requestGate)
+                    .thenComposeAsync(status -> {
+                        if (!status.didSucceed()) {
+                            gateBuilder.setError(Collections.singletonList(status.getMessage()));
+                            return CompletableFuture.completedFuture(status);
+                        }
+                        gateMap.put(newGatePathStr, requestGate);
+                        gateCcapMap.put(newGatePathStr, ccap.getCcapId());
+                        return fillCreatedGate(pcmmService, newGatePathStr, status, gateBuilder)
+                                .thenApply(ignored -> status);
+                    }, gateExecutor).thenAccept(status -> {
+                        Gate operationalGate = gateBuilder.build();
+                        writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIID, operationalGate);
+                        if (status.didSucceed()) {
+                            gateStatePoller.addGate(gateIID, operationalGate);
+                        }
+                    });
+            pendingRequests.put(newGatePathStr, request);
         }
 
         private void saveGateError(@Nonnull final InstanceIdentifier<Gate> gateIID, @Nonnull final String gatePathStr,
@@ -831,7 +1076,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
 
             Gate operationalGate = gateBuilder.build();
 
-            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIID, operationalGate);
+            writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIID, operationalGate);
         }
 
         @Override
@@ -855,13 +1100,13 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         protected void handleRemovedData(final DataTreeModification<Gate> change) {
             InstanceIdentifier<Gate> removedGateIID = change.getRootPath().getRootIdentifier();
             final Gate newGate = change.getRootNode().getDataBefore();
-
-            mdsalUtils.delete(LogicalDatastoreType.OPERATIONAL, removedGateIID);
-
-            executor.execute(new SubscriberCleaner(removedGateIID));
-
             final String gatePathStr = makeGatePathString(removedGateIID);
 
+            gateStatePoller.removeGate(gatePathStr);
+            // the cleaner reads the subscriber back, so it must not run before the gate is gone
+            writeBatcher.delete(LogicalDatastoreType.OPERATIONAL, removedGateIID)
+                    .addListener(new SubscriberCleaner(removedGateIID), executor);
+
             if (gateMap.containsKey(gatePathStr)) {
                 final Gate thisGate = gateMap.remove(gatePathStr);
                 final String gateId = thisGate.getGateId();
@@ -869,8 +1114,9 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                 final Ccap thisCcap = ccapMap.get(ccapId);
                 final PCMMService service = pcmmServiceMap.get(thisCcap.getCcapId());
                 if (service != null) {
-                    service.sendGateDelete(gatePathStr);
-                    logger.info("onDataChanged(): removed QoS gate {} for {}/{}/{}: ", gateId, ccapId, gatePathStr,thisGate);
+                    pendingRequests.put(gatePathStr, service.sendGateDeleteAsync(gatePathStr).thenAccept(status ->
+                            logger.info("onDataChanged(): removed QoS gate {} for {}/{}/{}: ", gateId, ccapId,
+                                    gatePathStr, thisGate)));
                 } else {
                     logger.warn("Unable to send to locate PCMMService to send gate delete message with CCAP - "
                             + thisCcap);
@@ -1029,6 +1275,8 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                             .setTimestamp(connectionDateAndTime);
 
             mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, ccapIid, responseCcapBuilder.build());
+            // the put above replaced the gate statistics
+            writeGateStatistics(ccapIid, pcmmService);
             response = ccapId + ": CCAP poll complete";
         } else {
             //pcmmService is null, do not poll
@@ -1168,110 +1416,90 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             retryOption = true;
         }
 
-        PCMMService.GateSendStatus status = null;
-        synchronized (pcmmService) {
-            logger.info("Sending gate: Path {} inputSubscriberId {} cops-gate-id {}",
-                        newGatePathStr, inputSubscriberId, gate.get(0).getCopsGateId());
-
-            status = pcmmService.sendGateSet(newGatePathStr, subscriberAddr, newGate);
-        }
-
-        if (status.didSucceed()) {
-
-            gateMap.put(newGatePathStr, newGate);
-            gateCcapMap.put(newGatePathStr, ccap.getCcapId());
-            Long copsGateId = 0L;
-            SetSuccessfulBuilder sb = new SetSuccessfulBuilder();
+        // Gate transactions to the same CCAP are pipelined, see PCMMService
+        logger.info("Sending gate: Path {} inputSubscriberId {} cops-gate-id {}",
+                    newGatePathStr, inputSubscriberId, gate.get(0).getCopsGateId());
+        final Gate firstGate = newGate;
+        final boolean retry = retryOption;
+        return pcmmService.sendGateSetAsync(newGatePathStr, subscriberAddr, firstGate).thenComposeAsync(status -> {
+            if (status.didSucceed()) {
+                return CompletableFuture.completedFuture(
+                        qosSetGateSucceeded(status, firstGate, newGatePathStr, gateBuilder, gateIID, ccap,
+                                outputBuilder));
+            }
+            if (!retry) {
+                return CompletableFuture.completedFuture(qosSetGateFailed(status, outputBuilder));
+            }
+            // Try one more time with blank Cops Gate Id in case the gate has timed out unexpectedly
+            logger.info("qosSetGate error msg: {} reason: {}", status.getMessage(), status.getCopsGateStateReason());
+            final GateBuilder retryGateBuilder = new GateBuilder();
+            retryGateBuilder.setGateId(inputGateId)
+                .setGatePath(newGatePathStr)
+                .setCcapId(ccap.getCcapId())
+                .setTimestamp(getNowTimeStamp())
+                .setTimestamp(getNowTimeStamp())
+                .setGateSpec(gate.get(0).getGateSpec())
+                .setTrafficProfile(gate.get(0).getTrafficProfile())
+                .setClassifiers(gate.get(0).getClassifiers());
+
+            final Gate retryGate = retryGateBuilder.build();
+
+            logger.info("Sending gate: Path {} inputSubscriberId {} with cops-gate-id undefined",
+                        newGatePathStr);
+            return pcmmService.sendGateSetAsync(newGatePathStr, subscriberAddr, retryGate).thenApplyAsync(
+                    retryStatus -> retryStatus.didSucceed()
+                            ? qosSetGateSucceeded(retryStatus, retryGate, newGatePathStr, gateBuilder, gateIID, ccap,
+                                    outputBuilder)
+                            : qosSetGateFailed(retryStatus, outputBuilder), rpcExecutor);
+        }, rpcExecutor).toCompletableFuture();
+    }
 
+    private RpcResult<QosSetGateOutput> qosSetGateSucceeded(final PCMMService.GateSendStatus status, final Gate sentGate,
+                                                            final String newGatePathStr, final GateBuilder gateBuilder,
+                                                            final InstanceIdentifier<Gate> gateIID, final Ccap ccap,
+                                                            final QosSetGateOutputBuilder outputBuilder) {
+        gateMap.put(newGatePathStr, sentGate);
+        gateCcapMap.put(newGatePathStr, ccap.getCcapId());
+        Long copsGateId = 0L;
+        SetSuccessfulBuilder sb = new SetSuccessfulBuilder();
+
+        if (status.getCopsGateId() != null) {
+            logger.debug("newGate.getCopsGateId() = {} ", status.getCopsGateId());
+            copsGateId = Long.decode(status.getCopsGateId());
+            sb.setCopsGateId(copsGateId);
             if (status.getCopsGateId() != null) {
-                logger.debug("newGate.getCopsGateId() = {} ", status.getCopsGateId());
-                copsGateId = Long.decode(status.getCopsGateId());
-                sb.setCopsGateId(copsGateId);
-                if (status.getCopsGateId() != null) {
-                    gateBuilder.setCopsGateId(status.getCopsGateId());
-                }
-                if (status.getCopsGateState() != null) {
-                    gateBuilder.setCopsGateState(status.getCopsGateState());
-                }
-                if (status.getCopsGateTimeInfo() != null) {
-                    gateBuilder.setCopsGateTimeInfo(status.getCopsGateTimeInfo());
-                }
-                if (status.getCopsGateUsageInfo() != null) {
-                    gateBuilder.setCopsGateUsageInfo(status.getCopsGateUsageInfo());
-                }
+                gateBuilder.setCopsGateId(status.getCopsGateId());
+            }
+            if (status.getCopsGateState() != null) {
+                gateBuilder.setCopsGateState(status.getCopsGateState());
+            }
+            if (status.getCopsGateTimeInfo() != null) {
+                gateBuilder.setCopsGateTimeInfo(status.getCopsGateTimeInfo());
+            }
+            if (status.getCopsGateUsageInfo() != null) {
+                gateBuilder.setCopsGateUsageInfo(status.getCopsGateUsageInfo());
             }
-
-            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIID, gateBuilder.build());
-
-            final SetSuccessful s = sb.build();
-            outputBuilder.setSetResponseType(s);
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
         }
-        else {
-            if (retryOption == true) {
-                // Try one more time with blank Cops Gate Id in case the gate has timed out unexpectedly
-                logger.info("qosSetGate error msg: {} reason: {}", status.getMessage(), status.getCopsGateStateReason());
-                final GateBuilder retryGateBuilder = new GateBuilder();
-                retryGateBuilder.setGateId(inputGateId)
-                    .setGatePath(newGatePathStr)
-                    .setCcapId(ccap.getCcapId())
-                    .setTimestamp(getNowTimeStamp())
-                    .setTimestamp(getNowTimeStamp())
-                    .setGateSpec(gate.get(0).getGateSpec())
-                    .setTrafficProfile(gate.get(0).getTrafficProfile())
-                    .setClassifiers(gate.get(0).getClassifiers());
-
-                newGate = retryGateBuilder.build();
-
-                synchronized (pcmmService) {
-                    logger.info("Sending gate: Path {} inputSubscriberId {} with cops-gate-id undefined",
-                                newGatePathStr);
-
-                    status = pcmmService.sendGateSet(newGatePathStr, subscriberAddr, newGate);
-                }
-
-                if (status.didSucceed()) {
-
-                    gateMap.put(newGatePathStr, newGate);
-                    gateCcapMap.put(newGatePathStr, ccap.getCcapId());
-                    Long copsGateId = 0L;
-                    SetSuccessfulBuilder sb = new SetSuccessfulBuilder();
-
-                    if (status.getCopsGateId() != null) {
-                        logger.debug("newGate.getCopsGateId() = {} ", status.getCopsGateId());
-                        copsGateId = Long.decode(status.getCopsGateId());
-                        sb.setCopsGateId(copsGateId);
-                        if (status.getCopsGateId() != null) {
-                            gateBuilder.setCopsGateId(status.getCopsGateId());
-                        }
-                        if (status.getCopsGateState() != null) {
-                            gateBuilder.setCopsGateState(status.getCopsGateState());
-                        }
-                        if (status.getCopsGateTimeInfo() != null) {
-                            gateBuilder.setCopsGateTimeInfo(status.getCopsGateTimeInfo());
-                        }
-                        if (status.getCopsGateUsageInfo() != null) {
-                            gateBuilder.setCopsGateUsageInfo(status.getCopsGateUsageInfo());
-                        }
-                    }
 
-                    mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIID, gateBuilder.build());
+        final Gate operationalGate = gateBuilder.build();
+        writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIID, operationalGate);
+        gateStatePoller.addGate(gateIID, operationalGate);
 
-                    final SetSuccessful s = sb.build();
-                    outputBuilder.setSetResponseType(s);
-                    return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-                }
-            }
-            SetFailureBuilder fb = new SetFailureBuilder();
-            final FailureType ft = FailureType.Failed;
-            fb.setFailure(ft);
-            fb.setMessage(status.getMessage());
-            final SetFailure f = fb.build();
-            outputBuilder.setSetResponseType(f);
-            logger.error("qosSetGate error msg: {} reason: {}", status.getMessage(), status.getCopsGateStateReason());
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-        }
+        final SetSuccessful s = sb.build();
+        outputBuilder.setSetResponseType(s);
+        return RpcResultBuilder.success(outputBuilder.build()).build();
+    }
 
+    private RpcResult<QosSetGateOutput> qosSetGateFailed(final PCMMService.GateSendStatus status,
+                                                         final QosSetGateOutputBuilder outputBuilder) {
+        SetFailureBuilder fb = new SetFailureBuilder();
+        final FailureType ft = FailureType.Failed;
+        fb.setFailure(ft);
+        fb.setMessage(status.getMessage());
+        final SetFailure f = fb.build();
+        outputBuilder.setSetResponseType(f);
+        logger.error("qosSetGate error msg: {} reason: {}", status.getMessage(), status.getCopsGateStateReason());
+        return RpcResultBuilder.success(outputBuilder.build()).build();
     }
 
     @Override
@@ -1372,34 +1600,33 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
         }
 
-        Boolean status = false;
-        synchronized (pcmmService) {
-            status = pcmmService.sendGateDelete(newGatePathStr);
-        }
-
-        if (status == true) {
-            Long copsGateId = 0L;
-            copsGateId = Long.decode(strGateId);
+        final String deletedCopsGateId = strGateId;
+        return pcmmService.sendGateDeleteAsync(newGatePathStr).thenApplyAsync(status -> {
+            if (status.didSucceed()) {
+                Long copsGateId = 0L;
+                copsGateId = Long.decode(deletedCopsGateId);
 
-            logger.info("qosDeleteGate(): Successfully deleted gate {}", newGatePathStr);
-            mdsalUtils.delete(LogicalDatastoreType.OPERATIONAL, gateIID);
-            DeleteSuccessfulBuilder sb = new DeleteSuccessfulBuilder();
-            sb.setCopsGateId(copsGateId);
-            final DeleteSuccessful s = sb.build();
-            outputBuilder.setDeleteResponseType(s);
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-        }
-        else {
-            final String msg = String.format("qosDeleteGate(): Error deleting gate %s", newGatePathStr);
-            logger.error(msg);
-            DeleteFailureBuilder fb = new DeleteFailureBuilder();
-            final FailureType ft = FailureType.Failed;
-            fb.setFailure(ft);
-            fb.setMessage(msg);
-            final DeleteFailure f = fb.build();
-            outputBuilder.setDeleteResponseType(f);
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-        }
+                logger.info("qosDeleteGate(): Successfully deleted gate {}", newGatePathStr);
+                gateStatePoller.removeGate(newGatePathStr);
+                writeBatcher.delete(LogicalDatastoreType.OPERATIONAL, gateIID);
+                DeleteSuccessfulBuilder sb = new DeleteSuccessfulBuilder();
+                sb.setCopsGateId(copsGateId);
+                final DeleteSuccessful s = sb.build();
+                outputBuilder.setDeleteResponseType(s);
+                return RpcResultBuilder.success(outputBuilder.build()).build();
+            }
+            else {
+                final String msg = String.format("qosDeleteGate(): Error deleting gate %s", newGatePathStr);
+                logger.error(msg);
+                DeleteFailureBuilder fb = new DeleteFailureBuilder();
+                final FailureType ft = FailureType.Failed;
+                fb.setFailure(ft);
+                fb.setMessage(msg);
+                final DeleteFailure f = fb.build();
+                outputBuilder.setDeleteResponseType(f);
+                return RpcResultBuilder.success(outputBuilder.build()).build();
+            }
+        }, rpcExecutor).toCompletableFuture();
     }
 
     @Override
@@ -1467,66 +1694,62 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
             return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
         }
 
-        PCMMService.GateSendStatus status = null;
-
-        synchronized (pcmmService) {
-            status = pcmmService.sendGateInfo(newGatePathStr);
-        }
-
-        if (status.didSucceed()) {
-            DateAndTime gateDateAndTime = getNowTimeStamp();
-            List<String> gateOutputError = Collections.emptyList();
-            gateOutputError = Collections.singletonList(status.getMessage());
-            GateBuilder gateBuilder = new GateBuilder();
+        return pcmmService.sendGateInfoAsync(newGatePathStr).thenApplyAsync(status -> {
+            if (status.didSucceed()) {
+                DateAndTime gateDateAndTime = getNowTimeStamp();
+                List<String> gateOutputError = Collections.emptyList();
+                gateOutputError = Collections.singletonList(status.getMessage());
+                GateBuilder gateBuilder = new GateBuilder();
 
-            gateBuilder.setGateId(inputGateId)
-                .setGatePath(newGatePathStr)
-                .setCcapId(ccap.getCcapId())
-                .setCopsGateState(status.getCopsGateState() + "/" + status.getCopsGateStateReason())
-                .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
-                .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
-                .setCopsGateId(status.getCopsGateId())
-                .setError(gateOutputError)
-                .setTimestamp(gateDateAndTime);
-
-            infoGate = gateBuilder.build();
-
-            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIID, infoGate);
-
-            org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.GateBuilder responseGateBuilder
-                = new org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.GateBuilder();
-            responseGateBuilder.fieldsFrom(infoGate);
-            responseGateBuilder.setGateId(inputGateId);
-            responseGateBuilder.setGatePath(newGatePathStr);
-            org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.Gate responseGate =
-                responseGateBuilder.build();
-            List<org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.Gate> responseGateList =
-                new ArrayList<>();
-            responseGateList.add(responseGate);
-            org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.GatesBuilder responseGatesBuilder =
-                new org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.GatesBuilder();
-            responseGatesBuilder.setGate(responseGateList);
-            org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.Gates responseGates =
-                responseGatesBuilder.build();
-
-            InfoSuccessfulBuilder sb = new InfoSuccessfulBuilder();
-            sb.setGates(responseGates);
-            final InfoSuccessful s = sb.build();
-            outputBuilder.setInfoResponseType(s);
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-        }
-        else {
-            final String msg =
-                String.format("qosGateInfo(): error msg: %s reason: %s", status.getMessage(), status.getCopsGateStateReason());
-            logger.error(msg);
-            InfoFailureBuilder fb = new InfoFailureBuilder();
-            final FailureType ft = FailureType.Failed;
-            fb.setFailure(ft);
-            fb.setMessage(msg);
-            final InfoFailure f = fb.build();
-            outputBuilder.setInfoResponseType(f);
-            return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
-        }
+                gateBuilder.setGateId(inputGateId)
+                    .setGatePath(newGatePathStr)
+                    .setCcapId(ccap.getCcapId())
+                    .setCopsGateState(status.getCopsGateState() + "/" + status.getCopsGateStateReason())
+                    .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
+                    .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
+                    .setCopsGateId(status.getCopsGateId())
+                    .setError(gateOutputError)
+                    .setTimestamp(gateDateAndTime);
+
+                final Gate updatedGate = gateBuilder.build();
+
+                writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIID, updatedGate);
+
+                org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.GateBuilder responseGateBuilder
+                    = new org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.GateBuilder();
+                responseGateBuilder.fieldsFrom(updatedGate);
+                responseGateBuilder.setGateId(inputGateId);
+                responseGateBuilder.setGatePath(newGatePathStr);
+                org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.Gate responseGate =
+                    responseGateBuilder.build();
+                List<org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.gates.Gate> responseGateList =
+                    new ArrayList<>();
+                responseGateList.add(responseGate);
+                org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.GatesBuilder responseGatesBuilder =
+                    new org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.GatesBuilder();
+                responseGatesBuilder.setGate(responseGateList);
+                org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.gate.info.response.info.response.type.info.successful.Gates responseGates =
+                    responseGatesBuilder.build();
+
+                InfoSuccessfulBuilder sb = new InfoSuccessfulBuilder();
+                sb.setGates(responseGates);
+                final InfoSuccessful s = sb.build();
+                outputBuilder.setInfoResponseType(s);
+                return RpcResultBuilder.success(outputBuilder.build()).build();
+            }
+            else {
+                final String msg =
+                    String.format("qosGateInfo(): error msg: %s reason: %s", status.getMessage(), status.getCopsGateStateReason());
+                logger.error(msg);
+                InfoFailureBuilder fb = new InfoFailureBuilder();
+                final FailureType ft = FailureType.Failed;
+                fb.setFailure(ft);
+                fb.setMessage(msg);
+                final InfoFailure f = fb.build();
+                outputBuilder.setInfoResponseType(f);
+                return RpcResultBuilder.success(outputBuilder.build()).build();
+            }
+        }, rpcExecutor).toCompletableFuture();
     }
 
     @Override
@@ -1541,8 +1764,6 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
         String inputSubscriberId = input.getSubscriberId();
         String inputGateId = input.getGateId();
         List<String> gateOutputError = Collections.emptyList();
-        String subscriberId = null;
-        String gateId = null;
         String ccapId = null;
         String gatePathStr = null;
         String opsCopsGateId = null;
@@ -1609,7 +1830,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                                     .setError(gateOutputError)
                                     .setTimestamp(gateDateAndTime);
 
-                            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIid, gateBuilder.build());
+                            writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIid, gateBuilder.build());
                             rpcResponse = gatePathStr + ": gate poll complete";
                         } else {
                             rpcResponse =
@@ -1631,49 +1852,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                 Subscriber sub = readSubscriberFromOperationalDatastore(subIid);
                 if (sub != null) {
                     //If Subscriber exsits poll all gates for the subscriber
-                    subscriberId = sub.getSubscriberId();
-                    List<Gate> gateList = sub.getGates().getGate();
-                    for (Gate gate : gateList) {
-                        //generate active gateIid
-                        gateId = gate.getGateId();
-                        InstanceIdentifier<Gate> gateIid =
-                                subIid.builder().child(Gates.class).child(Gate.class, new GateKey(gateId)).build();
-
-                        opsGate = readGateFromOperationalDatastore(gateIid);
-                        opsCopsGateId = opsGate.getCopsGateId();
-                        //generate active gatePathStr
-                        gatePathStr = appKey.getAppId() + "/" + subscriberId + "/" + gateId;
-
-                        if (!Objects.equals(opsCopsGateId, "") && !Objects.equals(opsCopsGateId, null)) {
-                            ccapId = findCcapForSubscriberId(getInetAddress(subscriberId)).getCcapId();
-                            PCMMService pcmmService = pcmmServiceMap.get(ccapId);
-                            //is the CCAP socket open?
-                            if (!pcmmService.getPcmmPdpSocket() && pcmmService.getPcmmCcapClientIsConnected()) {
-                                PCMMService.GateSendStatus status = pcmmService.sendGateInfo(gatePathStr);
-                                DateAndTime gateDateAndTime = getNowTimeStamp();
-
-                                gateBuilder.setGateId(gateId)
-                                        .setGatePath(gatePathStr)
-                                        .setCcapId(ccapId)
-                                        .setCopsGateState(
-                                                status.getCopsGateState() + "/" + status.getCopsGateStateReason())
-                                        .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
-                                        .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
-                                        .setCopsGateId(status.getCopsGateId())
-                                        .setError(gateOutputError)
-                                        .setTimestamp(gateDateAndTime);
-
-                                mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIid, gateBuilder.build());
-                            } else {
-                                logger.info(
-                                        "qospollgates: {}: CCAP Cops socket is down or client disconnected; gate poll not performed",
-                                        ccapId);
-                            }
-                        } else {
-                            //TODO define what happens if a gate is not active.. is nothing ok?
-                            logger.info("qospollgates: {}: gate not active; gate poll not performed", gatePathStr);
-                        }
-                    } //for
+                    new GatePoll(appIid, Collections.singletonList(sub)).start();
                     rpcResponse = inputSubscriberId + "/: subscriber subtree poll in progress";
                 } else {
                     rpcResponse =
@@ -1688,9 +1867,7 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                 rpcResponse = gatePathStr + ": Subscriber ID not provided; gate poll not performed";
             } else {
                 //poll all gates for the appId
-                PollAllGatesForApp pollAllGatesForApp = new PollAllGatesForApp(appIid,app);
-                Thread t = new Thread(pollAllGatesForApp);
-                t.start();
+                new GatePoll(appIid, app.getSubscribers().getSubscriber()).start();
                 rpcResponse = appKey.getAppId() + "/: gate subtree poll in progress";
             }
         }
@@ -1702,95 +1879,162 @@ public class PacketcableProvider implements AutoCloseable, PacketcableService {
                 .setGate(gateOutputBuilder.build());
         return Futures.immediateFuture(RpcResultBuilder.success(outputBuilder.build()).build());
     }
-    private class PollAllGatesForApp implements Runnable {
 
-        private final InstanceIdentifier <App> appIid;
-        private final App app;
+    /**
+     * Polls the gates of some subscribers of an app. The gates are grouped by CCAP and the Gate-Info requests of a
+     * CCAP are pipelined on its connection, all the CCAPs being polled at once. Each gate is written back to the
+     * operational datastore as its report arrives and the progress is kept in the poll-status of the app.
+     */
+    private class GatePoll {
+
+        // the poll-status is updated each time this many gates have completed
+        private static final int POLL_STATUS_INTERVAL = 1000;
 
-        private PollAllGatesForApp (InstanceIdentifier <App> appIid, App app) {
-            this.app = app;
-            this.appIid = appIid;
-        }
+        private final InstanceIdentifier<App> appIid;
+        private final List<Subscriber> subscribers;
+        private final DateAndTime started = getNowTimeStamp();
 
-        @Override
-        public void run() {
+        private final AtomicInteger polled = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
 
-            org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.poll.gates.output.GateBuilder gateOutputBuilder =
-                    new org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.qos.poll.gates.output.GateBuilder();
+        // known before the first Gate-Info is sent
+        private volatile int total;
+        private volatile int skipped;
+        private volatile int sent;
 
-            GateBuilder gateBuilder = new GateBuilder();
+        /**
+         * True once the final poll-status has been written, guarded by this
+         */
+        private boolean finished;
 
-            //generate appKey
-            AppKey appKey = InstanceIdentifier.keyOf(appIid);
+        private GatePoll(final InstanceIdentifier<App> appIid, final List<Subscriber> subscribers) {
+            this.appIid = appIid;
+            this.subscribers = subscribers;
+        }
 
-            Subscribers subs = app.getSubscribers();
-            logger.info("qospollgates subscribers: " + subs.toString());
+        void start() {
+            rpcExecutor.execute(this::poll);
+        }
 
-            List<Subscriber> subList = subs.getSubscriber();
-            logger.info("qospollgates subList: " + subList.toString());
+        private void poll() {
+            final String appId = InstanceIdentifier.keyOf(appIid).getAppId();
+            // the CCAPs met so far, mapped to their service or to null when not connected
+            final Map<String, PCMMService> services = new HashMap<>();
+            final List<Runnable> gateInfos = new ArrayList<>();
+            int gateCount = 0;
+            int skippedCount = 0;
 
-            for (Subscriber sub : subList) {
-                //generate active subIid
-                String subscriberId = sub.getSubscriberId();
-                InstanceIdentifier<Subscriber> subIid = appIid.builder()
+            for (final Subscriber sub : subscribers) {
+                if (sub.getGates() == null || sub.getGates().getGate() == null) {
+                    continue;
+                }
+                final String subscriberId = sub.getSubscriberId();
+                final InetAddress subscriberAddr = getInetAddress(subscriberId);
+                final Ccap ccap = subscriberAddr != null ? findCcapForSubscriberId(subscriberAddr) : null;
+                final PCMMService pcmmService = ccap != null ? getConnectedService(ccap.getCcapId(), services) : null;
+                final InstanceIdentifier<Gates> gatesIid = appIid.builder()
                         .child(Subscribers.class)
                         .child(Subscriber.class, new SubscriberKey(subscriberId))
+                        .child(Gates.class)
                         .build();
 
-                List<Gate> gateList = sub.getGates().getGate();
-
-                for (Gate gate : gateList) {
-                    //logger.info("qospollgates active gate: "+gate);
-
-                    //generate active gateIid
-                    String gateId = gate.getGateId();
-                    InstanceIdentifier<Gate> gateIid =
-                            subIid.builder().child(Gates.class).child(Gate.class, new GateKey(gateId)).build();
+                for (final Gate gate : sub.getGates().getGate()) {
+                    gateCount++;
+                    final String gatePathStr = appId + "/" + subscriberId + "/" + gate.getGateId();
+                    if (Strings.isNullOrEmpty(gate.getCopsGateId())) {
+                        logger.debug("qospollgates: {}: gate not active; gate poll not performed", gatePathStr);
+                        skippedCount++;
+                    } else if (pcmmService == null) {
+                        logger.debug("qospollgates: {}: CCAP socket is down or client disconnected; "
+                                + "gate poll not performed", gatePathStr);
+                        skippedCount++;
+                    } else {
+                        final InstanceIdentifier<Gate> gateIid =
+                                gatesIid.child(Gate.class, new GateKey(gate.getGateId()));
+                        gateInfos.add(() -> pcmmService.sendGateInfoPipelined(gatePathStr)
+                                .whenComplete((status, failure) ->
+                                        gatePolled(gateIid, gate, ccap.getCcapId(), status, failure)));
+                    }
+                }
+            }
 
+            total = gateCount;
+            skipped = skippedCount;
+            sent = gateInfos.size();
+            logger.info("qospollgates: {}: polling {} of {} gates", appId, sent, total);
 
-                    Gate opsGate = readGateFromOperationalDatastore(gateIid);
-                    String opsCopsGateId = opsGate.getCopsGateId();
-                    //generate active gatePathStr
-                    String gatePathStr = appKey.getAppId() + "/" + subscriberId + "/" + gateId;
+            writePollStatus(!gateInfos.isEmpty());
+            for (final Runnable gateInfo : gateInfos) {
+                gateInfo.run();
+            }
+        }
 
-                    if (!Objects.equals(opsCopsGateId, "") && !Objects.equals(opsCopsGateId, null)) {
-                        String ccapId = findCcapForSubscriberId(getInetAddress(subscriberId)).getCcapId();
-                        PCMMService pcmmService = pcmmServiceMap.get(ccapId);
-                        //is the CCAP socket open?
-                        if (!pcmmService.getPcmmPdpSocket() && pcmmService.getPcmmCcapClientIsConnected()) {
-                            PCMMService.GateSendStatus status = pcmmService.sendGateInfo(gatePathStr);
-                            DateAndTime gateDateAndTime = getNowTimeStamp();
-                            List<String> gateOutputError = Collections.singletonList(status.getMessage());
+        private PCMMService getConnectedService(final String ccapId, final Map<String, PCMMService> services) {
+            if (!services.containsKey(ccapId)) {
+                final PCMMService pcmmService = pcmmServiceMap.get(ccapId);
+                final boolean connected = pcmmService != null && !pcmmService.getPcmmPdpSocket()
+                        && pcmmService.getPcmmCcapClientIsConnected();
+                services.put(ccapId, connected ? pcmmService : null);
+            }
+            return services.get(ccapId);
+        }
+
+        private void gatePolled(final InstanceIdentifier<Gate> gateIid, final Gate gate, final String ccapId,
+                                final PCMMService.GateSendStatus status, final Throwable failure) {
+            final GateBuilder gateBuilder = new GateBuilder(gate)
+                    .setCcapId(ccapId)
+                    .setTimestamp(getNowTimeStamp());
+            if (failure == null && status.didSucceed()) {
+                gateBuilder.setCopsGateState(status.getCopsGateState() + "/" + status.getCopsGateStateReason())
+                        .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
+                        .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
+                        .setCopsGateId(status.getCopsGateId())
+                        .setError(Collections.emptyList());
+                polled.incrementAndGet();
+            } else {
+                // keeps the last known state of the gate
+                gateBuilder.setError(
+                        Collections.singletonList(failure != null ? failure.getMessage() : status.getMessage()));
+                failed.incrementAndGet();
+            }
+            writeBatcher.put(LogicalDatastoreType.OPERATIONAL, gateIid, gateBuilder.build());
 
+            final int done = completed.incrementAndGet();
+            if (done == sent) {
+                writePollStatus(false);
+            } else if (done % POLL_STATUS_INTERVAL == 0) {
+                writePollStatus(true);
+            }
+        }
 
-                            gateBuilder.setGateId(gateId)
-                                    .setGatePath(gatePathStr)
-                                    .setCcapId(ccapId)
-                                    .setCopsGateState(
-                                            status.getCopsGateState() + "/" + status.getCopsGateStateReason())
-                                    .setCopsGateTimeInfo(status.getCopsGateTimeInfo())
-                                    .setCopsGateUsageInfo(status.getCopsGateUsageInfo())
-                                    .setCopsGateId(status.getCopsGateId())
-                                    .setError(gateOutputError)
-                                    .setTimestamp(gateDateAndTime);
+        private synchronized void writePollStatus(final boolean inProgress) {
+            // a late progress update must not overwrite the final status
+            if (finished) {
+                return;
+            }
+            finished = !inProgress;
+
+            final PollStatus pollStatus = new PollStatusBuilder()
+                    .setInProgress(inProgress)
+                    .setGatesTotal((long) total)
+                    .setGatesPolled((long) polled.get())
+                    .setGatesFailed((long) failed.get())
+                    .setGatesSkipped((long) skipped)
+                    .setStarted(started)
+                    .setTimestamp(getNowTimeStamp())
+                    .build();
+            writeBatcher.put(LogicalDatastoreType.OPERATIONAL, appIid.child(PollStatus.class), pollStatus);
 
-                            mdsalUtils.put(LogicalDatastoreType.OPERATIONAL, gateIid, gateBuilder.build());
-                        } else {
-                            logger.info(
-                                    "qospollgates: {}: CCAP socket is down or client disconnected; gate poll not performed",
-                                    ccapId);
-                        }
-                    } else {
-                        //TODO define what happens if a gate is not active.. is nothing ok
-                        logger.info("qospollgates: {}: gate not active; gate poll not performed", gatePathStr);
-                    }
-                }
+            if (finished) {
+                logger.info("qospollgates: {}: poll complete; {} gates polled, {} failed, {} skipped",
+                        InstanceIdentifier.keyOf(appIid).getAppId(), pollStatus.getGatesPolled(),
+                        pollStatus.getGatesFailed(), pollStatus.getGatesSkipped());
             }
         }
     }
 
-
-    private DateAndTime getNowTimeStamp() {
+    static DateAndTime getNowTimeStamp() {
         DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
         return new DateAndTime(dateFormat.format(new Date()));
     }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Pipelines asynchronous requests, keeping at most a window of them outstanding and queueing the others in order.
+ * A queued request is sent as soon as an outstanding one completes, so no thread waits on a response. As sending may
+ * block, the requests freed by a completion are sent on the executor rather than on the thread completing the
+ * response, which is typically the event loop reading the responses. Requests completing while being sent are
+ * handled without recursing.
+ *
+ * @param <T> the type of the requests
+ * @param <R> the type of the responses
+ */
+@ThreadSafe
+final class RequestWindow<T, R> {
+
+    private static final class Request<T, R> {
+        final T request;
+        final CompletableFuture<R> response = new CompletableFuture<>();
+
+        Request(final T request) {
+            this.request = request;
+        }
+    }
+
+    private final Function<T, CompletionStage<R>> sender;
+    private final int size;
+    private final Executor executor;
+
+    @GuardedBy("this")
+    private final Queue<Request<T, R>> queued = new ArrayDeque<>();
+
+    @GuardedBy("this")
+    private int outstanding;
+
+    /** True while a thread is sending the queued requests, the others leave the sending to it */
+    @GuardedBy("this")
+    private boolean sending;
+
+    /**
+     * Constructor.
+     * @param sender sends a request, returning its response
+     * @param size the maximum number of outstanding requests
+     * @param executor sends the queued requests once outstanding ones complete
+     */
+    RequestWindow(@Nonnull final Function<T, CompletionStage<R>> sender, final int size,
+                  @Nonnull final Executor executor) {
+        checkArgument(size > 0, "size must be positive: %s", size);
+        this.sender = checkNotNull(sender);
+        this.size = size;
+        this.executor = checkNotNull(executor);
+    }
+
+    /**
+     * Sends a request once less than the window size are outstanding.
+     * @param request the request
+     * @return the response
+     */
+    CompletionStage<R> send(@Nonnull final T request) {
+        final Request<T, R> queuedRequest = new Request<>(checkNotNull(request));
+        synchronized (this) {
+            queued.add(queuedRequest);
+        }
+        sendQueued();
+        return queuedRequest.response;
+    }
+
+    synchronized int getOutstanding() {
+        return outstanding;
+    }
+
+    synchronized int getQueued() {
+        return queued.size();
+    }
+
+    private void sendQueued() {
+        synchronized (this) {
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        while (true) {
+            final Request<T, R> next;
+            synchronized (this) {
+                if (outstanding == size || queued.isEmpty()) {
+                    sending = false;
+                    return;
+                }
+                next = queued.poll();
+                outstanding++;
+            }
+
+            CompletionStage<R> response;
+            try {
+                response = sender.apply(next.request);
+            } catch (RuntimeException e) {
+                final CompletableFuture<R> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                response = failed;
+            }
+            response.whenComplete((result, failure) -> {
+                final boolean resume;
+                synchronized (this) {
+                    outstanding--;
+                    // a thread still sending takes the freed slot itself
+                    resume = !sending && !queued.isEmpty();
+                }
+                // frees the slot before the caller reacts to the response
+                if (resume) {
+                    executor.execute(this::sendQueued);
+                }
+                if (failure != null) {
+                    next.response.completeExceptionally(failure);
+                } else {
+                    next.response.complete(result);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs its tasks one at a time, in submission order, on the threads of a shared executor. Several of these can share
+ * one pool while each still behaves like a single threaded worker, no thread being held while its queue is empty.
+ */
+@ThreadSafe
+final class SequentialExecutor implements Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequentialExecutor.class);
+
+    private final Executor delegate;
+
+    /**
+     * Guarded by itself
+     */
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    /**
+     * True while a drain of the queue is submitted to or running on the delegate, guarded by tasks
+     */
+    private boolean running;
+
+    SequentialExecutor(@Nonnull final Executor delegate) {
+        this.delegate = checkNotNull(delegate);
+    }
+
+    @Override
+    public void execute(@Nonnull final Runnable task) {
+        checkNotNull(task);
+        synchronized (tasks) {
+            tasks.add(task);
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        try {
+            delegate.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (tasks) {
+                tasks.clear();
+                running = false;
+            }
+            throw e;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            final Runnable task;
+            synchronized (tasks) {
+                task = tasks.poll();
+                if (task == null) {
+                    running = false;
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Task {} failed", task, e);
+            }
+        }
+    }
+
+}
@@ -11,15 +11,16 @@ package org.opendaylight.controller.packetcable.provider;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.math.BigInteger;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 /**
+ * An ipv4 or ipv6 subnet. The routing prefix and mask of an ipv4 subnet are held in ints, those of an ipv6 subnet in
+ * pairs of longs holding address bits 0 - 63 and 64 - 127, so a membership test is a masked compare of primitives.
+ *
  * @author c3oe.de, based on snippets from Scott Plante, John Kugelmann
  */
 public class Subnet
@@ -36,15 +37,23 @@ public class Subnet
     /** The length of the subnet prefix */
     private final int prefixLen;
 
-    /** The subnet mask */
-    private final BigInteger mask;
-
-    /** The actual routing prefix leading to this subnet */
-    private final BigInteger routingPrefix;
-
     /** The number of bytes in an address. Will be 4 or 16 corresponding to ipv4 and ipv6 respectively */
     private final int addressByteCount;
 
+    /** The ipv4 subnet mask, 0 for ipv6 */
+    private final int maskV4;
+
+    /** The actual ipv4 routing prefix leading to this subnet, 0 for ipv6 */
+    private final int routingPrefixV4;
+
+    /** The ipv6 subnet mask, bits 0 - 63 and 64 - 127, 0 for ipv4 */
+    private final long maskHigh;
+    private final long maskLow;
+
+    /** The actual ipv6 routing prefix leading to this subnet, bits 0 - 63 and 64 - 127, 0 for ipv4 */
+    private final long routingPrefixHigh;
+    private final long routingPrefixLow;
+
     /**
      * Generates a Subnet from CIDR style notation. <br>
      * Eg. "192.168.0.0/24" or "2001:db8:85a3:880:0:0:0:0/57"
@@ -60,12 +69,27 @@ public class Subnet
         final int maxMaskBits = (subnetAddress instanceof Inet4Address ? MAX_MASK_BITS_V4 : MAX_MASK_BITS_V6);
         checkArgument(prefixLength >= MIN_MASK_BITS && prefixLength <= maxMaskBits, "The prefixLength must be in range [%s..%s] but was %s", MIN_MASK_BITS, maxMaskBits, prefixLength);
 
+        final byte[] address = subnetAddress.getAddress();
         this.prefixLen = prefixLength;
-        this.addressByteCount = subnetAddress.getAddress().length; // 4 or 16
-        this.mask = BigInteger.valueOf( -1 ).shiftLeft(this.addressByteCount * 8 - prefixLength);
+        this.addressByteCount = address.length; // 4 or 16
 
         // ensure subnetAddress is properly masked and is not an address in the subnet
-        this.routingPrefix = new BigInteger( subnetAddress.getAddress() ).and( this.mask);
+        if (this.addressByteCount == 4) {
+            this.maskV4 = prefixLength == 0 ? 0 : -1 << (MAX_MASK_BITS_V4 - prefixLength);
+            this.routingPrefixV4 = (int) readWord(address, 0, 4) & this.maskV4;
+            this.maskHigh = 0;
+            this.maskLow = 0;
+            this.routingPrefixHigh = 0;
+            this.routingPrefixLow = 0;
+        }
+        else {
+            this.maskV4 = 0;
+            this.routingPrefixV4 = 0;
+            this.maskHigh = prefixLength == 0 ? 0 : prefixLength >= 64 ? -1L : -1L << (64 - prefixLength);
+            this.maskLow = prefixLength <= 64 ? 0 : -1L << (MAX_MASK_BITS_V6 - prefixLength);
+            this.routingPrefixHigh = readWord(address, 0, 8) & this.maskHigh;
+            this.routingPrefixLow = readWord(address, 8, 8) & this.maskLow;
+        }
     }
 
     /**
@@ -101,16 +125,16 @@ public class Subnet
             checkArgument(subnetAddress.getClass().equals(subnetMask.getClass()));
 
             // validate subnet mask. All leading bits should be set
-            final BigInteger m = new BigInteger(subnetMask.getAddress());
-            final BigInteger allOnes = BigInteger.valueOf(-1);
-            final int rightMostBit = m.getLowestSetBit();
-            final BigInteger validSubnet = allOnes.shiftLeft(rightMostBit);
-
-            checkArgument(validSubnet.equals(m), "Subnet should have contiguous prefix bits, mask: %s(%s)", subnetMask);
-
-            return (subnetAddress instanceof Inet4Address
-                    ? MAX_MASK_BITS_V4 - rightMostBit
-                    : MAX_MASK_BITS_V6 - rightMostBit);
+            final byte[] m = subnetMask.getAddress();
+            int prefixLength = 0;
+            while (prefixLength < m.length * 8 && (m[prefixLength / 8] << (prefixLength % 8) & 0x80) != 0) {
+                prefixLength++;
+            }
+            for (int bit = prefixLength; bit < m.length * 8; bit++) {
+                checkArgument((m[bit / 8] << (bit % 8) & 0x80) == 0,
+                        "Subnet should have contiguous prefix bits, mask: %s", subnetMask);
+            }
+            return prefixLength;
         }
     }
 
@@ -119,23 +143,32 @@ public class Subnet
      * @param addressAndSubnetStr format: "192.168.0.0/24" or "192.168.0.0/255.255.255.0"
      *      or single address or "2001:db8:85a3:880:0:0:0:0/57"
      * @return a new instance
-     * @throws UnknownHostException thrown if unsupported subnet mask.
+     * @throws UnknownHostException thrown if the address or mask is not an IP address literal.
      */
     public static Subnet createInstance(@Nonnull final String addressAndSubnetStr )
             throws UnknownHostException
     {
         final String[] stringArr = addressAndSubnetStr.split("/");
         if ( 2 > stringArr.length ) {
-            return new Subnet(InetAddress.getByName(stringArr[0]), null);
+            return new Subnet(getByLiteral(stringArr[0]), null);
         }
         else if ( stringArr[ 1 ].contains(".") || stringArr[ 1 ].contains(":") ) {
-            return new Subnet(InetAddress.getByName(stringArr[0]), InetAddress.getByName(stringArr[1]));
+            return new Subnet(getByLiteral(stringArr[0]), getByLiteral(stringArr[1]));
         }
         else {
-            return new Subnet(InetAddress.getByName(stringArr[0]), Integer.parseInt(stringArr[1]));
+            return new Subnet(getByLiteral(stringArr[0]), Integer.parseInt(stringArr[1]));
         }
     }
 
+    private static InetAddress getByLiteral(final String literal) throws UnknownHostException
+    {
+        final InetAddress address = IpAddressLiterals.forString(literal);
+        if (address == null) {
+            throw new UnknownHostException(literal + ": not an IP address literal");
+        }
+        return address;
+    }
+
     /**
      * Returns the length of the routing prefix length.
      * @return the routing prefix length.
@@ -144,6 +177,30 @@ public class Subnet
 		return prefixLen;
 	}
 
+    /**
+     * Returns true for an ipv4 subnet, false for an ipv6 one.
+     * @return true if ipv4
+     */
+    boolean isIpv4() {
+        return addressByteCount == 4;
+    }
+
+    /**
+     * Returns bits 0 - 63 of the routing prefix, an ipv4 prefix being left aligned.
+     * @return the high word
+     */
+    long getRoutingPrefixHigh() {
+        return addressByteCount == 4 ? (routingPrefixV4 & 0xFFFFFFFFL) << 32 : routingPrefixHigh;
+    }
+
+    /**
+     * Returns bits 64 - 127 of the routing prefix, 0 for ipv4.
+     * @return the low word
+     */
+    long getRoutingPrefixLow() {
+        return routingPrefixLow;
+    }
+
     /**
      * Determins if the passed in address is contained in this subnet.
      * @param address The address to test.
@@ -152,13 +209,56 @@ public class Subnet
 	public boolean isInNet(@Nonnull final InetAddress address )
     {
         checkNotNull(address, "address must not be null");
+        return isInNet(address.getAddress());
+    }
 
-        final byte[] bytesAddress = address.getAddress();
-        if ( this.addressByteCount != bytesAddress.length ) {
+    /**
+     * Determins if the passed in address is contained in this subnet.
+     * @param address The 4 bytes of an ipv4 or the 16 bytes of an ipv6 address in network byte order.
+     * @return true if the address is in this subnet.
+     */
+    public boolean isInNet(@Nonnull final byte[] address)
+    {
+        checkNotNull(address, "address must not be null");
+        if (this.addressByteCount != address.length) {
             return false;
         }
-        final BigInteger bigAddress = new BigInteger( bytesAddress );
-        return bigAddress.and(this.mask).equals(this.routingPrefix);
+        return addressByteCount == 4
+                ? isInNet((int) readWord(address, 0, 4))
+                : isInNet(readWord(address, 0, 8), readWord(address, 8, 8));
+    }
+
+    /**
+     * Determins if the passed in ipv4 address is contained in this subnet.
+     * @param address The address, its first byte in the most significant bits.
+     * @return true if this is an ipv4 subnet containing the address.
+     */
+    public boolean isInNet(final int address)
+    {
+        return addressByteCount == 4 && (address & maskV4) == routingPrefixV4;
+    }
+
+    /**
+     * Determins if the passed in ipv6 address is contained in this subnet.
+     * @param high The address bits 0 - 63.
+     * @param low The address bits 64 - 127.
+     * @return true if this is an ipv6 subnet containing the address.
+     */
+    public boolean isInNet(final long high, final long low)
+    {
+        return addressByteCount == 16 && (high & maskHigh) == routingPrefixHigh && (low & maskLow) == routingPrefixLow;
+    }
+
+    /**
+     * Reads up to 8 bytes in network byte order.
+     */
+    static long readWord(final byte[] bytes, final int offset, final int length)
+    {
+        long word = 0;
+        for (int i = offset; i < offset + length; i++) {
+            word = (word << 8) | (bytes[i] & 0xFF);
+        }
+        return word;
     }
 
     @Override
@@ -170,38 +270,42 @@ public class Subnet
 
         final Subnet other = (Subnet)obj;
         return  this.prefixLen == other.prefixLen &&
-                this.routingPrefix.equals(other.routingPrefix) &&
-                this.mask.equals(other.mask) &&
+                this.routingPrefixV4 == other.routingPrefixV4 &&
+                this.routingPrefixHigh == other.routingPrefixHigh &&
+                this.routingPrefixLow == other.routingPrefixLow &&
                 this.addressByteCount == other.addressByteCount;
     }
 
     @Override
     public final int hashCode()
     {
-        return new HashCodeBuilder(997, 311)
-                .append(prefixLen)
-                .append(mask)
-                .append(routingPrefix)
-                .append(addressByteCount)
-                .build();
+        int result = 997 * 311 + prefixLen;
+        result = result * 311 + routingPrefixV4;
+        result = result * 311 + Long.hashCode(routingPrefixHigh);
+        result = result * 311 + Long.hashCode(routingPrefixLow);
+        return result * 311 + addressByteCount;
     }
 
     @Override
     public String toString()
     {
         final StringBuilder buf = new StringBuilder();
-        bigInteger2IpString( buf, this.routingPrefix, this.addressByteCount);
-        buf.append( '/' );
-        bigInteger2IpString( buf, this.mask, this.addressByteCount);
+        if (addressByteCount == 4) {
+            appendIpString(buf, (routingPrefixV4 & 0xFFFFFFFFL) << 32, 0, addressByteCount);
+            buf.append('/');
+            appendIpString(buf, (maskV4 & 0xFFFFFFFFL) << 32, 0, addressByteCount);
+        }
+        else {
+            appendIpString(buf, routingPrefixHigh, routingPrefixLow, addressByteCount);
+            buf.append('/');
+            appendIpString(buf, maskHigh, maskLow, addressByteCount);
+        }
         return buf.toString();
     }
 
-    private static void bigInteger2IpString( final StringBuilder buf, final BigInteger bigInteger, final int displayBytes )
+    private static void appendIpString( final StringBuilder buf, final long high, final long low, final int displayBytes )
     {
         final boolean isIPv4 = 4 == displayBytes;
-        byte[] bytes = bigInteger.toByteArray();
-        int diffLen = displayBytes - bytes.length;
-        final byte fillByte = 0 > (int)bytes[ 0 ] ? (byte)0xFF : (byte)0x00;
 
         int integer;
         for ( int i = 0; i < displayBytes; i++ )
@@ -212,7 +316,7 @@ public class Subnet
             else if ( 0 < i && isIPv4 ) {
                 buf.append('.');
             }
-            integer = 0xFF & (i < diffLen ? fillByte : bytes[ i - diffLen ]);
+            integer = (int) ((i < 8 ? high : low) >>> (56 - 8 * (i % 8))) & 0xFF;
             if ( ! isIPv4 && 0x10 > integer ) {
                 buf.append('0');
             }
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.InetAddress;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Maps ipv4 and ipv6 subnets to values and finds the value of the longest subnet containing an address.
+ * <p>
+ * Each address family is held in a path compressed binary (Patricia) trie whose nodes store their prefix as two
+ * primitive words, an ipv4 prefix being left aligned in the high word. A lookup walks down at most one node per
+ * prefix bit and does not allocate. Nodes are immutable and updates copy the path they change, so lookups run
+ * without locking against concurrent updates.
+ *
+ * @param <V> the type of the values
+ */
+@ThreadSafe
+public class SubnetTrie<V> {
+
+    private static final class Node<V> {
+        /** Prefix bits 0 - 63 */
+        final long high;
+        /** Prefix bits 64 - 127 */
+        final long low;
+        final int prefixLen;
+        /** The value or null for a node only joining two branches */
+        final V value;
+        /** The child whose next bit after the prefix is 0 */
+        final Node<V> zero;
+        /** The child whose next bit after the prefix is 1 */
+        final Node<V> one;
+
+        Node(final long high, final long low, final int prefixLen, final V value, final Node<V> zero,
+                final Node<V> one) {
+            this.high = high;
+            this.low = low;
+            this.prefixLen = prefixLen;
+            this.value = value;
+            this.zero = zero;
+            this.one = one;
+        }
+    }
+
+    private volatile Node<V> v4Root;
+    private volatile Node<V> v6Root;
+
+    /** Guarded by this */
+    private int size;
+
+    /** The value replaced or removed by the last update, guarded by this */
+    private V previous;
+
+    /**
+     * Maps a subnet to a value.
+     * @param subnet the subnet
+     * @param value the value
+     * @return the value previously mapped to the subnet or null
+     */
+    public synchronized V put(@Nonnull final Subnet subnet, @Nonnull final V value) {
+        checkNotNull(subnet, "subnet must not be null");
+        checkNotNull(value, "value must not be null");
+
+        final long high = subnet.getRoutingPrefixHigh();
+        final long low = subnet.getRoutingPrefixLow();
+        previous = null;
+        if (subnet.isIpv4()) {
+            v4Root = put(v4Root, high, low, subnet.getPrefixLen(), value);
+        } else {
+            v6Root = put(v6Root, high, low, subnet.getPrefixLen(), value);
+        }
+        return takePrevious(1);
+    }
+
+    /**
+     * Removes the mapping of a subnet.
+     * @param subnet the subnet
+     * @return the value mapped to the subnet or null
+     */
+    public synchronized V remove(@Nonnull final Subnet subnet) {
+        checkNotNull(subnet, "subnet must not be null");
+
+        final long high = subnet.getRoutingPrefixHigh();
+        final long low = subnet.getRoutingPrefixLow();
+        previous = null;
+        if (subnet.isIpv4()) {
+            v4Root = remove(v4Root, high, low, subnet.getPrefixLen());
+        } else {
+            v6Root = remove(v6Root, high, low, subnet.getPrefixLen());
+        }
+        return takePrevious(-1);
+    }
+
+    private V takePrevious(final int sizeChange) {
+        final V value = previous;
+        previous = null;
+        if (sizeChange > 0 ? value == null : value != null) {
+            size += sizeChange;
+        }
+        return value;
+    }
+
+    /**
+     * Removes all the mappings.
+     */
+    public synchronized void clear() {
+        v4Root = null;
+        v6Root = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of subnets mapped.
+     * @return the count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Finds the value of the longest subnet containing an address.
+     * @param address the address
+     * @return the value or null when no subnet contains the address
+     */
+    @Nullable
+    public V lookup(@Nonnull final InetAddress address) {
+        checkNotNull(address, "address must not be null");
+        return lookup(address.getAddress());
+    }
+
+    /**
+     * Finds the value of the longest subnet containing an address given in network byte order.
+     * @param address the 4 bytes of an ipv4 or the 16 bytes of an ipv6 address
+     * @return the value or null when no subnet contains the address or the address length is neither 4 nor 16
+     */
+    @Nullable
+    public V lookup(@Nonnull final byte[] address) {
+        checkNotNull(address, "address must not be null");
+
+        final long high;
+        final long low;
+        Node<V> node;
+        if (address.length == 4) {
+            high = Subnet.readWord(address, 0, 4) << 32;
+            low = 0;
+            node = v4Root;
+        } else if (address.length == 16) {
+            high = Subnet.readWord(address, 0, 8);
+            low = Subnet.readWord(address, 8, 8);
+            node = v6Root;
+        } else {
+            return null;
+        }
+
+        V match = null;
+        while (node != null && commonPrefixLen(node.high, node.low, high, low) >= node.prefixLen) {
+            if (node.value != null) {
+                match = node.value;
+            }
+            if (node.prefixLen == 128) {
+                break;
+            }
+            node = isSet(high, low, node.prefixLen) ? node.one : node.zero;
+        }
+        return match;
+    }
+
+    private Node<V> put(final Node<V> node, final long high, final long low, final int prefixLen, final V value) {
+        if (node == null) {
+            return new Node<>(high, low, prefixLen, value, null, null);
+        }
+
+        final int common = Math.min(commonPrefixLen(node.high, node.low, high, low),
+                Math.min(node.prefixLen, prefixLen));
+        if (common == node.prefixLen) {
+            if (prefixLen == node.prefixLen) {
+                previous = node.value;
+                return new Node<>(high, low, prefixLen, value, node.zero, node.one);
+            }
+            // the new subnet lies below this node
+            if (isSet(high, low, node.prefixLen)) {
+                return new Node<>(node.high, node.low, node.prefixLen, node.value, node.zero,
+                        put(node.one, high, low, prefixLen, value));
+            }
+            return new Node<>(node.high, node.low, node.prefixLen, node.value,
+                    put(node.zero, high, low, prefixLen, value), node.one);
+        }
+
+        if (common == prefixLen) {
+            // this node lies below the new subnet
+            return isSet(node.high, node.low, prefixLen)
+                    ? new Node<>(high, low, prefixLen, value, null, node)
+                    : new Node<>(high, low, prefixLen, value, node, null);
+        }
+
+        // the new subnet and this node diverge, join them under their common prefix
+        final Node<V> added = new Node<>(high, low, prefixLen, value, null, null);
+        return isSet(high, low, common)
+                ? new Node<>(high & highMask(common), low & lowMask(common), common, null, node, added)
+                : new Node<>(high & highMask(common), low & lowMask(common), common, null, added, node);
+    }
+
+    private Node<V> remove(final Node<V> node, final long high, final long low, final int prefixLen) {
+        if (node == null || node.prefixLen > prefixLen
+                || commonPrefixLen(node.high, node.low, high, low) < node.prefixLen) {
+            return node;
+        }
+
+        if (node.prefixLen == prefixLen) {
+            if (node.value == null) {
+                return node;
+            }
+            previous = node.value;
+            return join(node, node.zero, node.one);
+        }
+
+        Node<V> zero = node.zero;
+        Node<V> one = node.one;
+        if (isSet(high, low, node.prefixLen)) {
+            one = remove(one, high, low, prefixLen);
+            if (one == node.one) {
+                return node;
+            }
+        } else {
+            zero = remove(zero, high, low, prefixLen);
+            if (zero == node.zero) {
+                return node;
+            }
+        }
+        return node.value != null
+                ? new Node<>(node.high, node.low, node.prefixLen, node.value, zero, one)
+                : join(node, zero, one);
+    }
+
+    /**
+     * Returns a node without value for the prefix of a node, dropping it when it has less than two children.
+     */
+    private static <V> Node<V> join(final Node<V> node, final Node<V> zero, final Node<V> one) {
+        if (zero == null) {
+            return one;
+        }
+        if (one == null) {
+            return zero;
+        }
+        return new Node<>(node.high, node.low, node.prefixLen, null, zero, one);
+    }
+
+    private static int commonPrefixLen(final long high1, final long low1, final long high2, final long low2) {
+        final long highDiff = high1 ^ high2;
+        if (highDiff != 0) {
+            return Long.numberOfLeadingZeros(highDiff);
+        }
+        final long lowDiff = low1 ^ low2;
+        return lowDiff == 0 ? 128 : 64 + Long.numberOfLeadingZeros(lowDiff);
+    }
+
+    private static boolean isSet(final long high, final long low, final int bit) {
+        return bit < 64 ? (high << bit) < 0 : (low << (bit - 64)) < 0;
+    }
+
+    private static long highMask(final int prefixLen) {
+        return prefixLen == 0 ? 0 : prefixLen >= 64 ? -1L : -1L << (64 - prefixLen);
+    }
+
+    private static long lowMask(final int prefixLen) {
+        return prefixLen <= 64 ? 0 : -1L << (128 - prefixLen);
+    }
+
+}
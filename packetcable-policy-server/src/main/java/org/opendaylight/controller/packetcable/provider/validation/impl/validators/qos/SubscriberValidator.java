@@ -8,6 +8,7 @@
 
 package org.opendaylight.controller.packetcable.provider.validation.impl.validators.qos;
 
+import org.opendaylight.controller.packetcable.provider.IpAddressLiterals;
 import org.opendaylight.controller.packetcable.provider.validation.impl.validators.AbstractValidator;
 import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.Subscriber;
 
@@ -29,6 +30,10 @@ public class SubscriberValidator extends AbstractValidator<Subscriber> {
         }
 
         mustExist(subscriber.getSubscriberId(), SUBSCRIBER_ID);
+        // the subscriber is located by address, a name would have to be resolved
+        if (subscriber.getSubscriberId() != null && !IpAddressLiterals.isLiteral(subscriber.getSubscriberId())) {
+            getErrorMessages().add(SUBSCRIBER_ID + " must be an IPv4 or IPv6 address");
+        }
         mustExist(subscriber.getGates(), GATES);
 
         if (extent == Extent.NODE_AND_SUBTREE) {
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.common.api.data.TransactionCommitFailedException;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.Ccaps;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class DatastoreWriteBatcherTest {
+
+    private static final InstanceIdentifier<Ccaps> CCAPS_IID = InstanceIdentifier.builder(Ccaps.class).build();
+
+    private final DataBroker dataBroker = mock(DataBroker.class);
+    private final WriteTransaction transaction = mock(WriteTransaction.class);
+    private final Ccaps ccaps = mock(Ccaps.class);
+
+    private DatastoreWriteBatcher batcher;
+
+    @Before
+    public void setUp() {
+        when(dataBroker.newWriteOnlyTransaction()).thenReturn(transaction);
+        batcher = new DatastoreWriteBatcher(dataBroker, 3);
+    }
+
+    @After
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    public void writesQueuedDuringACommitAreBatched() throws Exception {
+        final CountDownLatch submitting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(transaction.submit()).thenAnswer(invocation -> {
+            submitting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Futures.immediateCheckedFuture(null);
+        });
+
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        futures.add(batcher.put(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps));
+        assertTrue(submitting.await(5, TimeUnit.SECONDS));
+
+        // the first commit is held open, these queue up behind it
+        for (int i = 0; i < 5; i++) {
+            futures.add(batcher.merge(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps));
+        }
+        release.countDown();
+        Futures.allAsList(futures).get(5, TimeUnit.SECONDS);
+
+        // one transaction for the first write, then batches of 3 and 2
+        verify(dataBroker, times(3)).newWriteOnlyTransaction();
+        verify(transaction, times(1)).put(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps, true);
+        verify(transaction, times(5)).merge(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps, true);
+    }
+
+    @Test
+    public void failedCommitFailsTheBatch() throws Exception {
+        final TransactionCommitFailedException failure = new TransactionCommitFailedException("test");
+        when(transaction.submit()).thenReturn(Futures.immediateFailedCheckedFuture(failure));
+
+        try {
+            batcher.delete(LogicalDatastoreType.OPERATIONAL, CCAPS_IID).get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TransactionCommitFailedException);
+        }
+        verify(transaction).delete(LogicalDatastoreType.OPERATIONAL, CCAPS_IID);
+    }
+
+    @Test
+    public void refusedWriteAndFailedCommitFailOnlyTheirWrites() throws Exception {
+        final CountDownLatch submitting = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final TransactionCommitFailedException failure = new TransactionCommitFailedException("test");
+        when(transaction.submit()).thenAnswer(invocation -> {
+            submitting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Futures.immediateCheckedFuture(null);
+        }).thenReturn(Futures.immediateFailedCheckedFuture(failure), Futures.immediateCheckedFuture(null));
+        final IllegalArgumentException refused = new IllegalArgumentException("refused");
+        doThrow(refused).when(transaction).put(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps, true);
+
+        final ListenableFuture<Void> first = batcher.merge(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps);
+        assertTrue(submitting.await(5, TimeUnit.SECONDS));
+
+        // both queue up behind the first commit and go into the same transaction
+        final ListenableFuture<Void> put = batcher.put(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps);
+        final ListenableFuture<Void> delete = batcher.delete(LogicalDatastoreType.OPERATIONAL, CCAPS_IID);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        try {
+            put.get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(refused, e.getCause());
+        }
+        try {
+            delete.get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        verify(dataBroker, times(2)).newWriteOnlyTransaction();
+        verify(transaction).delete(LogicalDatastoreType.OPERATIONAL, CCAPS_IID);
+
+        // the failures do not stop the batcher
+        batcher.merge(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps).get(5, TimeUnit.SECONDS);
+        verify(transaction, times(2)).merge(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps, true);
+    }
+
+    @Test
+    public void closedBatcherRejectsWrites() throws Exception {
+        batcher.close();
+        try {
+            batcher.put(LogicalDatastoreType.OPERATIONAL, CCAPS_IID, ccaps).get(5, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+}
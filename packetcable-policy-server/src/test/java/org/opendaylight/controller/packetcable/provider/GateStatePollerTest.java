@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.Qos;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.Apps;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.App;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.AppKey;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.Subscribers;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.Subscriber;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.SubscriberKey;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.Gates;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.Gate;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.GateBuilder;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.GateKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+
+public class GateStatePollerTest {
+
+    private static final String CCAP_ID = "ccap-1";
+    private static final long MIN_INTERVAL_MS = 20;
+    private static final long MAX_INTERVAL_MS = 160;
+
+    private final PCMMService pcmmService = mock(PCMMService.class);
+    private final DatastoreWriteBatcher writeBatcher = mock(DatastoreWriteBatcher.class);
+    private final AtomicInteger usage = new AtomicInteger();
+
+    private GateStatePoller poller;
+
+    @Before
+    public void setUp() {
+        when(pcmmService.getPcmmPdpSocket()).thenReturn(false);
+        when(pcmmService.getPcmmCcapClientIsConnected()).thenReturn(true);
+        // the usage of the "busy" gate grows with every poll, the one of the other gates stays at 0
+        when(pcmmService.sendGateInfoPipelined(any(String.class))).thenAnswer(invocation -> {
+            final String gatePathStr = (String) invocation.getArguments()[0];
+            final PCMMService.GateSendStatus status = mock(PCMMService.GateSendStatus.class);
+            when(status.didSucceed()).thenReturn(true);
+            when(status.getCopsGateState()).thenReturn("Committed");
+            when(status.getCopsGateStateReason()).thenReturn("Other");
+            when(status.getCopsGateTimeInfo()).thenReturn("1");
+            when(status.getCopsGateUsageInfo()).thenReturn(
+                    gatePathStr.endsWith("busy") ? Integer.toString(usage.incrementAndGet()) : "0");
+            return CompletableFuture.completedFuture(status);
+        });
+
+        poller = new GateStatePoller(ccapId -> CCAP_ID.equals(ccapId) ? pcmmService : null, writeBatcher,
+                MIN_INTERVAL_MS, MAX_INTERVAL_MS, 1000);
+    }
+
+    @After
+    public void tearDown() {
+        poller.close();
+    }
+
+    private static InstanceIdentifier<Gate> gateIid(final String gateId) {
+        return InstanceIdentifier.builder(Qos.class)
+                .child(Apps.class)
+                .child(App.class, new AppKey("app"))
+                .child(Subscribers.class)
+                .child(Subscriber.class, new SubscriberKey("10.0.0.1"))
+                .child(Gates.class)
+                .child(Gate.class, new GateKey(gateId))
+                .build();
+    }
+
+    private void addGate(final String gateId, final String ccapId) {
+        poller.addGate(gateIid(gateId), new GateBuilder()
+                .setGateId(gateId)
+                .setGatePath("app/10.0.0.1/" + gateId)
+                .setCcapId(ccapId)
+                .setCopsGateState("Committed/Other")
+                .setCopsGateUsageInfo("0")
+                .build());
+    }
+
+    private void pollFor(final long millis) throws InterruptedException {
+        final long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            poller.pollDueGates();
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void onlyChangedGatesAreWritten() throws Exception {
+        addGate("busy", CCAP_ID);
+        addGate("idle", CCAP_ID);
+        pollFor(10 * MAX_INTERVAL_MS);
+
+        verify(writeBatcher, atLeast(5)).merge(eq(LogicalDatastoreType.OPERATIONAL), eq(gateIid("busy")),
+                any(Gate.class));
+        verify(writeBatcher, never()).merge(eq(LogicalDatastoreType.OPERATIONAL), eq(gateIid("idle")),
+                any(Gate.class));
+
+        // the changing gate stays at the minimum interval while the other one backs off
+        assertEquals(MIN_INTERVAL_MS, poller.getIntervalMs("app/10.0.0.1/busy"));
+        assertEquals(MAX_INTERVAL_MS, poller.getIntervalMs("app/10.0.0.1/idle"));
+    }
+
+    @Test
+    public void removedGatesAreNoLongerPolled() throws Exception {
+        addGate("busy", CCAP_ID);
+        addGate("other", "ccap-2");
+        poller.removeGate("app/10.0.0.1/busy");
+        poller.removeCcap("ccap-2");
+        assertEquals(0, poller.getGateCount());
+
+        pollFor(3 * MIN_INTERVAL_MS);
+        verify(pcmmService, never()).sendGateInfoPipelined(any(String.class));
+        assertEquals(-1, poller.getIntervalMs("app/10.0.0.1/busy"));
+    }
+
+    @Test
+    public void gatesOfDisconnectedCcapsAreNotPolled() throws Exception {
+        when(pcmmService.getPcmmCcapClientIsConnected()).thenReturn(false);
+        addGate("busy", CCAP_ID);
+        addGate("unknown", "ccap-2");
+
+        pollFor(3 * MIN_INTERVAL_MS);
+        verify(pcmmService, never()).sendGateInfoPipelined(any(String.class));
+        verify(writeBatcher, never()).merge(any(LogicalDatastoreType.class), any(InstanceIdentifier.class),
+                any(Gate.class));
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.net.InetAddresses;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import org.junit.Test;
+
+public class IpAddressLiteralsTest {
+
+    private static final String[] VALID = {
+            "0.0.0.0",
+            "10.32.110.180",
+            "255.255.255.255",
+            "::",
+            "::1",
+            "1::",
+            "2001:db8::1",
+            "2001:DB8:85A3:0:0:8A2E:370:7334",
+            "2001:db8:85a3::8a2e:370:7334",
+            "fe80::1:2:3:4",
+            "1:2:3:4:5:6:7:8",
+            "1:2:3:4:5:6::8",
+            "::ffff:10.1.2.3",
+            "64:ff9b::192.0.2.33",
+            "1:2:3:4:5:6:1.2.3.4",
+    };
+
+    private static final String[] INVALID = {
+            "",
+            "localhost",
+            "cpe.example.com",
+            "10.0.0",
+            "10.0.0.0.1",
+            "10.0.0.256",
+            "10.0.0.1000",
+            "10..0.1",
+            ".10.0.0.1",
+            "10.0.0.1.",
+            "10.0.0.-1",
+            "10.0.0.1%eth0",
+            ":",
+            ":::",
+            ":1::2",
+            "1::2::3",
+            "1:2:3:4:5:6:7",
+            "1:2:3:4:5:6:7:8:9",
+            "1:2:3:4:5:6:7::8",
+            "1:2:3:4:5:6:7:8::",
+            "12345::",
+            "2001:db8::g",
+            "2001:db8:",
+            "::ffff:10.1.2",
+            "1:2:3:4:5:6:7:1.2.3.4",
+            "::1%",
+    };
+
+    @Test
+    public void validLiteralsMatchGuava() {
+        for (final String literal : VALID) {
+            assertTrue(literal, IpAddressLiterals.isLiteral(literal));
+            assertArrayEquals(literal, InetAddresses.forString(literal).getAddress(),
+                    IpAddressLiterals.forString(literal).getAddress());
+        }
+    }
+
+    @Test
+    public void invalidLiteralsAreRejected() {
+        for (final String literal : INVALID) {
+            assertFalse(literal, IpAddressLiterals.isLiteral(literal));
+            assertNull(literal, IpAddressLiterals.forString(literal));
+        }
+        assertNull(IpAddressLiterals.parse(null));
+    }
+
+    @Test
+    public void addressFamilies() {
+        assertEquals(4, IpAddressLiterals.parse("10.0.0.1").length);
+        assertEquals(16, IpAddressLiterals.parse("::ffff:10.0.0.1").length);
+        assertTrue(IpAddressLiterals.forString("10.0.0.1") instanceof Inet4Address);
+        assertTrue(IpAddressLiterals.forString("2001:db8::1") instanceof Inet6Address);
+    }
+
+    @Test
+    public void zoneIsIgnored() {
+        assertArrayEquals(IpAddressLiterals.parse("fe80::1"), IpAddressLiterals.parse("fe80::1%eth0"));
+    }
+
+}
@@ -22,12 +22,16 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -287,6 +291,66 @@ public class PCMMServiceTest {
                 expectedMsgStart);
     }
 
+    @Test
+    public void testAddInfoAndRemoveValidUpGatesAsync() throws Exception {
+        connectToCmts(service);
+        final Gate gate = makeGateObj("extrm_up", srcAddr, ServiceFlowDirection.Us, dstAddr);
+
+        // All the Gate-Sets are outstanding on the connection at once
+        final List<CompletableFuture<PCMMService.GateSendStatus>> sets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            sets.add(service.sendGateSetAsync(gatePath + i, cmAddrInet, gate).toCompletableFuture());
+        }
+        for (int i = 0; i < sets.size(); i++) {
+            final PCMMService.GateSendStatus status = sets.get(i).get();
+            assertThat(status.getMessage(),
+                    startsWith("200 OK - sendGateSet for " + ccapId + '/' + gatePath + i + " returned GateId"));
+            Assert.assertTrue(status.didSucceed());
+        }
+
+        final PCMMService.GateSendStatus dupStatus =
+                service.sendGateSetAsync(gatePath + 0, cmAddrInet, gate).toCompletableFuture().get();
+        assertThat(dupStatus.getMessage(),
+                startsWith("404 Not Found - sendGateSet for " + ccapId + '/' + gatePath + 0 + " already exists"));
+
+        final PCMMService.GateSendStatus infoStatus = service.sendGateInfoAsync(gatePath + 0).toCompletableFuture().get();
+        Assert.assertTrue(infoStatus.getMessage(), infoStatus.didSucceed());
+        Assert.assertEquals(sets.get(0).get().getCopsGateId(), infoStatus.getCopsGateId());
+
+        final List<CompletableFuture<PCMMService.GateSendStatus>> deletes = new ArrayList<>();
+        for (int i = 0; i < sets.size(); i++) {
+            deletes.add(service.sendGateDeleteAsync(gatePath + i).toCompletableFuture());
+        }
+        for (final CompletableFuture<PCMMService.GateSendStatus> delete : deletes) {
+            Assert.assertTrue(delete.get().didSucceed());
+        }
+        Assert.assertTrue(service.gateRequests.isEmpty());
+        Assert.assertFalse(service.sendGateDeleteAsync(gatePath + 0).toCompletableFuture().get().didSucceed());
+    }
+
+    @Test
+    public void testOverlappingGateInfo() throws Exception {
+        connectToCmts(service);
+        final Gate gate = makeGateObj("extrm_up", srcAddr, ServiceFlowDirection.Us, dstAddr);
+        final PCMMService.GateSendStatus setStatus = service.sendGateSet(gatePath, cmAddrInet, gate);
+        Assert.assertTrue(setStatus.getMessage(), setStatus.didSucceed());
+
+        // both requests are awaiting their report at once, each must be completed by its own
+        final CompletableFuture<PCMMService.GateSendStatus> first =
+                service.sendGateInfoAsync(gatePath).toCompletableFuture();
+        final CompletableFuture<PCMMService.GateSendStatus> second =
+                service.sendGateInfoAsync(gatePath).toCompletableFuture();
+        for (final CompletableFuture<PCMMService.GateSendStatus> info : Arrays.asList(first, second)) {
+            final PCMMService.GateSendStatus status = info.get(2, TimeUnit.SECONDS);
+            Assert.assertTrue(status.getMessage(), status.didSucceed());
+            Assert.assertEquals(setStatus.getCopsGateId(), status.getCopsGateId());
+        }
+
+        // the gate set is left untouched by the Gate-Info requests
+        Assert.assertNotNull(service.gateRequests.get(gatePath).getGateSpec());
+        Assert.assertTrue(deleteGate(service, gatePath));
+    }
+
     /**
      * This tests the instantiation of a COPSDecisionMsg object that is responsible for setting a gate request,
      * streams it over a mock Socket object and parses the bytes into a new COPSDecisionMsg object which should
@@ -1,28 +1,47 @@
 package org.opendaylight.controller.packetcable.provider;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.InetAddress;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
+import org.opendaylight.yang.gen.v1.urn.packetcable.rev170224.pcmm.qos.gates.apps.app.subscribers.subscriber.gates.GateBuilder;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PacketcableProviderTest {
 
     @Mock InetAddress inetAddress;
     @Mock PacketcableProvider packetCableProv;
+    @Mock DataBroker dataBroker;
+    @Mock RpcProviderRegistry rpcProviderRegistry;
+    @Mock PCMMService pcmmService;
+
+    private PacketcableProvider provider;
 
     @Before
     public void setUp() throws Exception {
         when(packetCableProv.getInetAddress(any(String.class))).thenReturn(inetAddress);
+        provider = new PacketcableProvider(dataBroker, rpcProviderRegistry);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        provider.close();
     }
 
     @Test
@@ -37,4 +56,66 @@ public class PacketcableProviderTest {
       verify(packetCableProv).getInetAddress("127.0.0.1");
     }
 
+    @Test
+    public final void testInitialGateStateFormat() {
+        // must compare equal to the state polled from a committed gate, so the first poll does not rewrite it
+        assertEquals("Committed(4)/Zero(0)", PacketcableProvider.INITIAL_COPS_GATE_STATE);
+    }
+
+    @Test
+    public final void testCreatedGateFromGateSetAck() {
+        provider.setGateInfoOnCreate(false);
+        final GateBuilder gateBuilder = new GateBuilder();
+        provider.fillCreatedGate(pcmmService, "gate", gateSetStatus(), gateBuilder).toCompletableFuture().join();
+
+        verify(pcmmService, never()).sendGateInfoAsync(any(String.class));
+        assertEquals("42", gateBuilder.getCopsGateId());
+        assertEquals(PacketcableProvider.INITIAL_COPS_GATE_STATE, gateBuilder.getCopsGateState());
+        assertEquals(PacketcableProvider.INITIAL_COPS_GATE_TIME_INFO, gateBuilder.getCopsGateTimeInfo());
+        assertEquals(PacketcableProvider.INITIAL_COPS_GATE_USAGE_INFO, gateBuilder.getCopsGateUsageInfo());
+    }
+
+    @Test
+    public final void testCreatedGateFromGateInfo() {
+        final PCMMService.GateSendStatus infoStatus = pcmmService.new GateSendStatus();
+        infoStatus.setDidSucceed(true);
+        infoStatus.setCopsGateState("Committed(4)");
+        infoStatus.setCopsGateStateReason("Zero(0)");
+        infoStatus.setCopsGateTimeInfo("7");
+        infoStatus.setCopsGateUsageInfo("8");
+        when(pcmmService.sendGateInfoAsync("gate")).thenReturn(CompletableFuture.completedFuture(infoStatus));
+
+        provider.setGateInfoOnCreate(true);
+        final GateBuilder gateBuilder = new GateBuilder();
+        provider.fillCreatedGate(pcmmService, "gate", gateSetStatus(), gateBuilder).toCompletableFuture().join();
+
+        verify(pcmmService).sendGateInfoAsync("gate");
+        assertEquals("42", gateBuilder.getCopsGateId());
+        assertEquals("Committed(4)/Zero(0)", gateBuilder.getCopsGateState());
+        assertEquals("7", gateBuilder.getCopsGateTimeInfo());
+        assertEquals("8", gateBuilder.getCopsGateUsageInfo());
+    }
+
+    @Test
+    public final void testCreatedGateInfoFailure() {
+        final PCMMService.GateSendStatus infoStatus = pcmmService.new GateSendStatus();
+        infoStatus.setDidSucceed(false);
+        infoStatus.setMessage("Gate-Info Request Timeout for ccap");
+        when(pcmmService.sendGateInfoAsync("gate")).thenReturn(CompletableFuture.completedFuture(infoStatus));
+
+        provider.setGateInfoOnCreate(true);
+        final GateBuilder gateBuilder = new GateBuilder();
+        provider.fillCreatedGate(pcmmService, "gate", gateSetStatus(), gateBuilder).toCompletableFuture().join();
+
+        assertEquals("42", gateBuilder.getCopsGateId());
+        assertEquals(Collections.singletonList("Gate-Info Request Timeout for ccap"), gateBuilder.getError());
+    }
+
+    private PCMMService.GateSendStatus gateSetStatus() {
+        final PCMMService.GateSendStatus status = pcmmService.new GateSendStatus();
+        status.setDidSucceed(true);
+        status.setCopsGateId("42");
+        return status;
+    }
+
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+
+public class RequestWindowTest {
+
+    @Test
+    public void atMostTheWindowIsOutstanding() throws Exception {
+        final List<CompletableFuture<String>> sent = new ArrayList<>();
+        final RequestWindow<Integer, String> window = new RequestWindow<>(request -> {
+            final CompletableFuture<String> response = new CompletableFuture<>();
+            sent.add(response);
+            return response;
+        }, 3, MoreExecutors.directExecutor());
+
+        final List<CompletionStage<String>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(window.send(i));
+        }
+        assertEquals(3, sent.size());
+        assertEquals(3, window.getOutstanding());
+        assertEquals(7, window.getQueued());
+
+        // each response lets one queued request through, in order
+        for (int i = 0; i < 10; i++) {
+            sent.get(i).complete("response " + i);
+            assertEquals("response " + i, responses.get(i).toCompletableFuture().get());
+            assertEquals(Math.min(10, i + 4), sent.size());
+        }
+        assertEquals(0, window.getOutstanding());
+        assertEquals(0, window.getQueued());
+    }
+
+    @Test
+    public void immediateResponsesDoNotRecurse() throws Exception {
+        final RequestWindow<Integer, Integer> window =
+                new RequestWindow<>(request -> CompletableFuture.completedFuture(request * 2), 1,
+                        MoreExecutors.directExecutor());
+        final CompletableFuture<Integer> blocked = new CompletableFuture<>();
+        final RequestWindow<Integer, Integer> blockedWindow = new RequestWindow<>(request -> blocked, 1,
+                MoreExecutors.directExecutor());
+
+        // queue far more requests than the stack could take if every completion sent the next one recursively
+        blockedWindow.send(0);
+        final List<CompletionStage<Integer>> responses = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            responses.add(blockedWindow.send(i));
+        }
+        blocked.complete(-1);
+        for (final CompletionStage<Integer> response : responses) {
+            assertEquals(-1, (int) response.toCompletableFuture().get());
+        }
+
+        assertEquals(84, (int) window.send(42).toCompletableFuture().get());
+    }
+
+    @Test
+    public void failuresFreeTheirSlot() throws Exception {
+        final RequestWindow<Integer, Integer> window = new RequestWindow<>(request -> {
+            if (request == 0) {
+                throw new IllegalStateException("not sent");
+            }
+            final CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalArgumentException("refused"));
+            return failed;
+        }, 1, MoreExecutors.directExecutor());
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                window.send(i).toCompletableFuture().get();
+                fail("Expected ExecutionException");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RuntimeException);
+            }
+        }
+        assertEquals(0, window.getOutstanding());
+    }
+
+    @Test
+    public void freedRequestsAreSentOnTheExecutor() throws Exception {
+        final List<CompletableFuture<String>> sent = new ArrayList<>();
+        final List<Thread> senders = new ArrayList<>();
+        final List<Runnable> tasks = new ArrayList<>();
+        final RequestWindow<Integer, String> window = new RequestWindow<>(request -> {
+            final CompletableFuture<String> response = new CompletableFuture<>();
+            sent.add(response);
+            senders.add(Thread.currentThread());
+            return response;
+        }, 1, tasks::add);
+
+        final CompletionStage<String> first = window.send(0);
+        final CompletionStage<String> second = window.send(1);
+        assertEquals(1, sent.size());
+
+        // the thread completing the first response does not send the second request
+        sent.get(0).complete("response 0");
+        assertEquals("response 0", first.toCompletableFuture().get());
+        assertEquals(1, sent.size());
+        assertEquals(1, tasks.size());
+
+        final Thread executor = new Thread(tasks.get(0));
+        executor.start();
+        executor.join();
+        assertEquals(2, sent.size());
+        assertSame(executor, senders.get(1));
+
+        // nothing is queued any more, completing does not use the executor
+        sent.get(1).complete("response 1");
+        assertEquals("response 1", second.toCompletableFuture().get());
+        assertEquals(1, tasks.size());
+        assertEquals(0, window.getOutstanding());
+    }
+
+}
@@ -334,4 +334,49 @@ public class SubnetTest {
         assertFalse(subnet.isInNet(addressV4));
 
     }
+
+    @Test
+    public final void testIsInNetAddressBytes()
+    {
+        Subnet subnet = new Subnet(addressV4, CLASS_C);
+        assertTrue(subnet.isInNet(new byte[] {(byte) 192, (byte) 168, 0, (byte) 200}));
+        assertFalse(subnet.isInNet(new byte[] {(byte) 192, (byte) 168, 1, 1}));
+        assertFalse(subnet.isInNet(addressV6.getAddress()));
+        assertFalse(subnet.isInNet(new byte[6]));
+
+        subnet = new Subnet(addressV6, 64);
+        assertTrue(subnet.isInNet(InetAddresses.forString("2001:db8::ffff").getAddress()));
+        assertFalse(subnet.isInNet(InetAddresses.forString("2001:db8:0:1::1").getAddress()));
+        assertFalse(subnet.isInNet(addressV4.getAddress()));
+    }
+
+    @Test
+    public final void testIsInNetAddressWords()
+    {
+        Subnet subnet = new Subnet(addressV4, CLASS_B);
+        assertTrue(subnet.isInNet(0xc0a80101));
+        assertFalse(subnet.isInNet(0xc0a70101));
+        assertFalse(subnet.isInNet(0x20010db800000000L, 1L));
+
+        subnet = new Subnet(addressV6, 72);
+        assertTrue(subnet.isInNet(0x20010db800000000L, 0x00ffffffffffffffL));
+        assertFalse(subnet.isInNet(0x20010db800000000L, 0x0100000000000000L));
+        assertFalse(subnet.isInNet(0x20010db8));
+    }
+
+    @Test
+    public final void testToStringV6() throws UnknownHostException
+    {
+        final Subnet subnet = Subnet.createInstance("2001:db8:85a3:880::1/57");
+        assertThat(subnet.toString(),
+                is("2001:0db8:85a3:0880:0000:0000:0000:0000/ffff:ffff:ffff:ff80:0000:0000:0000:0000"));
+        assertThat(subnet, is(equalTo(Subnet.createInstance("2001:db8:85a3:8ff::/57"))));
+        assertThat(subnet, is(not(equalTo(Subnet.createInstance("2001:db8:85a3:900::/57")))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testCreateInstanceNonContiguousMask() throws UnknownHostException
+    {
+        Subnet.createInstance("192.168.0.0/255.0.255.0");
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2015 CableLabs and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.controller.packetcable.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.common.net.InetAddresses;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class SubnetTrieTest {
+
+    private static InetAddress address(final String address) {
+        return InetAddresses.forString(address);
+    }
+
+    @Test
+    public void longestPrefixWins() throws UnknownHostException {
+        final SubnetTrie<String> trie = new SubnetTrie<>();
+        trie.put(Subnet.createInstance("10.0.0.0/8"), "a");
+        trie.put(Subnet.createInstance("10.32.0.0/16"), "b");
+        trie.put(Subnet.createInstance("10.32.110.0/24"), "c");
+        trie.put(Subnet.createInstance("10.32.110.180/32"), "d");
+
+        assertEquals("a", trie.lookup(address("10.1.2.3")));
+        assertEquals("b", trie.lookup(address("10.32.1.1")));
+        assertEquals("c", trie.lookup(address("10.32.110.1")));
+        assertEquals("d", trie.lookup(address("10.32.110.180")));
+        assertNull(trie.lookup(address("11.0.0.1")));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void familiesAreKeptApart() throws UnknownHostException {
+        final SubnetTrie<String> trie = new SubnetTrie<>();
+        trie.put(Subnet.createInstance("0.0.0.0/0"), "v4");
+        trie.put(Subnet.createInstance("2001:db8::/32"), "v6");
+
+        assertEquals("v4", trie.lookup(address("192.168.0.1")));
+        assertEquals("v6", trie.lookup(address("2001:db8::1")));
+        assertNull(trie.lookup(address("2001:db9::1")));
+        assertNull(trie.lookup(new byte[6]));
+    }
+
+    @Test
+    public void putReplacesAndRemoveRestoresShorterMatch() throws UnknownHostException {
+        final SubnetTrie<String> trie = new SubnetTrie<>();
+        final Subnet wide = Subnet.createInstance("2001:db8::/32");
+        final Subnet narrow = Subnet.createInstance("2001:db8:85a3::/48");
+        final Subnet sibling = Subnet.createInstance("2001:db8:85a4::/48");
+        trie.put(wide, "a");
+        trie.put(narrow, "b");
+        trie.put(sibling, "c");
+
+        assertEquals("b", trie.put(narrow, "d"));
+        assertEquals("d", trie.lookup(address("2001:db8:85a3::1")));
+
+        assertEquals("d", trie.remove(narrow));
+        assertNull(trie.remove(narrow));
+        assertEquals("a", trie.lookup(address("2001:db8:85a3::1")));
+        assertEquals("c", trie.lookup(address("2001:db8:85a4::1")));
+
+        assertEquals("a", trie.remove(wide));
+        assertNull(trie.lookup(address("2001:db8:85a3::1")));
+        assertEquals("c", trie.lookup(address("2001:db8:85a4::1")));
+        assertEquals(1, trie.size());
+
+        trie.clear();
+        assertNull(trie.lookup(address("2001:db8:85a4::1")));
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void matchesLinearScan() throws UnknownHostException {
+        final Random random = new Random(1);
+        final SubnetTrie<Subnet> trie = new SubnetTrie<>();
+        final Map<Subnet, Subnet> subnets = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            final byte[] bytes = new byte[random.nextBoolean() ? 4 : 16];
+            // keep the addresses close together so the subnets nest
+            bytes[0] = 10;
+            bytes[1] = (byte) random.nextInt(4);
+            bytes[2] = (byte) random.nextInt(4);
+            final int prefixLen = 8 + random.nextInt(bytes.length * 8 - 7);
+            final Subnet subnet = new Subnet(InetAddress.getByAddress(bytes), prefixLen);
+            subnets.put(subnet, subnet);
+            trie.put(subnet, subnet);
+        }
+        for (final Subnet subnet : subnets.keySet().toArray(new Subnet[0])) {
+            if (random.nextInt(4) == 0) {
+                subnets.remove(subnet);
+                assertEquals(subnet, trie.remove(subnet));
+            }
+        }
+        assertEquals(subnets.size(), trie.size());
+
+        for (int i = 0; i < 10000; i++) {
+            final byte[] bytes = new byte[random.nextBoolean() ? 4 : 16];
+            random.nextBytes(bytes);
+            bytes[0] = 10;
+            bytes[1] = (byte) random.nextInt(4);
+            bytes[2] = (byte) random.nextInt(4);
+            final InetAddress address = InetAddress.getByAddress(bytes);
+
+            Subnet expected = null;
+            for (final Subnet subnet : subnets.keySet()) {
+                if (subnet.isInNet(address) && (expected == null || subnet.getPrefixLen() > expected.getPrefixLen())) {
+                    expected = subnet;
+                }
+            }
+            assertEquals(expected, trie.lookup(address));
+        }
+    }
+
+}
@@ -47,6 +47,14 @@ public class SubscriberValidatorTest {
         validator.validate(subscriber, extentParams.getCurrentParam());
     }
 
+    @Test(expected = ValidationException.class)
+    public void hostNameSubscriberId() throws ValidationException {
+        final Subscriber subscriber = new SubscriberBuilder(buildValidSubscriber())
+                .setSubscriberId("cpe.example.com").setKey(null)
+                .build();
+        validator.validate(subscriber, extentParams.getCurrentParam());
+    }
+
     @Test(expected = ValidationException.class)
     public void nullGates() throws ValidationException {
         final Subscriber subscriber = new SubscriberBuilder(buildValidSubscriber())